@@ -1,12 +1,19 @@
 package de.uni_mannheim.informatik.dws.jrdf2vec;
 
 import de.uni_mannheim.informatik.dws.jrdf2vec.training.Gensim;
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.HnswIndex;
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.IWord2VecTrainer;
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.JavaWord2Vec;
 import de.uni_mannheim.informatik.dws.jrdf2vec.training.Word2VecConfiguration;
 import de.uni_mannheim.informatik.dws.jrdf2vec.training.Word2VecType;
 import de.uni_mannheim.informatik.dws.jrdf2vec.util.Util;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.MemoryParser;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.WalkGenerationMode;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.WalkGeneratorDefault;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.EdgeWeighting;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.GraphSnapshot;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.light.WalkGeneratorLight;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers.WalkFileFormat;
 
 import java.io.File;
 import java.time.Instant;
@@ -36,6 +43,16 @@ public class Main {
      */
     private static int numberOfThreads = -1;
 
+    /**
+     * The number of threads writing the walks. If larger than 1, each thread writes its own walk file shard.
+     */
+    private static int numberOfWalkWriterThreads = 1;
+
+    /**
+     * The format in which the walks are written.
+     */
+    private static WalkFileFormat walkFileFormat = WalkFileFormat.TEXT;
+
     /**
      * Dimensions for the vectors.
      */
@@ -87,6 +104,11 @@ public class Main {
      */
     private static WalkGenerationMode walkGenerationMode = null;
 
+    /**
+     * Edge weighting for the weighted walk generation modes (null: default of the parser).
+     */
+    private static EdgeWeighting edgeWeighting = null;
+
     /**
      * If true, only walks are generated and no embeddings are trained.
      * This can be beneficial when multiple configurations (e.g. SG and CBOW) shall be trained for only one set of walks.
@@ -103,6 +125,21 @@ public class Main {
      */
     private static boolean isVectorTextFileGeneration = true;
 
+    /**
+     * If true, the walks are streamed to the training while they are generated.
+     */
+    private static boolean isStreamingTraining = false;
+
+    /**
+     * If true, an index for most-similar queries is built after the training.
+     */
+    private static boolean isMostSimilarIndexGeneration = false;
+
+    /**
+     * The trainer for the embeddings. If null, gensim is used.
+     */
+    private static IWord2VecTrainer trainer = null;
+
 
     public static void main(String[] args) {
 
@@ -126,6 +163,11 @@ public class Main {
                 generateTextVectorFile(transformationSource);
                 return;
             }
+            String snapshotSource = getValue("-generateGraphSnapshot", args);
+            if(snapshotSource != null) {
+                generateGraphSnapshot(snapshotSource);
+                return;
+            }
         }
 
         if(containsIgnoreCase("-onlyTraining", args)){
@@ -194,6 +236,25 @@ public class Main {
         } else numberOfThreads = Runtime.getRuntime().availableProcessors() / 2;
         System.out.println("Using " + numberOfThreads + " threads for walk generation and training.");
 
+        String walkWriterThreadsText = getValue("-walkWriterThreads", args);
+        if (walkWriterThreadsText != null) {
+            try {
+                numberOfWalkWriterThreads = Integer.parseInt(walkWriterThreadsText);
+            } catch (NumberFormatException nfe) {
+                System.out.println("Could not parse the number of walk writer threads. Using default (1).");
+                numberOfWalkWriterThreads = 1;
+            }
+        } else numberOfWalkWriterThreads = 1;
+
+        String walkFileFormatText = getValue("-walkFileFormat", args);
+        if (walkFileFormatText != null) {
+            walkFileFormat = WalkFileFormat.getFormatFromString(walkFileFormatText);
+            if (walkFileFormat == null) {
+                System.out.println("Could not parse the walk file format. Using default (text).");
+                walkFileFormat = WalkFileFormat.TEXT;
+            }
+        } else walkFileFormat = WalkFileFormat.TEXT;
+
         String dimensionText = getValue("-dimension", args);
         dimensionText = (dimensionText == null) ? getValue("-dimensions", args) : dimensionText;
         if (dimensionText != null) {
@@ -256,6 +317,20 @@ public class Main {
             isVectorTextFileGeneration = true;
         }
 
+        isStreamingTraining = containsIgnoreCase("-streamingTraining", args);
+
+        isMostSimilarIndexGeneration = containsIgnoreCase("-mostSimilarIndex", args);
+
+        String trainerText = getValue("-trainer", args);
+        if (trainerText != null && trainerText.trim().equalsIgnoreCase("java")) {
+            trainer = new JavaWord2Vec();
+        } else {
+            if (trainerText != null && !trainerText.trim().equalsIgnoreCase("gensim")) {
+                System.out.println("Could not parse the trainer. Using default (gensim).");
+            }
+            trainer = null;
+        }
+
         // determining the configuration for the training
         String trainingModeText = getValue("-trainingMode", args);
         trainingModeText = (trainingModeText == null) ? getValue("-trainMode", args) : trainingModeText;
@@ -280,6 +355,14 @@ public class Main {
             walkGenerationMode = WalkGenerationMode.getModeFromString(walkGenerationModeText);
         }
 
+        String edgeWeightingText = getValue("-edgeWeighting", args);
+        if (edgeWeightingText != null) {
+            edgeWeighting = EdgeWeighting.getWeightingFromString(edgeWeightingText);
+            if (edgeWeighting == null) {
+                System.out.println("Could not parse the edge weighting. Using default (object_in_degree).");
+            }
+        } else edgeWeighting = null;
+
         Instant before, after;
 
         // -------------------
@@ -288,9 +371,13 @@ public class Main {
         if(isOnlyTraining){
             System.out.println("Only training is performed, no walks are going to be generated.");
             before = Instant.now();
-            String modelFilePathToWrite = walkDirectory.getAbsolutePath() + "/model.kv";
-            Gensim.getInstance().trainWord2VecModel(modelFilePathToWrite, walkDirectory.getAbsolutePath(), configuration);
-            Gensim.getInstance().writeModelAsTextFile(modelFilePathToWrite, walkDirectory.getAbsolutePath() + "/vectors.txt");
+            IWord2VecTrainer usedTrainer = (trainer == null) ? Gensim.getInstance() : trainer;
+            String modelFilePathToWrite = walkDirectory.getAbsolutePath() + "/" + usedTrainer.getModelFileName();
+            usedTrainer.trainWord2VecModel(modelFilePathToWrite, walkDirectory.getAbsolutePath(), configuration);
+            usedTrainer.writeModelAsTextFile(modelFilePathToWrite, walkDirectory.getAbsolutePath() + "/vectors.txt");
+            if (isMostSimilarIndexGeneration) {
+                HnswIndex.buildAndSave(new File(walkDirectory, "vectors.txt"), new File(walkDirectory, HnswIndex.INDEX_FILE_NAME), numberOfThreads);
+            }
             after = Instant.now();
             System.out.println("\nTotal Time:");
             System.out.println(Util.getDeltaTimeString(before, after));
@@ -319,12 +406,18 @@ public class Main {
             if (lightEntityFile != null) {
                 // light walk generation:
                 WalkGeneratorLight generatorLight = new WalkGeneratorLight(knowledgeGraphFile, lightEntityFile);
+                generatorLight.setNumberOfWalkWriterThreads(numberOfWalkWriterThreads);
+                generatorLight.setWalkFileFormat(walkFileFormat);
+                generatorLight.setEdgeWeighting(edgeWeighting);
                 walkGenerationMode = (walkGenerationMode == null) ? WalkGenerationMode.MID_WALKS : walkGenerationMode;
                 generatorLight.generateWalks(walkGenerationMode, numberOfThreads, numberOfWalks, depth, walkFile);
 
             } else {
                 // classic walk generation
                 WalkGeneratorDefault classicGenerator = new WalkGeneratorDefault(knowledgeGraphFile);
+                classicGenerator.setNumberOfWalkWriterThreads(numberOfWalkWriterThreads);
+                classicGenerator.setWalkFileFormat(walkFileFormat);
+                classicGenerator.setEdgeWeighting(edgeWeighting);
                 walkGenerationMode = (walkGenerationMode == null) ? WalkGenerationMode.RANDOM_WALKS_DUPLICATE_FREE : walkGenerationMode;
                 classicGenerator.generateWalks(walkGenerationMode, numberOfThreads, numberOfWalks, depth, walkFile);
             }
@@ -352,6 +445,10 @@ public class Main {
             // setting threads
             if (numberOfThreads > 0) rdf2vec.setNumberOfThreads(numberOfThreads);
 
+            // setting walk writer threads
+            if (numberOfWalkWriterThreads > 0) rdf2vec.setNumberOfWalkWriterThreads(numberOfWalkWriterThreads);
+            rdf2vec.setWalkFileFormat(walkFileFormat);
+
             // setting depth
             if (depth > 0) rdf2vec.setDepth(depth);
 
@@ -367,9 +464,21 @@ public class Main {
             // setting the walk generation mode
             rdf2vec.setWalkGenerationMode(walkGenerationMode);
 
+            // setting the edge weighting
+            rdf2vec.setEdgeWeighting(edgeWeighting);
+
             // set vector text file
             rdf2vec.setVectorTextFileGeneration(isVectorTextFileGeneration);
 
+            // set streaming training
+            rdf2vec.setStreamingTraining(isStreamingTraining);
+
+            // set most similar index
+            rdf2vec.setMostSimilarIndexGeneration(isMostSimilarIndexGeneration);
+
+            // set the trainer
+            rdf2vec.setTrainer(trainer);
+
             rdf2vec.setConfiguration(configuration);
             before = Instant.now();
             rdf2vec.train();
@@ -386,6 +495,10 @@ public class Main {
             // setting threads
             if (numberOfThreads > 0) rdf2VecLight.setNumberOfThreads(numberOfThreads);
 
+            // setting walk writer threads
+            if (numberOfWalkWriterThreads > 0) rdf2VecLight.setNumberOfWalkWriterThreads(numberOfWalkWriterThreads);
+            rdf2VecLight.setWalkFileFormat(walkFileFormat);
+
             // setting depth
             if (depth > 0) rdf2VecLight.setDepth(depth);
 
@@ -398,9 +511,21 @@ public class Main {
             // set vector text file
             rdf2VecLight.setVectorTextFileGeneration(isVectorTextFileGeneration);
 
+            // set streaming training
+            rdf2VecLight.setStreamingTraining(isStreamingTraining);
+
+            // set most similar index
+            rdf2VecLight.setMostSimilarIndexGeneration(isMostSimilarIndexGeneration);
+
+            // set the trainer
+            rdf2VecLight.setTrainer(trainer);
+
             // setting the walk generation mode
             rdf2VecLight.setWalkGenerationMode(walkGenerationMode);
 
+            // setting the edge weighting
+            rdf2VecLight.setEdgeWeighting(edgeWeighting);
+
             rdf2VecLight.setConfiguration(configuration);
             before = Instant.now();
             rdf2VecLight.train();
@@ -439,6 +564,31 @@ public class Main {
     }
 
 
+    /**
+     * Parses the given graph and persists it as binary snapshot next to the graph file.
+     *
+     * @param graphFilePath The path to the graph that shall be persisted.
+     */
+    private static void generateGraphSnapshot(String graphFilePath) {
+        File graphFile = new File(graphFilePath);
+        if(!graphFile.exists()){
+            System.out.println("The given file does not exist. Cannot generate graph snapshot.");
+            return;
+        }
+        WalkGeneratorDefault generator = new WalkGeneratorDefault(graphFile);
+        if(!(generator.parser instanceof MemoryParser)){
+            System.out.println("Snapshots can only be generated for graphs that are parsed into memory. Cannot generate graph snapshot.");
+            return;
+        }
+        String fileName = graphFile.getName();
+        int extensionPosition = fileName.lastIndexOf('.');
+        if(extensionPosition > 0) fileName = fileName.substring(0, extensionPosition);
+        File fileToGenerate = new File(graphFile.getAbsoluteFile().getParentFile(), fileName + GraphSnapshot.FILE_EXTENSION);
+        if(((MemoryParser) generator.parser).writeSnapshot(fileToGenerate)){
+            System.out.println("Graph snapshot written to " + fileToGenerate.getAbsolutePath());
+        }
+    }
+
     /**
      * Helper method.
      *
@@ -493,6 +643,15 @@ public class Main {
         return walkGenerationMode;
     }
 
+    /**
+     * Get the edge weighting for testing. Not required for operational usage.
+     *
+     * @return Edge weighting (null if not set).
+     */
+    public static EdgeWeighting getEdgeWeighting() {
+        return edgeWeighting;
+    }
+
     /**
      * Get depth for testing. Not required for operational usage.
      *
@@ -527,6 +686,10 @@ public class Main {
                 "    If added to the call, this switch will deactivate the training part so that only walks are generated. If training parameters are specified, they are ignored. The walk generation also works with the `-light` parameter.\n\n" +
                 "    -threads <number_of_threads> (default: (# of available processors) / 2)\n" +
                 "    This parameter allows you to set the number of threads that shall be used for the walk generation as well as for the training.\n\n" +
+                "    -walkWriterThreads <number_of_threads> (default: 1)\n" +
+                "    The number of threads that compress and write the walks. If larger than 1, each thread writes its own gzipped walk file in the walk directory.\n\n" +
+                "    -walkFileFormat <text|bin> (default: text)\n" +
+                "    The format of the walk files. bin writes the walks as varint-encoded ID sequences (walk_file.bin.gz) together with a vocabulary file (vocabulary.txt) in the walk directory.\n\n" +
                 "    -dimension <size_of_vector> (default: 200)\n" +
                 "    This parameter allows you to control the size of the resulting vectors (e.g. 100 for 100-dimensional vectors).\n\n" +
                 "    -depth <depth> (default: 4)\n" +
@@ -539,8 +702,16 @@ public class Main {
                 "    The minimum word count for the training. Unlike in the gensim defaults, this parameter is set to 1 because for KG embeddings, a vector for each node/arc is desired.\n\n" +
                 "    -noVectorTextFileGeneration | -vectorTextFileGeneration\n" +
                 "    A switch that indicates whether a text file with the vectors shall be persisted on the disk. This is enabled by default. Use -noVectorTextFileGeneration to disable the file generation.\n\n" +
-                "    -walkGenerationMode <MID_WALKS | MID_WALKS_DUPLICATE_FREE | RANDOM_WALKS | RANDOM_WALKS_DUPLICATE_FREE> (default for light: MID_WALKS, default for classic: RANDOM_WALKS_DUPLICATE_FREE)\n" +
-                "    This parameter determines the mode for the walk generation (multiple walk generation algorithms are available). Reasonable defaults are set.\n\n" +
+                "    -trainer <gensim|java> (default: gensim)\n" +
+                "    The word2vec implementation. java trains in-process (skip-gram/CBOW with negative sampling) without the Python server and writes the model in the binary word2vec format (model.w2v).\n\n" +
+                "    -streamingTraining\n" +
+                "    If added to the call, the walks are streamed to the training while they are generated so that the vocabulary is built in parallel to the walk generation. The training epochs start once all walks are written.\n\n" +
+                "    -mostSimilarIndex\n" +
+                "    If added to the call, an HNSW index for approximate most-similar queries is built from the vector text file and written next to the model (model.hnsw).\n\n" +
+                "    -walkGenerationMode <MID_WALKS | MID_WALKS_DUPLICATE_FREE | MID_WALKS_WEIGHTED | RANDOM_WALKS | RANDOM_WALKS_DUPLICATE_FREE | RANDOM_WALKS_WEIGHTED> (default for light: MID_WALKS, default for classic: RANDOM_WALKS_DUPLICATE_FREE)\n" +
+                "    This parameter determines the mode for the walk generation (multiple walk generation algorithms are available). Reasonable defaults are set. The weighted modes draw the next hop according to the edge weighting (see -edgeWeighting).\n\n" +
+                "    -edgeWeighting <object_in_degree | predicate_frequency | inverse_predicate_frequency> (default: object_in_degree)\n" +
+                "    The edge weights for the weighted walk generation modes: object_in_degree prefers edges to nodes with many incoming edges, predicate_frequency prefers frequent predicates, and inverse_predicate_frequency prefers rare predicates. Ignored by the other modes.\n\n" +
                 "    -walkDirectory <directory where walk files shall be generated/reside>\n" +
                 "    The directory where the walks shall be generated into. In case of -onlyTraining, the directory where the walks reside.\n\n" +
                 "    -onlyTraining\n" +
@@ -553,7 +724,11 @@ public class Main {
                 "A) Generation of Text Vector File\n" +
                 "   jRDF is compatible with the evaluation framework for KG embeddings (GEval). This framework requires the vectors to be present in a text file. If you have a gensim model or vector file, you can use the following parameter to generate this file:\n\n" +
                 "       -generateTextVectorFile <model_or_vector_file>\n" +
-                "        The file path to the model or vector file that shall be used to write the vectors in a text file needs to be specified.";
+                "        The file path to the model or vector file that shall be used to write the vectors in a text file needs to be specified.\n\n" +
+                "B) Generation of a Graph Snapshot\n" +
+                "   Parsing large N-Triples files takes time. You can parse a graph once and persist it as binary snapshot (file ending " + GraphSnapshot.FILE_EXTENSION + "). The snapshot can then be used as -graph; it is memory-mapped and loads within seconds:\n\n" +
+                "       -generateGraphSnapshot <graph_file>\n" +
+                "        The snapshot is written next to the given graph file.";
     }
 
     /**
@@ -564,13 +739,19 @@ public class Main {
         lightEntityFile = null;
         knowledgeGraphFile = null;
         numberOfThreads = -1;
+        numberOfWalkWriterThreads = 1;
+        walkFileFormat = WalkFileFormat.TEXT;
         dimensions = -1;
         depth = DEFAULT_DEPTH;
         numberOfWalks = DEFAULT_NUMBER_OF_WALKS;
         resourcesDirectory = null;
         rdf2VecInstance = null;
         walkGenerationMode = null;
+        edgeWeighting = null;
         isVectorTextFileGeneration = true;
+        isStreamingTraining = false;
+        isMostSimilarIndexGeneration = false;
+        trainer = null;
         isOnlyTraining = false;
     }
 
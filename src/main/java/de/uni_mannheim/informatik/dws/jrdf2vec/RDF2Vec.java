@@ -4,9 +4,14 @@ import de.uni_mannheim.informatik.dws.jrdf2vec.util.Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import de.uni_mannheim.informatik.dws.jrdf2vec.training.Gensim;
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.HnswIndex;
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.IWord2VecTrainer;
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.JavaWord2Vec;
 import de.uni_mannheim.informatik.dws.jrdf2vec.training.Word2VecConfiguration;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.WalkGenerationMode;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.WalkGeneratorDefault;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.EdgeWeighting;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers.WalkFileFormat;
 
 import java.io.File;
 import java.time.Instant;
@@ -28,6 +33,16 @@ public class RDF2Vec implements IRDF2Vec {
      */
     int numberOfThreads = Runtime.getRuntime().availableProcessors() / 2;
 
+    /**
+     * Default: 1. If larger than 1, each writer thread writes its own shard of walks.
+     */
+    int numberOfWalkWriterThreads = 1;
+
+    /**
+     * The format in which the walks are written.
+     */
+    WalkFileFormat walkFileFormat = WalkFileFormat.TEXT;
+
     /**
      * Walks to be performed per entity.
      */
@@ -83,12 +98,34 @@ public class RDF2Vec implements IRDF2Vec {
      */
     private WalkGenerationMode walkGenerationMode = WalkGenerationMode.RANDOM_WALKS_DUPLICATE_FREE;
 
+    /**
+     * Edge weighting for the weighted walk generation modes. If null, the default of the parser is used.
+     */
+    private EdgeWeighting edgeWeighting = null;
+
     /**
      * Indicator whether a text file with all the vectors shall be generated.
      * This is, for example, required when using the <a href="https://github.com/mariaangelapellegrino/Evaluation-Framework">evaluation framework for KG embeddings</a>.
      */
     boolean isVectorTextFileGeneration = true;
 
+    /**
+     * If true, the walks are streamed to the training while they are generated so that the vocabulary is built in
+     * parallel to the walk generation. The training epochs still start after the walk generation.
+     */
+    boolean isStreamingTraining = false;
+
+    /**
+     * If true, an {@link HnswIndex} for most-similar queries is built from the vector text file and persisted next to
+     * the model ({@link HnswIndex#INDEX_FILE_NAME}). Requires the vector text file generation.
+     */
+    boolean isMostSimilarIndexGeneration = false;
+
+    /**
+     * The trainer for the embeddings. If null, {@link Gensim} is used.
+     */
+    IWord2VecTrainer trainer = null;
+
     /**
      * Constructor
      *
@@ -118,27 +155,58 @@ public class RDF2Vec implements IRDF2Vec {
 
         Instant before = Instant.now();
         WalkGeneratorDefault classicGenerator = new WalkGeneratorDefault(this.knowledgeGraphFile);
+        classicGenerator.setNumberOfWalkWriterThreads(numberOfWalkWriterThreads);
+        classicGenerator.setWalkFileFormat(walkFileFormat);
+        classicGenerator.setEdgeWeighting(edgeWeighting);
+
+        String fileToWrite = this.getWalkFileDirectoryPath() + (trainer == null ? "model.kv" : trainer.getModelFileName());
+        Gensim gensim = null;
+        int walkStreamPort = -1;
+        if (isStreamingTraining) {
+            if (trainer == null) {
+                gensim = getGensim();
+                new File(getWalkFileDirectoryPath()).mkdirs();
+                walkStreamPort = gensim.openWord2VecWalkStream(fileToWrite, getWalkFileDirectoryPath(), this.configuration);
+                classicGenerator.setWalkStreamPort(walkStreamPort);
+            } else LOGGER.warn("Streaming training is only supported by gensim. The walks are generated first.");
+        }
         classicGenerator.generateWalks(walkGenerationMode, numberOfThreads, numberOfWalksPerEntity, depth, getWalkFilePath());
         Instant after = Instant.now();
         this.requiredTimeForLastWalkGenerationString = Util.getDeltaTimeString(before, after);
 
         before = Instant.now();
-        Gensim gensim;
-        if(this.pythonServerResourceDirectory != null) {
-            gensim = Gensim.getInstance(this.pythonServerResourceDirectory);
-        } else gensim = Gensim.getInstance();
+        IWord2VecTrainer usedTrainer = trainer;
+        if (usedTrainer == null) {
+            if (gensim == null) gensim = getGensim();
+            usedTrainer = gensim;
+        }
 
-        String fileToWrite = this.getWalkFileDirectoryPath() + "model.kv";
-        gensim.trainWord2VecModel(fileToWrite, getWalkFileDirectoryPath(), this.configuration);
+        if (walkStreamPort < 0 || !gensim.awaitWord2VecWalkStream(walkStreamPort)) {
+            if (walkStreamPort > 0) LOGGER.warn("Training on the walk stream failed. Training on the walk files.");
+            usedTrainer.trainWord2VecModel(fileToWrite, getWalkFileDirectoryPath(), this.configuration);
+        }
         if(isVectorTextFileGeneration) {
-            gensim.writeModelAsTextFile(fileToWrite, this.getWalkFileDirectoryPath() + "vectors.txt");
+            usedTrainer.writeModelAsTextFile(fileToWrite, this.getWalkFileDirectoryPath() + "vectors.txt");
         }
-        gensim.shutDown();
+        if (isMostSimilarIndexGeneration) {
+            if (isVectorTextFileGeneration) {
+                HnswIndex.buildAndSave(new File(this.getWalkFileDirectoryPath() + "vectors.txt"),
+                        new File(this.getWalkFileDirectoryPath() + HnswIndex.INDEX_FILE_NAME), numberOfThreads);
+            } else LOGGER.warn("The most similar index is built from the vector text file which is not generated. No index is built.");
+        }
+        // the server is kept alive for subsequent trainings if requested
+        if (gensim != null && !Gensim.isKeepServerAlive()) Gensim.shutDown();
         after = Instant.now();
         this.requiredTimeForLastTrainingString = Util.getDeltaTimeString(before, after);
     }
 
 
+    private Gensim getGensim() {
+        if (this.pythonServerResourceDirectory != null) {
+            return Gensim.getInstance(this.pythonServerResourceDirectory);
+        } else return Gensim.getInstance();
+    }
+
     public File getKnowledgeGraphFile() {
         return knowledgeGraphFile;
     }
@@ -155,6 +223,22 @@ public class RDF2Vec implements IRDF2Vec {
         this.numberOfThreads = numberOfThreads;
     }
 
+    public int getNumberOfWalkWriterThreads() {
+        return numberOfWalkWriterThreads;
+    }
+
+    public void setNumberOfWalkWriterThreads(int numberOfWalkWriterThreads) {
+        this.numberOfWalkWriterThreads = numberOfWalkWriterThreads;
+    }
+
+    public WalkFileFormat getWalkFileFormat() {
+        return walkFileFormat;
+    }
+
+    public void setWalkFileFormat(WalkFileFormat walkFileFormat) {
+        this.walkFileFormat = walkFileFormat;
+    }
+
     public int getNumberOfWalksPerEntity() {
         return numberOfWalksPerEntity;
     }
@@ -257,6 +341,20 @@ public class RDF2Vec implements IRDF2Vec {
         return this.walkGenerationMode;
     }
 
+    public EdgeWeighting getEdgeWeighting() {
+        return edgeWeighting;
+    }
+
+    /**
+     * Set the edge weighting which is used if a weighted walk generation mode is set
+     * (see {@link #setWalkGenerationMode(WalkGenerationMode)}).
+     *
+     * @param edgeWeighting The edge weighting. If null, {@link EdgeWeighting#OBJECT_IN_DEGREE} is used (default).
+     */
+    public void setEdgeWeighting(EdgeWeighting edgeWeighting) {
+        this.edgeWeighting = edgeWeighting;
+    }
+
     public boolean isVectorTextFileGeneration() {
         return isVectorTextFileGeneration;
     }
@@ -264,4 +362,33 @@ public class RDF2Vec implements IRDF2Vec {
     public void setVectorTextFileGeneration(boolean vectorTextFileGeneration) {
         isVectorTextFileGeneration = vectorTextFileGeneration;
     }
+
+    public boolean isStreamingTraining() {
+        return isStreamingTraining;
+    }
+
+    public void setStreamingTraining(boolean streamingTraining) {
+        isStreamingTraining = streamingTraining;
+    }
+
+    public boolean isMostSimilarIndexGeneration() {
+        return isMostSimilarIndexGeneration;
+    }
+
+    public void setMostSimilarIndexGeneration(boolean mostSimilarIndexGeneration) {
+        isMostSimilarIndexGeneration = mostSimilarIndexGeneration;
+    }
+
+    public IWord2VecTrainer getTrainer() {
+        return trainer;
+    }
+
+    /**
+     * Set the trainer for the embeddings, e.g. {@link JavaWord2Vec} in order to train without the Python server.
+     *
+     * @param trainer The trainer. If null, {@link Gensim} is used (default).
+     */
+    public void setTrainer(IWord2VecTrainer trainer) {
+        this.trainer = trainer;
+    }
 }
@@ -0,0 +1,50 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.training;
+
+import java.util.Objects;
+
+/**
+ * Two concepts whose similarity shall be determined (see {@link Gensim#getSimilarities(java.util.List, String)}).
+ */
+public class ConceptPair {
+
+    private final String concept1;
+
+    private final String concept2;
+
+    /**
+     * Constructor
+     *
+     * @param concept1 First concept.
+     * @param concept2 Second concept.
+     */
+    public ConceptPair(String concept1, String concept2) {
+        this.concept1 = concept1;
+        this.concept2 = concept2;
+    }
+
+    public String getConcept1() {
+        return concept1;
+    }
+
+    public String getConcept2() {
+        return concept2;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ConceptPair that = (ConceptPair) o;
+        return Objects.equals(concept1, that.concept1) && Objects.equals(concept2, that.concept2);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(concept1, concept2);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + concept1 + ", " + concept2 + ")";
+    }
+}
@@ -3,21 +3,32 @@ package de.uni_mannheim.informatik.dws.jrdf2vec.training;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.conn.HttpHostConnectException;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -25,11 +36,12 @@ import java.util.stream.Collectors;
 /**
  * A client class to communicate with python <a href="https://radimrehurek.com/gensim/">gensim</a> library.
  * Singleton pattern.
- * Communication is performed through HTTP requests.
+ * Communication is performed through HTTP requests. The client can be used by multiple threads concurrently: the
+ * connections are pooled (see {@link #setMaxConnections(int)}) and the server handles requests in parallel.
  * In case you need a different python environment or python executable, create a file in directory python_server
  * named {@code python_command.txt} and write your absolute path of the python executable in that file.
  */
-public class Gensim {
+public class Gensim implements IWord2VecTrainer {
 
     /**
      * Default logger
@@ -41,6 +53,37 @@ public class Gensim {
      */
     private static final String DEFAULT_RESOURCES_DIRECTORY = "./python-server/";
 
+    /**
+     * Name of the file which is written by the server once it accepts connections (written into the resources
+     * directory).
+     */
+    private static final String SERVER_READY_FILE_NAME = "server_ready.txt";
+
+    /**
+     * The maximal time in seconds to wait for the server to start.
+     */
+    private static final int SERVER_START_TIMEOUT = 60;
+
+    /**
+     * The interval in milliseconds in which the readiness of the server is checked during the start.
+     */
+    private static final int SERVER_POLL_INTERVAL = 10;
+
+    /**
+     * Precedes the SHA-256 hash of the server script in the status message of the server ({@code /melt_ml.html}).
+     */
+    private static final String SCRIPT_HASH_PREFIX = "Script hash: ";
+
+    /**
+     * The maximal number of concepts (or concept pairs) which are sent to the server in a single batch request.
+     */
+    private static final int BATCH_SIZE = 10000;
+
+    /**
+     * The MIME type of binary server responses. Other responses are error messages.
+     */
+    private static final String BINARY_MIME_TYPE = "application/octet-stream";
+
     /**
      * Constructor
      */
@@ -67,9 +110,25 @@ public class Gensim {
     private static boolean isShutDown = true;
 
     /**
-     * Local vector cache.
+     * If true, the server is kept alive after a training so that it can be reused by subsequent trainings
+     * (see {@link #setKeepServerAlive(boolean)}).
+     */
+    private static boolean isKeepServerAlive = false;
+
+    /**
+     * Local vector caches (model or vector path -> cache).
+     */
+    private final Map<String, VectorCache> vectorCaches = new ConcurrentHashMap<>();
+
+    /**
+     * The models which are trained on walk streams that have not been awaited yet (port -> model or vector path).
+     */
+    private final Map<Integer, String> walkStreamModels = new ConcurrentHashMap<>();
+
+    /**
+     * The capacity of each vector cache in bytes.
      */
-    private HashMap<String, Double[]> vectorCache;
+    private long vectorCacheCapacity = VectorCache.DEFAULT_CAPACITY;
 
     /**
      * Indicates whether the shutdown hook has been initialized.
@@ -146,8 +205,95 @@ public class Gensim {
      * @param configuration The configuration for the training operation.
      * @return True if training succeeded, else false.
      */
+    @Override
     public boolean trainWord2VecModel(String modelOrVectorPath, String trainingFilePath, Word2VecConfiguration configuration){
         HttpGet request = new HttpGet(serverUrl + "/train-word2vec");
+        addWord2VecTrainingHeaders(request, modelOrVectorPath, trainingFilePath, configuration);
+        boolean isSuccessful = executeBooleanRequest(request);
+        // the cached vectors belong to the previous model (if any)
+        dropVectorCaches(modelOrVectorPath);
+        return isSuccessful;
+    }
+
+    /**
+     * Method to train a word2vec model on walks which are still being generated. The server opens a local port to
+     * which the walks are streamed (see
+     * {@link de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.WalkGenerator#setWalkStreamPort(int)}).
+     * The vocabulary is built from the stream while the walks are generated. Once the stream is closed, the walk files
+     * are complete and the training epochs are run on them. Call {@link #awaitWord2VecWalkStream(int)} after the
+     * walk generation in order to wait for the model.
+     * @param modelOrVectorPath If a vector file is desired, the file ending '.kv' is required.
+     * @param trainingFilePath The path to the walk file or directory to which the walks are written in parallel.
+     * @param configuration The configuration for the training operation.
+     * @return The port to which the walks shall be streamed or -1 in case of an error.
+     */
+    public int openWord2VecWalkStream(String modelOrVectorPath, String trainingFilePath, Word2VecConfiguration configuration){
+        HttpGet request = new HttpGet(serverUrl + "/open-walk-stream");
+        addWord2VecTrainingHeaders(request, modelOrVectorPath, trainingFilePath, configuration);
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                LOGGER.error("No server response.");
+                return -1;
+            }
+            String resultString = EntityUtils.toString(entity);
+            if (resultString.startsWith("ERROR") || resultString.contains("500 Internal Server Error")) {
+                LOGGER.error(resultString);
+                return -1;
+            }
+            int port = Integer.parseInt(resultString.trim());
+            walkStreamModels.put(port, modelOrVectorPath);
+            return port;
+        } catch (IOException ioe) {
+            LOGGER.error("Problem with http request.", ioe);
+            return -1;
+        } catch (NumberFormatException nfe) {
+            LOGGER.error("Could not parse the port of the walk stream.", nfe);
+            return -1;
+        }
+    }
+
+    /**
+     * Wait for the training on a walk stream (see {@link #openWord2VecWalkStream(String, String, Word2VecConfiguration)}).
+     * Must be called after the walk stream has been closed, i.e., after the walk generation.
+     * @param port The port of the walk stream.
+     * @return True if training succeeded, else false.
+     */
+    public boolean awaitWord2VecWalkStream(int port){
+        HttpGet request = new HttpGet(serverUrl + "/await-walk-stream");
+        request.addHeader("port", "" + port);
+        boolean isSuccessful = executeBooleanRequest(request);
+        String modelOrVectorPath = walkStreamModels.remove(port);
+        if (modelOrVectorPath != null) dropVectorCaches(modelOrVectorPath);
+        return isSuccessful;
+    }
+
+    /**
+     * Drop the vector caches of a model and of its vector file, e.g. because the model has been retrained.
+     * @param modelOrVectorPath The path to the model or vector file.
+     */
+    private void dropVectorCaches(String modelOrVectorPath) {
+        String modelPath = getCanonicalModelPath(modelOrVectorPath);
+        vectorCaches.keySet().removeIf(path -> getCanonicalModelPath(path).equals(modelPath));
+    }
+
+    /**
+     * Obtain the canonical path of the model which belongs to the given model or vector file. In contrast to
+     * {@link #getCanonicalPath(String)}, the file does not need to exist.
+     * @param modelOrVectorPath The path to the model or vector file.
+     * @return The canonical model path.
+     */
+    private static String getCanonicalModelPath(String modelOrVectorPath) {
+        File modelFile = new File(modelOrVectorPath.endsWith(".kv") ?
+                modelOrVectorPath.substring(0, modelOrVectorPath.length() - 3) : modelOrVectorPath);
+        try {
+            return modelFile.getCanonicalPath();
+        } catch (IOException e) {
+            return modelFile.getAbsolutePath();
+        }
+    }
+
+    private void addWord2VecTrainingHeaders(HttpGet request, String modelOrVectorPath, String trainingFilePath, Word2VecConfiguration configuration){
         if (modelOrVectorPath.endsWith(".kv")) {
             request.addHeader("vector_path", modelOrVectorPath);
             request.addHeader("model_path", modelOrVectorPath.substring(0, modelOrVectorPath.length() - 3));
@@ -165,7 +311,14 @@ public class Gensim {
         request.addHeader("cbow_or_sg", configuration.getType().toString());
         request.addHeader("min_count", "" + configuration.getMinCount());
         request.addHeader("sample", "" + configuration.getSample());
+    }
 
+    /**
+     * Execute a request whose response is 'True' or 'False'.
+     * @param request The request.
+     * @return The parsed response; false in case of an error.
+     */
+    private boolean executeBooleanRequest(HttpGet request){
         try (CloseableHttpResponse response = httpClient.execute(request)) {
             HttpEntity entity = response.getEntity();
             if (entity == null) {
@@ -196,8 +349,8 @@ public class Gensim {
     public double getSimilarity(String concept1, String concept2, String modelOrVectorPath) {
         if (isVectorCaching) {
             // caching is enabled: do not use gensim library but cache vectors and calculate in java on demand
-            Double[] v1 = getVector(concept1, modelOrVectorPath);
-            Double[] v2 = getVector(concept2, modelOrVectorPath);
+            float[] v1 = getFloatVector(concept1, modelOrVectorPath);
+            float[] v2 = getFloatVector(concept2, modelOrVectorPath);
             if (v1 != null && v2 != null) {
                 return this.cosineSimilarity(v1, v2);
             }
@@ -233,53 +386,204 @@ public class Gensim {
      * @return The vector for the specified concept.
      */
     public Double[] getVector(String concept, String modelOrVectorPath) {
+        float[] vector = getFloatVector(concept, modelOrVectorPath);
+        if (vector == null) return null;
+        Double[] result = new Double[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            result[i] = (double) vector[i];
+        }
+        return result;
+    }
 
-        String v1key = concept + "-" + modelOrVectorPath;
+    /**
+     * Returns the vector of a concept. If vector caching is enabled, the vector is served from (and added to) the
+     * vector cache of the model.
+     *
+     * @param concept The concept for which the vector shall be obtained.
+     * @param modelOrVectorPath The model path or vector file path leading to the file to be used.
+     * @return The vector for the specified concept (must not be modified) or null if it cannot be obtained.
+     */
+    public float[] getFloatVector(String concept, String modelOrVectorPath) {
+        VectorCache cache = null;
         if (isVectorCaching) {
-            if (vectorCache.containsKey(v1key)) {
-                return vectorCache.get(v1key);
+            cache = getVectorCache(modelOrVectorPath);
+            float[] vector = cache.get(concept);
+            if (vector != null) return vector;
+        }
+
+        Map<String, float[]> result = new HashMap<>();
+        if (!requestVectors(Collections.singletonList(concept), modelOrVectorPath, result, cache)) return null;
+        return result.get(concept);
+    }
+
+    /**
+     * Returns the vectors of multiple concepts. In contrast to {@link #getVector(String, String)}, the concepts are
+     * sent to the server in batches (POST request, one concept per line) and the vectors are transferred as binary
+     * little-endian float32 values. If vector caching is enabled, only the vectors which are not cached are
+     * requested and they are added to the vector cache of the model.
+     *
+     * @param concepts          The concepts for which the vectors shall be obtained. Concepts must not contain line
+     *                          breaks.
+     * @param modelOrVectorPath The path to the model or vector file. Note that the vector file MUST end with .kv in
+     *                          order to be recognized as vector file.
+     * @return Concept to vector map (the vectors must not be modified); concepts which are not in the vocabulary are
+     * not contained. Null in case of failure.
+     */
+    public Map<String, float[]> getVectors(Collection<String> concepts, String modelOrVectorPath) {
+        Map<String, float[]> result = new HashMap<>();
+        List<String> conceptList = new ArrayList<>();
+        VectorCache cache = isVectorCaching ? getVectorCache(modelOrVectorPath) : null;
+        for (String concept : new LinkedHashSet<>(concepts)) {
+            float[] vector = cache == null ? null : cache.get(concept);
+            if (vector == null) {
+                conceptList.add(concept);
+            } else {
+                result.put(concept, vector);
             }
         }
+        return requestVectors(conceptList, modelOrVectorPath, result, cache) ? result : null;
+    }
 
-        HttpGet request = new HttpGet(serverUrl + "/get-vector");
-        request.addHeader("concept", concept);
-        addModelToRequest(request, modelOrVectorPath);
+    /**
+     * Request the vectors of the concepts from the server (binary protocol of {@code /get-vectors}).
+     *
+     * @param concepts          The concepts (no duplicates).
+     * @param modelOrVectorPath The path to the model or vector file.
+     * @param result            Receives the vectors of the concepts which are in the vocabulary.
+     * @param cache             Receives the vectors as well (may be null).
+     * @return False in case of failure, else true.
+     */
+    private boolean requestVectors(List<String> concepts, String modelOrVectorPath, Map<String, float[]> result, VectorCache cache) {
+        for (int start = 0; start < concepts.size(); start += BATCH_SIZE) {
+            List<String> batch = concepts.subList(start, Math.min(start + BATCH_SIZE, concepts.size()));
+            ByteBuffer buffer = executeBinaryRequest("/get-vectors", String.join("\n", batch), modelOrVectorPath);
+            if (buffer == null) return false;
+
+            // layout: dimension (int32), one byte per concept (1 if in vocabulary), vectors of the found concepts
+            int dimension = buffer.getInt();
+            byte[] isFound = new byte[batch.size()];
+            buffer.get(isFound);
+            FloatBuffer floats = buffer.asFloatBuffer();
+            for (int i = 0; i < isFound.length; i++) {
+                if (isFound[i] == 0) continue;
+                if (floats.remaining() < dimension) {
+                    LOGGER.error("The server response is incomplete.");
+                    return false;
+                }
+                float[] vector = new float[dimension];
+                floats.get(vector);
+                result.put(batch.get(i), vector);
+                if (cache != null) {
+                    cache.put(batch.get(i), vector);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the similarities of multiple concept pairs. The pairs are sent to the server in batches
+     * (POST request, one pair per line) and the similarities are transferred as binary little-endian float32 values.
+     *
+     * @param pairs             The concept pairs. Concepts must not contain line breaks or tabs.
+     * @param modelOrVectorPath The path to the model or vector file. Note that the vector file MUST end with .kv in
+     *                          order to be recognized as vector file.
+     * @return One similarity per pair (same order) where -1.0 indicates that a concept is not in the vocabulary.
+     * Null in case of failure.
+     */
+    public double[] getSimilarities(List<ConceptPair> pairs, String modelOrVectorPath) {
+        double[] result = new double[pairs.size()];
+        for (int start = 0; start < pairs.size(); start += BATCH_SIZE) {
+            List<ConceptPair> batch = pairs.subList(start, Math.min(start + BATCH_SIZE, pairs.size()));
+            StringBuilder body = new StringBuilder();
+            for (ConceptPair pair : batch) {
+                if (body.length() > 0) body.append('\n');
+                body.append(pair.getConcept1()).append('\t').append(pair.getConcept2());
+            }
+            ByteBuffer buffer = executeBinaryRequest("/get-similarities", body.toString(), modelOrVectorPath);
+            if (buffer == null) return null;
+            if (buffer.remaining() != batch.size() * Float.BYTES) {
+                LOGGER.error("The server response does not contain one similarity per pair.");
+                return null;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                float similarity = buffer.getFloat();
+                // NaN: at least one of the concepts is not in the vocabulary
+                result[start + i] = Float.isNaN(similarity) ? -1.0 : similarity;
+            }
+        }
+        return result;
+    }
 
+    /**
+     * Execute a POST request whose response is binary.
+     *
+     * @param path              The path of the endpoint.
+     * @param body              The body of the request.
+     * @param modelOrVectorPath The path to the model or vector file.
+     * @return The response as little-endian buffer or null in case of an error.
+     */
+    private ByteBuffer executeBinaryRequest(String path, String body, String modelOrVectorPath) {
+        HttpPost request = new HttpPost(serverUrl + path);
+        addModelToRequest(request, modelOrVectorPath);
+        request.setEntity(new StringEntity(body, ContentType.create("text/plain", StandardCharsets.UTF_8)));
         try (CloseableHttpResponse response = httpClient.execute(request)) {
             HttpEntity entity = response.getEntity();
             if (entity == null) {
                 LOGGER.error("No server response.");
                 return null;
-            } else {
-                String resultString = EntityUtils.toString(entity);
-                if (resultString.startsWith("ERROR") || resultString.contains("500 Internal Server Error")) {
-                    LOGGER.error(resultString);
-                } else {
-                    String[] tokenizedResult = resultString.split(" ");
-                    Double[] result = new Double[tokenizedResult.length];
-                    for (int i = 0; i < result.length; i++) {
-                        try {
-                            result[i] = Double.parseDouble(tokenizedResult[i]);
-                        } catch (NumberFormatException nfe) {
-                            LOGGER.error("Number format exception occured on token: " + tokenizedResult[i], nfe);
-                            // cannot return vector
-                            if(isVectorCaching) {
-                                vectorCache.put(v1key, null);
-                            }
-                            return null;
-                        }
-                    }
-                    if(isVectorCaching) {
-                        vectorCache.put(v1key, result);
-                    }
-                    return result;
-                }
             }
+            ContentType contentType = ContentType.get(entity);
+            if (contentType == null || !BINARY_MIME_TYPE.equals(contentType.getMimeType())) {
+                LOGGER.error(EntityUtils.toString(entity));
+                return null;
+            }
+            return ByteBuffer.wrap(EntityUtils.toByteArray(entity)).order(ByteOrder.LITTLE_ENDIAN);
         } catch (IOException ioe) {
             LOGGER.error("Problem with http request.", ioe);
+            return null;
         }
-        if(isVectorCaching) {
-            vectorCache.put(v1key, null);
+    }
+
+    /**
+     * Returns the k concepts which are most similar to the stated concept (exact search of gensim). The concept
+     * itself is not part of the result. For vectors which are loaded in the JVM, see
+     * {@link KeyedVectors#getMostSimilar(String, int)}.
+     *
+     * @param concept           The concept.
+     * @param k                 The number of concepts to be returned.
+     * @param modelOrVectorPath The path to the model or vector file. Note that the vector file MUST end with .kv in
+     *                          order to be recognized as vector file.
+     * @return The most similar concepts in descending order of similarity. Null in case of failure (for example, if
+     * the concept is not in the vocabulary).
+     */
+    public List<SimilarConcept> getMostSimilar(String concept, int k, String modelOrVectorPath) {
+        HttpGet request = new HttpGet(serverUrl + "/get-most-similar");
+        request.addHeader("concept", concept);
+        request.addHeader("topn", "" + k);
+        addModelToRequest(request, modelOrVectorPath);
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                LOGGER.error("No server response.");
+                return null;
+            }
+            String resultString = EntityUtils.toString(entity, StandardCharsets.UTF_8);
+            if (resultString.startsWith("ERROR") || resultString.contains("500 Internal Server Error")) {
+                LOGGER.error(resultString);
+                return null;
+            }
+            List<SimilarConcept> result = new ArrayList<>();
+            for (String line : resultString.split("\n")) {
+                int separator = line.lastIndexOf('\t');
+                if (separator < 0) continue;
+                result.add(new SimilarConcept(line.substring(0, separator), Double.parseDouble(line.substring(separator + 1))));
+            }
+            return result;
+        } catch (IOException ioe) {
+            LOGGER.error("Problem with http request.", ioe);
+        } catch (NumberFormatException nfe) {
+            LOGGER.error("Could not parse the most similar concepts.", nfe);
         }
         return null;
     }
@@ -351,7 +655,7 @@ public class Gensim {
      * @param request           The request to which the model/vector file shall be added to.
      * @param modelOrVectorPath The path to the model/vector file.
      */
-    private void addModelToRequest(HttpGet request, String modelOrVectorPath) {
+    private void addModelToRequest(HttpRequestBase request, String modelOrVectorPath) {
         if (modelOrVectorPath.endsWith(".kv")) {
             request.addHeader("vector_path", getCanonicalPath(modelOrVectorPath));
         } else request.addHeader("model_path", getCanonicalPath(modelOrVectorPath));
@@ -405,10 +709,25 @@ public class Gensim {
     private static Gensim instance;
 
     /**
-     * Client to communicate with the server.
+     * Client to communicate with the server. The client is thread-safe; the connections are pooled and kept alive.
      */
     private static CloseableHttpClient httpClient;
 
+    /**
+     * The connection pool of the client.
+     */
+    private static PoolingHttpClientConnectionManager connectionManager;
+
+    /**
+     * Default maximal number of concurrent connections to the server.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS = 32;
+
+    /**
+     * The maximal number of concurrent connections to the server.
+     */
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+
     /**
      * Get the instance.
      *
@@ -461,6 +780,25 @@ public class Gensim {
      */
     private static Process serverProcess;
 
+    /**
+     * Indicates whether the server is available, i.e., started by this JVM or reused.
+     *
+     * @return True if the server is available, else false.
+     */
+    static boolean isServerAvailable() {
+        return !isShutDown;
+    }
+
+    /**
+     * Indicates whether the server process has been started by this JVM. A server which has been reused is not
+     * started by this JVM and, hence, not stopped by {@link #shutDown()}.
+     *
+     * @return True if the server process has been started by this JVM, else false.
+     */
+    static boolean isServerProcessStarted() {
+        return serverProcess != null;
+    }
+
 
     /**
      * Export a resource embedded into a Jar file to the local file path.
@@ -501,9 +839,26 @@ public class Gensim {
         exportResource(serverResourceDirectory, "python_server.py");
         exportResource(serverResourceDirectory, "requirements.txt");
 
-        httpClient = HttpClients.createDefault(); // has to be re-instantiated
-        String canonicalPath;
+        httpClient = createHttpClient(); // has to be re-instantiated
         File serverFile = new File(serverResourceDirectory, "python_server.py");
+        String serverStatus = getServerStatus();
+        if (serverStatus != null) {
+            // e.g. a server which is kept alive by another job; it is only reused if it runs the same script
+            String scriptHash = getScriptHash(serverFile);
+            if (scriptHash != null && serverStatus.contains(SCRIPT_HASH_PREFIX + scriptHash)) {
+                LOGGER.info("Reusing the server which is already running at " + serverUrl);
+                serverProcess = null;
+                return onServerStarted();
+            }
+            LOGGER.error("A server of a different version is already running at " + serverUrl + ". " +
+                    "Cannot start server. ABORTING. Please stop the running server.");
+            isShutDown = true;
+            return false;
+        }
+
+        String canonicalPath;
+        String readyFilePath;
+        File readyFile = new File(serverResourceDirectory, SERVER_READY_FILE_NAME);
         try {
             if (!serverFile.exists()) {
                 LOGGER.error("Server File does not exist. Cannot start server. ABORTING. Please make sure that " +
@@ -511,13 +866,16 @@ public class Gensim {
                 return false;
             }
             canonicalPath = serverFile.getCanonicalPath();
+            readyFilePath = readyFile.getCanonicalPath();
         } catch (IOException e) {
             LOGGER.error("Server File (" + serverFile.getAbsolutePath() + ") does not exist. " +
                     "Cannot start server. ABORTING.", e);
             return false;
         }
         String pythonCommand = getPythonCommand();
-        List<String> command = Arrays.asList(pythonCommand, canonicalPath);
+        // the server writes the ready file once it accepts connections
+        readyFile.delete();
+        List<String> command = Arrays.asList(pythonCommand, canonicalPath, readyFilePath);
         ProcessBuilder pb = new ProcessBuilder(command);
         updateEnvironmentPath(pb.environment(), pythonCommand);
         //List<String> command = Arrays.asList("python", "--version");
@@ -526,36 +884,94 @@ public class Gensim {
         try {
             pb.inheritIO();
             this.serverProcess = pb.start();
-            final int maxTrials = 5;
-            for (int i = 0; i < maxTrials; i++) {
-                HttpGet request = new HttpGet(serverUrl + "/melt_ml.html");
-                CloseableHttpClient httpClient = HttpClients.createDefault();
-                try (CloseableHttpResponse response = httpClient.execute(request)) {
-                    HttpEntity entity = response.getEntity();
-                    if (entity != null) {
-                        LOGGER.info("Server is running.");
-                        break;
-                    }
-                } catch (HttpHostConnectException hce) {
-                    LOGGER.info("Server is not yet running. Waiting 5 seconds. Trial {} / {}", i + 1, maxTrials);
-                    TimeUnit.SECONDS.sleep(5);
-                } catch (IOException ioe) {
-                    LOGGER.error("Problem with http request.", ioe);
-                }
-                httpClient.close();
-                if (i == maxTrials -1){
-                    LOGGER.error("Failed to start the gensim server after " + maxTrials + " trials.");
-                    isHookStarted = false;
-                    isShutDown = true;
-                    return false;
-                }
+            if (!awaitServer(serverProcess, readyFile)) {
+                isHookStarted = false;
+                isShutDown = true;
+                return false;
             }
         } catch (IOException ex) {
             LOGGER.error("Could not start python server.", ex);
+            isShutDown = true;
+            return false;
         } catch (InterruptedException e) {
             LOGGER.error("Could not wait for python server.", e);
+            isShutDown = true;
+            return false;
+        }
+        return onServerStarted();
+    }
+
+    /**
+     * Wait until the server process signals that it accepts connections.
+     *
+     * @param serverProcess The server process.
+     * @param readyFile The file which is written by the server once it is ready.
+     * @return True if the server is ready, false if the server process terminated or did not get ready in time.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    static boolean awaitServer(Process serverProcess, File readyFile) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SERVER_START_TIMEOUT);
+        while (System.nanoTime() < deadline) {
+            if (readyFile.exists()) {
+                LOGGER.info("Server is running.");
+                return true;
+            }
+            if (!serverProcess.isAlive()) {
+                LOGGER.error("The python server terminated during the start (exit code " + serverProcess.exitValue() + ").");
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(SERVER_POLL_INTERVAL);
+        }
+        LOGGER.error("Failed to start the gensim server within " + SERVER_START_TIMEOUT + " seconds.");
+        return false;
+    }
+
+    /**
+     * Obtain the status message of a server which is already running at the server URL.
+     *
+     * @return The status message or null if no server answers.
+     */
+    private String getServerStatus() {
+        HttpGet request = new HttpGet(serverUrl + "/melt_ml.html");
+        request.setConfig(RequestConfig.custom().setConnectTimeout(500).setSocketTimeout(2000).build());
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            HttpEntity entity = response.getEntity();
+            if (entity == null) return null;
+            String status = EntityUtils.toString(entity);
+            return status.contains("MELT ML Server running") ? status : null;
+        } catch (IOException ioe) {
+            return null;
+        }
+    }
+
+    /**
+     * Calculates the SHA-256 hash of the server script (the server reports the hash of the script it runs).
+     *
+     * @param serverFile The server script.
+     * @return The hash as hex string or null if it cannot be calculated.
+     */
+    static String getScriptHash(File serverFile) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(serverFile.toPath()));
+            StringBuilder result = new StringBuilder();
+            for (byte b : hash) {
+                result.append(String.format("%02x", b));
+            }
+            return result.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            LOGGER.error("Could not calculate the hash of the server file.", e);
+            return null;
         }
-        vectorCache = new HashMap<>();
+    }
+
+    /**
+     * Initializations once the server is available.
+     *
+     * @return True.
+     */
+    private boolean onServerStarted() {
+        // the models may have changed while the server was down
+        vectorCaches.clear();
 
         // now: add shutdown hook in case the JVM is terminating
         if(!isHookStarted) {
@@ -569,6 +985,19 @@ public class Gensim {
         return true;
     }
 
+    /**
+     * Creates a client with a pool of persistent connections so that multiple threads can query the (threaded)
+     * server in parallel.
+     *
+     * @return The client.
+     */
+    private CloseableHttpClient createHttpClient() {
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        return HttpClients.custom().setConnectionManager(connectionManager).build();
+    }
+
     /**
      * Returns the python command which is extracted from {@code file melt-resources/python_command.txt}.
      * @return The python executable path.
@@ -630,6 +1059,25 @@ public class Gensim {
         }
     }
 
+    /**
+     * Calculate The cosine similarity between two vectors.
+     *
+     * @param vector1 First vector.
+     * @param vector2 Second vector.
+     * @return Cosine similarity as double.
+     */
+    public static double cosineSimilarity(float[] vector1, float[] vector2) {
+        double dotProduct = 0.0;
+        double norm1 = 0.0;
+        double norm2 = 0.0;
+        for (int i = 0; i < vector1.length; i++) {
+            dotProduct += vector1[i] * vector2[i];
+            norm1 += vector1[i] * vector1[i];
+            norm2 += vector2[i] * vector2[i];
+        }
+        return dotProduct / (Math.sqrt(norm1) * Math.sqrt(norm2));
+    }
+
     /**
      * Calculate The cosine similarity between two vectors.
      *
@@ -655,6 +1103,7 @@ public class Gensim {
      *      *                          order to be recognized as vector file.
      * @param fileToWrite The file that will be written.
      */
+    @Override
     public void writeModelAsTextFile(String modelOrVectorPath, String fileToWrite){
         writeModelAsTextFile(modelOrVectorPath, fileToWrite, null);
     }
@@ -667,6 +1116,7 @@ public class Gensim {
      * @param entityFile The vocabulary that shall appear in the text file (can be null if all words shall be written).
      *                   The file must contain one word per line. The contents must be a subset of the vocabulary.
      */
+    @Override
     public void writeModelAsTextFile(String modelOrVectorPath, String fileToWrite, String entityFile){
         HttpGet request = new HttpGet(serverUrl + "/write-model-as-text-file");
         addModelToRequest(request, modelOrVectorPath);
@@ -689,6 +1139,15 @@ public class Gensim {
         }
     }
 
+    /**
+     * The gensim vectors are stored in a {@code .kv} file.
+     * @return {@code model.kv}
+     */
+    @Override
+    public String getModelFileName() {
+        return "model.kv";
+    }
+
     public File getResourcesDirectory() {
         return resourcesDirectory;
     }
@@ -742,10 +1201,79 @@ public class Gensim {
     /**
      * If vector caching is turned on, similarities will be calculated on Java site (rather than in Python) and
      * vectors are held in memories. Turn this function on, if you plan to do many computations with the same set
-     * of vectors. This will increase the performance at the cost of memory.
+     * of vectors. This will increase the performance at the cost of memory. The memory of each cache is bounded
+     * (see {@link #setVectorCacheCapacity(long)}).
      * @param vectorCaching True if caching shall be enabled, else false.
      */
     public void setVectorCaching(boolean vectorCaching) {
         isVectorCaching = vectorCaching;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the vector cache of the stated model/vector set. The cache is created if it does not exist yet.
+     * The cache also provides hit/miss statistics.
+     * @param modelOrVectorPath The path to the model or vector file.
+     * @return The vector cache.
+     */
+    public VectorCache getVectorCache(String modelOrVectorPath) {
+        return vectorCaches.computeIfAbsent(modelOrVectorPath, path -> new VectorCache(vectorCacheCapacity));
+    }
+
+    /**
+     * Returns the capacity of each vector cache (one cache per model/vector set).
+     * @return Capacity in bytes.
+     */
+    public long getVectorCacheCapacity() {
+        return vectorCacheCapacity;
+    }
+
+    /**
+     * Set the capacity of each vector cache (one cache per model/vector set). If the capacity is exceeded, the least
+     * recently used vectors are evicted.
+     * @param vectorCacheCapacity Capacity in bytes.
+     */
+    public void setVectorCacheCapacity(long vectorCacheCapacity) {
+        this.vectorCacheCapacity = vectorCacheCapacity;
+        for (VectorCache cache : vectorCaches.values()) {
+            cache.setCapacity(vectorCacheCapacity);
+        }
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Set the maximal number of concurrent connections to the server, i.e., the number of threads which can query the
+     * server in parallel.
+     * @param maxConnections The maximal number of connections.
+     */
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+        if (connectionManager != null) {
+            connectionManager.setMaxTotal(maxConnections);
+            connectionManager.setDefaultMaxPerRoute(maxConnections);
+        }
+    }
+
+    /**
+     * If true, the server is kept alive after a training so that it can be reused by subsequent trainings.
+     * @return True if the server is kept alive, else false.
+     */
+    public static boolean isKeepServerAlive() {
+        return isKeepServerAlive;
+    }
+
+    /**
+     * Keep the server alive after a training: {@link de.uni_mannheim.informatik.dws.jrdf2vec.RDF2Vec#train()} and
+     * {@link de.uni_mannheim.informatik.dws.jrdf2vec.RDF2VecLight#train()} do not shut the server down so that
+     * subsequent trainings do not have to wait for the server to start. The server is still shut down when
+     * {@link #shutDown()} is called or the JVM terminates. A server which is already running (for example, kept alive
+     * by another process) is reused when a server is required if it runs the same server script. The vector caches
+     * of a model are dropped when the model is retrained.
+     * @param keepServerAlive True if the server shall be kept alive.
+     */
+    public static void setKeepServerAlive(boolean keepServerAlive) {
+        isKeepServerAlive = keepServerAlive;
+    }
+}
@@ -0,0 +1,521 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.training;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An approximate nearest neighbor index for {@link KeyedVectors} based on hierarchical navigable small world graphs
+ * (HNSW, Malkov and Yashunin 2018). Compared to the exact scan of {@link KeyedVectors#getMostSimilar(String, int)},
+ * a query only visits a small part of the vectors.
+ * <p>
+ * The index only stores the graph; the vectors are taken from the {@link KeyedVectors} instance. Hence, an index
+ * which has been saved can only be loaded together with the vectors which it was built from.
+ */
+public class HnswIndex {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(HnswIndex.class);
+
+    /**
+     * The name of the index file which is written next to the model.
+     */
+    public static final String INDEX_FILE_NAME = "model.hnsw";
+
+    /**
+     * Default number of neighbors per node and layer (twice as many on the lowest layer).
+     */
+    public static final int DEFAULT_M = 16;
+
+    /**
+     * Default size of the candidate list during the construction.
+     */
+    public static final int DEFAULT_EF_CONSTRUCTION = 200;
+
+    /**
+     * Default size of the candidate list during a search.
+     */
+    public static final int DEFAULT_EF_SEARCH = 100;
+
+    /**
+     * Marks index files ("HNSW").
+     */
+    private static final int MAGIC_NUMBER = 0x484E5357;
+
+    private static final int FILE_VERSION = 1;
+
+    private final KeyedVectors vectors;
+
+    private final VectorMatrix matrix;
+
+    private final int dimension;
+
+    private final int m;
+
+    /**
+     * The highest layer of each node.
+     */
+    private final int[] levels;
+
+    /**
+     * node -> layer -> neighbors where the first element is the number of neighbors. The neighbor arrays are used as
+     * locks during the construction.
+     */
+    private final int[][][] links;
+
+    private final Object entryPointLock = new Object();
+
+    private volatile int entryPoint = -1;
+
+    private volatile int maxLevel = -1;
+
+    private int efSearch = DEFAULT_EF_SEARCH;
+
+    private final ThreadLocal<VisitedSet> visitedSets;
+
+    private HnswIndex(KeyedVectors vectors, int m, int[] levels) {
+        this.vectors = vectors;
+        this.matrix = vectors.getNormalizedVectors();
+        this.dimension = vectors.getDimension();
+        this.m = m;
+        this.levels = levels;
+        this.links = new int[levels.length][][];
+        for (int node = 0; node < levels.length; node++) {
+            links[node] = new int[levels[node] + 1][];
+            for (int level = 0; level <= levels[node]; level++) {
+                links[node][level] = new int[getMaxNumberOfLinks(level) + 1];
+            }
+        }
+        this.visitedSets = ThreadLocal.withInitial(() -> new VisitedSet(levels.length));
+    }
+
+    /**
+     * Build an index with default parameters.
+     *
+     * @param vectors The vectors to be indexed.
+     * @return The index or null in case of an error.
+     */
+    public static HnswIndex build(KeyedVectors vectors) {
+        return build(vectors, DEFAULT_M, DEFAULT_EF_CONSTRUCTION, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Build an index.
+     *
+     * @param vectors         The vectors to be indexed.
+     * @param m               The number of neighbors per node and layer (twice as many on the lowest layer).
+     * @param efConstruction  The size of the candidate list during the construction (higher: better index, slower
+     *                        construction).
+     * @param numberOfThreads The number of threads which insert nodes.
+     * @return The index or null in case of an error.
+     */
+    public static HnswIndex build(KeyedVectors vectors, int m, int efConstruction, int numberOfThreads) {
+        if (m < 2) {
+            LOGGER.error("M must be at least 2. ABORT.");
+            return null;
+        }
+        int size = vectors.getVocabularySize();
+        Random random = new Random(42);
+        double levelMultiplier = 1.0 / Math.log(m);
+        int[] levels = new int[size];
+        for (int node = 0; node < size; node++) {
+            levels[node] = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        }
+        HnswIndex index = new HnswIndex(vectors, m, levels);
+        if (size == 0) return index;
+        index.entryPoint = 0;
+        index.maxLevel = levels[0];
+
+        AtomicInteger nextNode = new AtomicInteger(1);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numberOfThreads));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < Math.max(1, numberOfThreads); thread++) {
+                futures.add(executor.submit(() -> {
+                    int node;
+                    while ((node = nextNode.getAndIncrement()) < size) {
+                        index.insert(node, efConstruction);
+                        if (node % 1000000 == 0) {
+                            LOGGER.info("Indexed nodes: " + node);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (Exception e) {
+            LOGGER.error("Could not build the index.", e);
+            return null;
+        } finally {
+            executor.shutdownNow();
+        }
+        return index;
+    }
+
+    /**
+     * Build an index for a vector file and save it.
+     *
+     * @param vectorFile      The vector file (see {@link KeyedVectors#load(File)}).
+     * @param indexFile       The index file to be written.
+     * @param numberOfThreads The number of threads which insert nodes.
+     * @return True if the index was written, else false.
+     */
+    public static boolean buildAndSave(File vectorFile, File indexFile, int numberOfThreads) {
+        try {
+            HnswIndex index = build(KeyedVectors.load(vectorFile), DEFAULT_M, DEFAULT_EF_CONSTRUCTION, numberOfThreads);
+            if (index == null) return false;
+            index.save(indexFile);
+            return true;
+        } catch (IOException ioe) {
+            LOGGER.error("Could not build the index for " + vectorFile.getAbsolutePath(), ioe);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the k concepts which are most similar to the stated concept (approximate search). The concept itself
+     * is not part of the result.
+     *
+     * @param concept The concept.
+     * @param k       The number of concepts to be returned.
+     * @return The most similar concepts in descending order of similarity. Empty if the concept is not in the
+     * vocabulary.
+     */
+    public List<SimilarConcept> getMostSimilar(String concept, int k) {
+        int row = vectors.getIndex(concept);
+        if (row < 0) return new ArrayList<>();
+        return search(matrix.getRow(row), k, row);
+    }
+
+    /**
+     * Returns the k concepts which are most similar to the stated vector (approximate search).
+     *
+     * @param vector The vector (not necessarily normalized).
+     * @param k      The number of concepts to be returned.
+     * @return The most similar concepts in descending order of similarity.
+     */
+    public List<SimilarConcept> getMostSimilar(float[] vector, int k) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("The vector has " + vector.length + " instead of " + dimension + " dimensions.");
+        }
+        return search(KeyedVectors.normalize(vector), k, -1);
+    }
+
+    private List<SimilarConcept> search(float[] query, int k, int excludedRow) {
+        List<SimilarConcept> result = new ArrayList<>();
+        int currentEntryPoint = entryPoint;
+        if (k <= 0 || currentEntryPoint < 0) return result;
+        for (int level = maxLevel; level > 0; level--) {
+            currentEntryPoint = searchGreedy(query, 0, currentEntryPoint, level);
+        }
+        int candidates = excludedRow < 0 ? k : k + 1;
+        IntFloatHeap nearest = searchLayer(query, 0, new int[]{currentEntryPoint}, 1, Math.max(efSearch, candidates), 0);
+        int[] rows = new int[nearest.size()];
+        float[] scores = new float[nearest.size()];
+        int count = nearest.drainDescending(rows, scores);
+        for (int i = 0; i < count && result.size() < k; i++) {
+            if (rows[i] == excludedRow) continue;
+            result.add(new SimilarConcept(vectors.getConcept(rows[i]), scores[i]));
+        }
+        return result;
+    }
+
+    private void insert(int node, int efConstruction) {
+        int level = levels[node];
+        int currentEntryPoint;
+        int currentMaxLevel;
+        synchronized (entryPointLock) {
+            currentEntryPoint = entryPoint;
+            currentMaxLevel = maxLevel;
+        }
+        float[] block = matrix.getBlock(node);
+        int offset = matrix.getOffset(node);
+        for (int l = currentMaxLevel; l > level; l--) {
+            currentEntryPoint = searchGreedy(block, offset, currentEntryPoint, l);
+        }
+        int[] entryPoints = new int[]{currentEntryPoint};
+        int numberOfEntryPoints = 1;
+        for (int l = Math.min(level, currentMaxLevel); l >= 0; l--) {
+            IntFloatHeap nearest = searchLayer(block, offset, entryPoints, numberOfEntryPoints, efConstruction, l);
+            int[] candidates = new int[nearest.size()];
+            float[] scores = new float[nearest.size()];
+            int count = nearest.drainDescending(candidates, scores);
+            int[] selected = selectNeighbors(candidates, scores, count, m);
+
+            int[] nodeLinks = links[node][l];
+            synchronized (nodeLinks) {
+                System.arraycopy(selected, 0, nodeLinks, 1, selected.length);
+                nodeLinks[0] = selected.length;
+            }
+            for (int neighbor : selected) {
+                addLink(neighbor, node, l);
+            }
+            entryPoints = candidates;
+            numberOfEntryPoints = count;
+        }
+        if (level > currentMaxLevel) {
+            synchronized (entryPointLock) {
+                if (level > maxLevel) {
+                    maxLevel = level;
+                    entryPoint = node;
+                }
+            }
+        }
+    }
+
+    /**
+     * Add a link from {@code node} to {@code neighbor}. If the neighbor has too many links, its links are selected
+     * again.
+     */
+    private void addLink(int node, int neighbor, int level) {
+        int[] nodeLinks = links[node][level];
+        synchronized (nodeLinks) {
+            int count = nodeLinks[0];
+            if (count < nodeLinks.length - 1) {
+                nodeLinks[count + 1] = neighbor;
+                nodeLinks[0] = count + 1;
+                return;
+            }
+            // the links are full: select among the existing links and the new one
+            IntFloatHeap heap = new IntFloatHeap(count + 1);
+            for (int i = 1; i <= count; i++) {
+                heap.push(nodeLinks[i], matrix.dot(node, nodeLinks[i]));
+            }
+            heap.push(neighbor, matrix.dot(node, neighbor));
+            int[] candidates = new int[count + 1];
+            float[] scores = new float[count + 1];
+            heap.drainDescending(candidates, scores);
+            int[] selected = selectNeighbors(candidates, scores, count + 1, nodeLinks.length - 1);
+            System.arraycopy(selected, 0, nodeLinks, 1, selected.length);
+            nodeLinks[0] = selected.length;
+        }
+    }
+
+    /**
+     * Neighbor selection heuristic: a candidate is only selected if it is more similar to the base node than to all
+     * neighbors which have been selected already. This keeps links into different directions.
+     *
+     * @param candidates The candidates in descending order of their similarity to the base node.
+     * @param scores     The similarities to the base node.
+     * @param count      The number of candidates.
+     * @param maxCount   The maximal number of neighbors.
+     * @return The selected neighbors.
+     */
+    private int[] selectNeighbors(int[] candidates, float[] scores, int count, int maxCount) {
+        if (count <= maxCount) return Arrays.copyOf(candidates, count);
+        int[] selected = new int[maxCount];
+        int numberOfSelected = 0;
+        for (int i = 0; i < count && numberOfSelected < maxCount; i++) {
+            boolean isSelected = true;
+            for (int j = 0; j < numberOfSelected; j++) {
+                if (matrix.dot(candidates[i], selected[j]) > scores[i]) {
+                    isSelected = false;
+                    break;
+                }
+            }
+            if (isSelected) selected[numberOfSelected++] = candidates[i];
+        }
+        return Arrays.copyOf(selected, numberOfSelected);
+    }
+
+    private int searchGreedy(float[] query, int queryOffset, int entryPoint, int level) {
+        int current = entryPoint;
+        float best = similarity(query, queryOffset, current);
+        boolean isChanged = true;
+        while (isChanged) {
+            isChanged = false;
+            for (int neighbor : getLinks(current, level)) {
+                float score = similarity(query, queryOffset, neighbor);
+                if (score > best) {
+                    best = score;
+                    current = neighbor;
+                    isChanged = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Best-first search on a single layer.
+     *
+     * @return Heap of the (at most) ef nodes which are most similar to the query.
+     */
+    private IntFloatHeap searchLayer(float[] query, int queryOffset, int[] entryPoints, int numberOfEntryPoints, int ef, int level) {
+        VisitedSet visited = visitedSets.get();
+        visited.clear();
+        // candidates: max-heap by similarity (negated scores); nearest: min-heap by similarity
+        IntFloatHeap candidates = new IntFloatHeap(ef);
+        IntFloatHeap nearest = new IntFloatHeap(ef + 1);
+        for (int i = 0; i < numberOfEntryPoints; i++) {
+            int entry = entryPoints[i];
+            if (!visited.add(entry)) continue;
+            float score = similarity(query, queryOffset, entry);
+            candidates.push(entry, -score);
+            nearest.offer(entry, score, ef);
+        }
+        while (!candidates.isEmpty()) {
+            float candidateScore = -candidates.peekScore();
+            int candidate = candidates.pop();
+            if (nearest.size() >= ef && candidateScore < nearest.peekScore()) break;
+            for (int neighbor : getLinks(candidate, level)) {
+                if (!visited.add(neighbor)) continue;
+                float score = similarity(query, queryOffset, neighbor);
+                if (nearest.size() < ef || score > nearest.peekScore()) {
+                    candidates.push(neighbor, -score);
+                    nearest.offer(neighbor, score, ef);
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private int[] getLinks(int node, int level) {
+        int[] nodeLinks = links[node][level];
+        synchronized (nodeLinks) {
+            return Arrays.copyOfRange(nodeLinks, 1, nodeLinks[0] + 1);
+        }
+    }
+
+    private float similarity(float[] query, int queryOffset, int node) {
+        return matrix.dot(node, query, queryOffset);
+    }
+
+    private int getMaxNumberOfLinks(int level) {
+        return level == 0 ? 2 * m : m;
+    }
+
+    /**
+     * Save the index. The vectors are not saved.
+     *
+     * @param file The index file to be written.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC_NUMBER);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(levels.length);
+            out.writeInt(dimension);
+            out.writeInt(m);
+            out.writeInt(entryPoint);
+            out.writeInt(maxLevel);
+            for (int level : levels) {
+                out.writeInt(level);
+            }
+            for (int node = 0; node < levels.length; node++) {
+                for (int level = 0; level <= levels[node]; level++) {
+                    int[] nodeLinks = links[node][level];
+                    for (int i = 0; i <= nodeLinks[0]; i++) {
+                        out.writeInt(nodeLinks[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Load an index.
+     *
+     * @param file    The index file.
+     * @param vectors The vectors from which the index has been built.
+     * @return The index.
+     * @throws IOException If the file cannot be read or does not fit the vectors.
+     */
+    public static HnswIndex load(File file, KeyedVectors vectors) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC_NUMBER || in.readInt() != FILE_VERSION) {
+                throw new IOException("Not a supported index file: " + file.getAbsolutePath());
+            }
+            int size = in.readInt();
+            int dimension = in.readInt();
+            if (size != vectors.getVocabularySize() || dimension != vectors.getDimension()) {
+                throw new IOException("The index " + file.getAbsolutePath() + " has not been built from the given vectors.");
+            }
+            int m = in.readInt();
+            int entryPoint = in.readInt();
+            int maxLevel = in.readInt();
+            int[] levels = new int[size];
+            for (int node = 0; node < size; node++) {
+                levels[node] = in.readInt();
+            }
+            HnswIndex index = new HnswIndex(vectors, m, levels);
+            for (int node = 0; node < size; node++) {
+                for (int level = 0; level <= levels[node]; level++) {
+                    int[] nodeLinks = index.links[node][level];
+                    int count = in.readInt();
+                    if (count >= nodeLinks.length) {
+                        throw new IOException("Invalid index file: " + file.getAbsolutePath());
+                    }
+                    nodeLinks[0] = count;
+                    for (int i = 1; i <= count; i++) {
+                        nodeLinks[i] = in.readInt();
+                    }
+                }
+            }
+            index.entryPoint = entryPoint;
+            index.maxLevel = maxLevel;
+            return index;
+        }
+    }
+
+    public KeyedVectors getVectors() {
+        return vectors;
+    }
+
+    public int getEfSearch() {
+        return efSearch;
+    }
+
+    /**
+     * Set the size of the candidate list during a search (higher: better results, slower search).
+     *
+     * @param efSearch Size of the candidate list.
+     */
+    public void setEfSearch(int efSearch) {
+        this.efSearch = efSearch;
+    }
+
+    /**
+     * Set of visited nodes which can be cleared in constant time.
+     */
+    private static final class VisitedSet {
+
+        private final int[] marks;
+
+        private int generation = 0;
+
+        VisitedSet(int size) {
+            this.marks = new int[size];
+        }
+
+        void clear() {
+            generation++;
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+        }
+
+        /**
+         * @return True if the node has not been visited before.
+         */
+        boolean add(int node) {
+            if (marks[node] == generation) return false;
+            marks[node] = generation;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.training;
+
+/**
+ * A word2vec trainer which learns embeddings from walk files (see {@link Gensim} and {@link JavaWord2Vec}).
+ */
+public interface IWord2VecTrainer {
+
+    /**
+     * Train a word2vec model. The walk files have to exist already.
+     *
+     * @param modelPath        The path of the model to be written.
+     * @param trainingFilePath The path to a walk file or to a directory of walk files.
+     * @param configuration    The configuration for the training operation.
+     * @return True if training succeeded, else false.
+     */
+    boolean trainWord2VecModel(String modelPath, String trainingFilePath, Word2VecConfiguration configuration);
+
+    /**
+     * Write all vectors of a trained model to a text file: one concept per line followed by its vector components
+     * (separated by spaces).
+     *
+     * @param modelPath  The path of the trained model.
+     * @param fileToWrite The text file to be written.
+     */
+    void writeModelAsTextFile(String modelPath, String fileToWrite);
+
+    /**
+     * Write the vectors of the given entities to a text file: one concept per line followed by its vector components
+     * (separated by spaces).
+     *
+     * @param modelPath   The path of the trained model.
+     * @param fileToWrite The text file to be written.
+     * @param entityFile  File with one entity per line. If null, all vectors are written.
+     */
+    void writeModelAsTextFile(String modelPath, String fileToWrite, String entityFile);
+
+    /**
+     * The name of the model file that is written into the walk directory.
+     *
+     * @return File name.
+     */
+    String getModelFileName();
+}
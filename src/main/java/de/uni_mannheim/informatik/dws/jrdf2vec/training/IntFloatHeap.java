@@ -0,0 +1,126 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.training;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of (id, score) pairs on primitive arrays. The element with the lowest score is on top.
+ * Used for top-k selection: push negated scores to obtain a max-heap.
+ */
+final class IntFloatHeap {
+
+    private int[] ids;
+
+    private float[] scores;
+
+    private int size = 0;
+
+    /**
+     * Constructor
+     *
+     * @param initialCapacity The initial capacity (the heap grows on demand).
+     */
+    IntFloatHeap(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 4);
+        this.ids = new int[capacity];
+        this.scores = new float[capacity];
+    }
+
+    void push(int id, float score) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            scores = Arrays.copyOf(scores, size * 2);
+        }
+        int position = size++;
+        // sift up
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (scores[parent] <= score) break;
+            ids[position] = ids[parent];
+            scores[position] = scores[parent];
+            position = parent;
+        }
+        ids[position] = id;
+        scores[position] = score;
+    }
+
+    /**
+     * Push the element if the heap holds less than {@code capacity} elements; otherwise, replace the top element if
+     * the score is higher.
+     *
+     * @param id       The id.
+     * @param score    The score.
+     * @param capacity The maximal number of elements.
+     */
+    void offer(int id, float score, int capacity) {
+        if (size < capacity) {
+            push(id, score);
+        } else if (score > scores[0]) {
+            replaceTop(id, score);
+        }
+    }
+
+    int peekId() {
+        return ids[0];
+    }
+
+    float peekScore() {
+        return scores[0];
+    }
+
+    /**
+     * Remove the top element.
+     *
+     * @return The id of the removed element.
+     */
+    int pop() {
+        int top = ids[0];
+        size--;
+        if (size > 0) {
+            siftDown(ids[size], scores[size]);
+        }
+        return top;
+    }
+
+    private void replaceTop(int id, float score) {
+        siftDown(id, score);
+    }
+
+    private void siftDown(int id, float score) {
+        int position = 0;
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && scores[child + 1] < scores[child]) child++;
+            if (score <= scores[child]) break;
+            ids[position] = ids[child];
+            scores[position] = scores[child];
+            position = child;
+        }
+        ids[position] = id;
+        scores[position] = score;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Empties the heap and returns the elements in descending order of their scores.
+     *
+     * @param idsResult    Receives the ids (length at least {@link #size()}).
+     * @param scoresResult Receives the scores (length at least {@link #size()}).
+     * @return The number of elements.
+     */
+    int drainDescending(int[] idsResult, float[] scoresResult) {
+        int count = size;
+        for (int i = count - 1; i >= 0; i--) {
+            scoresResult[i] = scores[0];
+            idsResult[i] = pop();
+        }
+        return count;
+    }
+}
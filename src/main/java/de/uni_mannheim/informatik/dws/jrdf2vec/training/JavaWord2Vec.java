@@ -0,0 +1,623 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.training;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An in-process word2vec trainer (skip-gram or CBOW with negative sampling) which does not require the Python server.
+ * The training follows the reference implementation and gensim: frequent words are down-sampled, the window is
+ * reduced randomly, negatives are drawn from the unigram distribution raised to the power of 0.75, and the learning
+ * rate decays linearly from {@link #START_ALPHA} to {@link #MIN_ALPHA}. CBOW uses the mean of the context vectors.
+ * <p>
+ * The walk files are read by one thread and handed over in batches to the training threads which update the shared
+ * float arrays without locking (Hogwild). The model is written in the binary word2vec format
+ * ({@link #MODEL_FILE_NAME}), which can also be loaded with gensim's {@code KeyedVectors.load_word2vec_format}.
+ * Hierarchical softmax is not supported; the number of negatives has to be larger than 0.
+ */
+public class JavaWord2Vec implements IWord2VecTrainer {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(JavaWord2Vec.class);
+
+    /**
+     * The name of the model file in the walk directory.
+     */
+    public static final String MODEL_FILE_NAME = "model.w2v";
+
+    /**
+     * Initial learning rate (gensim default).
+     */
+    static final float START_ALPHA = 0.025f;
+
+    /**
+     * Final learning rate (gensim default).
+     */
+    static final float MIN_ALPHA = 0.0001f;
+
+    /**
+     * The number of walks handed over to a training thread at once.
+     */
+    private static final int BATCH_SIZE = 1024;
+
+    /**
+     * Marks the end of the queue.
+     */
+    private static final int[][] END_OF_QUEUE = new int[0][];
+
+    private static final int EXP_TABLE_SIZE = 1000;
+
+    private static final int MAX_EXP = 6;
+
+    /**
+     * Precomputed values of the sigmoid function in the interval [-MAX_EXP, MAX_EXP]. The last entry belongs to
+     * MAX_EXP itself.
+     */
+    private static final float[] EXP_TABLE = new float[EXP_TABLE_SIZE + 1];
+
+    static {
+        for (int i = 0; i <= EXP_TABLE_SIZE; i++) {
+            double exp = Math.exp((i / (double) EXP_TABLE_SIZE * 2 - 1) * MAX_EXP);
+            EXP_TABLE[i] = (float) (exp / (exp + 1));
+        }
+    }
+
+    @Override
+    public boolean trainWord2VecModel(String modelPath, String trainingFilePath, Word2VecConfiguration configuration) {
+        File trainingFile = new File(trainingFilePath);
+        if (!trainingFile.exists()) {
+            LOGGER.error("The training file/directory does not exist: " + trainingFile.getAbsolutePath());
+            return false;
+        }
+        if (configuration.getNegatives() < 1) {
+            LOGGER.error("The number of negatives must be larger than 0 (hierarchical softmax is not supported).");
+            return false;
+        }
+        WalkCorpus corpus = new WalkCorpus(trainingFile);
+        try {
+            LOGGER.info("Building vocabulary...");
+            Vocabulary vocabulary = Vocabulary.build(corpus, configuration.getMinCount());
+            if (vocabulary.size() == 0) {
+                LOGGER.error("The vocabulary is empty. No model is trained.");
+                return false;
+            }
+            LOGGER.info("Vocabulary built (" + vocabulary.size() + " words). Training now...");
+            float[][] vectors = new Training(corpus, vocabulary, configuration).run();
+            if (vectors == null) return false;
+            LOGGER.info("Model trained.");
+            writeModel(new File(modelPath), vocabulary.words, vectors);
+            return true;
+        } catch (IOException ioe) {
+            LOGGER.error("Could not train the model.", ioe);
+            return false;
+        }
+    }
+
+    @Override
+    public void writeModelAsTextFile(String modelPath, String fileToWrite) {
+        writeModelAsTextFile(modelPath, fileToWrite, null);
+    }
+
+    @Override
+    public void writeModelAsTextFile(String modelPath, String fileToWrite, String entityFile) {
+        try {
+            Map<String, float[]> vectors = readModel(new File(modelPath));
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileToWrite), StandardCharsets.UTF_8))) {
+                if (entityFile == null) {
+                    for (Map.Entry<String, float[]> entry : vectors.entrySet()) {
+                        writeVectorLine(writer, entry.getKey(), entry.getValue());
+                    }
+                } else {
+                    try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(entityFile), StandardCharsets.UTF_8))) {
+                        String concept;
+                        while ((concept = reader.readLine()) != null) {
+                            concept = concept.trim();
+                            float[] vector = vectors.get(concept);
+                            if (vector != null) {
+                                writeVectorLine(writer, concept, vector);
+                            } else {
+                                LOGGER.info("WARN: The following concept has not been found in the vector space: " + concept);
+                                writer.write('\n');
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IOException ioe) {
+            LOGGER.error("Could not write the vectors as text file.", ioe);
+        }
+    }
+
+    private static void writeVectorLine(Writer writer, String concept, float[] vector) throws IOException {
+        writer.write(concept);
+        writer.write(' ');
+        for (float component : vector) {
+            writer.write(Float.toString(component));
+            writer.write(' ');
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    public String getModelFileName() {
+        return MODEL_FILE_NAME;
+    }
+
+    /**
+     * Write vectors in the binary word2vec format: a header line with the number of words and the dimension, then per
+     * word the UTF-8 word, a space, the components as little-endian float32, and a line break.
+     *
+     * @param file    The file to be written.
+     * @param words   The words.
+     * @param vectors The vector of each word.
+     * @throws IOException If the file cannot be written.
+     */
+    static void writeModel(File file, String[] words, float[][] vectors) throws IOException {
+        int dimension = vectors.length == 0 ? 0 : vectors[0].length;
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+            out.write((words.length + " " + dimension + "\n").getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.allocate(dimension * 4).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < words.length; i++) {
+                out.write(words[i].getBytes(StandardCharsets.UTF_8));
+                out.write(' ');
+                // cast for Java 8, which has no covariant ByteBuffer.clear()
+                ((Buffer) buffer).clear();
+                for (float component : vectors[i]) {
+                    buffer.putFloat(component);
+                }
+                out.write(buffer.array());
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Read a model in the binary word2vec format (see {@link #writeModel(File, String[], float[][])}).
+     *
+     * @param file The model file.
+     * @return The vectors in the order of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static LinkedHashMap<String, float[]> readModel(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+            String[] header = readToken(in, '\n').trim().split(" ");
+            if (header.length != 2) {
+                throw new IOException("Invalid header of the word2vec file " + file.getAbsolutePath());
+            }
+            int numberOfWords = Integer.parseInt(header[0]);
+            int dimension = Integer.parseInt(header[1]);
+            LinkedHashMap<String, float[]> result = new LinkedHashMap<>(numberOfWords * 2);
+            byte[] bytes = new byte[dimension * 4];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < numberOfWords; i++) {
+                // the line break of the previous vector is not part of the word
+                String word = readToken(in, ' ').replace("\n", "");
+                int offset = 0;
+                while (offset < bytes.length) {
+                    int read = in.read(bytes, offset, bytes.length - offset);
+                    if (read < 0) throw new EOFException("Unexpected end of the word2vec file " + file.getAbsolutePath());
+                    offset += read;
+                }
+                float[] vector = new float[dimension];
+                ((Buffer) buffer).clear();
+                for (int j = 0; j < dimension; j++) {
+                    vector[j] = buffer.getFloat();
+                }
+                result.put(word, vector);
+            }
+            return result;
+        }
+    }
+
+    private static String readToken(InputStream in, char delimiter) throws IOException {
+        ByteArrayOutputStream token = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) >= 0 && b != delimiter) {
+            token.write(b);
+        }
+        if (b < 0) throw new EOFException("Unexpected end of the word2vec file.");
+        return new String(token.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The words which occur at least min count times, ordered by descending frequency.
+     */
+    static final class Vocabulary {
+
+        final String[] words;
+
+        final long[] counts;
+
+        final Map<String, Integer> ids;
+
+        /**
+         * The number of occurrences of all words of the vocabulary.
+         */
+        final long totalCount;
+
+        private Vocabulary(String[] words, long[] counts) {
+            this.words = words;
+            this.counts = counts;
+            this.ids = new HashMap<>(words.length * 2);
+            long total = 0;
+            for (int i = 0; i < words.length; i++) {
+                ids.put(words[i], i);
+                total += counts[i];
+            }
+            this.totalCount = total;
+        }
+
+        static Vocabulary build(WalkCorpus corpus, int minCount) throws IOException {
+            Map<String, long[]> wordCounts = new HashMap<>();
+            corpus.forEachWalk((tokens, length) -> {
+                for (int i = 0; i < length; i++) {
+                    wordCounts.computeIfAbsent(tokens[i], token -> new long[1])[0]++;
+                }
+                return true;
+            });
+            List<Map.Entry<String, long[]>> entries = new ArrayList<>();
+            for (Map.Entry<String, long[]> entry : wordCounts.entrySet()) {
+                if (entry.getValue()[0] >= minCount) entries.add(entry);
+            }
+            entries.sort((e1, e2) -> {
+                int comparison = Long.compare(e2.getValue()[0], e1.getValue()[0]);
+                return comparison != 0 ? comparison : e1.getKey().compareTo(e2.getKey());
+            });
+            String[] words = new String[entries.size()];
+            long[] counts = new long[entries.size()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = entries.get(i).getKey();
+                counts[i] = entries.get(i).getValue()[0];
+            }
+            return new Vocabulary(words, counts);
+        }
+
+        int size() {
+            return words.length;
+        }
+    }
+
+    /**
+     * A single training run.
+     */
+    private static final class Training {
+
+        private final WalkCorpus corpus;
+
+        private final Vocabulary vocabulary;
+
+        private final Word2VecType type;
+
+        private final int dimension;
+
+        private final int window;
+
+        private final int negatives;
+
+        private final int epochs;
+
+        private final int numberOfThreads;
+
+        /**
+         * Input vectors (the embeddings).
+         */
+        private final float[][] syn0;
+
+        /**
+         * Output vectors for negative sampling.
+         */
+        private final float[][] syn1neg;
+
+        /**
+         * Cumulative unigram distribution (power 0.75) for drawing negatives.
+         */
+        private final int[] cumTable;
+
+        /**
+         * Probability to keep a word (down-sampling of frequent words).
+         */
+        private final float[] keepProbabilities;
+
+        /**
+         * Number of words (before down-sampling) for which training has been completed; used for the learning rate.
+         */
+        private final AtomicLong processedWords = new AtomicLong();
+
+        private final long wordsToProcess;
+
+        private final BlockingQueue<int[][]> queue;
+
+        /**
+         * The first error which terminated a training thread; null as long as all threads are healthy.
+         */
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Training(WalkCorpus corpus, Vocabulary vocabulary, Word2VecConfiguration configuration) {
+            this.corpus = corpus;
+            this.vocabulary = vocabulary;
+            this.type = configuration.getType();
+            this.dimension = configuration.getVectorDimension();
+            this.window = Math.max(1, configuration.getWindowSize());
+            this.negatives = configuration.getNegatives();
+            this.epochs = Math.max(0, configuration.getIterations());
+            this.numberOfThreads = Math.max(1, configuration.getNumberOfThreads());
+            this.wordsToProcess = Math.max(1, epochs * vocabulary.totalCount);
+            this.queue = new ArrayBlockingQueue<>(numberOfThreads * 4);
+
+            int size = vocabulary.size();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            syn0 = new float[size][dimension];
+            syn1neg = new float[size][dimension];
+            for (float[] vector : syn0) {
+                for (int i = 0; i < dimension; i++) {
+                    vector[i] = (random.nextFloat() - 0.5f) / dimension;
+                }
+            }
+
+            cumTable = new int[size];
+            double trainWordsPow = 0;
+            for (long count : vocabulary.counts) {
+                trainWordsPow += Math.pow(count, 0.75);
+            }
+            double cumulative = 0;
+            for (int i = 0; i < size; i++) {
+                cumulative += Math.pow(vocabulary.counts[i], 0.75);
+                cumTable[i] = (int) Math.round(cumulative / trainWordsPow * Integer.MAX_VALUE);
+            }
+            cumTable[size - 1] = Integer.MAX_VALUE;
+
+            keepProbabilities = new float[size];
+            double sample = configuration.getSample();
+            double threshold = sample < 1.0 ? sample * vocabulary.totalCount : sample;
+            for (int i = 0; i < size; i++) {
+                if (sample <= 0) {
+                    keepProbabilities[i] = 1.0f;
+                } else {
+                    double count = vocabulary.counts[i];
+                    keepProbabilities[i] = (float) Math.min(1.0, (Math.sqrt(count / threshold) + 1) * (threshold / count));
+                }
+            }
+        }
+
+        /**
+         * Run the training.
+         *
+         * @return The trained vectors or null if the training was interrupted or a training thread failed.
+         * @throws IOException If the walks cannot be read.
+         */
+        float[][] run() throws IOException {
+            Thread[] threads = new Thread[numberOfThreads];
+            for (int i = 0; i < numberOfThreads; i++) {
+                threads[i] = new Thread(new TrainingThread(), "word2vec-training-" + i);
+                threads[i].setDaemon(true);
+                threads[i].start();
+            }
+            boolean isCompleted = false;
+            try {
+                for (int epoch = 0; epoch < epochs; epoch++) {
+                    if (!readEpoch()) break;
+                    LOGGER.info("Epoch " + (epoch + 1) + " of " + epochs + " read.");
+                }
+                isCompleted = !Thread.currentThread().isInterrupted();
+            } finally {
+                try {
+                    for (int i = 0; i < numberOfThreads; i++) {
+                        queue.put(END_OF_QUEUE);
+                    }
+                    for (Thread thread : threads) {
+                        thread.join();
+                    }
+                } catch (InterruptedException e) {
+                    LOGGER.error("Interrupted while waiting for the training threads.", e);
+                    for (Thread thread : threads) thread.interrupt();
+                    Thread.currentThread().interrupt();
+                    isCompleted = false;
+                }
+            }
+            if (failure.get() != null) {
+                LOGGER.error("A training thread failed. No model is written.", failure.get());
+                return null;
+            }
+            return isCompleted ? syn0 : null;
+        }
+
+        /**
+         * Hand all walks over to the training threads.
+         *
+         * @return False if interrupted.
+         * @throws IOException If the walks cannot be read.
+         */
+        private boolean readEpoch() throws IOException {
+            int[][][] batch = {new int[BATCH_SIZE][]};
+            int[] batchSize = {0};
+            boolean isCompleted = corpus.forEachWalk((tokens, length) -> {
+                int[] walk = new int[length];
+                int walkLength = 0;
+                for (int i = 0; i < length; i++) {
+                    Integer id = vocabulary.ids.get(tokens[i]);
+                    if (id != null) walk[walkLength++] = id;
+                }
+                if (walkLength == 0) return true;
+                batch[0][batchSize[0]++] = walkLength == length ? walk : Arrays.copyOf(walk, walkLength);
+                if (batchSize[0] == BATCH_SIZE) {
+                    if (!put(batch[0])) return false;
+                    batch[0] = new int[BATCH_SIZE][];
+                    batchSize[0] = 0;
+                }
+                return true;
+            });
+            if (!isCompleted) return false;
+            return batchSize[0] == 0 || put(Arrays.copyOf(batch[0], batchSize[0]));
+        }
+
+        private boolean put(int[][] batch) {
+            if (failure.get() != null) return false;
+            try {
+                queue.put(batch);
+                return true;
+            } catch (InterruptedException e) {
+                LOGGER.error("Interrupted while handing over walks for training.", e);
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        /**
+         * Draw a negative sample.
+         */
+        private int sampleNegative(ThreadLocalRandom random) {
+            int value = random.nextInt(Integer.MAX_VALUE);
+            int low = 0;
+            int high = cumTable.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cumTable[middle] > value) {
+                    high = middle;
+                } else low = middle + 1;
+            }
+            return low;
+        }
+
+        private final class TrainingThread implements Runnable {
+
+            private final float[] neu1 = new float[dimension];
+
+            private final float[] neu1e = new float[dimension];
+
+            private int[] sentence = new int[64];
+
+            @Override
+            public void run() {
+                try {
+                    train();
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                    drain();
+                }
+            }
+
+            private void train() {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (true) {
+                    int[][] batch;
+                    try {
+                        batch = queue.take();
+                    } catch (InterruptedException e) {
+                        LOGGER.error("The training thread was interrupted.", e);
+                        return;
+                    }
+                    if (batch == END_OF_QUEUE) return;
+                    float progress = (float) processedWords.get() / wordsToProcess;
+                    float alpha = Math.max(MIN_ALPHA, START_ALPHA - (START_ALPHA - MIN_ALPHA) * progress);
+                    long batchWords = 0;
+                    for (int[] walk : batch) {
+                        batchWords += walk.length;
+                        trainWalk(walk, alpha, random);
+                    }
+                    processedWords.addAndGet(batchWords);
+                }
+            }
+
+            /**
+             * Discard the remaining batches so that the reading thread is not blocked by a failed training thread.
+             */
+            private void drain() {
+                try {
+                    while (queue.take() != END_OF_QUEUE) ;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            private void trainWalk(int[] walk, float alpha, ThreadLocalRandom random) {
+                if (sentence.length < walk.length) sentence = new int[walk.length];
+                int length = 0;
+                for (int id : walk) {
+                    float keepProbability = keepProbabilities[id];
+                    if (keepProbability < 1.0f && keepProbability < random.nextFloat()) continue;
+                    sentence[length++] = id;
+                }
+                for (int position = 0; position < length; position++) {
+                    int word = sentence[position];
+                    int reducedWindow = random.nextInt(window);
+                    int start = Math.max(0, position - window + reducedWindow);
+                    int end = Math.min(length, position + window + 1 - reducedWindow);
+                    if (type == Word2VecType.SG) {
+                        for (int c = start; c < end; c++) {
+                            if (c == position) continue;
+                            float[] context = syn0[sentence[c]];
+                            trainNegatives(context, word, alpha, random);
+                            for (int i = 0; i < dimension; i++) context[i] += neu1e[i];
+                        }
+                    } else {
+                        Arrays.fill(neu1, 0.0f);
+                        int count = 0;
+                        for (int c = start; c < end; c++) {
+                            if (c == position) continue;
+                            float[] context = syn0[sentence[c]];
+                            for (int i = 0; i < dimension; i++) neu1[i] += context[i];
+                            count++;
+                        }
+                        if (count == 0) continue;
+                        float inverseCount = 1.0f / count;
+                        for (int i = 0; i < dimension; i++) neu1[i] *= inverseCount;
+                        trainNegatives(neu1, word, alpha, random);
+                        for (int c = start; c < end; c++) {
+                            if (c == position) continue;
+                            float[] context = syn0[sentence[c]];
+                            for (int i = 0; i < dimension; i++) context[i] += neu1e[i];
+                        }
+                    }
+                }
+            }
+
+            /**
+             * Negative sampling for the given input vector and target word. The error of the input vector is written to
+             * {@link #neu1e}.
+             */
+            private void trainNegatives(float[] input, int word, float alpha, ThreadLocalRandom random) {
+                Arrays.fill(neu1e, 0.0f);
+                for (int d = 0; d <= negatives; d++) {
+                    int target;
+                    float label;
+                    if (d == 0) {
+                        target = word;
+                        label = 1.0f;
+                    } else {
+                        target = sampleNegative(random);
+                        if (target == word) continue;
+                        label = 0.0f;
+                    }
+                    float[] output = syn1neg[target];
+                    float f = 0.0f;
+                    for (int i = 0; i < dimension; i++) f += input[i] * output[i];
+                    float gradient;
+                    if (f > MAX_EXP) {
+                        gradient = (label - 1.0f) * alpha;
+                    } else if (f < -MAX_EXP) {
+                        gradient = label * alpha;
+                    } else {
+                        gradient = (label - EXP_TABLE[(int) ((f + MAX_EXP) * (EXP_TABLE_SIZE / (2.0f * MAX_EXP)))]) * alpha;
+                    }
+                    for (int i = 0; i < dimension; i++) {
+                        neu1e[i] += gradient * output[i];
+                        output[i] += gradient * input[i];
+                    }
+                }
+            }
+        }
+    }
+}
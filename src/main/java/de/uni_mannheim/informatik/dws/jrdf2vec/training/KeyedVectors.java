@@ -0,0 +1,380 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.training;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Word vectors which are held in the JVM; the Java counterpart of gensim's {@code KeyedVectors} for consumption.
+ * Vectors can be loaded from a text vector file ({@code vectors.txt}, as written by
+ * {@link IWord2VecTrainer#writeModelAsTextFile(String, String)}) or from a binary word2vec file (as written by
+ * {@link JavaWord2Vec}). Lookups do not require the Python server.
+ * <p>
+ * All vectors are held in a {@link VectorMatrix} of unit-length rows (stored in blocks, so that the number of vectors
+ * is not limited by the maximal array size); the original lengths are kept separately so that the original vectors
+ * can be restored. Instances are immutable and thread-safe.
+ * Note that gensim's pickled {@code .kv} files cannot be read; convert them to a text vector file first.
+ */
+public class KeyedVectors {
+
+    /**
+     * The number of rows which are scanned as one block by {@link #getMostSimilar(String, int)}.
+     */
+    private static final int BLOCK_SIZE = 16384;
+
+    /**
+     * The minimal number of rows for which the blocks are scanned in parallel.
+     */
+    private static final int PARALLEL_SCAN_THRESHOLD = 4 * BLOCK_SIZE;
+
+    /**
+     * Concept -> row
+     */
+    private final Map<String, Integer> indices;
+
+    /**
+     * Row -> concept
+     */
+    private final String[] concepts;
+
+    private final int dimension;
+
+    /**
+     * The normalized vectors (one row per concept).
+     */
+    private final VectorMatrix normalizedVectors;
+
+    /**
+     * The length of each original vector.
+     */
+    private final float[] norms;
+
+    /**
+     * Constructor
+     *
+     * @param concepts The concepts (no duplicates).
+     * @param vectors  The vectors; row i belongs to concept i. The matrix may have more rows than concepts (unused
+     *                 rows are ignored). The matrix is normalized in place.
+     */
+    KeyedVectors(String[] concepts, VectorMatrix vectors) {
+        this.concepts = concepts;
+        this.dimension = vectors.getDimension();
+        this.normalizedVectors = vectors;
+        this.norms = new float[concepts.length];
+        this.indices = new HashMap<>((int) Math.min(Integer.MAX_VALUE, 2L * concepts.length));
+        for (int row = 0; row < concepts.length; row++) {
+            indices.put(concepts[row], row);
+            norms[row] = vectors.normalizeRow(row);
+        }
+    }
+
+    /**
+     * Load the vectors from a file. Files ending with {@code .txt} are read as text vector files, all other files are
+     * read as binary word2vec files.
+     *
+     * @param file The vector file.
+     * @return The vectors.
+     * @throws IOException If the file cannot be read.
+     */
+    public static KeyedVectors load(File file) throws IOException {
+        if (file.getName().endsWith(".kv")) {
+            throw new IOException("Gensim vector files (.kv) are not supported. Write the vectors as text file first: "
+                    + file.getAbsolutePath());
+        }
+        if (file.getName().endsWith(".txt")) {
+            return loadTextFile(file);
+        }
+        return loadWord2VecFile(file);
+    }
+
+    /**
+     * Load the vectors from a text vector file: one concept per line, followed by the vector components (separated
+     * by spaces). Empty lines (concepts of an entity file which are not in the vocabulary) are skipped. If a concept
+     * occurs multiple times, the first vector is used. The file is read twice: the first pass determines the size of
+     * the matrix.
+     *
+     * @param file The text vector file.
+     * @return The vectors.
+     * @throws IOException If the file cannot be read or contains vectors of different dimensions.
+     */
+    public static KeyedVectors loadTextFile(File file) throws IOException {
+        // first pass: upper bound of the number of vectors and the dimension
+        int numberOfLines = 0;
+        int dimension = 0;
+        try (BufferedReader reader = openTextFile(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+                if (dimension == 0) {
+                    dimension = line.split(" ").length - 1;
+                    if (dimension == 0) continue;
+                }
+                numberOfLines++;
+            }
+        }
+
+        Set<String> seen = new HashSet<>((int) Math.min(Integer.MAX_VALUE, 2L * numberOfLines));
+        String[] concepts = new String[numberOfLines];
+        VectorMatrix vectors = new VectorMatrix(numberOfLines, dimension);
+        int size = 0;
+        try (BufferedReader reader = openTextFile(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null && size < numberOfLines) {
+                lineNumber++;
+                String[] tokens = line.trim().split(" ");
+                if (tokens.length < 2) continue;
+                if (tokens.length - 1 != dimension) {
+                    throw new IOException("Line " + lineNumber + " of " + file.getAbsolutePath() + " has " +
+                            (tokens.length - 1) + " instead of " + dimension + " dimensions.");
+                }
+                if (!seen.add(tokens[0])) continue;
+                concepts[size] = tokens[0];
+                try {
+                    for (int i = 0; i < dimension; i++) {
+                        vectors.set(size, i, Float.parseFloat(tokens[i + 1]));
+                    }
+                } catch (NumberFormatException nfe) {
+                    throw new IOException("Line " + lineNumber + " of " + file.getAbsolutePath() + " contains an invalid number.", nfe);
+                }
+                size++;
+            }
+        }
+        return new KeyedVectors(size == concepts.length ? concepts : Arrays.copyOf(concepts, size), vectors);
+    }
+
+    private static BufferedReader openTextFile(File file) throws IOException {
+        return new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    /**
+     * Load the vectors from a binary word2vec file (see {@link JavaWord2Vec#readModel(File)}).
+     *
+     * @param file The binary word2vec file.
+     * @return The vectors.
+     * @throws IOException If the file cannot be read.
+     */
+    public static KeyedVectors loadWord2VecFile(File file) throws IOException {
+        Map<String, float[]> model = JavaWord2Vec.readModel(file);
+        String[] concepts = model.keySet().toArray(new String[0]);
+        int dimension = concepts.length == 0 ? 0 : model.get(concepts[0]).length;
+        VectorMatrix vectors = new VectorMatrix(concepts.length, dimension);
+        for (int row = 0; row < concepts.length; row++) {
+            vectors.setRow(row, model.get(concepts[row]));
+        }
+        return new KeyedVectors(concepts, vectors);
+    }
+
+    /**
+     * Save the vectors as binary word2vec file which can be loaded faster than a text vector file
+     * (see {@link #loadWord2VecFile(File)}).
+     *
+     * @param file The file to be written.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(File file) throws IOException {
+        float[][] vectors = new float[concepts.length][];
+        for (int row = 0; row < concepts.length; row++) {
+            vectors[row] = getVector(concepts[row]);
+        }
+        JavaWord2Vec.writeModel(file, concepts, vectors);
+    }
+
+    /**
+     * Returns the vector of a concept.
+     *
+     * @param concept The concept.
+     * @return A copy of the vector or null if the concept is not in the vocabulary.
+     */
+    public float[] getVector(String concept) {
+        Integer row = indices.get(concept);
+        if (row == null) return null;
+        float[] result = normalizedVectors.getRow(row);
+        float norm = norms[row];
+        for (int i = 0; i < dimension; i++) {
+            result[i] *= norm;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cosine similarity of two concepts.
+     *
+     * @param concept1 First concept.
+     * @param concept2 Second concept.
+     * @return The similarity or -1.0 if a concept is not in the vocabulary.
+     */
+    public double getSimilarity(String concept1, String concept2) {
+        Integer row1 = indices.get(concept1);
+        Integer row2 = indices.get(concept2);
+        if (row1 == null || row2 == null) return -1.0;
+        return normalizedVectors.dot(row1, row2);
+    }
+
+    /**
+     * Returns the k concepts which are most similar to the stated concept (exact search). The concept itself is not
+     * part of the result. The matrix is scanned in blocks which are processed in parallel for large vocabularies.
+     * For very large vocabularies, consider an approximate {@link HnswIndex}.
+     *
+     * @param concept The concept.
+     * @param k       The number of concepts to be returned.
+     * @return The most similar concepts in descending order of similarity. Empty if the concept is not in the
+     * vocabulary.
+     */
+    public List<SimilarConcept> getMostSimilar(String concept, int k) {
+        int row = getIndex(concept);
+        if (row < 0) return new ArrayList<>();
+        return getMostSimilar(normalizedVectors.getRow(row), k, row);
+    }
+
+    /**
+     * Returns the k concepts which are most similar to the stated vector (exact search).
+     *
+     * @param vector The vector (not necessarily normalized).
+     * @param k      The number of concepts to be returned.
+     * @return The most similar concepts in descending order of similarity.
+     */
+    public List<SimilarConcept> getMostSimilar(float[] vector, int k) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("The vector has " + vector.length + " instead of " + dimension + " dimensions.");
+        }
+        return getMostSimilar(normalize(vector), k, -1);
+    }
+
+    private List<SimilarConcept> getMostSimilar(float[] query, int k, int excludedRow) {
+        List<SimilarConcept> result = new ArrayList<>();
+        if (k <= 0 || concepts.length == 0) return result;
+        int numberOfBlocks = (int) (((long) concepts.length + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        IntStream blocks = IntStream.range(0, numberOfBlocks);
+        if (concepts.length >= PARALLEL_SCAN_THRESHOLD) blocks = blocks.parallel();
+
+        // top k of each block; merged afterwards
+        List<IntFloatHeap> blockResults = blocks.mapToObj(block -> scanBlock(query, block, k, excludedRow))
+                .collect(Collectors.toList());
+        IntFloatHeap topK = new IntFloatHeap(k);
+        int[] rows = new int[k];
+        float[] scores = new float[k];
+        for (IntFloatHeap blockResult : blockResults) {
+            int count = blockResult.drainDescending(rows, scores);
+            for (int i = 0; i < count; i++) {
+                topK.offer(rows[i], scores[i], k);
+            }
+        }
+        int count = topK.drainDescending(rows, scores);
+        for (int i = 0; i < count; i++) {
+            result.add(new SimilarConcept(concepts[rows[i]], scores[i]));
+        }
+        return result;
+    }
+
+    private IntFloatHeap scanBlock(float[] query, int block, int k, int excludedRow) {
+        IntFloatHeap heap = new IntFloatHeap(k);
+        int end = (int) Math.min((block + 1L) * BLOCK_SIZE, concepts.length);
+        for (int row = block * BLOCK_SIZE; row < end; row++) {
+            if (row == excludedRow) continue;
+            float score = normalizedVectors.dot(row, query, 0);
+            if (heap.size() < k || score > heap.peekScore()) {
+                heap.offer(row, score, k);
+            }
+        }
+        return heap;
+    }
+
+    /**
+     * Dot product of two vectors which are stored in (possibly larger) arrays. Four independent accumulators are used
+     * so that the JIT compiler can pipeline the multiplications.
+     *
+     * @param vector1 Array of the first vector.
+     * @param offset1 Offset of the first vector.
+     * @param vector2 Array of the second vector.
+     * @param offset2 Offset of the second vector.
+     * @param length  The dimension of the vectors.
+     * @return Dot product.
+     */
+    static float dot(float[] vector1, int offset1, float[] vector2, int offset2, int length) {
+        float sum0 = 0.0f, sum1 = 0.0f, sum2 = 0.0f, sum3 = 0.0f;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            sum0 += vector1[offset1 + i] * vector2[offset2 + i];
+            sum1 += vector1[offset1 + i + 1] * vector2[offset2 + i + 1];
+            sum2 += vector1[offset1 + i + 2] * vector2[offset2 + i + 2];
+            sum3 += vector1[offset1 + i + 3] * vector2[offset2 + i + 3];
+        }
+        for (; i < length; i++) {
+            sum0 += vector1[offset1 + i] * vector2[offset2 + i];
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    /**
+     * Returns a normalized copy of the vector.
+     *
+     * @param vector The vector.
+     * @return Vector of unit length (or the zero vector).
+     */
+    static float[] normalize(float[] vector) {
+        float[] result = vector.clone();
+        double sum = 0.0;
+        for (float component : vector) {
+            sum += component * component;
+        }
+        float norm = (float) Math.sqrt(sum);
+        if (norm > 0) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] /= norm;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns true when the concept can be found in the vocabulary.
+     *
+     * @param concept The concept.
+     * @return True if exists, else false.
+     */
+    public boolean isInVocabulary(String concept) {
+        return indices.containsKey(concept);
+    }
+
+    /**
+     * Returns the row of a concept in the matrix.
+     *
+     * @param concept The concept.
+     * @return The row or -1 if the concept is not in the vocabulary.
+     */
+    int getIndex(String concept) {
+        Integer row = indices.get(concept);
+        return row == null ? -1 : row;
+    }
+
+    /**
+     * Returns the concept of a row.
+     *
+     * @param index The row.
+     * @return The concept.
+     */
+    String getConcept(int index) {
+        return concepts[index];
+    }
+
+    /**
+     * Returns the matrix of the normalized vectors (must not be modified).
+     *
+     * @return The normalized matrix.
+     */
+    VectorMatrix getNormalizedVectors() {
+        return normalizedVectors;
+    }
+
+    public int getVocabularySize() {
+        return concepts.length;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+}
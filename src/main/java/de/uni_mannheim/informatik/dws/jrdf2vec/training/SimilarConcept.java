@@ -0,0 +1,35 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.training;
+
+/**
+ * A concept together with its similarity to a query (see {@link KeyedVectors#getMostSimilar(String, int)}).
+ */
+public class SimilarConcept {
+
+    private final String concept;
+
+    private final double similarity;
+
+    /**
+     * Constructor
+     *
+     * @param concept    The concept.
+     * @param similarity The cosine similarity to the query.
+     */
+    public SimilarConcept(String concept, double similarity) {
+        this.concept = concept;
+        this.similarity = similarity;
+    }
+
+    public String getConcept() {
+        return concept;
+    }
+
+    public double getSimilarity() {
+        return similarity;
+    }
+
+    @Override
+    public String toString() {
+        return concept + " (" + similarity + ")";
+    }
+}
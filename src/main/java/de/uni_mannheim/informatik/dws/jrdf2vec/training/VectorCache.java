@@ -0,0 +1,171 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.training;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size-bounded least-recently-used cache for the vectors of a single model. The vectors are stored as primitive
+ * {@code float} arrays and the cache is bounded by an estimate of the occupied memory. Only vectors are cached: a
+ * concept which is not in the vocabulary is requested again on the next lookup.
+ * All methods are thread-safe.
+ */
+public class VectorCache {
+
+    /**
+     * The default capacity in bytes (256 MB).
+     */
+    public static final long DEFAULT_CAPACITY = 256L * 1024 * 1024;
+
+    /**
+     * Estimated memory occupied by an entry in addition to the vector values and the key characters (map entry,
+     * array header, string object).
+     */
+    private static final int ENTRY_OVERHEAD = 112;
+
+    /**
+     * Access-ordered map: the eldest entry is the least recently used one.
+     */
+    private final LinkedHashMap<String, float[]> vectors = new LinkedHashMap<>(1024, 0.75f, true);
+
+    private long capacity;
+
+    private long size = 0;
+
+    private long hitCount = 0;
+
+    private long missCount = 0;
+
+    private long evictionCount = 0;
+
+    /**
+     * Constructor
+     */
+    public VectorCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param capacity The maximal (estimated) memory in bytes which shall be occupied by the cache.
+     */
+    public VectorCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the cached vector of the concept. The returned array must not be modified.
+     *
+     * @param concept The concept.
+     * @return The vector or null if the concept is not cached.
+     */
+    public synchronized float[] get(String concept) {
+        float[] vector = vectors.get(concept);
+        if (vector == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return vector;
+    }
+
+    /**
+     * Adds the vector of the concept. Least recently used vectors are evicted if the capacity is exceeded.
+     *
+     * @param concept The concept.
+     * @param vector  The vector; must not be modified after it was added.
+     */
+    public synchronized void put(String concept, float[] vector) {
+        if (concept == null || vector == null) return;
+        float[] previous = vectors.put(concept, vector);
+        if (previous != null) {
+            size -= getEntrySize(concept, previous);
+        }
+        size += getEntrySize(concept, vector);
+        evict();
+    }
+
+    /**
+     * Removes all vectors. The statistics are kept.
+     */
+    public synchronized void clear() {
+        vectors.clear();
+        size = 0;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, float[]>> iterator = vectors.entrySet().iterator();
+        while (size > capacity && iterator.hasNext()) {
+            Map.Entry<String, float[]> eldest = iterator.next();
+            size -= getEntrySize(eldest.getKey(), eldest.getValue());
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    private static long getEntrySize(String concept, float[] vector) {
+        return ENTRY_OVERHEAD + 2L * concept.length() + (long) Float.BYTES * vector.length;
+    }
+
+    /**
+     * Returns the number of cached vectors.
+     *
+     * @return Number of vectors.
+     */
+    public synchronized int getNumberOfVectors() {
+        return vectors.size();
+    }
+
+    /**
+     * Returns the estimated memory occupied by the cached vectors.
+     *
+     * @return Size in bytes.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public synchronized long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Set the maximal (estimated) memory in bytes which shall be occupied by the cache. Vectors are evicted if the
+     * new capacity is exceeded.
+     *
+     * @param capacity Capacity in bytes.
+     */
+    public synchronized void setCapacity(long capacity) {
+        this.capacity = capacity;
+        evict();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the share of lookups which could be answered by the cache.
+     *
+     * @return Hit rate between 0 and 1 (0 if there were no lookups yet).
+     */
+    public synchronized double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0.0 : (double) hitCount / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "VectorCache{vectors=" + vectors.size() + ", size=" + size + ", capacity=" + capacity +
+                ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + "}";
+    }
+}
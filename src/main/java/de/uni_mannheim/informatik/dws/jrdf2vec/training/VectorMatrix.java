@@ -0,0 +1,175 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.training;
+
+/**
+ * A dense matrix of float vectors (one vector per row) which is stored in blocks of a fixed number of rows. A single
+ * Java array cannot hold more than 2^31 - 1 elements, i.e. a flat row-major matrix is limited to about 10.7 million
+ * vectors of dimension 200; the blocks lift this limit. Offsets within a block always fit into an int.
+ * <p>
+ * The matrix is not thread-safe while it is being written; after it has been filled, concurrent reads are safe.
+ */
+final class VectorMatrix {
+
+    /**
+     * The default number of rows per block (2^20).
+     */
+    static final int DEFAULT_ROWS_PER_BLOCK = 1 << 20;
+
+    private final float[][] blocks;
+
+    private final int numberOfRows;
+
+    private final int dimension;
+
+    private final int rowsPerBlock;
+
+    /**
+     * Constructor
+     *
+     * @param numberOfRows The number of rows (vectors).
+     * @param dimension    The dimension of the vectors.
+     */
+    VectorMatrix(int numberOfRows, int dimension) {
+        this(numberOfRows, dimension, DEFAULT_ROWS_PER_BLOCK);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param numberOfRows The number of rows (vectors).
+     * @param dimension    The dimension of the vectors.
+     * @param rowsPerBlock The maximal number of rows per block. It is reduced if a block would exceed the maximal
+     *                     array size.
+     */
+    VectorMatrix(int numberOfRows, int dimension, int rowsPerBlock) {
+        if (numberOfRows < 0 || dimension < 0 || rowsPerBlock < 1) {
+            throw new IllegalArgumentException("Invalid matrix size: " + numberOfRows + " x " + dimension +
+                    " (" + rowsPerBlock + " rows per block).");
+        }
+        this.numberOfRows = numberOfRows;
+        this.dimension = dimension;
+        this.rowsPerBlock = dimension == 0 ? rowsPerBlock : Math.max(1, Math.min(rowsPerBlock, (Integer.MAX_VALUE - 8) / dimension));
+        int numberOfBlocks = (int) (((long) numberOfRows + this.rowsPerBlock - 1) / this.rowsPerBlock);
+        this.blocks = new float[numberOfBlocks][];
+        for (int block = 0; block < numberOfBlocks; block++) {
+            int rows = Math.min(this.rowsPerBlock, numberOfRows - block * this.rowsPerBlock);
+            blocks[block] = new float[rows * dimension];
+        }
+    }
+
+    /**
+     * Returns the block which holds the row (see {@link #getOffset(int)}). The block must not be modified.
+     *
+     * @param row The row.
+     * @return The block array.
+     */
+    float[] getBlock(int row) {
+        return blocks[getBlockIndex(row)];
+    }
+
+    /**
+     * Returns the offset of the first component of the row within its block (see {@link #getBlock(int)}).
+     *
+     * @param row The row.
+     * @return Offset within the block.
+     */
+    int getOffset(int row) {
+        return (row % rowsPerBlock) * dimension;
+    }
+
+    int getBlockIndex(int row) {
+        return row / rowsPerBlock;
+    }
+
+    /**
+     * Returns the position of the first component of the row as if the matrix was stored as one flat array.
+     *
+     * @param row The row.
+     * @return Position of the row.
+     */
+    long getPosition(int row) {
+        return (long) getBlockIndex(row) * rowsPerBlock * dimension + getOffset(row);
+    }
+
+    /**
+     * Returns a copy of the row.
+     *
+     * @param row The row.
+     * @return The vector.
+     */
+    float[] getRow(int row) {
+        float[] result = new float[dimension];
+        System.arraycopy(getBlock(row), getOffset(row), result, 0, dimension);
+        return result;
+    }
+
+    /**
+     * Overwrite the row.
+     *
+     * @param row    The row.
+     * @param vector The vector; its length must be the dimension of the matrix.
+     */
+    void setRow(int row, float[] vector) {
+        System.arraycopy(vector, 0, getBlock(row), getOffset(row), dimension);
+    }
+
+    void set(int row, int component, float value) {
+        getBlock(row)[getOffset(row) + component] = value;
+    }
+
+    /**
+     * Scale the row to unit length.
+     *
+     * @param row The row.
+     * @return The original length of the row.
+     */
+    float normalizeRow(int row) {
+        float[] block = getBlock(row);
+        int offset = getOffset(row);
+        double sum = 0.0;
+        for (int i = offset; i < offset + dimension; i++) {
+            sum += block[i] * block[i];
+        }
+        float norm = (float) Math.sqrt(sum);
+        if (norm > 0) {
+            for (int i = offset; i < offset + dimension; i++) {
+                block[i] /= norm;
+            }
+        }
+        return norm;
+    }
+
+    /**
+     * Dot product of a row and a vector which is stored in a (possibly larger) array.
+     *
+     * @param row         The row.
+     * @param query       Array of the vector.
+     * @param queryOffset Offset of the vector.
+     * @return Dot product.
+     */
+    float dot(int row, float[] query, int queryOffset) {
+        return KeyedVectors.dot(query, queryOffset, getBlock(row), getOffset(row), dimension);
+    }
+
+    /**
+     * Dot product of two rows.
+     *
+     * @param row1 First row.
+     * @param row2 Second row.
+     * @return Dot product.
+     */
+    float dot(int row1, int row2) {
+        return dot(row1, getBlock(row2), getOffset(row2));
+    }
+
+    int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    int getDimension() {
+        return dimension;
+    }
+
+    int getRowsPerBlock() {
+        return rowsPerBlock;
+    }
+}
@@ -0,0 +1,161 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.training;
+
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers.WalkVocabulary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The walks of a walk file or of all walk files in a directory. Like the Python server, text files (optionally
+ * gzipped; one walk per line, tokens separated by a space) and binary walk files ({@code .bin.gz}) are supported.
+ * The corpus can be iterated multiple times (once per epoch).
+ */
+class WalkCorpus {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(WalkCorpus.class);
+
+    /**
+     * Receives the walks of the corpus.
+     */
+    interface WalkConsumer {
+
+        /**
+         * Process a single walk. The token array is reused for the next walk.
+         *
+         * @param tokens The tokens of the walk (the array may be longer than the walk).
+         * @param length The number of tokens.
+         * @return True if the iteration shall be continued, else false.
+         */
+        boolean accept(String[] tokens, int length);
+    }
+
+    private final List<File> files = new ArrayList<>();
+
+    /**
+     * The vocabulary of the binary walk files. Read on demand.
+     */
+    private String[] binaryVocabulary;
+
+    private final File vocabularyFile;
+
+    /**
+     * Constructor
+     *
+     * @param fileOrDirectory A walk file or a directory of walk files.
+     */
+    WalkCorpus(File fileOrDirectory) {
+        if (fileOrDirectory.isDirectory()) {
+            File[] directoryFiles = fileOrDirectory.listFiles();
+            if (directoryFiles != null) {
+                Arrays.sort(directoryFiles);
+                for (File file : directoryFiles) {
+                    if (file.isFile() && !file.getName().equals(WalkVocabulary.VOCABULARY_FILE_NAME)) {
+                        files.add(file);
+                    }
+                }
+            }
+            vocabularyFile = new File(fileOrDirectory, WalkVocabulary.VOCABULARY_FILE_NAME);
+        } else {
+            files.add(fileOrDirectory);
+            vocabularyFile = new File(fileOrDirectory.getAbsoluteFile().getParentFile(), WalkVocabulary.VOCABULARY_FILE_NAME);
+        }
+    }
+
+    /**
+     * Returns the walk files of the corpus.
+     *
+     * @return Files.
+     */
+    List<File> getFiles() {
+        return files;
+    }
+
+    /**
+     * Iterate over all walks.
+     *
+     * @param consumer Receives the walks.
+     * @return True if all walks were iterated, false if the consumer stopped the iteration.
+     * @throws IOException If a file cannot be read.
+     */
+    boolean forEachWalk(WalkConsumer consumer) throws IOException {
+        for (File file : files) {
+            LOGGER.info("Processing file: " + file.getName());
+            boolean isContinued = isBinaryWalkFile(file) ? readBinary(file, consumer) : readText(file, consumer);
+            if (!isContinued) return false;
+        }
+        return true;
+    }
+
+    static boolean isBinaryWalkFile(File file) {
+        return file.getName().endsWith(".bin.gz") || file.getName().endsWith(".bin");
+    }
+
+    private static InputStream open(File file) throws IOException {
+        InputStream inputStream = new FileInputStream(file);
+        if (file.getName().endsWith(".gz")) {
+            inputStream = new GZIPInputStream(inputStream, 1 << 16);
+        }
+        return inputStream;
+    }
+
+    private boolean readText(File file, WalkConsumer consumer) throws IOException {
+        String[] tokens = new String[64];
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(open(file), StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int length = 0;
+                int start = 0;
+                while (start <= line.length()) {
+                    int end = line.indexOf(' ', start);
+                    if (end < 0) end = line.length();
+                    if (end > start) {
+                        if (length == tokens.length) tokens = Arrays.copyOf(tokens, length * 2);
+                        tokens[length++] = line.substring(start, end);
+                    }
+                    start = end + 1;
+                }
+                if (length > 0 && !consumer.accept(tokens, length)) return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean readBinary(File file, WalkConsumer consumer) throws IOException {
+        if (binaryVocabulary == null) {
+            binaryVocabulary = WalkVocabulary.read(vocabularyFile);
+        }
+        String[] tokens = new String[64];
+        int length = 0;
+        try (InputStream inputStream = new BufferedInputStream(open(file), 1 << 16)) {
+            int value = 0;
+            int shift = 0;
+            int b;
+            while ((b = inputStream.read()) >= 0) {
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) != 0) {
+                    shift += 7;
+                    continue;
+                }
+                if (value == 0) {
+                    if (length > 0 && !consumer.accept(tokens, length)) return false;
+                    length = 0;
+                } else {
+                    if (length == tokens.length) tokens = Arrays.copyOf(tokens, length * 2);
+                    tokens[length++] = binaryVocabulary[value - 1];
+                }
+                value = 0;
+                shift = 0;
+            }
+        }
+        return true;
+    }
+}
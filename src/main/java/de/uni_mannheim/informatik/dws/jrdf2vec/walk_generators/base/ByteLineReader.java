@@ -0,0 +1,103 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Reads lines as raw bytes from an input stream, reusing one line buffer. Line breaks are {@code \n} or
+ * {@code \r\n}; they are not part of the line.
+ * This class is not thread-safe.
+ */
+class ByteLineReader {
+
+    private final InputStream in;
+    private final byte[] readBuffer = new byte[1 << 16];
+    private int readPosition = 0;
+    private int readLimit = 0;
+
+    private byte[] line = new byte[1024];
+    private int length = 0;
+
+    /**
+     * Number of bytes consumed from the stream (including line breaks), i.e. the position of the next line.
+     */
+    private long position = 0;
+
+    /**
+     * Constructor
+     * @param in Stream to read from. The stream is not closed by this reader.
+     */
+    ByteLineReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Read the next line.
+     * @return False if the end of the stream is reached, else true.
+     * @throws IOException If reading fails.
+     */
+    boolean next() throws IOException {
+        length = 0;
+        boolean isAnyByteRead = false;
+        while (true) {
+            if (readPosition == readLimit) {
+                readLimit = in.read(readBuffer, 0, readBuffer.length);
+                readPosition = 0;
+                if (readLimit <= 0) {
+                    readLimit = 0;
+                    return isAnyByteRead;
+                }
+            }
+            isAnyByteRead = true;
+            int start = readPosition;
+            while (readPosition < readLimit && readBuffer[readPosition] != '\n') readPosition++;
+            append(start, readPosition);
+            if (readPosition < readLimit) {
+                // line break found
+                readPosition++;
+                position++;
+                if (length > 0 && line[length - 1] == '\r') length--;
+                return true;
+            }
+        }
+    }
+
+    private void append(int from, int to) {
+        int n = to - from;
+        if (length + n > line.length) line = Arrays.copyOf(line, Math.max(length + n, 2 * line.length));
+        System.arraycopy(readBuffer, from, line, length, n);
+        length += n;
+        position += n;
+    }
+
+    /**
+     * Skip the given number of bytes.
+     * @param bytesToSkip Number of bytes.
+     * @throws IOException If reading fails.
+     */
+    void skip(long bytesToSkip) throws IOException {
+        int buffered = Math.min(readLimit - readPosition, (int) Math.min(bytesToSkip, Integer.MAX_VALUE));
+        readPosition += buffered;
+        position += buffered;
+        bytesToSkip -= buffered;
+        while (bytesToSkip > 0) {
+            long skipped = in.skip(bytesToSkip);
+            if (skipped <= 0) break;
+            position += skipped;
+            bytesToSkip -= skipped;
+        }
+    }
+
+    byte[] getLine() {
+        return line;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    long getPosition() {
+        return position;
+    }
+}
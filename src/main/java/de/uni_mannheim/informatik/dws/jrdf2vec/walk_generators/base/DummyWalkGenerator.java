@@ -35,6 +35,11 @@ public class DummyWalkGenerator extends WalkGenerator {
         return uri;
     }
 
+    @Override
+    public boolean isShorteningUris() {
+        return false;
+    }
+
     @Override
     public void generateRandomMidWalks(int numberOfThreads, int numberOfWalksPerEntity, int depth) {
 
@@ -45,6 +50,16 @@ public class DummyWalkGenerator extends WalkGenerator {
 
     }
 
+    @Override
+    public void generateWeightedRandomWalks(int numberOfThreads, int numberOfWalksPerEntity, int depth) {
+
+    }
+
+    @Override
+    public void generateWeightedRandomWalks(int numberOfThreads, int numberOfWalksPerEntity, int depth, String filePathOfFileToBeWritten) {
+
+    }
+
     @Override
     public void generateWeightedMidWalks(int numberOfThreads, int numberOfWalksPerEntity, int depth) {
 
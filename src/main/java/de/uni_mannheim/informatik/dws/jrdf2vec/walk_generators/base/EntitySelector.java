@@ -1,15 +1,40 @@
 package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Set;
 
 /**
  * Select the entities for which walks shall be generated.
+ * The walk generation iterates over the selector (see {@link #iterator()}) so that implementations can stream the
+ * entities rather than materializing them.
  */
-public interface EntitySelector {
+public interface EntitySelector extends Iterable<String> {
 
     /**
      * Obtain all entities for which walks shall be generated.
      * @return The entities to be returned.
      */
     Set<String> getEntities();
+
+    /**
+     * Iterate over all entities for which walks shall be generated. Every entity is returned once.
+     * The default implementation materializes {@link #getEntities()}; implementations should override this method
+     * if the entities can be streamed.
+     * @return Iterator over the entities.
+     */
+    @Override
+    default Iterator<String> iterator() {
+        Set<String> entities = getEntities();
+        if (entities == null) return Collections.emptyIterator();
+        return entities.iterator();
+    }
+
+    /**
+     * Obtain the (estimated) number of entities without iterating over them.
+     * @return Number of entities or -1 if unknown.
+     */
+    default long getNumberOfEntitiesHint() {
+        return -1;
+    }
 }
@@ -1,15 +1,16 @@
 package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
 
-import org.rdfhdt.hdt.exceptions.NotFoundException;
+import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
 import org.rdfhdt.hdt.hdt.HDT;
 import org.rdfhdt.hdt.hdt.HDTManager;
-import org.rdfhdt.hdt.triples.IteratorTripleString;
-import org.rdfhdt.hdt.triples.TripleString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
@@ -43,23 +44,52 @@ public class HdtEntitySelector implements EntitySelector {
         }
     }
 
+    /**
+     * Constructor
+     *
+     * @param hdtDataSet The HDT data set (e.g. the one of the {@link HdtParser}) so that it is not loaded twice.
+     */
+    public HdtEntitySelector(HDT hdtDataSet) {
+        this.hdtDataSet = hdtDataSet;
+    }
+
     @Override
     public Set<String> getEntities() {
         HashSet<String> result = new HashSet<>();
-        IteratorTripleString iterator = null;
-        try {
-            iterator = hdtDataSet.search("", "", "");
+        for (String entity : this) {
+            result.add(entity);
+        }
+        return result;
+    }
+
+    /**
+     * Streams the subjects directly from the subject section of the HDT dictionary (IDs 1 to # of subjects).
+     * No triple has to be read.
+     *
+     * @return Iterator over all subjects.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        Dictionary dictionary = hdtDataSet.getDictionary();
+        long numberOfSubjects = dictionary.getNsubjects();
+        return new Iterator<String>() {
+            long nextId = 1;
 
-            TripleString ts;
-            while (iterator.hasNext()) {
-                ts = iterator.next();
-                result.add(ts.getSubject().toString());
+            @Override
+            public boolean hasNext() {
+                return nextId <= numberOfSubjects;
             }
-            return result;
-        } catch (NotFoundException e) {
-            LOGGER.error("Could not get HDT subjects. Returning null.");
-            e.printStackTrace();
-            return null;
-        }
+
+            @Override
+            public String next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return dictionary.idToString(nextId++, TripleComponentRole.SUBJECT).toString();
+            }
+        };
+    }
+
+    @Override
+    public long getNumberOfEntitiesHint() {
+        return hdtDataSet.getDictionary().getNsubjects();
     }
 }
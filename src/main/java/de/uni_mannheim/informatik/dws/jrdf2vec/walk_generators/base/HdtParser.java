@@ -1,5 +1,8 @@
 package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
 
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.AliasTable;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.EdgeWeighting;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.HdtGraph;
 import org.rdfhdt.hdt.exceptions.NotFoundException;
 import org.rdfhdt.hdt.hdt.HDT;
 import org.rdfhdt.hdt.hdt.HDTManager;
@@ -27,9 +30,33 @@ public class HdtParser implements IParser {
      */
     HDT hdtDataSet;
 
+    /**
+     * ID-based view on {@link #hdtDataSet} on which the walks are generated.
+     */
+    HdtGraph graph;
+
+    /**
+     * The edge weights used for weighted random walks.
+     */
+    private EdgeWeighting edgeWeighting = EdgeWeighting.OBJECT_IN_DEGREE;
+
+    /**
+     * Alias table for weighted random walks. It is built on first use.
+     */
+    private volatile AliasTable aliasTable;
+
+    /**
+     * True once the object index of {@link #hdtDataSet} is available.
+     */
+    private volatile boolean isIndexed = false;
+
 
     /**
      * Constructor
+     * The HDT file is loaded without its object index. The index is only required to find predecessors, i.e., for mid
+     * walks and for weighted walks by object in-degree; it is loaded on the first such walk (see
+     * {@link #ensureObjectIndex()}). If there is no index file yet, HDT generates it and writes it next to the HDT file
+     * ({@code <file>.hdt.index.v1-1}).
      *
      * @param hdtFilePath Path to the HDT file.
      * @exception IOException IOException
@@ -37,6 +64,7 @@ public class HdtParser implements IParser {
     public HdtParser(String hdtFilePath) throws IOException {
         try {
             hdtDataSet = HDTManager.loadHDT(hdtFilePath);
+            graph = new HdtGraph(hdtDataSet);
         } catch (IOException e) {
             LOGGER.error("Failed to load HDT file: " + hdtFilePath + "\nProgramm will fail.", e);
             throw e;
@@ -62,7 +90,13 @@ public class HdtParser implements IParser {
      * @return List where every item is a walk separated by spaces.
      */
     public List<String> generateMidWalksForEntityDuplicateFree(String entity, int numberOfWalks, int depth){
-        return convertToStringWalksDuplicateFree(generateMidWalkForEntityAsArray(entity, depth, numberOfWalks));
+        ensureObjectIndex();
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>();
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateMidWalks(graph, entityId, numberOfWalks, depth, false, walks);
+        IntGraphWalker.removeDuplicates(walks);
+        return IntGraphWalker.decodeWalks(graph, walks);
     }
 
 
@@ -76,17 +110,7 @@ public class HdtParser implements IParser {
     public List<String> convertToStringWalksDuplicateFree(List<List<String>> dataStructureToConvert) {
         HashSet<String> uniqueSet = new HashSet<>();
         for (List<String> individualWalk : dataStructureToConvert){
-            String walk = "";
-            boolean isFirst = true;
-            for(String walkComponent : individualWalk){
-                if(isFirst){
-                    isFirst = false;
-                    walk = walkComponent;
-                } else {
-                    walk += " " + walkComponent;
-                }
-            }
-            uniqueSet.add(walk);
+            uniqueSet.add(String.join(" ", individualWalk));
         }
         return new ArrayList<>(uniqueSet);
     }
@@ -100,7 +124,12 @@ public class HdtParser implements IParser {
      * @return List where every item is a walk separated by spaces.
      */
     public List<String> generateMidWalksForEntity(String entity, int numberOfWalks, int depth){
-        return convertToStringWalks(generateMidWalkForEntityAsArray(entity, depth, numberOfWalks));
+        ensureObjectIndex();
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>();
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateMidWalks(graph, entityId, numberOfWalks, depth, false, walks);
+        return IntGraphWalker.decodeWalks(graph, walks);
     }
 
     /**
@@ -112,17 +141,7 @@ public class HdtParser implements IParser {
     public List<String> convertToStringWalks(List<List<String>> dataStructureToConvert) {
         List<String> result = new ArrayList<>();
         for (List<String> individualWalk : dataStructureToConvert){
-            String walk = "";
-            boolean isFirst = true;
-            for(String walkComponent : individualWalk){
-                if(isFirst){
-                    isFirst = false;
-                    walk = walkComponent;
-                } else {
-                    walk += " " + walkComponent;
-                }
-            }
-            result.add(walk);
+            result.add(String.join(" ", individualWalk));
         }
         return result;
     }
@@ -154,78 +173,72 @@ public class HdtParser implements IParser {
      * @return One walk as list where each element is a walk component.
      */
     public List<String> generateMidWalkForEntity(String entity, int depth) {
+        ensureObjectIndex();
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>(Collections.singletonList(entity));
+        return IntGraphWalker.decodeWalkAsList(graph, IntGraphWalker.generateMidWalk(graph, entityId, depth, false));
+    }
 
-        LinkedList<String> result = new LinkedList<>();
-
-        String nextElementPredecessor = entity;
-        String nextElementSuccessor = entity;
-
-        // initialize result
-        result.add(entity);
-
-        // variable to store the number of iterations performed so far
-        int currentDepth = 0;
-
-        while (currentDepth < depth) {
-            currentDepth++;
-
-            // randomly decide whether to use predecessors or successors
-            int randomPickZeroOne = ThreadLocalRandom.current().nextInt(2);
-
-            if (randomPickZeroOne == 0) {
-                // predecessor
-                try {
-                    IteratorTripleString iterator = hdtDataSet.search("", "", nextElementPredecessor);
-                    HashSet<TripleString> candidates = new HashSet<>();
-
-                    TripleString ts;
-                    while (iterator.hasNext()) {
-                        ts = iterator.next();
-                        candidates.add(ts);
-                    }
+    /**
+     * Weighted mid walk: If there are more options to go forward, it is more likely to go forward.
+     * @param entity The entity for which walks shall be generated.
+     * @param depth The depth of the walk. Depth is defined as hop to the next node. A walk of depth 1 will have three walk components.
+     * @param numberOfWalks Number of walks to be performed per entity.
+     * @return List of walks.
+     */
+    public List<String> generateWeightedMidWalksForEntity(String entity, int depth, int numberOfWalks) {
+        ensureObjectIndex();
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>();
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateMidWalks(graph, entityId, numberOfWalks, depth, true, walks);
+        return IntGraphWalker.decodeWalks(graph, walks);
+    }
 
-                    if (candidates.size() > 0) {
-                        TripleString drawnTriple = randomDrawFromHashSet(candidates);
+    /**
+     * Generates random walks (forward only) for the given entity. Literals are not visited.
+     * @param entity The entity for which walks shall be generated.
+     * @param numberOfWalks The number of walks to be generated.
+     * @param depth The number of hops to nodes.
+     * @return List of walks where every item is a walk separated by spaces.
+     */
+    public List<String> generateRandomWalksForEntity(String entity, int numberOfWalks, int depth) {
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>();
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateRandomWalks(graph, entityId, numberOfWalks, depth, walks);
+        return IntGraphWalker.decodeWalks(graph, walks);
+    }
 
-                        // add walks from the front (walk started before entity)
-                        result.addFirst(drawnTriple.getPredicate().toString());
-                        result.addFirst(drawnTriple.getSubject().toString());
-                        nextElementPredecessor = drawnTriple.getSubject().toString();
-                    }
+    /**
+     * Generates weighted random walks (forward only) for the given entity. The successors are drawn according to the
+     * edge weighting of this parser (see {@link #setEdgeWeighting(EdgeWeighting)}). Literals are not visited.
+     * @param entity The entity for which walks shall be generated.
+     * @param numberOfWalks The number of walks to be generated.
+     * @param depth The number of hops to nodes.
+     * @return List of walks where every item is a walk separated by spaces.
+     */
+    public List<String> generateWeightedRandomWalksForEntity(String entity, int numberOfWalks, int depth) {
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>();
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateWeightedRandomWalks(graph, getAliasTable(), entityId, numberOfWalks, depth, walks);
+        return IntGraphWalker.decodeWalks(graph, walks);
+    }
 
-                } catch (NotFoundException e) {
-                    LOGGER.error("Search exception while trying to find a predecessor.", e);
-                }
-            } else {
-                // successor
-                try {
-                    IteratorTripleString iterator = hdtDataSet.search(nextElementSuccessor, "", "");
-                    HashSet<TripleString> candidates = new HashSet<>();
-
-                    TripleString ts;
-                    CharSequence objectCharSequence;
-                    while (iterator.hasNext()) {
-                        ts = iterator.next();
-                        objectCharSequence = ts.getObject();
-                        if (objectCharSequence.charAt(0) == '"') {
-                            continue;
-                        }
-                        candidates.add(ts);
-                    }
-                    if (candidates.size() > 0) {
-                        TripleString stringToAdd = randomDrawFromHashSet(candidates);
-
-                        // add next walk iteration
-                        result.addLast(stringToAdd.getPredicate().toString());
-                        result.addLast(stringToAdd.getObject().toString());
-                        nextElementSuccessor = stringToAdd.getObject().toString();
-                    }
-                } catch (NotFoundException e) {
-                    LOGGER.error("Search exception while trying to find a successor.", e);
-                }
-            }
-        }
-        return result;
+    /**
+     * Generates duplicate-free random walks (forward only) for the given entity. Literals are not visited.
+     * @param entity The entity for which walks shall be generated.
+     * @param numberOfWalks The (maximal) number of walks to be generated.
+     * @param depth The number of hops to nodes.
+     * @return List of walks where every item is a walk separated by spaces.
+     */
+    public List<String> generateDuplicateFreeRandomWalksForEntity(String entity, int numberOfWalks, int depth) {
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>();
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateDuplicateFreeRandomWalks(graph, entityId, numberOfWalks, depth, walks);
+        return IntGraphWalker.decodeWalks(graph, walks);
     }
 
     /**
@@ -244,6 +257,72 @@ public class HdtParser implements IParser {
     }
 
 
+    /**
+     * Obtain the alias table of the graph. The table is built on the first call. Note that the table requires
+     * 8 bytes of heap memory per triple.
+     * @return Alias table for weighted random walks.
+     */
+    public AliasTable getAliasTable() {
+        AliasTable table = aliasTable;
+        if (table != null) return table;
+        synchronized (this) {
+            if (aliasTable == null) {
+                if (edgeWeighting == EdgeWeighting.OBJECT_IN_DEGREE) ensureObjectIndex();
+                LOGGER.info("Building alias tables for weighted walks (" + edgeWeighting + ").");
+                aliasTable = AliasTable.build(graph, edgeWeighting);
+            }
+            return aliasTable;
+        }
+    }
+
+    public EdgeWeighting getEdgeWeighting() {
+        return edgeWeighting;
+    }
+
+    /**
+     * Set the edge weights used for weighted random walks.
+     * @param edgeWeighting The edge weighting. Default: {@link EdgeWeighting#OBJECT_IN_DEGREE}.
+     */
+    public synchronized void setEdgeWeighting(EdgeWeighting edgeWeighting) {
+        if (edgeWeighting == null || edgeWeighting == this.edgeWeighting) return;
+        this.edgeWeighting = edgeWeighting;
+        this.aliasTable = null;
+    }
+
+    /**
+     * Load the object index of the HDT data set unless it is already available. If there is no index file next to the
+     * HDT file, HDT generates the index (which may take a while for large files) and writes the index file
+     * ({@code <file>.hdt.index.v1-1}) next to the HDT file.
+     */
+    public void ensureObjectIndex() {
+        if (isIndexed) return;
+        synchronized (this) {
+            if (!isIndexed) {
+                LOGGER.info("Loading the object index of the HDT file. It is created if it does not exist yet.");
+                HDTManager.indexedHDT(hdtDataSet, null);
+                isIndexed = true;
+            }
+        }
+    }
+
+    /**
+     * Obtain the graph on which the walks are generated. Incoming edges are found by a (slow) scan unless
+     * {@link #ensureObjectIndex()} has been called.
+     * @return ID-based view on the HDT data set.
+     */
+    public HdtGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Obtain the HDT data set.
+     * @return HDT data set.
+     */
+    public HDT getHdtDataSet() {
+        return hdtDataSet;
+    }
+
+
     /**
      * Writes the given hdt data set as nt file.
      * @param dataSet Set to read.
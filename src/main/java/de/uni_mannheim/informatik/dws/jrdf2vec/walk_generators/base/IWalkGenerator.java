@@ -50,6 +50,23 @@ public interface IWalkGenerator {
      */
     void generateRandomWalksDuplicateFree(int numberOfThreads, int numberOfWalksPerEntity, int depth);
 
+    /**
+     * Generates weighted random walks, duplicate walks are possible.
+     * @param numberOfThreads The number of threads to be run.
+     * @param numberOfWalksPerEntity The number of walks that shall be performed per entity.
+     * @param depth The depth of each walk.
+     */
+    void generateWeightedRandomWalks(int numberOfThreads, int numberOfWalksPerEntity, int depth);
+
+    /**
+     * Generates weighted random walks, duplicate walks are possible.
+     * @param numberOfThreads The number of threads to be run.
+     * @param numberOfWalksPerEntity The number of walks that shall be performed per entity.
+     * @param depth The depth of each walk.
+     * @param filePathOfFileToBeWritten The path to the file that shall be written.
+     */
+    void generateWeightedRandomWalks(int numberOfThreads, int numberOfWalksPerEntity, int depth, String filePathOfFileToBeWritten);
+
     /**
      * Generates mid walks, duplicate walks are possible.
      * A mid walk is a random walk that involves a given entity but may not start or end with the entity in question.
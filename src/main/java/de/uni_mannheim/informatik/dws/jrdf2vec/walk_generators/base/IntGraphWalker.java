@@ -0,0 +1,480 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
+
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.AliasTable;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.IntGraph;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.LongHashSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Walk algorithms on the ID level which work for any {@link IntGraph} (in-memory, snapshot, or HDT).
+ * Walks are represented as ID sequences (node, predicate, node, ...) and decoded only when they are written.
+ */
+public final class IntGraphWalker {
+
+    /**
+     * Indicates that no edge could be drawn.
+     */
+    static final long NO_EDGE = -1L;
+
+    /**
+     * The number of random draws before the successors of a node are scanned for non-literal nodes.
+     */
+    private static final int MAX_REJECTIONS = 8;
+
+    /**
+     * Reusable walk buffer per thread (see {@link #getWalkBuffer()}).
+     */
+    private static final ThreadLocal<IntWalkList> WALK_BUFFER = ThreadLocal.withInitial(IntWalkList::new);
+
+    /**
+     * Reusable set per thread for removing duplicate walks (see {@link #removeDuplicates(IntWalkList)}).
+     */
+    private static final ThreadLocal<LongHashSet> WALK_HASHES = ThreadLocal.withInitial(LongHashSet::new);
+
+    /**
+     * Reusable builder per thread for decoding walks.
+     */
+    private static final ThreadLocal<StringBuilder> STRING_BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private IntGraphWalker() {
+        // static helper class
+    }
+
+    /**
+     * Generates a single mid walk on the ID level.
+     *
+     * @param graph The graph to walk on.
+     * @param entityId The ID of the entity for which a walk shall be generated.
+     * @param depth The depth of the walk.
+     * @param isWeighted If true, the direction is chosen proportionally to the number of predecessors and successors;
+     *                   otherwise both directions are equally likely.
+     * @return The walk as ID sequence (node, predicate, node, ...).
+     */
+    public static int[] generateMidWalk(IntGraph graph, int entityId, int depth, boolean isWeighted) {
+        int[] buffer = new int[4 * depth + 1];
+        long bounds = fillMidWalk(graph, entityId, depth, isWeighted, buffer);
+        return Arrays.copyOfRange(buffer, (int) (bounds >>> 32), (int) bounds);
+    }
+
+    /**
+     * Generates mid walks on the ID level. Walks that consist only of the entity are not added.
+     *
+     * @param graph The graph to walk on.
+     * @param entityId The ID of the entity for which walks shall be generated.
+     * @param numberOfWalks The number of walks to be generated.
+     * @param depth The depth of each walk.
+     * @param isWeighted If true, the direction is chosen proportionally to the number of predecessors and successors;
+     *                   otherwise both directions are equally likely.
+     * @param walks The list to which the walks are added.
+     */
+    public static void generateMidWalks(IntGraph graph, int entityId, int numberOfWalks, int depth, boolean isWeighted, IntWalkList walks) {
+        int[] buffer = new int[4 * depth + 1];
+        for (int i = 0; i < numberOfWalks; i++) {
+            long bounds = fillMidWalk(graph, entityId, depth, isWeighted, buffer);
+            int start = (int) (bounds >>> 32);
+            int end = (int) bounds;
+            if (end - start > 1) {
+                int position = walks.reserve(end - start);
+                for (int j = start; j < end; j++) {
+                    walks.set(position++, buffer[j]);
+                }
+                walks.endWalk();
+            }
+        }
+    }
+
+    /**
+     * Generates a single mid walk into the given buffer. The entity is placed in the middle of the buffer.
+     *
+     * @param buffer Buffer of size 4 * depth + 1.
+     * @return Start (inclusive, upper 32 bits) and end (exclusive, lower 32 bits) of the walk in the buffer.
+     */
+    private static long fillMidWalk(IntGraph graph, int entityId, int depth, boolean isWeighted, int[] buffer) {
+        // the walk can grow by at most two components per hop in either direction
+        int start = 2 * depth;
+        int end = start + 1;
+        buffer[start] = entityId;
+
+        int nextElementPredecessor = entityId;
+        int nextElementSuccessor = entityId;
+
+        for (int currentDepth = 0; currentDepth < depth; currentDepth++) {
+            int numberOfPredecessors = graph.getInDegree(nextElementPredecessor);
+            int numberOfSuccessors = graph.getOutDegree(nextElementSuccessor);
+            boolean isPredecessor;
+
+            if (isWeighted) {
+                // if there are no successors and predecessors: return current walk
+                if (numberOfPredecessors == 0 && numberOfSuccessors == 0) break;
+                double cutOffPoint = (double) numberOfPredecessors / (numberOfPredecessors + numberOfSuccessors);
+                isPredecessor = ThreadLocalRandom.current().nextDouble(0.0, 1.00000001) <= cutOffPoint;
+            } else {
+                isPredecessor = ThreadLocalRandom.current().nextInt(2) == 0;
+            }
+
+            if (isPredecessor) {
+                if (numberOfPredecessors > 0) {
+                    long drawnEdge = graph.getInEdge(nextElementPredecessor, ThreadLocalRandom.current().nextInt(numberOfPredecessors));
+
+                    // add walks from the front (walk started before entity)
+                    nextElementPredecessor = IntGraph.getNode(drawnEdge);
+                    buffer[--start] = IntGraph.getPredicate(drawnEdge);
+                    buffer[--start] = nextElementPredecessor;
+                }
+            } else {
+                long drawnEdge = drawOutEdge(graph, nextElementSuccessor, numberOfSuccessors);
+                if (drawnEdge != NO_EDGE) {
+                    // add next walk iteration
+                    nextElementSuccessor = IntGraph.getNode(drawnEdge);
+                    buffer[end++] = IntGraph.getPredicate(drawnEdge);
+                    buffer[end++] = nextElementSuccessor;
+                }
+            }
+        }
+        return ((long) start << 32) | end;
+    }
+
+    /**
+     * Generates random walks for the given entity. A walk ends early if the current node has no successors.
+     *
+     * @param graph The graph to walk on.
+     * @param entityId The ID of the entity for which walks shall be generated.
+     * @param numberOfWalks The number of walks to be generated.
+     * @param depth The number of hops to nodes.
+     * @param walks The list to which the walks are added as ID sequences (entity, predicate, node, ...). Walks that
+     *              consist only of the entity are not added.
+     */
+    public static void generateRandomWalks(IntGraph graph, int entityId, int numberOfWalks, int depth, IntWalkList walks) {
+        for (int i = 0; i < numberOfWalks; i++) {
+            walks.append(entityId);
+            int lastObject = entityId;
+            for (int currentDepth = 0; currentDepth < depth; currentDepth++) {
+                long drawnEdge = drawOutEdge(graph, lastObject, graph.getOutDegree(lastObject));
+                if (drawnEdge == NO_EDGE) break;
+                lastObject = IntGraph.getNode(drawnEdge);
+                walks.append(IntGraph.getPredicate(drawnEdge));
+                walks.append(lastObject);
+            }
+            if (walks.getCurrentWalkLength() > 1) {
+                walks.endWalk();
+            } else {
+                walks.discardWalk();
+            }
+        }
+    }
+
+    /**
+     * Generates weighted random walks for the given entity. Each successor is drawn in O(1) from the precomputed
+     * alias table. A walk ends early if the current node has no successors.
+     *
+     * @param graph The graph to walk on.
+     * @param aliasTable The alias table of the graph determining the edge weights.
+     * @param entityId The ID of the entity for which walks shall be generated.
+     * @param numberOfWalks The number of walks to be generated.
+     * @param depth The number of hops to nodes.
+     * @param walks The list to which the walks are added as ID sequences (entity, predicate, node, ...). Walks that
+     *              consist only of the entity are not added.
+     */
+    public static void generateWeightedRandomWalks(IntGraph graph, AliasTable aliasTable, int entityId, int numberOfWalks, int depth, IntWalkList walks) {
+        for (int i = 0; i < numberOfWalks; i++) {
+            walks.append(entityId);
+            int lastObject = entityId;
+            for (int currentDepth = 0; currentDepth < depth; currentDepth++) {
+                int edgeIndex = aliasTable.sample(lastObject);
+                if (edgeIndex < 0) break;
+                long drawnEdge = graph.getOutEdge(lastObject, edgeIndex);
+                lastObject = IntGraph.getNode(drawnEdge);
+                walks.append(IntGraph.getPredicate(drawnEdge));
+                walks.append(lastObject);
+            }
+            if (walks.getCurrentWalkLength() > 1) {
+                walks.endWalk();
+            } else {
+                walks.discardWalk();
+            }
+        }
+    }
+
+    /**
+     * Generates duplicate-free walks for the given entity: all walks are expanded breadth-first; whenever a level
+     * has more than numberOfWalks walks, a uniform sample of numberOfWalks walks is kept (reservoir sampling). A walk
+     * which cannot be extended is kept as it is.
+     * The walks are stored as a prefix tree with parent pointers so that extending a walk does not copy it; the
+     * memory required is bounded by numberOfWalks * depth tree nodes regardless of the size of the neighborhood.
+     *
+     * @param graph The graph to walk on.
+     * @param entityId The ID of the entity for which walks shall be generated.
+     * @param numberOfWalks The (maximal) number of walks to be generated.
+     * @param depth The number of hops to nodes.
+     * @param walks The list to which the walks are added as ID sequences (entity, predicate, node, ...).
+     */
+    public static void generateDuplicateFreeRandomWalks(IntGraph graph, int entityId, int numberOfWalks, int depth, IntWalkList walks) {
+        if (numberOfWalks < 1 || depth < 1) return;
+
+        WalkTree tree = new WalkTree(entityId);
+        WalkReservoir reservoir = new WalkReservoir(numberOfWalks);
+
+        // the leaves of the tree, i.e., the current walks
+        int[] frontier = new int[]{WalkTree.ROOT};
+        int frontierSize = 1;
+
+        for (int currentDepth = 0; currentDepth < depth; currentDepth++) {
+            reservoir.clear();
+            boolean isExtended = false;
+            for (int i = 0; i < frontierSize; i++) {
+                int leaf = frontier[i];
+                int lastObject = tree.getNode(leaf);
+                int degree = graph.getOutDegree(lastObject);
+                boolean isLeafExtended = false;
+                for (int j = 0; j < degree; j++) {
+                    long edge = graph.getOutEdge(lastObject, j);
+                    int node = IntGraph.getNode(edge);
+                    if (graph.isLiteral(node)) continue;
+                    reservoir.offer(leaf, IntGraph.getPredicate(edge), node);
+                    isLeafExtended = true;
+                }
+                if (!isLeafExtended && leaf != WalkTree.ROOT) {
+                    // the walk cannot be extended and is kept as it is
+                    reservoir.offer(leaf, WalkReservoir.NO_PREDICATE, 0);
+                }
+                isExtended |= isLeafExtended;
+            }
+            if (!isExtended) break;
+
+            if (frontier.length < reservoir.size) {
+                frontier = new int[numberOfWalks];
+            }
+            frontierSize = reservoir.size;
+            for (int i = 0; i < frontierSize; i++) {
+                int parent = reservoir.parents[i];
+                frontier[i] = reservoir.predicates[i] == WalkReservoir.NO_PREDICATE ? parent :
+                        tree.add(parent, reservoir.predicates[i], reservoir.nodes[i]);
+            }
+        }
+
+        if (frontierSize == 1 && frontier[0] == WalkTree.ROOT) return;
+        for (int i = 0; i < frontierSize; i++) {
+            tree.addWalk(frontier[i], walks);
+        }
+    }
+
+    /**
+     * Prefix tree of walks: every tree node is a walk step (predicate and node) with a pointer to its parent.
+     */
+    private static final class WalkTree {
+
+        /**
+         * The slot of the root which holds the entity.
+         */
+        static final int ROOT = 0;
+
+        private int[] parents = new int[16];
+        private int[] predicates = new int[16];
+        private int[] nodes = new int[16];
+        private int[] depths = new int[16];
+        private int size = 1;
+
+        WalkTree(int entityId) {
+            parents[ROOT] = -1;
+            nodes[ROOT] = entityId;
+        }
+
+        int add(int parent, int predicate, int node) {
+            if (size == nodes.length) {
+                int newCapacity = size * 2;
+                parents = Arrays.copyOf(parents, newCapacity);
+                predicates = Arrays.copyOf(predicates, newCapacity);
+                nodes = Arrays.copyOf(nodes, newCapacity);
+                depths = Arrays.copyOf(depths, newCapacity);
+            }
+            parents[size] = parent;
+            predicates[size] = predicate;
+            nodes[size] = node;
+            depths[size] = depths[parent] + 1;
+            return size++;
+        }
+
+        int getNode(int slot) {
+            return nodes[slot];
+        }
+
+        /**
+         * Follow the parent pointers of the given leaf to the root and add the walk to the given list.
+         * @param leaf The slot of the last step of the walk.
+         * @param walks The list to which the walk is added as ID sequence (entity, predicate, node, ...).
+         */
+        void addWalk(int leaf, IntWalkList walks) {
+            int start = walks.reserve(2 * depths[leaf] + 1);
+            int position = start + 2 * depths[leaf];
+            for (int slot = leaf; slot != ROOT; slot = parents[slot]) {
+                walks.set(position--, nodes[slot]);
+                walks.set(position--, predicates[slot]);
+            }
+            walks.set(start, nodes[ROOT]);
+            walks.endWalk();
+        }
+    }
+
+    /**
+     * Uniform sample of a fixed size over a stream of walk extensions (reservoir sampling, algorithm R).
+     */
+    private static final class WalkReservoir {
+
+        /**
+         * Marks a walk which is not extended but kept as it is.
+         */
+        static final int NO_PREDICATE = -1;
+
+        final int[] parents;
+        final int[] predicates;
+        final int[] nodes;
+        int size;
+        private long numberOfOffers;
+
+        WalkReservoir(int capacity) {
+            parents = new int[capacity];
+            predicates = new int[capacity];
+            nodes = new int[capacity];
+        }
+
+        void clear() {
+            size = 0;
+            numberOfOffers = 0;
+        }
+
+        void offer(int parent, int predicate, int node) {
+            int index;
+            if (size < parents.length) {
+                index = size++;
+            } else {
+                long randomNumber = ThreadLocalRandom.current().nextLong(numberOfOffers + 1);
+                if (randomNumber >= parents.length) {
+                    numberOfOffers++;
+                    return;
+                }
+                index = (int) randomNumber;
+            }
+            numberOfOffers++;
+            parents[index] = parent;
+            predicates[index] = predicate;
+            nodes[index] = node;
+        }
+    }
+
+    /**
+     * Draw a random outgoing edge of the given node whose object is not a literal (see
+     * {@link IntGraph#isLiteral(int)}). Each such edge is equally likely.
+     * Edges are drawn at random and rejected if they lead to a literal; only if this fails repeatedly, the edges of
+     * the node are scanned.
+     *
+     * @param graph The graph.
+     * @param node The node whose successor shall be drawn.
+     * @param degree The out degree of the node.
+     * @return The drawn edge or {@link #NO_EDGE} if there is none.
+     */
+    static long drawOutEdge(IntGraph graph, int node, int degree) {
+        if (degree <= 0) return NO_EDGE;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < MAX_REJECTIONS; i++) {
+            long edge = graph.getOutEdge(node, random.nextInt(degree));
+            if (!graph.isLiteral(IntGraph.getNode(edge))) return edge;
+        }
+        int numberOfCandidates = 0;
+        for (int i = 0; i < degree; i++) {
+            if (!graph.isLiteral(IntGraph.getNode(graph.getOutEdge(node, i)))) numberOfCandidates++;
+        }
+        if (numberOfCandidates == 0) return NO_EDGE;
+        int drawn = random.nextInt(numberOfCandidates);
+        for (int i = 0; i < degree; i++) {
+            long edge = graph.getOutEdge(node, i);
+            if (!graph.isLiteral(IntGraph.getNode(edge)) && drawn-- == 0) return edge;
+        }
+        return NO_EDGE;
+    }
+
+    /**
+     * Obtain the walk buffer of the current thread. The buffer is cleared; it must not be used after the next call of
+     * this method on the same thread.
+     *
+     * @return Empty walk list.
+     */
+    public static IntWalkList getWalkBuffer() {
+        IntWalkList walks = WALK_BUFFER.get();
+        walks.clear();
+        return walks;
+    }
+
+    /**
+     * Remove duplicate walks from the given list before they are decoded. Walks are compared by a 64 bit hash of their
+     * ID sequence; the hash set is reused per thread.
+     *
+     * @param walks The walks.
+     */
+    public static void removeDuplicates(IntWalkList walks) {
+        walks.removeDuplicates(WALK_HASHES.get());
+    }
+
+    /**
+     * Decode an ID walk into a space-separated String.
+     *
+     * @param graph The graph whose IDs are used in the walk.
+     * @param walk The walk as ID sequence.
+     * @return Walk as String.
+     */
+    public static String decodeWalk(IntGraph graph, int[] walk) {
+        StringBuilder builder = getStringBuilder();
+        for (int i = 0; i < walk.length; i++) {
+            if (i > 0) builder.append(' ');
+            graph.appendUri(walk[i], builder);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Decode all walks of the given list into space-separated Strings. The URIs are decoded straight into a reusable
+     * builder, so that only the final walk String is allocated.
+     *
+     * @param graph The graph whose IDs are used in the walks.
+     * @param walks The walks.
+     * @return Walks as Strings.
+     */
+    public static List<String> decodeWalks(IntGraph graph, IntWalkList walks) {
+        List<String> result = new ArrayList<>(walks.size());
+        StringBuilder builder = getStringBuilder();
+        for (int walk = 0; walk < walks.size(); walk++) {
+            builder.setLength(0);
+            int length = walks.getLength(walk);
+            for (int i = 0; i < length; i++) {
+                if (i > 0) builder.append(' ');
+                graph.appendUri(walks.get(walk, i), builder);
+            }
+            result.add(builder.toString());
+        }
+        return result;
+    }
+
+    private static StringBuilder getStringBuilder() {
+        StringBuilder builder = STRING_BUILDER.get();
+        builder.setLength(0);
+        return builder;
+    }
+
+    /**
+     * Decode an ID walk into a list of walk components.
+     *
+     * @param graph The graph whose IDs are used in the walk.
+     * @param walk The walk as ID sequence.
+     * @return Walk as list.
+     */
+    public static List<String> decodeWalkAsList(IntGraph graph, int[] walk) {
+        List<String> result = new ArrayList<>(walk.length);
+        for (int id : walk) {
+            result.add(graph.getUri(id));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,190 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
+
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.LongHashSet;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of walks on the ID level. All walks are stored in one flat int array so that generating walks does
+ * not allocate an array per walk; after {@link #clear()}, the memory is reused for the next entity.
+ * This class is not thread-safe; use one instance per thread (see {@link IntGraphWalker#getWalkBuffer()}).
+ */
+public final class IntWalkList {
+
+    /**
+     * The IDs of all walks, one walk after the other.
+     */
+    private int[] ids = new int[256];
+
+    /**
+     * The (exclusive) end position of each walk in {@link #ids}.
+     */
+    private int[] ends = new int[16];
+
+    /**
+     * The number of completed walks.
+     */
+    private int size = 0;
+
+    /**
+     * The number of used positions in {@link #ids} including the walk which is currently appended.
+     */
+    private int length = 0;
+
+    /**
+     * Remove all walks. The memory is kept.
+     */
+    public void clear() {
+        size = 0;
+        length = 0;
+    }
+
+    /**
+     * Append an ID to the walk that is currently built. The walk is completed with {@link #endWalk()} or discarded
+     * with {@link #discardWalk()}.
+     * @param id The ID to be appended.
+     */
+    public void append(int id) {
+        if (length == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[length++] = id;
+    }
+
+    /**
+     * Reserve space for a walk of the given length which is filled by the caller via {@link #set(int, int)}.
+     * The walk is completed with {@link #endWalk()}.
+     * @param walkLength The number of IDs of the walk.
+     * @return The position of the first ID of the walk.
+     */
+    public int reserve(int walkLength) {
+        int start = length;
+        if (length + walkLength > ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(ids.length * 2, length + walkLength));
+        }
+        length += walkLength;
+        return start;
+    }
+
+    /**
+     * Set the ID at the given position (see {@link #reserve(int)}).
+     * @param position Position.
+     * @param id ID.
+     */
+    public void set(int position, int id) {
+        ids[position] = id;
+    }
+
+    /**
+     * Complete the walk that is currently built.
+     */
+    public void endWalk() {
+        if (size == ends.length) {
+            ends = Arrays.copyOf(ends, ends.length * 2);
+        }
+        ends[size++] = length;
+    }
+
+    /**
+     * Drop the walk that is currently built.
+     */
+    public void discardWalk() {
+        length = getEnd(size - 1);
+    }
+
+    /**
+     * The length of the walk that is currently built.
+     * @return Number of IDs appended since the last completed walk.
+     */
+    public int getCurrentWalkLength() {
+        return length - getEnd(size - 1);
+    }
+
+    /**
+     * Returns the number of completed walks.
+     * @return Number of walks.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of IDs of the given walk.
+     * @param walk Walk index.
+     * @return Number of IDs.
+     */
+    public int getLength(int walk) {
+        return ends[walk] - getEnd(walk - 1);
+    }
+
+    /**
+     * Returns an ID of the given walk.
+     * @param walk Walk index.
+     * @param index Position within the walk.
+     * @return ID.
+     */
+    public int get(int walk, int index) {
+        return ids[getEnd(walk - 1) + index];
+    }
+
+    /**
+     * Copy the given walk.
+     * @param walk Walk index.
+     * @return The walk as ID sequence.
+     */
+    public int[] toArray(int walk) {
+        return Arrays.copyOfRange(ids, getEnd(walk - 1), ends[walk]);
+    }
+
+    /**
+     * Calculate a 64 bit hash of the ID sequence of the given walk. Two different walks of one entity share a hash
+     * only with negligible probability.
+     * @param walk Walk index.
+     * @return Hash.
+     */
+    public long hash(int walk) {
+        int start = getEnd(walk - 1);
+        int end = ends[walk];
+        long hash = (end - start) * 0x9E3779B97F4A7C15L;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ (ids[i] & 0xFFFFFFFFL)) * 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 29;
+        }
+        // final avalanche (MurmurHash3 fmix64)
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Remove duplicate walks in place based on the hashes of their ID sequences (see {@link #hash(int)}). The first
+     * occurrence of each walk is kept; the order of the walks is retained.
+     * @param seen Set used to collect the hashes. It is cleared before use so that it can be reused.
+     */
+    public void removeDuplicates(LongHashSet seen) {
+        seen.clear();
+        int newSize = 0;
+        int newLength = 0;
+        int start = 0;
+        for (int walk = 0; walk < size; walk++) {
+            // the hash is calculated before the walk is moved
+            boolean isNew = seen.add(hash(walk));
+            int end = ends[walk];
+            if (isNew) {
+                if (start != newLength) {
+                    System.arraycopy(ids, start, ids, newLength, end - start);
+                }
+                newLength += end - start;
+                ends[newSize++] = newLength;
+            }
+            start = end;
+        }
+        size = newSize;
+        length = newLength;
+    }
+
+    private int getEnd(int walk) {
+        return walk < 0 ? 0 : ends[walk];
+    }
+}
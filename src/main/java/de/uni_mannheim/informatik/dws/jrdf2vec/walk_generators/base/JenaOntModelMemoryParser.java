@@ -1,7 +1,6 @@
 package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
 
-import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.Triple;
-import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.TripleDataSetMemory;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.IntTripleDataSetMemory;
 import org.apache.jena.ontology.OntModel;
 import org.apache.jena.ontology.OntModelSpec;
 import org.apache.jena.rdf.model.*;
@@ -48,7 +47,7 @@ public class JenaOntModelMemoryParser extends MemoryParser {
      */
     public void readDataFromOntModel(OntModel model){
         if(data == null){
-            data = new TripleDataSetMemory();
+            data = new IntTripleDataSetMemory();
         }
         for(StmtIterator iterator = model.listStatements(); iterator.hasNext();){
             Statement statement = iterator.nextStatement();
@@ -77,7 +76,7 @@ public class JenaOntModelMemoryParser extends MemoryParser {
                 object = statement.getObject().asResource().getURI();
             }
 
-            data.add(new Triple(subject, predicate, object));
+            data.add(subject, predicate, object);
         }
     }
 
@@ -1,7 +1,11 @@
 package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
 
-import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.TripleDataSetMemory;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.IntGraph;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.IntTripleDataSetMemory;
 
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 public class MemoryEntitySelector implements EntitySelector {
@@ -10,14 +14,72 @@ public class MemoryEntitySelector implements EntitySelector {
      * Constructor.
      * @param data Triple data set to be used.
      */
-    public MemoryEntitySelector(TripleDataSetMemory data){
+    public MemoryEntitySelector(IntTripleDataSetMemory data){
         this.data = data;
     }
 
-    private TripleDataSetMemory data;
+    /**
+     * Constructor.
+     * @param graph Graph to be used, all nodes with at least one outgoing edge are selected.
+     */
+    public MemoryEntitySelector(IntGraph graph){
+        this.graph = graph;
+    }
+
+    private IntTripleDataSetMemory data;
+
+    private IntGraph graph;
 
     @Override
     public Set<String> getEntities() {
-        return data.getUniqueSubjects();
+        if(data != null) return data.getUniqueSubjects();
+        Set<String> result = new HashSet<>();
+        for(String entity : this){
+            result.add(entity);
+        }
+        return result;
+    }
+
+    /**
+     * Streams all nodes with at least one outgoing edge directly from the graph.
+     * @return Iterator over the entities.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        IntGraph graph = getGraph();
+        return new Iterator<String>() {
+            int nextId = findNext(0);
+
+            private int findNext(int id){
+                while(id < graph.getNumberOfIds() && graph.getOutDegree(id) == 0) id++;
+                return id;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return nextId < graph.getNumberOfIds();
+            }
+
+            @Override
+            public String next() {
+                if(!hasNext()) throw new NoSuchElementException();
+                String result = graph.getUri(nextId);
+                nextId = findNext(nextId + 1);
+                return result;
+            }
+        };
+    }
+
+    /**
+     * The number of nodes in the graph; this is an upper bound of the number of entities.
+     * @return Number of nodes.
+     */
+    @Override
+    public long getNumberOfEntitiesHint() {
+        return getGraph().getNumberOfIds();
+    }
+
+    private IntGraph getGraph(){
+        return data != null ? data.freeze() : graph;
     }
 }
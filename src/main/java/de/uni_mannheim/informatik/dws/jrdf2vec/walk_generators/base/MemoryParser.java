@@ -2,14 +2,21 @@ package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.AliasTable;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.EdgeWeighting;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.Triple;
-import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.TripleDataSetMemory;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.IntTripleDataSetMemory;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.CsrGraph;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.GraphSnapshot;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.IntGraph;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Memory based parser using the {@link TripleDataSetMemory} data structure.
+ * Memory based parser using the {@link IntTripleDataSetMemory} data structure.
  * These kind of parsers load the complete model into memory.
  */
 public abstract class MemoryParser implements IParser {
@@ -17,7 +24,7 @@ public abstract class MemoryParser implements IParser {
     /**
      * The actual data structure, i.e. a set of triples.
      */
-    TripleDataSetMemory data;
+    IntTripleDataSetMemory data;
 
     /**
      * Default logger
@@ -41,6 +48,21 @@ public abstract class MemoryParser implements IParser {
      */
     boolean isUnifiyAnonymousNodes = false;
 
+    /**
+     * The edge weights used for weighted random walks.
+     */
+    private EdgeWeighting edgeWeighting = EdgeWeighting.OBJECT_IN_DEGREE;
+
+    /**
+     * Alias table for weighted random walks. It is built on first use.
+     */
+    private volatile AliasTable aliasTable;
+
+    /**
+     * The graph for which {@link #aliasTable} was built.
+     */
+    private volatile IntGraph aliasTableGraph;
+
 
     /**
      * Weighted mid walk: If there are more options to go forward, it is more likely to go forward.
@@ -50,7 +72,12 @@ public abstract class MemoryParser implements IParser {
      * @return List of walks.
      */
     public List<String> generateWeightedMidWalksForEntity(String entity, int depth, int numberOfWalks) {
-        return convertToStringWalks(generateWeightedMidWalkForEntityAsArray(entity, depth, numberOfWalks));
+        IntGraph graph = getGraph();
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>();
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateMidWalks(graph, entityId, numberOfWalks, depth, true, walks);
+        return IntGraphWalker.decodeWalks(graph, walks);
     }
 
     /**
@@ -79,66 +106,10 @@ public abstract class MemoryParser implements IParser {
      * @return One walk as list where each element is a walk component.
      */
     public List<String> generateWeightedMidWalkForEntity(String entity, int depth) {
-
-        LinkedList<String> result = new LinkedList<>();
-
-        String nextElementPredecessor = entity;
-        String nextElementSuccessor = entity;
-
-        // initialize result
-        result.add(entity);
-
-        // variable to store the number of iterations performed so far
-        int currentDepth = 0;
-
-        while (currentDepth < depth) {
-            currentDepth++;
-
-            // randomly decide whether to use predecessors or successors
-            double randomPickZeroOne = ThreadLocalRandom.current().nextDouble(0.0, 1.00000001);
-
-            // predecessor candidates
-            ArrayList<Triple> candidatesPredecessor = data.getTriplesInvolvingObject(nextElementPredecessor);
-
-            // successor candidates
-            ArrayList<Triple> candidatesSuccessor = data.getTriplesInvolvingSubject(nextElementSuccessor);
-
-            double numberOfPredecessors = 0.0;
-            double numberOfSuccessors = 0.0;
-
-            if(candidatesPredecessor != null) numberOfPredecessors = candidatesPredecessor.size();
-            if(candidatesSuccessor != null) numberOfSuccessors = candidatesSuccessor.size();
-
-            // if there are no successors and predecessors: return current walk
-            if(numberOfPredecessors == 0 && numberOfSuccessors == 0) return result;
-
-            // determine cut-off point
-            double cutOffPoint = numberOfPredecessors / (numberOfPredecessors + numberOfSuccessors);
-
-            if (randomPickZeroOne <= cutOffPoint) {
-                // predecessor
-                if (candidatesPredecessor != null && candidatesPredecessor.size() > 0) {
-                    Triple drawnTriple = randomDrawFromList(candidatesPredecessor);
-
-                    // add walks from the front (walk started before entity)
-                    result.addFirst(drawnTriple.predicate);
-                    result.addFirst(drawnTriple.subject);
-                    nextElementPredecessor = drawnTriple.subject;
-                }
-
-            } else {
-                // successor
-                if (candidatesSuccessor != null && candidatesSuccessor.size() > 0) {
-                    Triple tripleToAdd = randomDrawFromList(candidatesSuccessor);
-
-                    // add next walk iteration
-                    result.addLast(tripleToAdd.predicate);
-                    result.addLast(tripleToAdd.object);
-                    nextElementSuccessor = tripleToAdd.object;
-                }
-            }
-        }
-        return result;
+        IntGraph graph = getGraph();
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>(Collections.singletonList(entity));
+        return IntGraphWalker.decodeWalkAsList(graph, IntGraphWalker.generateMidWalk(graph, entityId, depth, true));
     }
 
 
@@ -151,23 +122,18 @@ public abstract class MemoryParser implements IParser {
      * @return List where every item is a walk separated by spaces.
      */
     public List<String> generateMidWalksForEntity(String entity, int depth, int numberOfWalks) {
-        return convertToStringWalks(generateMidWalkForEntityAsArray(entity, depth, numberOfWalks));
+        IntGraph graph = getGraph();
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>();
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateMidWalks(graph, entityId, numberOfWalks, depth, false, walks);
+        return IntGraphWalker.decodeWalks(graph, walks);
     }
 
     public List<String> convertToStringWalks(List<List<String>> dataStructureToConvert) {
         List<String> result = new ArrayList<>();
         for (List<String> individualWalk : dataStructureToConvert) {
-            String walk = "";
-            boolean isFirst = true;
-            for (String walkComponent : individualWalk) {
-                if (isFirst) {
-                    isFirst = false;
-                    walk = walkComponent;
-                } else {
-                    walk += " " + walkComponent;
-                }
-            }
-            result.add(walk);
+            result.add(String.join(" ", individualWalk));
         }
         return result;
     }
@@ -200,7 +166,13 @@ public abstract class MemoryParser implements IParser {
      * @return List where every item is a walk separated by spaces.
      */
     public List<String> generateMidWalksForEntityDuplicateFree(String entity, int numberOfWalks, int depth){
-        return convertToStringWalksDuplicateFree(generateMidWalkForEntityAsArray(entity, depth, numberOfWalks));
+        IntGraph graph = getGraph();
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>();
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateMidWalks(graph, entityId, numberOfWalks, depth, false, walks);
+        IntGraphWalker.removeDuplicates(walks);
+        return IntGraphWalker.decodeWalks(graph, walks);
     }
 
 
@@ -214,17 +186,7 @@ public abstract class MemoryParser implements IParser {
     public List<String> convertToStringWalksDuplicateFree(List<List<String>> dataStructureToConvert) {
         HashSet<String> uniqueSet = new HashSet<>();
         for (List<String> individualWalk : dataStructureToConvert){
-            String walk = "";
-            boolean isFirst = true;
-            for(String walkComponent : individualWalk){
-                if(isFirst){
-                    isFirst = false;
-                    walk = walkComponent;
-                } else {
-                    walk += " " + walkComponent;
-                }
-            }
-            uniqueSet.add(walk);
+            uniqueSet.add(String.join(" ", individualWalk));
         }
         return new ArrayList<>(uniqueSet);
     }
@@ -238,55 +200,49 @@ public abstract class MemoryParser implements IParser {
      * @return One walk as list where each element is a walk component.
      */
     public List<String> generateMidWalkForEntity(String entity, int depth) {
+        IntGraph graph = getGraph();
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>(Collections.singletonList(entity));
+        return IntGraphWalker.decodeWalkAsList(graph, IntGraphWalker.generateMidWalk(graph, entityId, depth, false));
+    }
 
-        LinkedList<String> result = new LinkedList<>();
-
-        String nextElementPredecessor = entity;
-        String nextElementSuccessor = entity;
-
-        // initialize result
-        result.add(entity);
-
-        // variable to store the number of iterations performed so far
-        int currentDepth = 0;
-
-        while (currentDepth < depth) {
-            currentDepth++;
-
-            // randomly decide whether to use predecessors or successors
-            int randomPickZeroOne = ThreadLocalRandom.current().nextInt(2);
-
-            if (randomPickZeroOne == 0) {
-                // predecessor
-                ArrayList<Triple> candidates = data.getTriplesInvolvingObject(nextElementPredecessor);
-
-                if (candidates != null && candidates.size() > 0) {
-                    Triple drawnTriple = randomDrawFromList(candidates);
 
-                    // add walks from the front (walk started before entity)
-                    result.addFirst(drawnTriple.predicate);
-                    result.addFirst(drawnTriple.subject);
-                    nextElementPredecessor = drawnTriple.subject;
-                }
-
-            } else {
-                // successor
-                ArrayList<Triple> candidates = data.getTriplesInvolvingSubject(nextElementSuccessor);
-                if (candidates != null && candidates.size() > 0) {
-                    Triple tripleToAdd = randomDrawFromList(candidates);
+    /**
+     * Generates random walks for the given entity. A walk ends early if the current node has no successors.
+     *
+     * @param entity        The entity for which walks shall be generated.
+     * @param numberOfWalks The number of walks to be generated.
+     * @param depth         The number of hops to nodes.
+     * @return A list of walks where each element in the list represents a walk. The walk elements are separated by
+     * spaces. Walks that consist only of the entity are not returned.
+     */
+    public List<String> generateRandomWalksForEntity(String entity, int numberOfWalks, int depth) {
+        IntGraph graph = getGraph();
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>();
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateRandomWalks(graph, entityId, numberOfWalks, depth, walks);
+        return IntGraphWalker.decodeWalks(graph, walks);
+    }
 
-                    // add next walk iteration
-                    result.addLast(tripleToAdd.predicate);
-                    result.addLast(tripleToAdd.object);
-                    nextElementSuccessor = tripleToAdd.object;
-                }
 
-            }
-        }
-        return result;
+    /**
+     * Generates weighted random walks (forward only) for the given entity. The successors are drawn according to the
+     * edge weighting of this parser (see {@link #setEdgeWeighting(EdgeWeighting)}).
+     * @param entity The entity for which walks shall be generated.
+     * @param numberOfWalks The number of walks to be generated.
+     * @param depth The number of hops to nodes.
+     * @return List of walks where every item is a walk separated by spaces.
+     */
+    public List<String> generateWeightedRandomWalksForEntity(String entity, int numberOfWalks, int depth) {
+        IntGraph graph = getGraph();
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>();
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateWeightedRandomWalks(graph, getAliasTable(), entityId, numberOfWalks, depth, walks);
+        return IntGraphWalker.decodeWalks(graph, walks);
     }
 
-
     /**
      * Draw a random value from a List. This method is thread-safe.
      *
@@ -309,14 +265,17 @@ public abstract class MemoryParser implements IParser {
     public Triple getRandomTripleForSubject(String subject) {
         if (subject == null) return null;
         subject = specificWalkGenerator.shortenUri(removeTags(subject));
-        ArrayList<Triple> queryResult = data.getTriplesInvolvingSubject(subject);
-        if (queryResult == null) {
+        IntGraph graph = getGraph();
+        int subjectId = graph.getId(subject);
+        int degree = graph.getOutDegree(subjectId);
+        if (degree == 0) {
             // no triple found
             return null;
         }
-        int randomNumber = ThreadLocalRandom.current().nextInt(queryResult.size());
+        int randomNumber = ThreadLocalRandom.current().nextInt(degree);
         LOGGER.info("(" + Thread.currentThread().getName() + ") " + randomNumber);
-        return queryResult.get(randomNumber);
+        long edge = graph.getOutEdge(subjectId, randomNumber);
+        return new Triple(subject, graph.getUri(IntGraph.getPredicate(edge)), graph.getUri(IntGraph.getNode(edge)));
     }
 
 
@@ -330,67 +289,29 @@ public abstract class MemoryParser implements IParser {
      * spaces.
      */
     public List<String> generateDuplicateFreeRandomWalksForEntity(String entity, int numberOfWalks, int depth) {
-        List<String> result = new ArrayList<>();
-        List<List<Triple>> walks = new ArrayList();
-        boolean isFirstIteration = true;
-        for (int currentDepth = 0; currentDepth < depth; currentDepth++) {
-            // initialize with first node
-            if (isFirstIteration) {
-                ArrayList<Triple> neighbours = data.getTriplesInvolvingSubject(entity);
-                if (neighbours == null || neighbours.size() == 0) {
-                    return result;
-                }
-                for (Triple neighbour : neighbours) {
-                    ArrayList<Triple> individualWalk = new ArrayList<>();
-                    individualWalk.add(neighbour);
-                    walks.add(individualWalk);
+        IntGraph graph = getGraph();
+        int entityId = graph.getId(entity);
+        if (entityId < 0) return new ArrayList<>();
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateDuplicateFreeRandomWalks(graph, entityId, numberOfWalks, depth, walks);
+        if (!this.isUnifiyAnonymousNodes()) return IntGraphWalker.decodeWalks(graph, walks);
+
+        // now we need to translate our walks into strings where anonymous nodes are unified
+        List<String> result = new ArrayList<>(walks.size());
+        StringBuilder finalSentence = new StringBuilder();
+        for (int walk = 0; walk < walks.size(); walk++) {
+            finalSentence.setLength(0);
+            finalSentence.append(entity);
+            for (int i = 1; i < walks.getLength(walk); i += 2) {
+                String object = graph.getUri(walks.get(walk, i + 1));
+                if (isAnonymousNode(object)) {
+                    object = "ANode";
                 }
-                isFirstIteration = false;
-            } else {
-                // create a copy
-                List<List<Triple>> walks_tmp = new ArrayList<>();
-                walks_tmp.addAll(walks);
-
-                // loop over current walks
-                for (List<Triple> walk : walks_tmp) {
-                    // get last entity
-                    Triple lastTriple = walk.get(walk.size() - 1);
-                    ArrayList<Triple> nextIteration = data.getTriplesInvolvingSubject(lastTriple.object);
-                    if (nextIteration != null) {
-                        walks.remove(walk); // check whether this works
-                        for (Triple nextStep : nextIteration) {
-                            List<Triple> newWalk = new ArrayList<>(walk);
-                            newWalk.add(nextStep);
-                            walks.add(newWalk);
-                        }
-                    }
-                } // loop over walks
+                finalSentence.append(' ');
+                graph.appendUri(walks.get(walk, i), finalSentence);
+                finalSentence.append(' ').append(object);
             }
-
-            // trim the list
-            while (walks.size() > numberOfWalks) {
-                int randomNumber = ThreadLocalRandom.current().nextInt(walks.size());
-                walks.remove(randomNumber);
-            }
-        } // depth loop
-
-        // now we need to translate our walks into strings
-        for (List<Triple> walk : walks) {
-            String finalSentence = entity;
-            if (this.isUnifiyAnonymousNodes()) {
-                for (Triple po : walk) {
-                    String object = po.object;
-                    if (isAnonymousNode(object)) {
-                        object = "ANode";
-                    }
-                    finalSentence += " " + po.predicate + " " + object;
-                }
-            } else {
-                for (Triple po : walk) {
-                    finalSentence += " " + po.predicate + " " + po.object;
-                }
-            }
-            result.add(finalSentence);
+            result.add(finalSentence.toString());
         }
         return result;
     }
@@ -420,14 +341,16 @@ public abstract class MemoryParser implements IParser {
      */
     public Triple getRandomTripleForSubjectWithoutTags(String subject) {
         if (subject == null) return null;
-        ArrayList<Triple> queryResult = data.getTriplesInvolvingSubject(subject);
-        if (queryResult == null) {
+        IntGraph graph = getGraph();
+        int subjectId = graph.getId(subject);
+        int degree = graph.getOutDegree(subjectId);
+        if (degree == 0) {
             // no triple found
             return null;
         }
-        int randomNumber = ThreadLocalRandom.current().nextInt(queryResult.size());
-        //System.out.println("(" + Thread.currentThread().getName() + ") " + randomNumber + "[" + queryResult.size() + "]");
-        return queryResult.get(randomNumber);
+        int randomNumber = ThreadLocalRandom.current().nextInt(degree);
+        long edge = graph.getOutEdge(subjectId, randomNumber);
+        return new Triple(subject, graph.getUri(IntGraph.getPredicate(edge)), graph.getUri(IntGraph.getNode(edge)));
     }
 
     /**
@@ -466,10 +389,72 @@ public abstract class MemoryParser implements IParser {
         this.specificWalkGenerator = specificWalkGenerator;
     }
 
-    public TripleDataSetMemory getData() {
+    public IntTripleDataSetMemory getData() {
         return data;
     }
 
+    /**
+     * Obtain the graph on which the walks are generated. For in-memory parsers, this is the frozen CSR index of
+     * {@link #getData()}.
+     * @return Graph to walk on.
+     */
+    public IntGraph getGraph() {
+        return data.freeze();
+    }
+
+    /**
+     * Obtain the alias table of the current graph. The table is built on the first call and rebuilt only if the
+     * graph or the edge weighting changed in the meantime.
+     * @return Alias table for weighted random walks.
+     */
+    public AliasTable getAliasTable() {
+        IntGraph graph = getGraph();
+        AliasTable table = aliasTable;
+        if (table != null && aliasTableGraph == graph) return table;
+        synchronized (this) {
+            if (aliasTable == null || aliasTableGraph != graph) {
+                LOGGER.info("Building alias tables for weighted walks (" + edgeWeighting + ").");
+                aliasTable = AliasTable.build(graph, edgeWeighting);
+                aliasTableGraph = graph;
+            }
+            return aliasTable;
+        }
+    }
+
+    public EdgeWeighting getEdgeWeighting() {
+        return edgeWeighting;
+    }
+
+    /**
+     * Set the edge weights used for weighted random walks.
+     * @param edgeWeighting The edge weighting. Default: {@link EdgeWeighting#OBJECT_IN_DEGREE}.
+     */
+    public synchronized void setEdgeWeighting(EdgeWeighting edgeWeighting) {
+        if (edgeWeighting == null || edgeWeighting == this.edgeWeighting) return;
+        this.edgeWeighting = edgeWeighting;
+        this.aliasTable = null;
+    }
+
+    /**
+     * Persist the graph of this parser as binary snapshot which can be opened quickly with a {@link SnapshotParser}.
+     * @param snapshotFile The file to be written.
+     * @return True if the snapshot was written successfully, else false.
+     */
+    public boolean writeSnapshot(File snapshotFile) {
+        IntGraph graph = getGraph();
+        if (!(graph instanceof CsrGraph)) {
+            LOGGER.error("Only in-memory graphs can be written as snapshot.");
+            return false;
+        }
+        try {
+            GraphSnapshot.write((CsrGraph) graph, snapshotFile);
+            return true;
+        } catch (IOException ioe) {
+            LOGGER.error("Could not write the snapshot file " + snapshotFile.getAbsolutePath(), ioe);
+            return false;
+        }
+    }
+
     public long getDataSize(){
         return data.getSize();
     }
@@ -3,7 +3,9 @@ package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
 import org.apache.jena.ontology.OntModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.TripleDataSetMemory;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.IntTripleDataSetMemory;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.TripleBuffer;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.UriDictionary;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
@@ -31,6 +33,27 @@ public class NtMemoryParser extends MemoryParser {
     private IsearchCondition skipCondition;
 
 
+    /**
+     * Pattern to find a literal in a line.
+     */
+    private static final Pattern DATATYPE_PATTERN = Pattern.compile("\".*");
+
+    /**
+     * Number of triples after which a thread-local buffer is merged into the data set.
+     */
+    private static final int BUFFER_FLUSH_SIZE = 1 << 22;
+
+    /**
+     * Files are only split into chunks of at least this size (in bytes).
+     */
+    private static final long MINIMAL_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * True if the skip condition is reproduced by {@link NtTripleTokenizer}: the default condition or the one set by
+     * {@link #setIncludeDatatypeProperties(boolean)} with true. Otherwise, lines have to be processed as Strings.
+     */
+    private boolean isTokenizableSkipCondition = true;
+
     /**
      * Indicator whether an optimized file shall be written for quick parsing later on (will be written in ./optimized/)
      */
@@ -42,7 +65,7 @@ public class NtMemoryParser extends MemoryParser {
      *                      Therefore, method {@link WalkGenerator#shortenUri(String)} has to be implemented.
      */
     public NtMemoryParser(WalkGenerator walkGenerator) {
-        data = new TripleDataSetMemory();
+        data = new IntTripleDataSetMemory();
 
         specificWalkGenerator = walkGenerator;
         skipCondition = new IsearchCondition() {
@@ -272,6 +295,7 @@ public class NtMemoryParser extends MemoryParser {
             BufferedReader reader = new BufferedReader(new InputStreamReader(gzip, StandardCharsets.UTF_8));
 
             String readLine;
+            TripleBuffer buffer = new TripleBuffer();
             //int lineNumber = 0;
             while ((readLine = reader.readLine()) != null) {
                 //lineNumber += 1;
@@ -282,9 +306,10 @@ public class NtMemoryParser extends MemoryParser {
                     String subject = parsed[0];
                     String predicate = parsed[1];
                     String object = parsed[2];
-                    data.add(subject, predicate, object);
+                    addToBuffer(buffer, subject, predicate, object);
                 }
             }
+            data.addAll(buffer);
         } catch (IOException ioe) {
             LOGGER.error("Could not initialize optimized reader for file " + fileToReadFrom.getName());
         }
@@ -302,6 +327,10 @@ public class NtMemoryParser extends MemoryParser {
             LOGGER.error("File does not exist. Cannot parse.");
             return;
         }
+        if (isTokenizerApplicable()) {
+            readNTriplesTokenized(fileToReadFrom, isGzippedFile);
+            return;
+        }
 
         BufferedWriter writer = null; // the writer used to write the optimized file
         if (isWriteOptimizedFile) {
@@ -318,7 +347,6 @@ public class NtMemoryParser extends MemoryParser {
             }
         }
 
-        Pattern datatypePattern = Pattern.compile("\".*");
         try {
             BufferedReader reader;
             if (isGzippedFile) {
@@ -329,54 +357,23 @@ public class NtMemoryParser extends MemoryParser {
             }
             String readLine;
             long lineNumber = 0;
-            Matcher datatypeMatcher; // only required if datatype properties shall be included
-            nextLine:
+            TripleBuffer buffer = new TripleBuffer();
             while ((readLine = reader.readLine()) != null) {
+                lineNumber++;
+                String[] spo = parseLine(readLine, fileToReadFrom.getName(), lineNumber);
+                if (spo == null) continue;
                 try {
-                    lineNumber++;
-                    if (skipCondition.isHit(readLine)) {
-                        continue nextLine;
-                    }
-
-                    // remove the dot at the end of a statement
-                    readLine = readLine.replaceAll("(?<=>)*[ ]*.[ ]*$", "");
-
-
-                    if (isIncludeDatatypeProperties) {
-                        datatypeMatcher = datatypePattern.matcher(readLine);
-                        if (datatypeMatcher.find()) {
-                            String datatypeValue = datatypeMatcher.group(0);
-                            String newDatatypeValue = datatypeValue.replaceAll(" ", "_");
-                            readLine = readLine.replace(datatypeValue, newDatatypeValue);
-                        }
-                    }
-
-                    String[] spo = readLine.split(" ");
-                    if (spo.length != 3) {
-                        LOGGER.error("Error in file " + fileToReadFrom.getName() + " in line " + lineNumber + " while parsing the following line:\n" + readLine + "\n Required tokens: 3\nActual tokens: " + spo.length);
-                        int i = 1;
-                        for (String token : spo) {
-                            LOGGER.error("Token " + i++ + ": " + token);
-                        }
-                        LOGGER.error("Line is ignored. Parsing continues.");
-                        continue nextLine;
-                    }
-                    String subject = specificWalkGenerator.shortenUri(removeTags(spo[0])).intern();
-                    String predicate = specificWalkGenerator.shortenUri(removeTags(spo[1]).intern());
-                    String object = specificWalkGenerator.shortenUri(removeTags(spo[2])).intern();
-
-                    data.add(subject, predicate, object);
-
+                    addToBuffer(buffer, spo[0], spo[1], spo[2]);
                     if (isWriteOptimizedFile) {
-                        writer.write(subject + " " + predicate + " " + object + "\n");
+                        writer.write(spo[0] + " " + spo[1] + " " + spo[2] + "\n");
                     }
-
                 } catch (Exception e) {
                     // it is important that the parsing continues no matter what happens
                     LOGGER.error("A problem occurred while parsing line number " + lineNumber + " of file " + fileToReadFrom.getName(), e);
                     LOGGER.error("The problem occurred in the following line:\n" + readLine);
                 }
             } // end of while loop
+            data.addAll(buffer);
             LOGGER.info("File " + fileToReadFrom.getName() + " successfully read. " + data.getSize() + " subjects loaded.");
             if (isWriteOptimizedFile) {
                 writer.flush();
@@ -388,12 +385,247 @@ public class NtMemoryParser extends MemoryParser {
         }
     }
 
+
+    /**
+     * Read the given nt file into memory using the {@link NtTripleTokenizer}, i.e., without creating Strings for the
+     * individual lines and tokens.
+     *
+     * @param fileToReadFrom the file.
+     * @param isGzippedFile  Indicator whether the given file is gzipped.
+     */
+    private void readNTriplesTokenized(File fileToReadFrom, boolean isGzippedFile) {
+        try (InputStream in = isGzippedFile ? new GZIPInputStream(new FileInputStream(fileToReadFrom), 1 << 16) : new FileInputStream(fileToReadFrom)) {
+            ByteLineReader reader = new ByteLineReader(in);
+            NtTripleTokenizer tokenizer = new NtTripleTokenizer(isIncludeDatatypeProperties);
+            TripleBuffer buffer = new TripleBuffer();
+            long lineNumber = 0;
+            while (reader.next()) {
+                lineNumber++;
+                addTokenized(tokenizer, reader.getLine(), reader.getLength(), buffer, fileToReadFrom.getName(), lineNumber);
+            }
+            data.addAll(buffer);
+            LOGGER.info("File " + fileToReadFrom.getName() + " successfully read. " + data.getSize() + " subjects loaded.");
+        } catch (IOException ioe) {
+            LOGGER.error("Error while parsing file.", ioe);
+        }
+    }
+
+
+    /**
+     * The tokenizer can be used if the line-based String processing cannot be customized, i.e., if the skip condition
+     * is one that the tokenizer reproduces, if no URIs are shortened, and if no optimized file is written.
+     *
+     * @return True if {@link NtTripleTokenizer} can be used.
+     */
+    boolean isTokenizerApplicable() {
+        return isTokenizableSkipCondition && !isWriteOptimizedFile
+                && (specificWalkGenerator == null || !specificWalkGenerator.isShorteningUris());
+    }
+
+
+    /**
+     * Tokenize the given line and add the triple (if any) to the buffer.
+     *
+     * @param tokenizer The tokenizer of the current thread.
+     * @param line Array holding the line.
+     * @param length Length of the line.
+     * @param buffer The buffer of the current thread.
+     * @param fileName The name of the file (for logging).
+     * @param lineNumber The number of the line (for logging).
+     */
+    private void addTokenized(NtTripleTokenizer tokenizer, byte[] line, int length, TripleBuffer buffer, String fileName, long lineNumber) {
+        if (!tokenizer.tokenize(line, length)) {
+            if (tokenizer.getError() != null) {
+                LOGGER.error("Error in file " + fileName + " in line " + lineNumber + " while parsing the following line:\n" + new String(line, 0, length, StandardCharsets.UTF_8) + "\n" + tokenizer.getError());
+                LOGGER.error("Line is ignored. Parsing continues.");
+            }
+            return;
+        }
+        UriDictionary dictionary = buffer.getDictionary();
+        int subject = dictionary.getOrAdd(line, tokenizer.getSubjectStart(), tokenizer.getSubjectLength());
+        int predicate = dictionary.getOrAdd(line, tokenizer.getPredicateStart(), tokenizer.getPredicateLength());
+        int object = dictionary.getOrAdd(tokenizer.getObjectArray(), tokenizer.getObjectStart(), tokenizer.getObjectLength());
+        buffer.add(subject, predicate, object);
+        if (buffer.size() >= BUFFER_FLUSH_SIZE) {
+            data.addAll(buffer);
+            buffer.clear();
+        }
+    }
+
+
+    /**
+     * Parse a single line of an N-Triples file.
+     *
+     * @param readLine The line to be parsed.
+     * @param fileName The name of the file (for logging).
+     * @param lineNumber The number of the line (for logging).
+     * @return Shortened subject, predicate, and object or null if the line is to be skipped or cannot be parsed.
+     */
+    String[] parseLine(String readLine, String fileName, long lineNumber) {
+        try {
+            if (skipCondition.isHit(readLine)) {
+                return null;
+            }
+
+            // remove the dot at the end of a statement
+            readLine = readLine.replaceAll("(?<=>)*[ ]*.[ ]*$", "");
+
+            if (isIncludeDatatypeProperties) {
+                Matcher datatypeMatcher = DATATYPE_PATTERN.matcher(readLine);
+                if (datatypeMatcher.find()) {
+                    String datatypeValue = datatypeMatcher.group(0);
+                    String newDatatypeValue = datatypeValue.replaceAll(" ", "_");
+                    readLine = readLine.replace(datatypeValue, newDatatypeValue);
+                }
+            }
+
+            String[] spo = readLine.split(" ");
+            if (spo.length != 3) {
+                LOGGER.error("Error in file " + fileName + " in line " + lineNumber + " while parsing the following line:\n" + readLine + "\n Required tokens: 3\nActual tokens: " + spo.length);
+                int i = 1;
+                for (String token : spo) {
+                    LOGGER.error("Token " + i++ + ": " + token);
+                }
+                LOGGER.error("Line is ignored. Parsing continues.");
+                return null;
+            }
+            spo[0] = specificWalkGenerator.shortenUri(removeTags(spo[0]));
+            spo[1] = specificWalkGenerator.shortenUri(removeTags(spo[1]));
+            spo[2] = specificWalkGenerator.shortenUri(removeTags(spo[2]));
+            return spo;
+        } catch (Exception e) {
+            // it is important that the parsing continues no matter what happens
+            LOGGER.error("A problem occurred while parsing line number " + lineNumber + " of file " + fileName, e);
+            LOGGER.error("The problem occurred in the following line:\n" + readLine);
+            return null;
+        }
+    }
+
+
+    /**
+     * Add a triple to the thread-local buffer. If the buffer is full, it is merged into {@link MemoryParser#data} and
+     * cleared.
+     *
+     * @param buffer The buffer of the current thread.
+     * @param subject Subject
+     * @param predicate Predicate
+     * @param object Object
+     */
+    private void addToBuffer(TripleBuffer buffer, String subject, String predicate, String object) {
+        buffer.add(subject, predicate, object);
+        if (buffer.size() >= BUFFER_FLUSH_SIZE) {
+            data.addAll(buffer);
+            buffer.clear();
+        }
+    }
+
+
+    /**
+     * Read a single (uncompressed) N-Triples file with multiple threads. The file is split into byte ranges of equal
+     * size which are aligned to line boundaries; each range is parsed by its own thread.
+     * Gzipped files cannot be split and are read on a single thread.
+     *
+     * @param fileToReadFrom The file to be read.
+     * @param numberOfThreads The number of threads to be used.
+     */
+    public void readNTriplesChunkedMultiThreaded(File fileToReadFrom, int numberOfThreads) {
+        if (!fileToReadFrom.exists() || fileToReadFrom.isDirectory()) {
+            LOGGER.error("File does not exist. Cannot parse.");
+            return;
+        }
+        if (fileToReadFrom.getName().endsWith(".gz")) {
+            LOGGER.warn("Gzipped files cannot be split into chunks. Reading the file on a single thread.");
+            readNTriples(fileToReadFrom, true);
+            return;
+        }
+        long fileSize = fileToReadFrom.length();
+        numberOfThreads = (int) Math.max(1, Math.min(numberOfThreads, fileSize / MINIMAL_CHUNK_SIZE));
+        long chunkSize = fileSize / numberOfThreads;
+
+        ArrayList<Thread> allThreads = new ArrayList<>();
+        for (int i = 0; i < numberOfThreads; i++) {
+            long start = i * chunkSize;
+            long end = (i == numberOfThreads - 1) ? fileSize : start + chunkSize;
+            ChunkReaderThread thread = new ChunkReaderThread(fileToReadFrom, start, end);
+            thread.start();
+            allThreads.add(thread);
+        }
+
+        // wait for thread completion
+        try {
+            for (Thread thread : allThreads) {
+                thread.join();
+            }
+        } catch (InterruptedException ie) {
+            LOGGER.error("Problem waiting for thread...", ie);
+        }
+        LOGGER.info("File " + fileToReadFrom.getName() + " successfully read. " + data.getSize() + " triples loaded.");
+    }
+
+
+    /**
+     * Thread that parses all lines of a file which start within a given byte range.
+     */
+    class ChunkReaderThread extends Thread {
+
+        /**
+         * Constructor
+         *
+         * @param fileToRead The file to be read.
+         * @param start First byte of the range (inclusive).
+         * @param end Last byte of the range (exclusive).
+         */
+        public ChunkReaderThread(File fileToRead, long start, long end) {
+            this.fileToRead = fileToRead;
+            this.start = start;
+            this.end = end;
+        }
+
+        private File fileToRead;
+        private long start;
+        private long end;
+
+        @Override
+        public void run() {
+            LOGGER.info("STARTED thread for bytes " + start + " to " + end + " of file " + fileToRead.getName());
+            try (InputStream in = new FileInputStream(fileToRead)) {
+                ByteLineReader reader = new ByteLineReader(in);
+                if (start > 0) {
+                    // a line belongs to the range in which its first byte lies: skip the line that started before
+                    reader.skip(start - 1);
+                    reader.next();
+                }
+                String name = fileToRead.getName() + " (chunk starting at byte " + start + ")";
+                NtTripleTokenizer tokenizer = isTokenizerApplicable() ? new NtTripleTokenizer(isIncludeDatatypeProperties) : null;
+                TripleBuffer buffer = new TripleBuffer();
+                long lineNumber = 0;
+                while (reader.getPosition() < end && reader.next()) {
+                    lineNumber++;
+                    if (tokenizer != null) {
+                        addTokenized(tokenizer, reader.getLine(), reader.getLength(), buffer, name, lineNumber);
+                    } else {
+                        String[] spo = parseLine(new String(reader.getLine(), 0, reader.getLength(), StandardCharsets.UTF_8), name, lineNumber);
+                        if (spo != null) {
+                            addToBuffer(buffer, spo[0], spo[1], spo[2]);
+                        }
+                    }
+                }
+                data.addAll(buffer);
+            } catch (IOException ioe) {
+                LOGGER.error("Error while parsing file " + fileToRead.getName(), ioe);
+            }
+            LOGGER.info("Thread for bytes " + start + " to " + end + " of file " + fileToRead.getName() + " completed.");
+        }
+    }
+
+
     public IsearchCondition getSkipCondition() {
         return skipCondition;
     }
 
     public void setSkipCondition(IsearchCondition skipCondition) {
         this.skipCondition = skipCondition;
+        this.isTokenizableSkipCondition = false;
     }
 
     /**
@@ -426,5 +658,9 @@ public class NtMemoryParser extends MemoryParser {
             }
         };
         isIncludeDatatypeProperties = includeDatatypeProperties;
+
+        // The tokenizer skips all lines with literals if they are not included whereas the condition above keeps
+        // them; hence, it is only applicable if literals are included.
+        isTokenizableSkipCondition = includeDatatypeProperties;
     }
 }
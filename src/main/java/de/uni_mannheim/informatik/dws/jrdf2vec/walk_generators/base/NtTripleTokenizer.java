@@ -0,0 +1,179 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
+
+/**
+ * Allocation-free tokenizer for single N-Triples lines given as UTF-8 bytes.
+ * The subject, predicate, and object boundaries (without angle brackets) are determined in a single pass; the
+ * components can then be handed to a dictionary as byte slices without creating intermediate Strings.
+ * The behavior mirrors the String-based parsing of {@link NtMemoryParser}: comment and empty lines are skipped, lines
+ * with literals are skipped unless literals are included, and spaces within included literals are replaced by
+ * underscores.
+ * An instance is not thread-safe; use one tokenizer per thread.
+ */
+public class NtTripleTokenizer {
+
+    /**
+     * Indicator whether lines with literals shall be tokenized rather than skipped.
+     */
+    private final boolean isIncludeLiterals;
+
+    /**
+     * Buffer for the object in case of a literal (spaces are replaced).
+     */
+    private byte[] literalBuffer = new byte[256];
+
+    private byte[] line;
+    private int subjectStart, subjectEnd;
+    private int predicateStart, predicateEnd;
+    private byte[] objectArray;
+    private int objectStart, objectEnd;
+
+    /**
+     * Error message of the last call of {@link #tokenize(byte[], int)}; null if there was no error.
+     */
+    private String error;
+
+    /**
+     * Constructor
+     * @param isIncludeLiterals True if lines with literals shall be tokenized, false if they shall be skipped.
+     */
+    public NtTripleTokenizer(boolean isIncludeLiterals) {
+        this.isIncludeLiterals = isIncludeLiterals;
+    }
+
+    /**
+     * Tokenize the given line.
+     * @param line Array holding the line (UTF-8). The array must not be changed while the tokens are used.
+     * @param length Length of the line in the array (the line starts at index 0).
+     * @return True if the line contains a triple. False if the line shall be skipped or is malformed; in the latter
+     * case {@link #getError()} is not null.
+     */
+    public boolean tokenize(byte[] line, int length) {
+        this.line = line;
+        this.error = null;
+        int position = 0;
+        int end = length;
+        while (end > 0 && isWhitespace(line[end - 1])) end--;
+        while (position < end && isWhitespace(line[position])) position++;
+        if (position == end || line[position] == '#') return false;
+        if (!isIncludeLiterals && containsLiteral(line, position, end)) return false;
+
+        // remove the dot at the end of a statement
+        end--;
+        while (end > position && line[end - 1] == ' ') end--;
+
+        int tokenEnd = indexOfSpace(line, position, end);
+        if (tokenEnd < 0) return fail("Required tokens: 3, found: 1");
+        subjectStart = position;
+        subjectEnd = tokenEnd;
+        position = skipSpaces(line, tokenEnd, end);
+
+        tokenEnd = indexOfSpace(line, position, end);
+        if (tokenEnd < 0) return fail("Required tokens: 3, found: 2");
+        predicateStart = position;
+        predicateEnd = tokenEnd;
+        position = skipSpaces(line, tokenEnd, end);
+        if (position == end) return fail("Required tokens: 3, found: 2");
+
+        if (line[position] == '"') {
+            // literal: the remainder of the line with spaces replaced
+            int literalLength = end - position;
+            if (literalLength > literalBuffer.length) literalBuffer = new byte[Math.max(literalLength, 2 * literalBuffer.length)];
+            for (int i = 0; i < literalLength; i++) {
+                byte b = line[position + i];
+                literalBuffer[i] = (b == ' ') ? (byte) '_' : b;
+            }
+            objectArray = literalBuffer;
+            objectStart = 0;
+            objectEnd = literalLength;
+        } else {
+            if (indexOfSpace(line, position, end) >= 0) return fail("Required tokens: 3, found more.");
+            objectArray = line;
+            objectStart = position;
+            objectEnd = end;
+        }
+
+        // remove tags
+        if (line[subjectStart] == '<') subjectStart++;
+        if (subjectEnd > subjectStart && line[subjectEnd - 1] == '>') subjectEnd--;
+        if (line[predicateStart] == '<') predicateStart++;
+        if (predicateEnd > predicateStart && line[predicateEnd - 1] == '>') predicateEnd--;
+        if (objectArray[objectStart] == '<') objectStart++;
+        if (objectEnd > objectStart && objectArray[objectEnd - 1] == '>') objectEnd--;
+        return true;
+    }
+
+    private boolean fail(String message) {
+        error = message;
+        return false;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    private static int indexOfSpace(byte[] line, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (line[i] == ' ') return i;
+        }
+        return -1;
+    }
+
+    private static int skipSpaces(byte[] line, int from, int to) {
+        while (from < to && line[from] == ' ') from++;
+        return from;
+    }
+
+    /**
+     * A line contains a literal if there are two quotation marks.
+     */
+    private static boolean containsLiteral(byte[] line, int from, int to) {
+        boolean isQuoteFound = false;
+        for (int i = from; i < to; i++) {
+            if (line[i] == '"') {
+                if (isQuoteFound) return true;
+                isQuoteFound = true;
+            }
+        }
+        return false;
+    }
+
+    public byte[] getLine() {
+        return line;
+    }
+
+    public int getSubjectStart() {
+        return subjectStart;
+    }
+
+    public int getSubjectLength() {
+        return subjectEnd - subjectStart;
+    }
+
+    public int getPredicateStart() {
+        return predicateStart;
+    }
+
+    public int getPredicateLength() {
+        return predicateEnd - predicateStart;
+    }
+
+    /**
+     * The object does not necessarily reside in {@link #getLine()}.
+     * @return The array holding the object.
+     */
+    public byte[] getObjectArray() {
+        return objectArray;
+    }
+
+    public int getObjectStart() {
+        return objectStart;
+    }
+
+    public int getObjectLength() {
+        return objectEnd - objectStart;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -4,7 +4,7 @@ import org.semanticweb.yars.nx.Node;
 import org.semanticweb.yars.nx.parser.NxParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.TripleDataSetMemory;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.IntTripleDataSetMemory;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -28,7 +28,7 @@ public class NxMemoryParser extends MemoryParser {
      */
     public NxMemoryParser(WalkGenerator walkGenerator){
         this.specificWalkGenerator = walkGenerator;
-        data = new TripleDataSetMemory();
+        data = new IntTripleDataSetMemory();
     }
 
     /**
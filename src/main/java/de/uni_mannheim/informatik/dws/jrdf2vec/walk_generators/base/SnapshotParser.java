@@ -0,0 +1,63 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
+
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.GraphSnapshot;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.MappedCsrGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Parser for graph snapshots written by {@link MemoryParser#writeSnapshot(File)}.
+ * The snapshot is memory-mapped rather than parsed, so that the graph is available within seconds and does not occupy
+ * the Java heap. There is no {@link MemoryParser#getData()} for this parser; walks are generated directly on the
+ * mapped graph.
+ */
+public class SnapshotParser extends MemoryParser {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnapshotParser.class);
+
+    /**
+     * The mapped graph. Null if the snapshot could not be opened.
+     */
+    private MappedCsrGraph graph;
+
+    /**
+     * Constructor
+     * @param snapshotFile The snapshot file.
+     * @param walkGenerator Walk generator to be used.
+     */
+    public SnapshotParser(File snapshotFile, WalkGenerator walkGenerator) {
+        this.specificWalkGenerator = walkGenerator;
+        try {
+            graph = GraphSnapshot.open(snapshotFile);
+            LOGGER.info("Snapshot with " + graph.getNumberOfEdges() + " edges opened.");
+        } catch (IOException ioe) {
+            LOGGER.error("Could not open the snapshot file " + snapshotFile.getAbsolutePath(), ioe);
+        }
+    }
+
+    /**
+     * Constructor
+     * @param snapshotFilePath Path to the snapshot file.
+     * @param walkGenerator Walk generator to be used.
+     */
+    public SnapshotParser(String snapshotFilePath, WalkGenerator walkGenerator) {
+        this(new File(snapshotFilePath), walkGenerator);
+    }
+
+    @Override
+    public MappedCsrGraph getGraph() {
+        return graph;
+    }
+
+    @Override
+    public long getDataSize() {
+        if (graph == null) return 0L;
+        return graph.getNumberOfEdges();
+    }
+}
@@ -46,7 +46,14 @@ public enum WalkGenerationMode {
      * Plain random walks generated in a forward-fashion (going backwards is not allowed).
      * Duplicates are not allowed.
      */
-    RANDOM_WALKS_DUPLICATE_FREE;
+    RANDOM_WALKS_DUPLICATE_FREE,
+
+    /**
+     * Weighted random walks generated in a forward-fashion (going backwards is not allowed). The next edge is drawn
+     * according to precomputed edge weights (see
+     * {@link de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.EdgeWeighting}).
+     */
+    RANDOM_WALKS_WEIGHTED;
 
 
     /**
@@ -68,6 +75,8 @@ public enum WalkGenerationMode {
                 return RANDOM_WALKS;
             case "random_walks_duplicate_free":
                 return RANDOM_WALKS_DUPLICATE_FREE;
+            case "random_walks_weighted":
+                return RANDOM_WALKS_WEIGHTED;
             default:
                 return null;
         }
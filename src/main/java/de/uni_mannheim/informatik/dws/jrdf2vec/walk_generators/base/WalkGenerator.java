@@ -7,17 +7,17 @@ import org.apache.jena.riot.RiotException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.runnables.*;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers.AsynchronousWalkWriter;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers.IWalkWriter;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers.SocketWalkWriter;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers.WalkFileFormat;
 
 import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.zip.GZIPOutputStream;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 /**
  * Abstract class for all Walk generators.
@@ -62,19 +62,14 @@ public abstract class WalkGenerator implements IWalkGenerator {
     private static Logger LOGGER = LoggerFactory.getLogger(WalkGenerator.class);
 
     /**
-     * For the statistical output.
+     * The number of entities processed by a single task.
      */
-    int processedEntities = 0;
+    static final int ENTITY_CHUNK_SIZE = 64;
 
     /**
-     * For the statistical output.
+     * The maximal number of tasks per thread waiting for execution.
      */
-    int processedWalks = 0;
-
-    /**
-     * For the statistical output.
-     */
-    int fileProcessedLines = 0;
+    static final int TASKS_PER_THREAD = 4;
 
     /**
      * Parser.
@@ -82,15 +77,30 @@ public abstract class WalkGenerator implements IWalkGenerator {
     public IParser parser;
 
     /**
-     * File writer for all the paths.
+     * Writer for all the paths.
      */
-    public Writer writer;
+    public IWalkWriter walkWriter;
 
     /**
      * File path to the walk file to be written.
      */
     public String filePath;
 
+    /**
+     * The number of threads writing walks. If larger than 1, each writer thread writes its own gzipped shard.
+     */
+    private int numberOfWalkWriterThreads = 1;
+
+    /**
+     * The format in which the walks are written.
+     */
+    private WalkFileFormat walkFileFormat = WalkFileFormat.TEXT;
+
+    /**
+     * The local port to which the walks are streamed in addition to being written. -1 if walks are not streamed.
+     */
+    private int walkStreamPort = -1;
+
     /**
      * Given a URI, a short version is created.
      *
@@ -99,6 +109,17 @@ public abstract class WalkGenerator implements IWalkGenerator {
      */
     public abstract String shortenUri(String uri);
 
+    /**
+     * Indicates whether {@link #shortenUri(String)} changes URIs. If it does not, parsers can skip the shortening and
+     * use faster code paths that do not create Strings for the individual URIs.
+     * Implementations that override {@link #shortenUri(String)} with the identity should return false.
+     *
+     * @return True if URIs are shortened (default), else false.
+     */
+    public boolean isShorteningUris() {
+        return true;
+    }
+
     /**
      * Generate walks for the entities that are duplicate free (i.e., no walk exists twice in the resulting file).
      *
@@ -107,35 +128,23 @@ public abstract class WalkGenerator implements IWalkGenerator {
      * @param numberOfWalks   The number of walks to be generated per thread.
      * @param walkLength      The maximal length of each walk (a walk may be shorter if it cannot be continued anymore). Aka depth.
      */
-    public void generateRandomMidWalksForEntitiesDuplicateFree(Set<String> entities, int numberOfThreads, int numberOfWalks, int walkLength) {
-        File outputFile = new File(filePath);
-        outputFile.getParentFile().mkdirs();
-
-        // initialize the writer
-        try {
-            this.writer = new OutputStreamWriter(new GZIPOutputStream(
-                    new FileOutputStream(outputFile, false)), StandardCharsets.UTF_8);
-        } catch (Exception e1) {
-            LOGGER.error("Could not initialize writer. Aborting process.", e1);
-            return;
-        }
+    public void generateRandomMidWalksForEntitiesDuplicateFree(Iterable<String> entities, int numberOfThreads, int numberOfWalks, int walkLength) {
+        processEntities(entities, numberOfThreads,
+                entity -> new DuplicateFreeMidWalkEntityProcessingRunnable(this, entity, numberOfWalks, walkLength).run());
+    }
 
-        ThreadPoolExecutor pool = new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
-                0, TimeUnit.SECONDS,
-                new java.util.concurrent.ArrayBlockingQueue<>(entities.size()));
 
-        for (String entity : entities) {
-            DuplicateFreeMidWalkEntityProcessingRunnable th = new DuplicateFreeMidWalkEntityProcessingRunnable(this, entity, numberOfWalks, walkLength);
-            pool.execute(th);
-        }
-        pool.shutdown();
-        try {
-            pool.awaitTermination(10, TimeUnit.DAYS);
-        } catch (InterruptedException e) {
-            LOGGER.error("Interrupted Exception");
-            e.printStackTrace();
-        }
-        this.close();
+    /**
+     * Generate weighted random walks for the entities.
+     *
+     * @param entities        The entities for which walks shall be generated.
+     * @param numberOfThreads The number of threads to be used.
+     * @param numberOfWalks   The number of walks to be generated per thread.
+     * @param walkLength      The maximal length of each walk (a walk may be shorter if it cannot be continued anymore). Aka depth.
+     */
+    public void generateWeightedRandomWalksForEntities(Iterable<String> entities, int numberOfThreads, int numberOfWalks, int walkLength) {
+        processEntities(entities, numberOfThreads,
+                entity -> new WeightedRandomWalkEntityProcessingRunnable(this, entity, numberOfWalks, walkLength).run());
     }
 
 
@@ -147,35 +156,9 @@ public abstract class WalkGenerator implements IWalkGenerator {
      * @param numberOfWalks   The number of walks to be generated per thread.
      * @param walkLength      The maximal length of each walk (a walk may be shorter if it cannot be continued anymore). Aka depth.
      */
-    public void generateWeightedMidWalksForEntities(Set<String> entities, int numberOfThreads, int numberOfWalks, int walkLength) {
-        File outputFile = new File(filePath);
-        outputFile.getParentFile().mkdirs();
-
-        // initialize the writer
-        try {
-            this.writer = new OutputStreamWriter(new GZIPOutputStream(
-                    new FileOutputStream(outputFile, false)), StandardCharsets.UTF_8);
-        } catch (Exception e1) {
-            LOGGER.error("Could not initialize writer. Aborting process.", e1);
-            return;
-        }
-
-        ThreadPoolExecutor pool = new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
-                0, TimeUnit.SECONDS,
-                new java.util.concurrent.ArrayBlockingQueue<>(entities.size()));
-
-        for (String entity : entities) {
-            WeightedMidWalkEntityProcessingRunnable th = new WeightedMidWalkEntityProcessingRunnable(this, entity, numberOfWalks, walkLength);
-            pool.execute(th);
-        }
-        pool.shutdown();
-        try {
-            pool.awaitTermination(10, TimeUnit.DAYS);
-        } catch (InterruptedException e) {
-            LOGGER.error("Interrupted Exception");
-            e.printStackTrace();
-        }
-        this.close();
+    public void generateWeightedMidWalksForEntities(Iterable<String> entities, int numberOfThreads, int numberOfWalks, int walkLength) {
+        processEntities(entities, numberOfThreads,
+                entity -> new WeightedMidWalkEntityProcessingRunnable(this, entity, numberOfWalks, walkLength).run());
     }
 
 
@@ -187,35 +170,9 @@ public abstract class WalkGenerator implements IWalkGenerator {
      * @param numberOfWalks   The number of walks to be generated per thread.
      * @param walkLength      The maximal length of each walk (a walk may be shorter if it cannot be continued anymore). Aka depth.
      */
-    public void generateRandomMidWalksForEntities(Set<String> entities, int numberOfThreads, int numberOfWalks, int walkLength) {
-        File outputFile = new File(filePath);
-        outputFile.getParentFile().mkdirs();
-
-        // initialize the writer
-        try {
-            this.writer = new OutputStreamWriter(new GZIPOutputStream(
-                    new FileOutputStream(outputFile, false)), StandardCharsets.UTF_8);
-        } catch (Exception e1) {
-            LOGGER.error("Could not initialize writer. Aborting process.", e1);
-            return;
-        }
-
-        ThreadPoolExecutor pool = new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
-                0, TimeUnit.SECONDS,
-                new java.util.concurrent.ArrayBlockingQueue<>(entities.size()));
-
-        for (String entity : entities) {
-            MidWalkEntityProcessingRunnable th = new MidWalkEntityProcessingRunnable(this, entity, numberOfWalks, walkLength);
-            pool.execute(th);
-        }
-        pool.shutdown();
-        try {
-            pool.awaitTermination(10, TimeUnit.DAYS);
-        } catch (InterruptedException e) {
-            LOGGER.error("Interrupted Exception");
-            e.printStackTrace();
-        }
-        this.close();
+    public void generateRandomMidWalksForEntities(Iterable<String> entities, int numberOfThreads, int numberOfWalks, int walkLength) {
+        processEntities(entities, numberOfThreads,
+                entity -> new MidWalkEntityProcessingRunnable(this, entity, numberOfWalks, walkLength).run());
     }
 
 
@@ -227,35 +184,9 @@ public abstract class WalkGenerator implements IWalkGenerator {
      * @param numberOfWalks   The number of walks to be generated per thread.
      * @param walkLength      The maximal length of each walk (a walk may be shorter if it cannot be continued anymore).
      */
-    public void generateDuplicateFreeWalksForEntities(Set<String> entities, int numberOfThreads, int numberOfWalks, int walkLength) {
-        File outputFile = new File(filePath);
-        outputFile.getParentFile().mkdirs();
-
-        // initialize the writer
-        try {
-            this.writer = new OutputStreamWriter(new GZIPOutputStream(
-                    new FileOutputStream(outputFile, false)), StandardCharsets.UTF_8);
-        } catch (Exception e1) {
-            LOGGER.error("Could not initialize writer. Aborting process.", e1);
-            return;
-        }
-
-        ThreadPoolExecutor pool = new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
-                0, TimeUnit.SECONDS,
-                new java.util.concurrent.ArrayBlockingQueue<>(entities.size()));
-
-        for (String entity : entities) {
-            DuplicateFreeWalkEntityProcessingRunnable th = new DuplicateFreeWalkEntityProcessingRunnable(this, entity, numberOfWalks, walkLength);
-            pool.execute(th);
-        }
-        pool.shutdown();
-        try {
-            pool.awaitTermination(10, TimeUnit.DAYS);
-        } catch (InterruptedException e) {
-            LOGGER.error("Interrupted Exception");
-            e.printStackTrace();
-        }
-        this.close();
+    public void generateDuplicateFreeWalksForEntities(Iterable<String> entities, int numberOfThreads, int numberOfWalks, int walkLength) {
+        processEntities(entities, numberOfThreads,
+                entity -> new DuplicateFreeWalkEntityProcessingRunnable(this, entity, numberOfWalks, walkLength).run());
     }
 
     /**
@@ -266,76 +197,139 @@ public abstract class WalkGenerator implements IWalkGenerator {
      * @param numberOfWalks   The number of walks to be generated per thread.
      * @param walkLength      The maximal length of each walk (a walk may be shorter if it cannot be continued anymore).
      */
-    public void generateWalksForEntities(HashSet<String> entities, int numberOfThreads, int numberOfWalks, int walkLength) {
-        File outputFile = new File(filePath);
-        outputFile.getParentFile().mkdirs();
-
-        // initialize the writer
-        try {
-            this.writer = new OutputStreamWriter(new GZIPOutputStream(
-                    new FileOutputStream(outputFile, false)), StandardCharsets.UTF_8);
-        } catch (Exception e1) {
-            LOGGER.error("Could not initialize writer. Aborting process.", e1);
-            return;
-        }
-
-        ThreadPoolExecutor pool = new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
-                0, TimeUnit.SECONDS,
-                new java.util.concurrent.ArrayBlockingQueue<>(entities.size()));
+    public void generateWalksForEntities(Iterable<String> entities, int numberOfThreads, int numberOfWalks, int walkLength) {
+        processEntities(entities, numberOfThreads,
+                entity -> new RandomWalkEntityProcessingRunnable(this, entity, numberOfWalks, walkLength).run());
+    }
 
-        for (String entity : entities) {
-            RandomWalkEntityProcessingRunnable th = new RandomWalkEntityProcessingRunnable(this, entity, numberOfWalks, walkLength);
-            pool.execute(th);
-        }
-        pool.shutdown();
+    /**
+     * Runs the given entity processor for all entities and closes the writer afterwards.
+     * The entities are consumed lazily in chunks of {@link #ENTITY_CHUNK_SIZE}; at most {@link #TASKS_PER_THREAD}
+     * chunks per thread are waiting for execution at any time. Hence, the memory required for scheduling is constant
+     * regardless of the number of entities.
+     *
+     * @param entities        The entities for which walks shall be generated.
+     * @param numberOfThreads The number of threads to be used.
+     * @param entityProcessor Generates and writes the walks for a single entity.
+     */
+    protected void processEntities(Iterable<String> entities, int numberOfThreads, Consumer<String> entityProcessor) {
+        if (!initializeWalkWriter()) return;
 
+        ExecutorService pool = Executors.newFixedThreadPool(numberOfThreads);
+        Semaphore pendingTasks = new Semaphore(numberOfThreads * TASKS_PER_THREAD);
+        Iterator<String> iterator = entities.iterator();
         try {
+            while (iterator.hasNext()) {
+                String[] chunk = new String[ENTITY_CHUNK_SIZE];
+                int chunkSize = 0;
+                while (chunkSize < ENTITY_CHUNK_SIZE && iterator.hasNext()) {
+                    chunk[chunkSize++] = iterator.next();
+                }
+                final int finalChunkSize = chunkSize;
+
+                // blocks if enough tasks are waiting
+                pendingTasks.acquire();
+                pool.execute(() -> {
+                    try {
+                        for (int i = 0; i < finalChunkSize; i++) {
+                            try {
+                                entityProcessor.accept(chunk[i]);
+                            } catch (RuntimeException re) {
+                                LOGGER.error("Could not generate walks for entity " + chunk[i], re);
+                            }
+                        }
+                    } finally {
+                        pendingTasks.release();
+                    }
+                });
+            }
+            pool.shutdown();
             pool.awaitTermination(10, TimeUnit.DAYS);
         } catch (InterruptedException e) {
-            LOGGER.error("Interrupted Exception");
-            e.printStackTrace();
+            LOGGER.error("Interrupted Exception", e);
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
         }
         this.close();
     }
 
     /**
-     * Adds new walks to the list; If the list is filled, it is written to the
-     * file.
+     * Initializes the {@link #walkWriter} for {@link #filePath}. The parent directories are created if required.
      *
-     * @param tmpList Entries that shall be written.
+     * @return True if the writer could be initialized, else false.
      */
-    public synchronized void writeToFile(List<String> tmpList) {
-        processedEntities++;
-        processedWalks += tmpList.size();
-        fileProcessedLines += tmpList.size();
-        for (String str : tmpList)
-            try {
-                writer.write(str + "\n");
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        if (processedEntities % 1000 == 0) {
-            LOGGER.info("TOTAL PROCESSED ENTITIES: " + processedEntities);
-            LOGGER.info("TOTAL NUMBER OF PATHS : " + processedWalks);
+    protected boolean initializeWalkWriter() {
+        File outputFile = new File(filePath);
+        outputFile.getAbsoluteFile().getParentFile().mkdirs();
+        try {
+            this.walkWriter = new AsynchronousWalkWriter(filePath, numberOfWalkWriterThreads, walkFileFormat);
+        } catch (IOException e1) {
+            LOGGER.error("Could not initialize writer. Aborting process.", e1);
+            return false;
         }
-        // flush the file
-        if (fileProcessedLines > 3000000) {
-            fileProcessedLines = 0;
-            try {
-                writer.flush();
-                writer.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-            int tmpNM = (processedWalks / 3000000);
-            String tmpFilename = filePath.replace(".gz", tmpNM + ".gz");
+        if (walkStreamPort > 0) {
             try {
-                writer = new OutputStreamWriter(new GZIPOutputStream(
-                        new FileOutputStream(tmpFilename, false)), StandardCharsets.UTF_8);
-            } catch (Exception e) {
-                e.printStackTrace();
+                this.walkWriter = new SocketWalkWriter(this.walkWriter, walkStreamPort);
+            } catch (IOException e2) {
+                LOGGER.error("Could not connect to the walk stream on port " + walkStreamPort +
+                        ". The walks are only written to files.", e2);
             }
         }
+        return true;
+    }
+
+    public int getNumberOfWalkWriterThreads() {
+        return numberOfWalkWriterThreads;
+    }
+
+    /**
+     * Set the number of threads writing (and compressing) the walks. If larger than 1, each writer thread writes its
+     * own shard ({@code walk_file_0.gz}, {@code walk_file_1.gz}, ...) so that compression scales with the number of
+     * cores.
+     *
+     * @param numberOfWalkWriterThreads The number of writer threads (default: 1).
+     */
+    public void setNumberOfWalkWriterThreads(int numberOfWalkWriterThreads) {
+        this.numberOfWalkWriterThreads = numberOfWalkWriterThreads;
+    }
+
+    public WalkFileFormat getWalkFileFormat() {
+        return walkFileFormat;
+    }
+
+    /**
+     * Set the format of the walk files. In case of {@link WalkFileFormat#BINARY}, the walks are written as ID sequences
+     * ({@code walk_file.bin.gz}) together with a vocabulary file in the walk directory.
+     *
+     * @param walkFileFormat The walk file format (default: {@link WalkFileFormat#TEXT}).
+     */
+    public void setWalkFileFormat(WalkFileFormat walkFileFormat) {
+        this.walkFileFormat = walkFileFormat;
+    }
+
+    public int getWalkStreamPort() {
+        return walkStreamPort;
+    }
+
+    /**
+     * Set a local port to which the walks are streamed (one walk per line) while they are written to the walk files.
+     * This allows the training to process the walks while they are generated (see
+     * {@link de.uni_mannheim.informatik.dws.jrdf2vec.training.Gensim#openWord2VecWalkStream}).
+     *
+     * @param walkStreamPort The port or -1 if the walks shall not be streamed (default).
+     */
+    public void setWalkStreamPort(int walkStreamPort) {
+        this.walkStreamPort = walkStreamPort;
+    }
+
+    /**
+     * Hands the walks of one entity over to the walk writer. This method does not block on I/O; the walks are written
+     * asynchronously.
+     *
+     * @param tmpList Entries that shall be written.
+     */
+    public void writeToFile(List<String> tmpList) {
+        walkWriter.write(tmpList);
     }
 
 
@@ -361,15 +355,13 @@ public abstract class WalkGenerator implements IWalkGenerator {
 
 
     /**
-     * Close resources.
+     * Close resources. An error is logged if not all walks could be written; see {@link IWalkWriter#isOk()}.
      */
     public void close() {
-        if (writer == null) return;
-        try {
-            writer.flush();
-            writer.close();
-        } catch (IOException ioe) {
-            LOGGER.error("There was an error when closing the writer.", ioe);
+        if (walkWriter == null) return;
+        walkWriter.close();
+        if (!walkWriter.isOk()) {
+            LOGGER.error("The walk generation is incomplete: not all walks could be written to " + filePath + ".");
         }
     }
 
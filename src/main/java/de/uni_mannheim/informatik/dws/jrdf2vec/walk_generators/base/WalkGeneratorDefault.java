@@ -1,19 +1,15 @@
 package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
 
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.EdgeWeighting;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.GraphSnapshot;
 import org.apache.jena.ontology.OntModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.runnables.RandomWalkEntityProcessingRunnable;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
 import java.net.MalformedURLException;
-import java.util.Set;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * Default Walk Generator.
@@ -46,6 +42,11 @@ public class WalkGeneratorDefault extends WalkGenerator {
      */
     public final static String DEFAULT_WALK_FILE_TO_BE_WRITTEN = DEFAULT_WALK_DIRECTORY + "/walk_file.gz";
 
+    /**
+     * NT files larger than this size (in bytes) are split into chunks which are parsed in parallel.
+     */
+    public final static long CHUNKED_PARSING_THRESHOLD = 1024L * 1024L * 1024L;
+
     /**
      * Can be set to false if there are problems with the parser to make sure that generation functions do not
      * start.
@@ -76,17 +77,29 @@ public class WalkGeneratorDefault extends WalkGenerator {
             try {
                 String fileName = tripleFile.getName();
                 if (fileName.toLowerCase().endsWith(".nt")) {
+                    String parserName;
                     try {
-                        LOGGER.info("Using NxParser.");
-                        this.parser = new NxMemoryParser(pathToTripleFile, this);
-                        this.entitySelector = new MemoryEntitySelector(((NxMemoryParser) parser).getData());
+                        if (tripleFile.length() > CHUNKED_PARSING_THRESHOLD) {
+                            parserName = "multi-threaded NtParser";
+                            LOGGER.info("Large NT file detected. Using " + parserName + ".");
+                            NtMemoryParser ntParser = new NtMemoryParser(this);
+                            ntParser.readNTriplesChunkedMultiThreaded(tripleFile, Runtime.getRuntime().availableProcessors());
+                            this.parser = ntParser;
+                            this.entitySelector = new MemoryEntitySelector(ntParser.getData());
+                        } else {
+                            parserName = "default NxParser";
+                            LOGGER.info("Using NxParser.");
+                            this.parser = new NxMemoryParser(pathToTripleFile, this);
+                            this.entitySelector = new MemoryEntitySelector(((NxMemoryParser) parser).getData());
+                        }
                     } catch (Exception e) {
-                        LOGGER.error("There was a problem using the default NxParser. Retry with slower NtParser.");
+                        parserName = null;
+                        LOGGER.error("There was a problem parsing the NT file. Retry with slower NtParser.", e);
                         this.parser = new NtMemoryParser(pathToTripleFile, this);
                         this.entitySelector = new MemoryEntitySelector(((NtMemoryParser) parser).getData());
                     }
-                    if (((MemoryParser) parser).getDataSize() == 0L) {
-                        LOGGER.error("There was a problem using the default NxParser. Retry with slower NtParser.");
+                    if (parserName != null && ((MemoryParser) parser).getDataSize() == 0L) {
+                        LOGGER.error("There was a problem using the " + parserName + ". Retry with slower NtParser.");
                         this.parser = new NtMemoryParser(pathToTripleFile, this);
                         this.entitySelector = new MemoryEntitySelector(((NtMemoryParser) parser).getData());
                     }
@@ -102,11 +115,21 @@ public class WalkGeneratorDefault extends WalkGenerator {
                     File newResourceFile = new File(tripleFile.getParent(), fileName.substring(0, fileName.length() - 3) + "nt");
                     NtMemoryParser.saveAsNt(this.model, newResourceFile);
                     this.parser = new NtMemoryParser(newResourceFile, this);
+                } else if (fileName.toLowerCase().endsWith(GraphSnapshot.FILE_EXTENSION)) {
+                    LOGGER.info("Graph snapshot detected. Using snapshot parser.");
+                    SnapshotParser snapshotParser = new SnapshotParser(tripleFile, this);
+                    if (snapshotParser.getGraph() == null) {
+                        parserIsOk = false;
+                        return;
+                    }
+                    this.parser = snapshotParser;
+                    this.entitySelector = new MemoryEntitySelector(snapshotParser.getGraph());
                 } else if (fileName.toLowerCase().endsWith(".hdt") || fileName.toLowerCase().endsWith(".hdt.index.v1-1")) {
                     LOGGER.info("HDT file detected. Using HDT parser.");
                     try {
-                        this.parser = new HdtParser(pathToTripleFile);
-                        this.entitySelector = new HdtEntitySelector(pathToTripleFile);
+                        HdtParser hdtParser = new HdtParser(pathToTripleFile);
+                        this.parser = hdtParser;
+                        this.entitySelector = new HdtEntitySelector(hdtParser.getHdtDataSet());
                     } catch (IOException ioe) {
                         LOGGER.error("Propagated HDT Initializer Exception", ioe);
                     }
@@ -148,6 +171,9 @@ public class WalkGeneratorDefault extends WalkGenerator {
         } else if (generationMode == WalkGenerationMode.MID_WALKS_WEIGHTED) {
             System.out.println("generate weighted mid walks...");
             this.generateWeightedMidWalks(numberOfThreads, numberOfWalks, depth, walkFile);
+        } else if (generationMode == WalkGenerationMode.RANDOM_WALKS_WEIGHTED) {
+            System.out.println("generate weighted random walks...");
+            this.generateWeightedRandomWalks(numberOfThreads, numberOfWalks, depth, walkFile);
         } else {
             System.out.println("ERROR. Cannot identify the walkGenenerationMode chosen. Aborting program.");
         }
@@ -161,13 +187,13 @@ public class WalkGeneratorDefault extends WalkGenerator {
     @Override
     public void generateRandomWalks(int numberOfThreads, int numberOfWalksPerEntity, int depth, String filePathOfFileToBeWritten) {
         this.filePath = filePathOfFileToBeWritten;
-        generateRandomWalksForEntities(entitySelector.getEntities(), numberOfThreads, numberOfWalksPerEntity, depth);
+        generateRandomWalksForEntities(getEntitiesToProcess(), numberOfThreads, numberOfWalksPerEntity, depth);
     }
 
     @Override
     public void generateRandomWalksDuplicateFree(int numberOfThreads, int numberOfWalksPerEntity, int depth, String filePathOfFileToBeWritten) {
         this.filePath = filePathOfFileToBeWritten;
-        generateDuplicateFreeWalksForEntities(entitySelector.getEntities(), numberOfThreads, numberOfWalksPerEntity, depth);
+        generateDuplicateFreeWalksForEntities(getEntitiesToProcess(), numberOfThreads, numberOfWalksPerEntity, depth);
     }
 
     @Override
@@ -175,6 +201,25 @@ public class WalkGeneratorDefault extends WalkGenerator {
         generateRandomWalksDuplicateFree(numberOfThreads, numberOfWalksPerEntity, depth, DEFAULT_WALK_FILE_TO_BE_WRITTEN);
     }
 
+    @Override
+    public void generateWeightedRandomWalks(int numberOfThreads, int numberOfWalksPerEntity, int depth) {
+        generateWeightedRandomWalks(numberOfThreads, numberOfWalksPerEntity, depth, DEFAULT_WALK_FILE_TO_BE_WRITTEN);
+    }
+
+    @Override
+    public void generateWeightedRandomWalks(int numberOfThreads, int numberOfWalksPerEntity, int depth, String filePathOfFileToBeWritten) {
+        if (this.parser == null) {
+            LOGGER.error("Parser not initialized. Aborting program");
+            return;
+        }
+        if (!parserIsOk) {
+            LOGGER.error("Will not execute walk generation due to parser initialization error.");
+            return;
+        }
+        this.filePath = filePathOfFileToBeWritten;
+        generateWeightedRandomWalksForEntities(getEntitiesToProcess(), numberOfThreads, numberOfWalksPerEntity, depth);
+    }
+
     @Override
     public void generateRandomMidWalks(int numberOfThreads, int numberOfWalksPerEntity, int depth) {
         generateRandomMidWalks(numberOfThreads, numberOfWalksPerEntity, depth, DEFAULT_WALK_FILE_TO_BE_WRITTEN);
@@ -191,7 +236,7 @@ public class WalkGeneratorDefault extends WalkGenerator {
             return;
         }
         this.filePath = filePathOfFileToBeWritten;
-        generateRandomMidWalksForEntities(entitySelector.getEntities(), numberOfThreads, numberOfWalksPerEntity, depth);
+        generateRandomMidWalksForEntities(getEntitiesToProcess(), numberOfThreads, numberOfWalksPerEntity, depth);
     }
 
     @Override
@@ -210,7 +255,7 @@ public class WalkGeneratorDefault extends WalkGenerator {
             return;
         }
         this.filePath = filePathOfFileToBeWritten;
-        generateWeightedMidWalksForEntities(entitySelector.getEntities(), numberOfThreads, numberOfWalksPerEntity, depth);
+        generateWeightedMidWalksForEntities(getEntitiesToProcess(), numberOfThreads, numberOfWalksPerEntity, depth);
     }
 
     @Override
@@ -229,49 +274,67 @@ public class WalkGeneratorDefault extends WalkGenerator {
             return;
         }
         this.filePath = filePathOfFileToBeWritten;
-        generateRandomMidWalksForEntitiesDuplicateFree(entitySelector.getEntities(), numberOfThreads, numberOfWalksPerEntity, depth);
+        generateRandomMidWalksForEntitiesDuplicateFree(getEntitiesToProcess(), numberOfThreads, numberOfWalksPerEntity, depth);
     }
 
 
     /**
-     * Generate walks for the entities.
+     * Set the edge weighting which is used by the weighted walk generation modes
+     * ({@link WalkGenerationMode#RANDOM_WALKS_WEIGHTED}, {@link WalkGenerationMode#MID_WALKS_WEIGHTED}).
      *
-     * @param entities        The entities for which walks shall be generated.
-     * @param numberOfThreads The number of threads involved in generating the walks.
-     * @param numberOfWalks   The number of walks to be generated per entity.
-     * @param walkLength      The length of each walk.
+     * @param edgeWeighting The edge weighting. If null, the default of the parser is kept
+     *                      ({@link EdgeWeighting#OBJECT_IN_DEGREE}).
      */
-    public void generateRandomWalksForEntities(Set<String> entities, int numberOfThreads, int numberOfWalks, int walkLength) {
-        File outputFile = new File(filePath);
-        outputFile.getParentFile().mkdirs();
-
-        // initialize the writer
-        try {
-            this.writer = new OutputStreamWriter(new GZIPOutputStream(
-                    new FileOutputStream(outputFile, false)), "utf-8");
-        } catch (Exception e1) {
-            LOGGER.error("Could not initialize writer. Aborting process.", e1);
-            return;
+    public void setEdgeWeighting(EdgeWeighting edgeWeighting) {
+        if (edgeWeighting == null) return;
+        if (parser instanceof MemoryParser) {
+            ((MemoryParser) parser).setEdgeWeighting(edgeWeighting);
+        } else if (parser instanceof HdtParser) {
+            ((HdtParser) parser).setEdgeWeighting(edgeWeighting);
+        } else {
+            LOGGER.warn("The parser does not support weighted walks. The edge weighting is ignored.");
         }
+    }
 
-        // thread pool
-        ThreadPoolExecutor pool = new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
-                0, TimeUnit.SECONDS,
-                new java.util.concurrent.ArrayBlockingQueue<>(entities.size()));
-
-        for (String entity : entities) {
-            RandomWalkEntityProcessingRunnable th = new RandomWalkEntityProcessingRunnable(this, entity, numberOfWalks, walkLength);
-            pool.execute(th);
+    /**
+     * Obtain the edge weighting of the parser.
+     *
+     * @return The edge weighting or null if the parser does not support weighted walks.
+     */
+    public EdgeWeighting getEdgeWeighting() {
+        if (parser instanceof MemoryParser) {
+            return ((MemoryParser) parser).getEdgeWeighting();
+        } else if (parser instanceof HdtParser) {
+            return ((HdtParser) parser).getEdgeWeighting();
         }
+        return null;
+    }
 
-        pool.shutdown();
-        try {
-            pool.awaitTermination(10, TimeUnit.DAYS);
-        } catch (InterruptedException e) {
-            LOGGER.error("Interrupted Exception");
-            e.printStackTrace();
+    /**
+     * Obtain the entities for which walks shall be generated. The entities are streamed from the
+     * {@link #entitySelector}.
+     *
+     * @return The entities.
+     */
+    private Iterable<String> getEntitiesToProcess() {
+        long numberOfEntities = entitySelector.getNumberOfEntitiesHint();
+        if (numberOfEntities >= 0) {
+            LOGGER.info("Generating walks for (at most) " + numberOfEntities + " entities.");
         }
-        this.close();
+        return entitySelector;
+    }
+
+    /**
+     * Generate walks for the entities.
+     *
+     * @param entities        The entities for which walks shall be generated.
+     * @param numberOfThreads The number of threads involved in generating the walks.
+     * @param numberOfWalks   The number of walks to be generated per entity.
+     * @param walkLength      The length of each walk.
+     */
+    public void generateRandomWalksForEntities(Iterable<String> entities, int numberOfThreads, int numberOfWalks, int walkLength) {
+        processEntities(entities, numberOfThreads,
+                entity -> new RandomWalkEntityProcessingRunnable(this, entity, numberOfWalks, walkLength).run());
     }
 
 
@@ -285,4 +348,18 @@ public class WalkGeneratorDefault extends WalkGenerator {
     public String shortenUri(String uri) {
         return uri;
     }
+
+    /**
+     * URIs are only considered unchanged if {@link #shortenUri(String)} is not overridden by a subclass.
+     *
+     * @return False if the default {@link #shortenUri(String)} is used, else true.
+     */
+    @Override
+    public boolean isShorteningUris() {
+        try {
+            return getClass().getMethod("shortenUri", String.class).getDeclaringClass() != WalkGeneratorDefault.class;
+        } catch (NoSuchMethodException nsme) {
+            return true;
+        }
+    }
 }
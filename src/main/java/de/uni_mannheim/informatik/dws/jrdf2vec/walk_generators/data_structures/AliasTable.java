@@ -0,0 +1,158 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Precomputed alias tables (Vose's method) for the outgoing edges of every node of an {@link IntGraph} so that a
+ * weighted successor can be drawn in O(1). The tables of all nodes are stored in one CSR layout: the entries of node
+ * n are at positions offsets[n] (inclusive) to offsets[n + 1] (exclusive), one entry per outgoing edge.
+ * Edges to literals (see {@link IntGraph#isLiteral(int)}) have weight 0 and are never drawn.
+ * Instances are immutable and safe for concurrent reads.
+ */
+public class AliasTable {
+
+    /**
+     * Marks a node whose outgoing edges all have weight 0.
+     */
+    private static final float NO_EDGE = -1.0f;
+
+    private final int[] offsets;
+
+    /**
+     * Probability of keeping the drawn column (instead of switching to its alias).
+     */
+    private final float[] probabilities;
+
+    /**
+     * Alias of each column as index relative to the offset of the node.
+     */
+    private final int[] aliases;
+
+    private AliasTable(int[] offsets, float[] probabilities, int[] aliases) {
+        this.offsets = offsets;
+        this.probabilities = probabilities;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Build the alias tables for all nodes of the given graph.
+     * @param graph The graph.
+     * @param weighting The edge weights to be used.
+     * @return Alias table.
+     */
+    public static AliasTable build(IntGraph graph, EdgeWeighting weighting) {
+        int numberOfIds = graph.getNumberOfIds();
+        int[] offsets = new int[numberOfIds + 1];
+        long numberOfEdges = 0;
+        int maxDegree = 0;
+        for (int node = 0; node < numberOfIds; node++) {
+            offsets[node] = (int) numberOfEdges;
+            int degree = graph.getOutDegree(node);
+            maxDegree = Math.max(maxDegree, degree);
+            numberOfEdges += degree;
+            if (numberOfEdges > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Alias tables support at most " + Integer.MAX_VALUE + " edges.");
+            }
+        }
+        offsets[numberOfIds] = (int) numberOfEdges;
+
+        int[] predicateCounts = null;
+        if (weighting != EdgeWeighting.OBJECT_IN_DEGREE) {
+            predicateCounts = new int[numberOfIds];
+            for (int node = 0; node < numberOfIds; node++) {
+                int degree = offsets[node + 1] - offsets[node];
+                for (int i = 0; i < degree; i++) {
+                    predicateCounts[IntGraph.getPredicate(graph.getOutEdge(node, i))]++;
+                }
+            }
+        }
+
+        float[] probabilities = new float[(int) numberOfEdges];
+        int[] aliases = new int[(int) numberOfEdges];
+        double[] weights = new double[maxDegree];
+        int[] small = new int[maxDegree];
+        int[] large = new int[maxDegree];
+        for (int node = 0; node < numberOfIds; node++) {
+            int offset = offsets[node];
+            int degree = offsets[node + 1] - offset;
+            if (degree == 0) continue;
+            double totalWeight = 0;
+            for (int i = 0; i < degree; i++) {
+                long edge = graph.getOutEdge(node, i);
+                double weight = graph.isLiteral(IntGraph.getNode(edge)) ? 0 :
+                        getWeight(graph, weighting, predicateCounts, edge);
+                weights[i] = weight;
+                totalWeight += weight;
+            }
+            if (totalWeight <= 0) {
+                probabilities[offset] = NO_EDGE;
+                continue;
+            }
+
+            // Vose's alias method
+            int numberOfSmall = 0;
+            int numberOfLarge = 0;
+            for (int i = 0; i < degree; i++) {
+                weights[i] = weights[i] * degree / totalWeight;
+                if (weights[i] < 1.0) {
+                    small[numberOfSmall++] = i;
+                } else {
+                    large[numberOfLarge++] = i;
+                }
+            }
+            while (numberOfSmall > 0 && numberOfLarge > 0) {
+                int less = small[--numberOfSmall];
+                int more = large[--numberOfLarge];
+                probabilities[offset + less] = (float) weights[less];
+                aliases[offset + less] = more;
+                weights[more] = (weights[more] + weights[less]) - 1.0;
+                if (weights[more] < 1.0) {
+                    small[numberOfSmall++] = more;
+                } else {
+                    large[numberOfLarge++] = more;
+                }
+            }
+            // the remaining columns are full (up to rounding errors)
+            while (numberOfLarge > 0) {
+                int more = large[--numberOfLarge];
+                probabilities[offset + more] = 1.0f;
+                aliases[offset + more] = more;
+            }
+            while (numberOfSmall > 0) {
+                int less = small[--numberOfSmall];
+                probabilities[offset + less] = 1.0f;
+                aliases[offset + less] = less;
+            }
+        }
+        return new AliasTable(offsets, probabilities, aliases);
+    }
+
+    private static double getWeight(IntGraph graph, EdgeWeighting weighting, int[] predicateCounts, long edge) {
+        switch (weighting) {
+            case PREDICATE_FREQUENCY:
+                return predicateCounts[IntGraph.getPredicate(edge)];
+            case INVERSE_PREDICATE_FREQUENCY:
+                return 1.0 / predicateCounts[IntGraph.getPredicate(edge)];
+            case OBJECT_IN_DEGREE:
+                return graph.getInDegree(IntGraph.getNode(edge));
+            default:
+                throw new IllegalArgumentException("Unknown edge weighting: " + weighting);
+        }
+    }
+
+    /**
+     * Draw a weighted random outgoing edge of the given node.
+     * @param node Node ID.
+     * @return The position of the edge (see {@link IntGraph#getOutEdge(int, int)}) or -1 if the node has no outgoing
+     * edge with a weight larger than 0.
+     */
+    public int sample(int node) {
+        if (node < 0 || node >= offsets.length - 1) return -1;
+        int offset = offsets[node];
+        int degree = offsets[node + 1] - offset;
+        if (degree == 0 || probabilities[offset] == NO_EDGE) return -1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int column = random.nextInt(degree);
+        return random.nextFloat() < probabilities[offset + column] ? column : aliases[offset + column];
+    }
+}
@@ -0,0 +1,158 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+/**
+ * Frozen graph in compressed sparse row (CSR) layout.
+ * For every node, the outgoing edges are stored consecutively in one array; an offsets array points to the first edge
+ * of each node. Incoming edges are mirrored in the same way. Drawing a neighbour is therefore a single array access.
+ * Instances are immutable and can be shared between threads.
+ * The number of edges is limited to {@link Integer#MAX_VALUE}.
+ */
+public class CsrGraph implements IntGraph {
+
+    private final UriDictionary dictionary;
+
+    /**
+     * Node ID → position of the first out-edge in {@link #outEdges}; has length number of IDs + 1.
+     */
+    private final int[] outOffsets;
+
+    /**
+     * Packed (predicate, object) pairs.
+     */
+    private final long[] outEdges;
+
+    /**
+     * Node ID → position of the first in-edge in {@link #inEdges}; has length number of IDs + 1.
+     */
+    private final int[] inOffsets;
+
+    /**
+     * Packed (predicate, subject) pairs.
+     */
+    private final long[] inEdges;
+
+    /**
+     * Constructor
+     * @param dictionary Dictionary used to encode the graph.
+     * @param outOffsets Out offsets.
+     * @param outEdges Out edges.
+     * @param inOffsets In offsets.
+     * @param inEdges In edges.
+     */
+    public CsrGraph(UriDictionary dictionary, int[] outOffsets, long[] outEdges, int[] inOffsets, long[] inEdges) {
+        this.dictionary = dictionary;
+        this.outOffsets = outOffsets;
+        this.outEdges = outEdges;
+        this.inOffsets = inOffsets;
+        this.inEdges = inEdges;
+    }
+
+    /**
+     * Build a CSR graph from triple arrays. The arrays are not modified.
+     * @param dictionary Dictionary used to encode the triples.
+     * @param subjects Subject IDs.
+     * @param predicates Predicate IDs.
+     * @param objects Object IDs.
+     * @param numberOfTriples Number of valid entries in the arrays.
+     * @return Frozen graph.
+     */
+    public static CsrGraph build(UriDictionary dictionary, int[] subjects, int[] predicates, int[] objects, int numberOfTriples) {
+        int numberOfIds = dictionary.size();
+        int[] outOffsets = countOffsets(subjects, numberOfTriples, numberOfIds);
+        int[] inOffsets = countOffsets(objects, numberOfTriples, numberOfIds);
+        long[] outEdges = new long[numberOfTriples];
+        long[] inEdges = new long[numberOfTriples];
+
+        // fill by using the offsets as insertion cursors; shifted afterwards
+        int[] outCursor = new int[numberOfIds];
+        int[] inCursor = new int[numberOfIds];
+        System.arraycopy(outOffsets, 0, outCursor, 0, numberOfIds);
+        System.arraycopy(inOffsets, 0, inCursor, 0, numberOfIds);
+        for (int i = 0; i < numberOfTriples; i++) {
+            outEdges[outCursor[subjects[i]]++] = IntGraph.toEdge(predicates[i], objects[i]);
+            inEdges[inCursor[objects[i]]++] = IntGraph.toEdge(predicates[i], subjects[i]);
+        }
+        return new CsrGraph(dictionary, outOffsets, outEdges, inOffsets, inEdges);
+    }
+
+    private static int[] countOffsets(int[] nodes, int numberOfTriples, int numberOfIds) {
+        int[] offsets = new int[numberOfIds + 1];
+        for (int i = 0; i < numberOfTriples; i++) {
+            offsets[nodes[i] + 1]++;
+        }
+        for (int i = 0; i < numberOfIds; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        return offsets;
+    }
+
+    @Override
+    public int getId(String uri) {
+        return dictionary.getId(uri);
+    }
+
+    @Override
+    public String getUri(int id) {
+        return dictionary.getUri(id);
+    }
+
+    @Override
+    public void appendUri(int id, StringBuilder builder) {
+        dictionary.appendUri(id, builder);
+    }
+
+    @Override
+    public int getNumberOfIds() {
+        return outOffsets.length - 1;
+    }
+
+    @Override
+    public int getOutDegree(int node) {
+        if (node < 0 || node >= outOffsets.length - 1) return 0;
+        return outOffsets[node + 1] - outOffsets[node];
+    }
+
+    @Override
+    public int getInDegree(int node) {
+        if (node < 0 || node >= inOffsets.length - 1) return 0;
+        return inOffsets[node + 1] - inOffsets[node];
+    }
+
+    @Override
+    public long getOutEdge(int node, int index) {
+        return outEdges[outOffsets[node] + index];
+    }
+
+    @Override
+    public long getInEdge(int node, int index) {
+        return inEdges[inOffsets[node] + index];
+    }
+
+    /**
+     * Returns the number of edges (triples) in the graph.
+     * @return Number of edges.
+     */
+    public int getNumberOfEdges() {
+        return outEdges.length;
+    }
+
+    public UriDictionary getDictionary() {
+        return dictionary;
+    }
+
+    int[] getOutOffsets() {
+        return outOffsets;
+    }
+
+    long[] getOutEdges() {
+        return outEdges;
+    }
+
+    int[] getInOffsets() {
+        return inOffsets;
+    }
+
+    long[] getInEdges() {
+        return inEdges;
+    }
+}
@@ -0,0 +1,46 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+/**
+ * Edge weights for biased (weighted) walks. The weight determines how likely it is that an outgoing edge is chosen
+ * as next step of a walk.
+ */
+public enum EdgeWeighting {
+
+    /**
+     * The weight of an edge is the number of times its predicate occurs in the graph: frequent predicates are
+     * followed more often.
+     */
+    PREDICATE_FREQUENCY,
+
+    /**
+     * The weight of an edge is the inverse of the number of times its predicate occurs in the graph: rare predicates
+     * are followed more often.
+     */
+    INVERSE_PREDICATE_FREQUENCY,
+
+    /**
+     * The weight of an edge is the in degree of the node the edge points to: popular nodes are visited more often
+     * (a cheap approximation of PageRank).
+     */
+    OBJECT_IN_DEGREE;
+
+    /**
+     * String representation of the weighting.
+     *
+     * @param weightingString The weighting as String.
+     * @return If possible, edge weighting. Else null.
+     */
+    public static EdgeWeighting getWeightingFromString(String weightingString) {
+        weightingString = weightingString.toLowerCase().trim();
+        switch (weightingString) {
+            case "predicate_frequency":
+                return PREDICATE_FREQUENCY;
+            case "inverse_predicate_frequency":
+                return INVERSE_PREDICATE_FREQUENCY;
+            case "object_in_degree":
+                return OBJECT_IN_DEGREE;
+            default:
+                return null;
+        }
+    }
+}
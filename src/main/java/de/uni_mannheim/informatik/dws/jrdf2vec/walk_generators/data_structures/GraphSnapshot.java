@@ -0,0 +1,149 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary snapshot of a {@link CsrGraph} including its dictionary. A snapshot is written once (e.g. after parsing an
+ * N-Triples file) and can then be opened within seconds via {@link #open(File)}: the file is memory-mapped, hence
+ * nothing is loaded onto the Java heap and multiple JVMs on the same host share the page cache.
+ * <p>
+ * Layout (big endian, every section is aligned to 8 bytes):
+ * <pre>
+ * header:        magic (long), version (int), number of IDs n (int), number of edges m (int),
+ *                hash table size t (int), label bytes b (long)
+ * label offsets: long[n + 1]
+ * label hashes:  int[n]
+ * hash table:    int[t]
+ * out offsets:   int[n + 1]
+ * in offsets:    int[n + 1]
+ * out edges:     long[m]
+ * in edges:      long[m]
+ * labels:        byte[b] (UTF-8)
+ * </pre>
+ */
+public class GraphSnapshot {
+
+    /**
+     * File extension of graph snapshots.
+     */
+    public static final String FILE_EXTENSION = ".snapshot";
+
+    /**
+     * "RDF2VECG" in ASCII.
+     */
+    static final long MAGIC = 0x5244463256454347L;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 32;
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphSnapshot.class);
+
+    /**
+     * Write the given graph as snapshot.
+     * @param graph The graph to be persisted.
+     * @param file The file to be written.
+     * @throws IOException If writing fails.
+     */
+    public static void write(CsrGraph graph, File file) throws IOException {
+        UriDictionary dictionary = graph.getDictionary();
+        int numberOfIds = graph.getNumberOfIds();
+        int numberOfEdges = graph.getNumberOfEdges();
+        int[] table = dictionary.getTable();
+
+        long labelBytes = 0;
+        for (int id = 0; id < numberOfIds; id++) {
+            labelBytes += dictionary.getLength(id);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(numberOfIds);
+            out.writeInt(numberOfEdges);
+            out.writeInt(table.length);
+            out.writeLong(labelBytes);
+
+            long labelOffset = 0;
+            for (int id = 0; id < numberOfIds; id++) {
+                out.writeLong(labelOffset);
+                labelOffset += dictionary.getLength(id);
+            }
+            out.writeLong(labelOffset);
+
+            for (int id = 0; id < numberOfIds; id++) {
+                out.writeInt(dictionary.getHash(id));
+            }
+            pad(out, numberOfIds);
+
+            for (int id : table) {
+                // IDs which were added to the dictionary after freezing are not part of the snapshot
+                out.writeInt(id < numberOfIds ? id : -1);
+            }
+            pad(out, table.length);
+
+            writeInts(out, graph.getOutOffsets());
+            writeInts(out, graph.getInOffsets());
+            writeLongs(out, graph.getOutEdges());
+            writeLongs(out, graph.getInEdges());
+
+            for (int id = 0; id < numberOfIds; id++) {
+                dictionary.writeLabel(id, out);
+            }
+        }
+        LOGGER.info("Snapshot with " + numberOfEdges + " edges written to " + file.getAbsolutePath());
+    }
+
+    /**
+     * Open the given snapshot.
+     * @param file The snapshot file.
+     * @return Memory-mapped graph.
+     * @throws IOException If the file cannot be read or is not a snapshot.
+     */
+    public static MappedCsrGraph open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // mappings stay valid after the channel is closed
+            return new MappedCsrGraph(channel);
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+        pad(out, values.length);
+    }
+
+    private static void writeLongs(DataOutputStream out, long[] values) throws IOException {
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    /**
+     * Align the stream to 8 bytes after an int section.
+     * @param out Stream.
+     * @param numberOfInts Number of ints written in the section.
+     * @throws IOException If writing fails.
+     */
+    private static void pad(DataOutputStream out, long numberOfInts) throws IOException {
+        if (numberOfInts % 2 == 1) out.writeInt(0);
+    }
+
+    /**
+     * Size in bytes of an int section including padding.
+     * @param numberOfInts Number of ints.
+     * @return Size in bytes.
+     */
+    static long intSectionSize(long numberOfInts) {
+        return (numberOfInts + (numberOfInts % 2)) * 4;
+    }
+}
@@ -0,0 +1,261 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import org.rdfhdt.hdt.compact.bitmap.AdjacencyList;
+import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.enums.ResultEstimationType;
+import org.rdfhdt.hdt.enums.TripleComponentOrder;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.triples.IteratorTripleID;
+import org.rdfhdt.hdt.triples.TripleID;
+import org.rdfhdt.hdt.triples.Triples;
+import org.rdfhdt.hdt.triples.impl.BitmapTriples;
+
+/**
+ * {@link IntGraph} view on an HDT data set. Walks operate on the HDT dictionary IDs directly; labels are only decoded
+ * when a walk is written.
+ * <p>
+ * HDT uses separate ID spaces for subjects, predicates, and objects (IDs starting at 1; nodes that are subject and
+ * object share the IDs 1 to # of shared). They are mapped into one int ID space as follows:
+ * <ul>
+ *     <li>subjects (incl. shared nodes): 0 to (# of subjects - 1)</li>
+ *     <li>object-only nodes: # of subjects to (# of nodes - 1)</li>
+ *     <li>predicates: # of nodes to (# of nodes + # of predicates - 1)</li>
+ * </ul>
+ * Outgoing edges are read from the subject-predicate-object adjacency lists in constant time. Incoming edges require
+ * the object index of HDT (see {@link org.rdfhdt.hdt.hdt.HDTManager#loadIndexedHDT(String)}); without index, they
+ * are found by a (slow) scan.
+ */
+public class HdtGraph implements IntGraph {
+
+    private final HDT hdt;
+
+    private final Dictionary dictionary;
+
+    private final Triples triples;
+
+    private final long numberOfSubjects;
+
+    private final long numberOfShared;
+
+    private final int numberOfNodes;
+
+    private final int numberOfIds;
+
+    /**
+     * Adjacency lists subject to predicates and predicate position to objects; null if the triples are not available
+     * as {@link BitmapTriples} in SPO order.
+     */
+    private final AdjacencyList adjacencyY;
+
+    private final AdjacencyList adjacencyZ;
+
+    /**
+     * The object-only IDs of literals (lexicographically sorted, hence consecutive): [literalsStart, literalsEnd).
+     */
+    private final long literalsStart;
+
+    private final long literalsEnd;
+
+    /**
+     * Constructor
+     * @param hdt The HDT data set. For mid walks, the data set should be indexed.
+     */
+    public HdtGraph(HDT hdt) {
+        this.hdt = hdt;
+        this.dictionary = hdt.getDictionary();
+        this.triples = hdt.getTriples();
+        this.numberOfSubjects = dictionary.getNsubjects();
+        this.numberOfShared = dictionary.getNshared();
+        long nodes = numberOfSubjects + dictionary.getNobjects() - numberOfShared;
+        long ids = nodes + dictionary.getNpredicates();
+        if (ids > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The HDT data set has too many terms (" + ids + ").");
+        }
+        this.numberOfNodes = (int) nodes;
+        this.numberOfIds = (int) ids;
+
+        if (triples instanceof BitmapTriples && ((BitmapTriples) triples).getOrder() == TripleComponentOrder.SPO) {
+            BitmapTriples bitmapTriples = (BitmapTriples) triples;
+            adjacencyY = new AdjacencyList(bitmapTriples.getSeqY(), bitmapTriples.getBitmapY());
+            adjacencyZ = new AdjacencyList(bitmapTriples.getSeqZ(), bitmapTriples.getBitmapZ());
+        } else {
+            adjacencyY = null;
+            adjacencyZ = null;
+        }
+
+        // literals start with a quotation mark
+        long firstObjectOnly = numberOfShared + 1;
+        long lastObject = dictionary.getNobjects();
+        literalsStart = lowerBound(firstObjectOnly, lastObject + 1, '"');
+        literalsEnd = lowerBound(literalsStart, lastObject + 1, '"' + 1);
+    }
+
+    /**
+     * Binary search for the first object ID in [from, to) whose label starts with a character &gt;= the given one.
+     */
+    private long lowerBound(long from, long to, int character) {
+        long low = from, high = to;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            CharSequence label = dictionary.idToString(middle, TripleComponentRole.OBJECT);
+            int first = label.length() == 0 ? -1 : label.charAt(0);
+            if (first < character) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    @Override
+    public int getId(String uri) {
+        if (uri == null) return -1;
+        long id = dictionary.stringToId(uri, TripleComponentRole.SUBJECT);
+        if (id > 0) return (int) (id - 1);
+        id = dictionary.stringToId(uri, TripleComponentRole.OBJECT);
+        if (id > 0) return objectToNode(id);
+        id = dictionary.stringToId(uri, TripleComponentRole.PREDICATE);
+        if (id > 0) return (int) (numberOfNodes + id - 1);
+        return -1;
+    }
+
+    @Override
+    public String getUri(int id) {
+        if (id < 0 || id >= numberOfIds) return null;
+        CharSequence result;
+        if (id < numberOfSubjects) {
+            result = dictionary.idToString(id + 1, TripleComponentRole.SUBJECT);
+        } else if (id < numberOfNodes) {
+            result = dictionary.idToString(nodeToObject(id), TripleComponentRole.OBJECT);
+        } else {
+            result = dictionary.idToString(id - numberOfNodes + 1, TripleComponentRole.PREDICATE);
+        }
+        return result == null ? null : result.toString();
+    }
+
+    @Override
+    public void appendUri(int id, StringBuilder builder) {
+        if (id < 0 || id >= numberOfIds) {
+            builder.append((String) null);
+        } else if (id < numberOfSubjects) {
+            builder.append(dictionary.idToString(id + 1, TripleComponentRole.SUBJECT));
+        } else if (id < numberOfNodes) {
+            builder.append(dictionary.idToString(nodeToObject(id), TripleComponentRole.OBJECT));
+        } else {
+            builder.append(dictionary.idToString(id - numberOfNodes + 1, TripleComponentRole.PREDICATE));
+        }
+    }
+
+    @Override
+    public int getNumberOfIds() {
+        return numberOfIds;
+    }
+
+    /**
+     * Returns the number of nodes (subjects and objects); all node IDs are smaller than this number.
+     * @return Number of nodes.
+     */
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    @Override
+    public int getOutDegree(int node) {
+        if (node < 0 || node >= numberOfSubjects) return 0;
+        if (adjacencyY == null) {
+            return (int) count(new TripleID(node + 1, 0, 0));
+        }
+        return (int) (lastZ(node) - firstZ(node) + 1);
+    }
+
+    @Override
+    public long getOutEdge(int node, int index) {
+        if (adjacencyY == null) {
+            TripleID triple = get(new TripleID(node + 1, 0, 0), index);
+            return IntGraph.toEdge(predicateToId(triple.getPredicate()), objectToNode(triple.getObject()));
+        }
+        long positionZ = firstZ(node) + index;
+        long positionY = adjacencyZ.findListIndex(positionZ);
+        return IntGraph.toEdge(predicateToId(adjacencyY.get(positionY)), objectToNode(adjacencyZ.get(positionZ)));
+    }
+
+    @Override
+    public int getInDegree(int node) {
+        long object = nodeToObject(node);
+        if (object <= 0) return 0;
+        return (int) count(new TripleID(0, 0, object));
+    }
+
+    @Override
+    public long getInEdge(int node, int index) {
+        TripleID triple = get(new TripleID(0, 0, nodeToObject(node)), index);
+        return IntGraph.toEdge(predicateToId(triple.getPredicate()), (int) (triple.getSubject() - 1));
+    }
+
+    @Override
+    public boolean isLiteral(int node) {
+        long object = nodeToObject(node);
+        return object >= literalsStart && object < literalsEnd;
+    }
+
+    /**
+     * Obtain the underlying HDT data set.
+     * @return HDT data set.
+     */
+    public HDT getHdt() {
+        return hdt;
+    }
+
+    private long firstZ(int node) {
+        return adjacencyZ.find(adjacencyY.find(node));
+    }
+
+    private long lastZ(int node) {
+        return adjacencyZ.last(adjacencyY.last(node));
+    }
+
+    private long count(TripleID pattern) {
+        IteratorTripleID iterator = triples.search(pattern);
+        if (iterator.numResultEstimation() == ResultEstimationType.EXACT) {
+            return iterator.estimatedNumResults();
+        }
+        long result = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            result++;
+        }
+        return result;
+    }
+
+    private TripleID get(TripleID pattern, long index) {
+        IteratorTripleID iterator = triples.search(pattern);
+        if (iterator.canGoTo()) {
+            iterator.goTo(index);
+        } else {
+            for (long i = 0; i < index; i++) iterator.next();
+        }
+        return iterator.next();
+    }
+
+    /**
+     * Map an HDT object ID to a node ID.
+     */
+    private int objectToNode(long object) {
+        if (object <= numberOfShared) return (int) (object - 1);
+        return (int) (numberOfSubjects + object - numberOfShared - 1);
+    }
+
+    /**
+     * Map a node ID to an HDT object ID.
+     * @return Object ID or 0 if the node is not an object.
+     */
+    private long nodeToObject(int node) {
+        if (node < 0 || node >= numberOfNodes) return 0;
+        if (node < numberOfShared) return node + 1;
+        if (node < numberOfSubjects) return 0;
+        return node - numberOfSubjects + numberOfShared + 1;
+    }
+
+    private int predicateToId(long predicate) {
+        return (int) (numberOfNodes + predicate - 1);
+    }
+}
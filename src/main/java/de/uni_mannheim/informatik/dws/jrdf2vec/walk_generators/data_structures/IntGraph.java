@@ -0,0 +1,109 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+/**
+ * Read-only view on a dictionary-encoded graph. Nodes and predicates are identified by int IDs.
+ * An edge is returned as a single long: the predicate ID is stored in the upper 32 bits, the ID of the node on the
+ * other end of the edge in the lower 32 bits. Use {@link #getPredicate(long)} and {@link #getNode(long)} to unpack it.
+ * Implementations must be safe for concurrent reads.
+ */
+public interface IntGraph {
+
+    /**
+     * Obtain the ID of the given URI.
+     * @param uri The URI.
+     * @return ID or -1 if the URI is unknown.
+     */
+    int getId(String uri);
+
+    /**
+     * Decode the given ID.
+     * @param id The ID.
+     * @return URI or null if the ID is unknown.
+     */
+    String getUri(int id);
+
+    /**
+     * Decode the given ID and append it to the given builder. Implementations should avoid creating an intermediate
+     * String where possible.
+     * @param id The ID.
+     * @param builder The builder to which the URI is appended ("null" if the ID is unknown).
+     */
+    default void appendUri(int id, StringBuilder builder) {
+        builder.append(getUri(id));
+    }
+
+    /**
+     * Returns the number of IDs, i.e. all valid IDs are smaller than this number.
+     * @return Number of IDs.
+     */
+    int getNumberOfIds();
+
+    /**
+     * Obtain the number of edges where the given node is the subject.
+     * @param node Node ID.
+     * @return Out degree, 0 for unknown nodes.
+     */
+    int getOutDegree(int node);
+
+    /**
+     * Obtain the number of edges where the given node is the object.
+     * @param node Node ID.
+     * @return In degree, 0 for unknown nodes.
+     */
+    int getInDegree(int node);
+
+    /**
+     * Obtain the i-th outgoing edge of the given node.
+     * @param node Node ID.
+     * @param index Position, must be smaller than {@link #getOutDegree(int)}.
+     * @return Packed (predicate, object) pair.
+     */
+    long getOutEdge(int node, int index);
+
+    /**
+     * Obtain the i-th incoming edge of the given node.
+     * @param node Node ID.
+     * @param index Position, must be smaller than {@link #getInDegree(int)}.
+     * @return Packed (predicate, subject) pair.
+     */
+    long getInEdge(int node, int index);
+
+    /**
+     * Indicates whether the given node is a literal. Walks do not continue to literals of graphs that report them.
+     * By default, no node is reported as literal (in-memory graphs only contain literals if datatype properties are
+     * explicitly included; they are then treated like any other node).
+     * @param node Node ID.
+     * @return True if the node is a literal, else false.
+     */
+    default boolean isLiteral(int node) {
+        return false;
+    }
+
+    /**
+     * Pack the given predicate and node ID into one edge.
+     * @param predicate Predicate ID.
+     * @param node Node ID.
+     * @return Packed edge.
+     */
+    static long toEdge(int predicate, int node) {
+        return ((long) predicate << 32) | (node & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Unpack the predicate of an edge.
+     * @param edge Packed edge.
+     * @return Predicate ID.
+     */
+    static int getPredicate(long edge) {
+        return (int) (edge >>> 32);
+    }
+
+    /**
+     * Unpack the node of an edge.
+     * @param edge Packed edge.
+     * @return Node ID.
+     */
+    static int getNode(long edge) {
+        return (int) edge;
+    }
+}
@@ -0,0 +1,285 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Dictionary-encoded in-memory triple store. Every node and predicate is mapped to an int ID through a
+ * {@link UriDictionary}; while loading, triples are stored as three parallel int arrays.
+ * For walk generation, the triples are indexed in a read-only {@link CsrGraph} which is built lazily by
+ * {@link #freeze()} once loading is finished. The CSR index then is the only copy of the triples: the parallel arrays
+ * are released and only restored from the index if further triples are added.
+ * For reasons of performance, deletions are not possible currently.
+ */
+public class IntTripleDataSetMemory {
+
+    /**
+     * The largest array size which can be allocated safely on all common JVMs. It limits the number of triples.
+     */
+    static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /**
+     * The dictionary mapping labels to IDs.
+     */
+    private final UriDictionary dictionary;
+
+    /**
+     * The triples as parallel arrays; null while the triples are held by {@link #graph} only.
+     */
+    private int[] subjects;
+    private int[] predicates;
+    private int[] objects;
+
+    /**
+     * Number of managed triples.
+     */
+    private int size = 0;
+
+    /**
+     * Index over the triples; null if not yet built or outdated. Volatile so that walker threads can read the
+     * published index without locking.
+     */
+    private volatile CsrGraph graph;
+
+    /**
+     * Constructor
+     */
+    public IntTripleDataSetMemory(){
+        this(1024);
+    }
+
+    /**
+     * Constructor
+     * @param expectedNumberOfTriples The number of triples that is expected. The data set grows if required.
+     */
+    public IntTripleDataSetMemory(int expectedNumberOfTriples){
+        int capacity = Math.max(16, expectedNumberOfTriples);
+        dictionary = new UriDictionary(capacity);
+        subjects = new int[capacity];
+        predicates = new int[capacity];
+        objects = new int[capacity];
+    }
+
+    /**
+     * Add the given triple as specified by its components.
+     * @param subject Subject
+     * @param predicate Predicate
+     * @param object Object
+     */
+    public synchronized void add(String subject, String predicate, String object){
+        addIds(dictionary.getOrAdd(subject), dictionary.getOrAdd(predicate), dictionary.getOrAdd(object));
+    }
+
+    /**
+     * Add the given triple.
+     * @param tripleToAdd Triple to be added.
+     */
+    public void add(Triple tripleToAdd){
+        add(tripleToAdd.subject, tripleToAdd.predicate, tripleToAdd.object);
+    }
+
+    /**
+     * Add a triple whose components have already been encoded with the dictionary of this data set.
+     * @param subject Subject ID.
+     * @param predicate Predicate ID.
+     * @param object Object ID.
+     */
+    public synchronized void add(int subject, int predicate, int object){
+        addIds(subject, predicate, object);
+    }
+
+    /**
+     * Add all triples of the given buffer. The labels of the buffer are merged into the dictionary of this data set
+     * once per label, not once per triple. The buffer is not modified.
+     * @param buffer The buffer whose triples shall be added.
+     */
+    public synchronized void addAll(TripleBuffer buffer){
+        int numberOfTriples = buffer.size();
+        ensureCapacity((long) size + numberOfTriples);
+        UriDictionary localDictionary = buffer.getDictionary();
+        int[] mapping = new int[localDictionary.size()];
+        for(int localId = 0; localId < mapping.length; localId++){
+            mapping[localId] = dictionary.getOrAdd(localDictionary, localId);
+        }
+        int[] triples = buffer.getTriples();
+        for(int i = 0; i < numberOfTriples; i++){
+            subjects[size] = mapping[triples[3 * i]];
+            predicates[size] = mapping[triples[3 * i + 1]];
+            objects[size] = mapping[triples[3 * i + 2]];
+            size++;
+        }
+        graph = null;
+    }
+
+    private void addIds(int subject, int predicate, int object){
+        ensureCapacity(size + 1L);
+        subjects[size] = subject;
+        predicates[size] = predicate;
+        objects[size] = object;
+        size++;
+        graph = null;
+    }
+
+    /**
+     * Grow the triple arrays so that they can hold the given number of triples.
+     * @param requiredCapacity Number of triples which must fit into the arrays.
+     * @throws IllegalStateException If more than {@link #MAX_CAPACITY} triples are required.
+     */
+    private void ensureCapacity(long requiredCapacity){
+        if(subjects == null){
+            thaw(requiredCapacity);
+            return;
+        }
+        if(requiredCapacity <= subjects.length) return;
+        int newCapacity = getNewCapacity(subjects.length, requiredCapacity);
+        subjects = Arrays.copyOf(subjects, newCapacity);
+        predicates = Arrays.copyOf(predicates, newCapacity);
+        objects = Arrays.copyOf(objects, newCapacity);
+    }
+
+    /**
+     * Restore the triple arrays from the CSR index after they have been released by {@link #freeze()}. The triples are
+     * restored in the order of the index, i.e. grouped by subject.
+     * @param requiredCapacity Number of triples which must fit into the arrays.
+     */
+    private void thaw(long requiredCapacity){
+        CsrGraph frozen = graph;
+        int capacity = Math.max(16, getNewCapacity(size, requiredCapacity));
+        subjects = new int[capacity];
+        predicates = new int[capacity];
+        objects = new int[capacity];
+        int i = 0;
+        for(int node = 0; node < frozen.getNumberOfIds(); node++){
+            int degree = frozen.getOutDegree(node);
+            for(int j = 0; j < degree; j++){
+                long edge = frozen.getOutEdge(node, j);
+                subjects[i] = node;
+                predicates[i] = IntGraph.getPredicate(edge);
+                objects[i] = IntGraph.getNode(edge);
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Determine the capacity to which the triple arrays grow: by 50%, but at least to the required capacity and at
+     * most to {@link #MAX_CAPACITY}.
+     * @param currentCapacity Current capacity.
+     * @param requiredCapacity Number of triples which must fit into the arrays.
+     * @return New capacity.
+     * @throws IllegalStateException If more than {@link #MAX_CAPACITY} triples are required.
+     */
+    static int getNewCapacity(int currentCapacity, long requiredCapacity){
+        if(requiredCapacity > MAX_CAPACITY){
+            throw new IllegalStateException("Too many triples: at most " + MAX_CAPACITY + " triples can be held in " +
+                    "memory, but " + requiredCapacity + " are required.");
+        }
+        long grownCapacity = currentCapacity + (long) (currentCapacity >> 1);
+        return (int) Math.min(MAX_CAPACITY, Math.max(requiredCapacity, grownCapacity));
+    }
+
+    /**
+     * Obtain the read-only CSR index of the triples. The index is built on the first call and rebuilt only if triples
+     * were added in the meantime. Once built, the index is returned without locking and the triple arrays are released
+     * so that the triples are not held twice.
+     * @return Graph view of this data set.
+     */
+    public CsrGraph freeze(){
+        CsrGraph result = graph;
+        if(result != null){
+            return result;
+        }
+        return buildGraph();
+    }
+
+    private synchronized CsrGraph buildGraph(){
+        CsrGraph result = graph;
+        if(result == null){
+            result = CsrGraph.build(dictionary, subjects, predicates, objects, size);
+            subjects = null;
+            predicates = null;
+            objects = null;
+            graph = result;
+        }
+        return result;
+    }
+
+    public ArrayList<Triple> getTriplesInvolvingSubject(String subject){
+        CsrGraph graph = freeze();
+        int id = dictionary.getId(subject);
+        int degree = graph.getOutDegree(id);
+        if(degree == 0) return null;
+        ArrayList<Triple> result = new ArrayList<>(degree);
+        for(int i = 0; i < degree; i++){
+            long edge = graph.getOutEdge(id, i);
+            result.add(new Triple(subject, dictionary.getUri(IntGraph.getPredicate(edge)), dictionary.getUri(IntGraph.getNode(edge))));
+        }
+        return result;
+    }
+
+    public ArrayList<Triple> getTriplesInvolvingObject(String object){
+        CsrGraph graph = freeze();
+        int id = dictionary.getId(object);
+        int degree = graph.getInDegree(id);
+        if(degree == 0) return null;
+        ArrayList<Triple> result = new ArrayList<>(degree);
+        for(int i = 0; i < degree; i++){
+            long edge = graph.getInEdge(id, i);
+            result.add(new Triple(dictionary.getUri(IntGraph.getNode(edge)), dictionary.getUri(IntGraph.getPredicate(edge)), object));
+        }
+        return result;
+    }
+
+    /**
+     * Note that predicates are not indexed. This method requires a scan over all out-edges of the CSR index.
+     * @param predicate Predicate
+     * @return Triples involving the predicate or null if there are none.
+     */
+    public ArrayList<Triple> getTriplesInvolvingPredicate(String predicate){
+        int id = dictionary.getId(predicate);
+        if(id < 0) return null;
+        CsrGraph graph = freeze();
+        ArrayList<Triple> result = new ArrayList<>();
+        for(int node = 0; node < graph.getNumberOfIds(); node++){
+            int degree = graph.getOutDegree(node);
+            for(int i = 0; i < degree; i++){
+                long edge = graph.getOutEdge(node, i);
+                if(IntGraph.getPredicate(edge) == id){
+                    result.add(new Triple(dictionary.getUri(node), predicate, dictionary.getUri(IntGraph.getNode(edge))));
+                }
+            }
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    /**
+     * Returns the number of managed triples.
+     * @return The number of managed triples.
+     */
+    public long getSize(){
+        return size;
+    }
+
+    /**
+     * Obtain a set of all subjects.
+     * @return Subject set.
+     */
+    public Set<String> getUniqueSubjects(){
+        CsrGraph graph = freeze();
+        Set<String> result = new HashSet<>();
+        for(int id = 0; id < graph.getNumberOfIds(); id++){
+            if(graph.getOutDegree(id) > 0) result.add(dictionary.getUri(id));
+        }
+        return result;
+    }
+
+    /**
+     * Obtain the dictionary used to encode the nodes and predicates of this data set.
+     * @return Dictionary.
+     */
+    public UriDictionary getDictionary(){
+        return dictionary;
+    }
+}
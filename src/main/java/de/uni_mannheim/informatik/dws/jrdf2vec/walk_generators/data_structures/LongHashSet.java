@@ -0,0 +1,120 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive long values (open addressing, linear probing). Unlike a {@code HashSet<Long>}, no object is
+ * allocated per value, and {@link #clear()} keeps the memory so that one instance can be reused many times.
+ * This class is not thread-safe.
+ */
+public final class LongHashSet {
+
+    /**
+     * Marks an empty slot. The value itself is tracked separately in {@link #isContainingEmptyMarker}.
+     */
+    private static final long EMPTY = 0L;
+
+    private long[] table;
+
+    private boolean isContainingEmptyMarker = false;
+
+    /**
+     * Number of values in {@link #table}.
+     */
+    private int size = 0;
+
+    /**
+     * Constructor
+     */
+    public LongHashSet() {
+        this(64);
+    }
+
+    /**
+     * Constructor
+     * @param expectedSize The number of values that is expected. The set grows if required.
+     */
+    public LongHashSet(int expectedSize) {
+        table = new long[Integer.highestOneBit(Math.max(8, expectedSize) * 2 - 1) * 2];
+    }
+
+    /**
+     * Add the given value.
+     * @param value The value to be added.
+     * @return True if the value was not contained before, else false.
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            boolean isNew = !isContainingEmptyMarker;
+            isContainingEmptyMarker = true;
+            return isNew;
+        }
+        int mask = table.length - 1;
+        int slot = mix(value) & mask;
+        long current;
+        while ((current = table[slot]) != EMPTY) {
+            if (current == value) return false;
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+        if (++size * 2 > table.length) {
+            rehash();
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the given value is contained.
+     * @param value The value.
+     * @return True if contained, else false.
+     */
+    public boolean contains(long value) {
+        if (value == EMPTY) return isContainingEmptyMarker;
+        int mask = table.length - 1;
+        int slot = mix(value) & mask;
+        long current;
+        while ((current = table[slot]) != EMPTY) {
+            if (current == value) return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Remove all values. The memory is kept.
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(table, EMPTY);
+            size = 0;
+        }
+        isContainingEmptyMarker = false;
+    }
+
+    /**
+     * Returns the number of values in the set.
+     * @return Number of values.
+     */
+    public int size() {
+        return size + (isContainingEmptyMarker ? 1 : 0);
+    }
+
+    private void rehash() {
+        long[] oldTable = table;
+        table = new long[oldTable.length * 2];
+        int mask = table.length - 1;
+        for (long value : oldTable) {
+            if (value == EMPTY) continue;
+            int slot = mix(value) & mask;
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = value;
+        }
+    }
+
+    private static int mix(long value) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
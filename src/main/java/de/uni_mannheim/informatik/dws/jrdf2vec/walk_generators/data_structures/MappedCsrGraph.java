@@ -0,0 +1,161 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An {@link IntGraph} which is memory-mapped from a file written by {@link GraphSnapshot}. It has the same layout as
+ * a {@link CsrGraph}.
+ * Nothing but a few buffer objects resides on the Java heap. Instances are safe for concurrent reads.
+ */
+public class MappedCsrGraph implements IntGraph {
+
+    private final int numberOfIds;
+    private final int numberOfEdges;
+    private final int tableMask;
+
+    private final MappedRegion labelOffsets;
+    private final MappedRegion labelHashes;
+    private final MappedRegion table;
+    private final MappedRegion outOffsets;
+    private final MappedRegion inOffsets;
+    private final MappedRegion outEdges;
+    private final MappedRegion inEdges;
+    private final MappedRegion labels;
+
+    /**
+     * Constructor
+     * @param channel Channel of the snapshot file.
+     * @throws IOException If the file cannot be mapped or is not a snapshot.
+     */
+    MappedCsrGraph(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(GraphSnapshot.HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) throw new IOException("Snapshot file is truncated.");
+        }
+        ((Buffer) header).flip();
+        if (header.getLong() != GraphSnapshot.MAGIC) throw new IOException("The given file is not a graph snapshot.");
+        int version = header.getInt();
+        if (version != GraphSnapshot.VERSION) throw new IOException("Unsupported snapshot version: " + version);
+        numberOfIds = header.getInt();
+        numberOfEdges = header.getInt();
+        int tableSize = header.getInt();
+        long labelBytes = header.getLong();
+        tableMask = tableSize - 1;
+
+        long position = GraphSnapshot.HEADER_SIZE;
+        labelOffsets = new MappedRegion(channel, position, (numberOfIds + 1L) * 8);
+        position += (numberOfIds + 1L) * 8;
+        labelHashes = new MappedRegion(channel, position, GraphSnapshot.intSectionSize(numberOfIds));
+        position += GraphSnapshot.intSectionSize(numberOfIds);
+        table = new MappedRegion(channel, position, GraphSnapshot.intSectionSize(tableSize));
+        position += GraphSnapshot.intSectionSize(tableSize);
+        outOffsets = new MappedRegion(channel, position, GraphSnapshot.intSectionSize(numberOfIds + 1L));
+        position += GraphSnapshot.intSectionSize(numberOfIds + 1L);
+        inOffsets = new MappedRegion(channel, position, GraphSnapshot.intSectionSize(numberOfIds + 1L));
+        position += GraphSnapshot.intSectionSize(numberOfIds + 1L);
+        outEdges = new MappedRegion(channel, position, numberOfEdges * 8L);
+        position += numberOfEdges * 8L;
+        inEdges = new MappedRegion(channel, position, numberOfEdges * 8L);
+        position += numberOfEdges * 8L;
+        if (position + labelBytes > channel.size()) throw new IOException("Snapshot file is truncated.");
+        labels = new MappedRegion(channel, position, labelBytes);
+    }
+
+    @Override
+    public int getId(String uri) {
+        if (uri == null) return -1;
+        byte[] bytes = uri.getBytes(StandardCharsets.UTF_8);
+        int hash = UriDictionary.hash(bytes, 0, bytes.length);
+        int slot = hash & tableMask;
+        int id;
+        while ((id = table.getInt(slot)) != -1) {
+            if (labelHashes.getInt(id) == hash && labelEquals(id, bytes)) return id;
+            slot = (slot + 1) & tableMask;
+        }
+        return -1;
+    }
+
+    private boolean labelEquals(int id, byte[] bytes) {
+        long start = labelOffsets.getLong(id);
+        int length = (int) (labelOffsets.getLong(id + 1) - start);
+        if (length != bytes.length) return false;
+        for (int i = 0; i < length; i++) {
+            if (labels.getByte(start + i) != bytes[i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String getUri(int id) {
+        if (id < 0 || id >= numberOfIds) return null;
+        long start = labelOffsets.getLong(id);
+        byte[] label = new byte[(int) (labelOffsets.getLong(id + 1) - start)];
+        labels.getBytes(start, label, 0, label.length);
+        return new String(label, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * ASCII labels are appended directly from the mapped file without creating an intermediate String.
+     * @param id The ID.
+     * @param builder The builder to which the URI is appended ("null" if the ID is unknown).
+     */
+    @Override
+    public void appendUri(int id, StringBuilder builder) {
+        if (id < 0 || id >= numberOfIds) {
+            builder.append((String) null);
+            return;
+        }
+        long start = labelOffsets.getLong(id);
+        long end = labelOffsets.getLong(id + 1);
+        for (long i = start; i < end; i++) {
+            if (labels.getByte(i) < 0) {
+                // multi-byte UTF-8 sequence
+                builder.append(getUri(id));
+                return;
+            }
+        }
+        builder.ensureCapacity(builder.length() + (int) (end - start));
+        for (long i = start; i < end; i++) {
+            builder.append((char) labels.getByte(i));
+        }
+    }
+
+    @Override
+    public int getNumberOfIds() {
+        return numberOfIds;
+    }
+
+    @Override
+    public int getOutDegree(int node) {
+        if (node < 0 || node >= numberOfIds) return 0;
+        return outOffsets.getInt(node + 1) - outOffsets.getInt(node);
+    }
+
+    @Override
+    public int getInDegree(int node) {
+        if (node < 0 || node >= numberOfIds) return 0;
+        return inOffsets.getInt(node + 1) - inOffsets.getInt(node);
+    }
+
+    @Override
+    public long getOutEdge(int node, int index) {
+        return outEdges.getLong(outOffsets.getInt(node) + (long) index);
+    }
+
+    @Override
+    public long getInEdge(int node, int index) {
+        return inEdges.getLong(inOffsets.getInt(node) + (long) index);
+    }
+
+    /**
+     * Returns the number of edges (triples) in the graph.
+     * @return Number of edges.
+     */
+    public int getNumberOfEdges() {
+        return numberOfEdges;
+    }
+}
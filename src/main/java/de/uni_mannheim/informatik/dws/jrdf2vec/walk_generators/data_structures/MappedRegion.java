@@ -0,0 +1,88 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read-only memory-mapped region of a file. A single {@link MappedByteBuffer} cannot exceed 2 GB, therefore the
+ * region is split into chunks of 1 GB. Ints and longs are expected to be aligned to their size relative to the start
+ * of the region so that they never span two chunks.
+ * Instances are safe for concurrent reads.
+ */
+class MappedRegion {
+
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final MappedByteBuffer[] chunks;
+
+    /**
+     * Constructor
+     * @param channel Channel of the file to be mapped.
+     * @param position Start of the region in the file.
+     * @param size Size of the region in bytes.
+     * @throws IOException If mapping fails.
+     */
+    MappedRegion(FileChannel channel, long position, long size) throws IOException {
+        int numberOfChunks = (int) ((size + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+        chunks = new MappedByteBuffer[numberOfChunks];
+        for (int i = 0; i < numberOfChunks; i++) {
+            long chunkStart = (long) i << CHUNK_BITS;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + chunkStart, Math.min(CHUNK_SIZE, size - chunkStart));
+        }
+    }
+
+    /**
+     * Read the int at the given index (in ints, not bytes).
+     * @param index Index.
+     * @return Value.
+     */
+    int getInt(long index) {
+        long offset = index << 2;
+        return chunks[(int) (offset >>> CHUNK_BITS)].getInt((int) (offset & CHUNK_MASK));
+    }
+
+    /**
+     * Read the long at the given index (in longs, not bytes).
+     * @param index Index.
+     * @return Value.
+     */
+    long getLong(long index) {
+        long offset = index << 3;
+        return chunks[(int) (offset >>> CHUNK_BITS)].getLong((int) (offset & CHUNK_MASK));
+    }
+
+    /**
+     * Read the byte at the given offset.
+     * @param offset Offset in bytes.
+     * @return Value.
+     */
+    byte getByte(long offset) {
+        return chunks[(int) (offset >>> CHUNK_BITS)].get((int) (offset & CHUNK_MASK));
+    }
+
+    /**
+     * Copy bytes from the region.
+     * @param offset Offset in bytes.
+     * @param destination Target array.
+     * @param destinationOffset Offset in the target array.
+     * @param length Number of bytes to be copied.
+     */
+    void getBytes(long offset, byte[] destination, int destinationOffset, int length) {
+        while (length > 0) {
+            int chunkOffset = (int) (offset & CHUNK_MASK);
+            ByteBuffer chunk = chunks[(int) (offset >>> CHUNK_BITS)].duplicate();
+            int n = Math.min(length, chunk.capacity() - chunkOffset);
+            // cast for Java 8, which has no covariant ByteBuffer.position(int)
+            ((Buffer) chunk).position(chunkOffset);
+            chunk.get(destination, destinationOffset, n);
+            offset += n;
+            destinationOffset += n;
+            length -= n;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import java.util.Arrays;
+
+/**
+ * A buffer of triples which is owned by a single parser thread. The buffer has its own local {@link UriDictionary}
+ * so that filling it requires no synchronization. Once it is full (or the input is consumed), it is merged into an
+ * {@link IntTripleDataSetMemory} in one pass via {@link IntTripleDataSetMemory#addAll(TripleBuffer)}.
+ * This class is not thread-safe.
+ */
+public class TripleBuffer {
+
+    /**
+     * Local dictionary.
+     */
+    private UriDictionary dictionary;
+
+    /**
+     * Triples as local IDs: subject, predicate, object, subject, ...
+     */
+    private int[] triples;
+
+    /**
+     * Number of buffered triples.
+     */
+    private int size = 0;
+
+    /**
+     * Constructor
+     */
+    public TripleBuffer() {
+        this(1024);
+    }
+
+    /**
+     * Constructor
+     * @param expectedNumberOfTriples The number of triples that is expected. The buffer grows if required.
+     */
+    public TripleBuffer(int expectedNumberOfTriples) {
+        int capacity = Math.max(16, expectedNumberOfTriples);
+        dictionary = new UriDictionary(capacity);
+        triples = new int[3 * capacity];
+    }
+
+    /**
+     * Add the given triple as specified by its components.
+     * @param subject Subject
+     * @param predicate Predicate
+     * @param object Object
+     */
+    public void add(String subject, String predicate, String object) {
+        add(dictionary.getOrAdd(subject), dictionary.getOrAdd(predicate), dictionary.getOrAdd(object));
+    }
+
+    /**
+     * Add a triple whose components have already been encoded with {@link #getDictionary()}.
+     * @param subject Subject ID.
+     * @param predicate Predicate ID.
+     * @param object Object ID.
+     */
+    public void add(int subject, int predicate, int object) {
+        if (3 * size == triples.length) {
+            triples = Arrays.copyOf(triples, triples.length * 2);
+        }
+        triples[3 * size] = subject;
+        triples[3 * size + 1] = predicate;
+        triples[3 * size + 2] = object;
+        size++;
+    }
+
+    /**
+     * Returns the number of buffered triples.
+     * @return Number of triples.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all triples and labels from the buffer.
+     */
+    public void clear() {
+        dictionary = new UriDictionary();
+        size = 0;
+    }
+
+    /**
+     * Obtain the local dictionary of this buffer.
+     * @return Dictionary.
+     */
+    public UriDictionary getDictionary() {
+        return dictionary;
+    }
+
+    int[] getTriples() {
+        return triples;
+    }
+}
@@ -0,0 +1,375 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A dictionary which maps URIs (or any other graph node/edge labels) to dense int IDs starting at 0.
+ * The labels are not stored as {@link String} objects but as UTF-8 bytes in large pages so that millions of
+ * labels do not lead to millions of objects on the heap.
+ * This class is not thread-safe: Concurrent writes have to be synchronized externally.
+ */
+public class UriDictionary {
+
+    /**
+     * Size of a single byte page. Labels never span two pages.
+     */
+    private static final int PAGE_SIZE = 1 << 24;
+
+    /**
+     * Indicates an empty slot in the hash table.
+     */
+    private static final int EMPTY = -1;
+
+    /**
+     * The UTF-8 encoded labels.
+     */
+    private byte[][] pages = new byte[1][];
+
+    /**
+     * The number of pages in use.
+     */
+    private int numberOfPages = 0;
+
+    /**
+     * The number of bytes used in the current (last) page.
+     */
+    private int currentPageSize = 0;
+
+    /**
+     * Address of each label: page index in the upper 32 bits, offset within the page in the lower 32 bits.
+     */
+    private long[] addresses;
+
+    /**
+     * Length in bytes of each label.
+     */
+    private int[] lengths;
+
+    /**
+     * Cached hash of each label.
+     */
+    private int[] hashes;
+
+    /**
+     * Open addressing hash table (linear probing) holding IDs.
+     */
+    private int[] table;
+
+    /**
+     * Number of labels in the dictionary.
+     */
+    private int size = 0;
+
+    /**
+     * Constructor
+     */
+    public UriDictionary() {
+        this(1024);
+    }
+
+    /**
+     * Constructor
+     * @param expectedSize The number of labels that is expected. The dictionary grows if required.
+     */
+    public UriDictionary(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        addresses = new long[capacity];
+        lengths = new int[capacity];
+        hashes = new int[capacity];
+        table = new int[tableSizeFor(capacity)];
+        Arrays.fill(table, EMPTY);
+    }
+
+    /**
+     * Obtain the ID of the given label. If the label is not yet contained, it is added.
+     * @param uri The label.
+     * @return ID of the label.
+     */
+    public int getOrAdd(String uri) {
+        if (isAscii(uri)) {
+            int hash = hash(uri);
+            int slot = findSlot(uri, hash);
+            if (table[slot] != EMPTY) return table[slot];
+            int length = uri.length();
+            int id = allocate(length, hash);
+            byte[] page = pages[(int) (addresses[id] >>> 32)];
+            int offset = (int) addresses[id];
+            for (int i = 0; i < length; i++) {
+                page[offset + i] = (byte) uri.charAt(i);
+            }
+            return insert(slot, id);
+        }
+        byte[] bytes = uri.getBytes(StandardCharsets.UTF_8);
+        return getOrAdd(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Obtain the ID of the given UTF-8 encoded label. If the label is not yet contained, it is added.
+     * The bytes are copied, the given array can be reused afterwards.
+     * @param bytes Array containing the label.
+     * @param offset Start of the label in the array.
+     * @param length Length of the label in bytes.
+     * @return ID of the label.
+     */
+    public int getOrAdd(byte[] bytes, int offset, int length) {
+        return getOrAdd(bytes, offset, length, hash(bytes, offset, length));
+    }
+
+    /**
+     * Obtain the ID of a label of another dictionary. If the label is not yet contained, it is added.
+     * This is faster than decoding the label because the bytes are copied directly and the hash is reused.
+     * @param source The dictionary that contains the label.
+     * @param sourceId The ID of the label in the source dictionary.
+     * @return ID of the label in this dictionary.
+     */
+    public int getOrAdd(UriDictionary source, int sourceId) {
+        return getOrAdd(source.pages[(int) (source.addresses[sourceId] >>> 32)], (int) source.addresses[sourceId],
+                source.lengths[sourceId], source.hashes[sourceId]);
+    }
+
+    private int getOrAdd(byte[] bytes, int offset, int length, int hash) {
+        int slot = findSlot(bytes, offset, length, hash);
+        if (table[slot] != EMPTY) return table[slot];
+        int id = allocate(length, hash);
+        System.arraycopy(bytes, offset, pages[(int) (addresses[id] >>> 32)], (int) addresses[id], length);
+        return insert(slot, id);
+    }
+
+    /**
+     * Obtain the ID of the given label.
+     * @param uri The label.
+     * @return ID of the label or -1 if the label is unknown.
+     */
+    public int getId(String uri) {
+        if (uri == null) return -1;
+        if (isAscii(uri)) {
+            return table[findSlot(uri, hash(uri))];
+        }
+        byte[] bytes = uri.getBytes(StandardCharsets.UTF_8);
+        return getId(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Obtain the ID of the given UTF-8 encoded label.
+     * @param bytes Array containing the label.
+     * @param offset Start of the label in the array.
+     * @param length Length of the label in bytes.
+     * @return ID of the label or -1 if the label is unknown.
+     */
+    public int getId(byte[] bytes, int offset, int length) {
+        return table[findSlot(bytes, offset, length, hash(bytes, offset, length))];
+    }
+
+    /**
+     * Decode the label of the given ID.
+     * @param id The ID.
+     * @return Label as String or null if the ID is unknown.
+     */
+    public String getUri(int id) {
+        if (id < 0 || id >= size) return null;
+        return new String(pages[(int) (addresses[id] >>> 32)], (int) addresses[id], lengths[id], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decode the label of the given ID and append it to the given builder. ASCII labels are appended without creating
+     * an intermediate String.
+     * @param id The ID.
+     * @param builder The builder to which the label is appended ("null" if the ID is unknown).
+     */
+    public void appendUri(int id, StringBuilder builder) {
+        if (id < 0 || id >= size) {
+            builder.append((String) null);
+            return;
+        }
+        byte[] page = pages[(int) (addresses[id] >>> 32)];
+        int offset = (int) addresses[id];
+        int length = lengths[id];
+        for (int i = offset; i < offset + length; i++) {
+            if (page[i] < 0) {
+                // multi-byte UTF-8 sequence
+                builder.append(new String(page, offset, length, StandardCharsets.UTF_8));
+                return;
+            }
+        }
+        builder.ensureCapacity(builder.length() + length);
+        for (int i = offset; i < offset + length; i++) {
+            builder.append((char) page[i]);
+        }
+    }
+
+    /**
+     * Returns the number of labels in the dictionary.
+     * @return Number of labels.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copy the UTF-8 bytes of the given label to the given stream.
+     * @param id The ID.
+     * @param out Stream to write to.
+     * @throws IOException If writing fails.
+     */
+    void writeLabel(int id, OutputStream out) throws IOException {
+        out.write(pages[(int) (addresses[id] >>> 32)], (int) addresses[id], lengths[id]);
+    }
+
+    int getLength(int id) {
+        return lengths[id];
+    }
+
+    int getHash(int id) {
+        return hashes[id];
+    }
+
+    /**
+     * The hash table is exposed for snapshots only; it must not be modified.
+     * @return Hash table.
+     */
+    int[] getTable() {
+        return table;
+    }
+
+    private int allocate(int length, int hash) {
+        if (size == addresses.length) {
+            int newCapacity = addresses.length + (addresses.length >> 1);
+            addresses = Arrays.copyOf(addresses, newCapacity);
+            lengths = Arrays.copyOf(lengths, newCapacity);
+            hashes = Arrays.copyOf(hashes, newCapacity);
+        }
+        if (numberOfPages == 0 || currentPageSize + length > pages[numberOfPages - 1].length) {
+            if (numberOfPages == pages.length) {
+                pages = Arrays.copyOf(pages, pages.length * 2);
+            }
+            pages[numberOfPages++] = new byte[Math.max(PAGE_SIZE, length)];
+            currentPageSize = 0;
+        }
+        int id = size++;
+        addresses[id] = ((long) (numberOfPages - 1) << 32) | currentPageSize;
+        lengths[id] = length;
+        hashes[id] = hash;
+        currentPageSize += length;
+        return id;
+    }
+
+    private int insert(int slot, int id) {
+        table[slot] = id;
+        if (size * 2 > table.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        int[] newTable = new int[table.length * 2];
+        Arrays.fill(newTable, EMPTY);
+        int mask = newTable.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (newTable[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot] = id;
+        }
+        table = newTable;
+    }
+
+    private int findSlot(String uri, int hash) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        int id;
+        while ((id = table[slot]) != EMPTY) {
+            if (hashes[id] == hash && equals(id, uri)) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int findSlot(byte[] bytes, int offset, int length, int hash) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        int id;
+        while ((id = table[slot]) != EMPTY) {
+            if (hashes[id] == hash && equals(id, bytes, offset, length)) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean equals(int id, String asciiUri) {
+        int length = lengths[id];
+        if (length != asciiUri.length()) return false;
+        byte[] page = pages[(int) (addresses[id] >>> 32)];
+        int offset = (int) addresses[id];
+        for (int i = 0; i < length; i++) {
+            if (page[offset + i] != (byte) asciiUri.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private boolean equals(int id, byte[] bytes, int offset, int length) {
+        if (lengths[id] != length) return false;
+        byte[] page = pages[(int) (addresses[id] >>> 32)];
+        int pageOffset = (int) addresses[id];
+        for (int i = 0; i < length; i++) {
+            if (page[pageOffset + i] != bytes[offset + i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the given String consists only of ASCII characters (in which case the UTF-8 encoding equals the
+     * characters).
+     * @param s String to be checked.
+     * @return True if ASCII only.
+     */
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) return false;
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a hash over the UTF-8 bytes of an ASCII String.
+     * @param asciiString ASCII string.
+     * @return Hash.
+     */
+    private static int hash(String asciiString) {
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < asciiString.length(); i++) {
+            hash ^= (byte) asciiString.charAt(i);
+            hash *= 0x01000193;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * FNV-1a hash over the given bytes.
+     * @param bytes Array.
+     * @param offset Offset.
+     * @param length Length.
+     * @return Hash.
+     */
+    static int hash(byte[] bytes, int offset, int length) {
+        int hash = 0x811c9dc5;
+        for (int i = offset; i < offset + length; i++) {
+            hash ^= bytes[i];
+            hash *= 0x01000193;
+        }
+        return mix(hash);
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) * 2;
+        return Math.max(n, 32);
+    }
+}
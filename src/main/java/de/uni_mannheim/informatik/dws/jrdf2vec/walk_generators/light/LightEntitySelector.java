@@ -101,4 +101,9 @@ public class LightEntitySelector implements EntitySelector {
             return this.entitiesToProcess;
         }
     }
+
+    @Override
+    public long getNumberOfEntitiesHint() {
+        return this.entitiesToProcess != null ? this.entitiesToProcess.size() : -1;
+    }
 }
@@ -3,8 +3,7 @@ package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.runnables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.HdtParser;
-import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.NtMemoryParser;
-import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.NxMemoryParser;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.MemoryParser;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.WalkGenerator;
 
 
@@ -57,11 +56,8 @@ public class DuplicateFreeMidWalkEntityProcessingRunnable implements Runnable {
     public void run() {
         if (walkGenerator.parser.getClass() == HdtParser.class) {
             walkGenerator.writeToFile(((HdtParser) walkGenerator.parser).generateMidWalksForEntityDuplicateFree(walkGenerator.shortenUri(entity), this.numberOfWalks, this.depth));
-        } else if (walkGenerator.parser.getClass() == NtMemoryParser.class) {
-            // yes, the depth and # of walks parameters are this way
-            walkGenerator.writeToFile(((NtMemoryParser) walkGenerator.parser).generateMidWalksForEntityDuplicateFree(walkGenerator.shortenUri(entity), this.numberOfWalks, depth));
-        } else if (walkGenerator.parser.getClass() == NxMemoryParser.class) {
-            walkGenerator.writeToFile(((NxMemoryParser) walkGenerator.parser).generateMidWalksForEntityDuplicateFree(walkGenerator.shortenUri(entity), this.numberOfWalks, depth));
+        } else if (walkGenerator.parser instanceof MemoryParser) {
+            walkGenerator.writeToFile(((MemoryParser) walkGenerator.parser).generateMidWalksForEntityDuplicateFree(walkGenerator.shortenUri(entity), this.numberOfWalks, this.depth));
         } else LOGGER.error("NOT YET IMPLEMENTED FOR THE CURRENT PARSER!");
     }
 }
@@ -2,6 +2,7 @@ package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.runnables;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.HdtParser;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.MemoryParser;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.WalkGenerator;
 
@@ -54,11 +55,12 @@ public class DuplicateFreeWalkEntityProcessingRunnable implements Runnable {
      * Actual thread execution.
      */
     public void run() {
-        //if(walkGenerator.parser.getClass() == NtMemoryParser.class) {
-        if(MemoryParser.class.isAssignableFrom(walkGenerator.parser.getClass())) {
+        if (walkGenerator.parser.getClass() == HdtParser.class) {
+            walkGenerator.writeToFile(((HdtParser) walkGenerator.parser).generateDuplicateFreeRandomWalksForEntity(walkGenerator.shortenUri(entity), numberOfWalks, this.depth));
+        } else if(MemoryParser.class.isAssignableFrom(walkGenerator.parser.getClass())) {
             walkGenerator.writeToFile(((MemoryParser)walkGenerator.parser).generateDuplicateFreeRandomWalksForEntity(walkGenerator.shortenUri(entity), numberOfWalks, this.depth));
         } else {
-            LOGGER.error("NOT YET IMPLEMENTED FOR OTHER PARSER THAN MEMORY PARSER!");
+            LOGGER.error("NOT YET IMPLEMENTED FOR THE CURRENT PARSER!");
         }
     }
 
@@ -1,8 +1,8 @@
 package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.runnables;
 
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.HdtParser;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.MemoryParser;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.WalkGenerator;
-import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.Triple;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -66,30 +66,10 @@ public class RandomWalkEntityProcessingRunnable implements Runnable {
      * This method generates the random walks for each entity.
      */
     private void processEntity() {
-        int currentDepth;
-        String currentWalk;
-        int currentWalkNumber = 0;
-        String entityShort = walkGenerator.shortenUri(entity);
-
-        nextWalk:
-        while (currentWalkNumber < numberOfWalks) {
-            currentWalkNumber++;
-            String lastObject = entity;
-            currentWalk = entityShort;
-            currentDepth = 0;
-            while (currentDepth < walkLength) {
-                currentDepth++;
-                Triple po = ((MemoryParser) walkGenerator.parser).getRandomTripleForSubjectWithoutTags(lastObject);
-                if(po != null){
-                    currentWalk += " " + walkGenerator.shortenUri(po.predicate) + " " + walkGenerator.shortenUri(po.object);
-                    lastObject = po.object;
-                } else {
-                    // The current walk cannot be continued -> add to list (if there is a walk of depth 1) and create next walk.
-                    if(currentWalk.length() != entityShort.length()) finalList.add(currentWalk);
-                    continue nextWalk;
-                }
-            }
-            finalList.add(currentWalk);
+        if (walkGenerator.parser.getClass() == HdtParser.class) {
+            finalList.addAll(((HdtParser) walkGenerator.parser).generateRandomWalksForEntity(walkGenerator.shortenUri(entity), numberOfWalks, walkLength));
+        } else {
+            finalList.addAll(((MemoryParser) walkGenerator.parser).generateRandomWalksForEntity(walkGenerator.shortenUri(entity), numberOfWalks, walkLength));
         }
     } // end of processEntity()
 
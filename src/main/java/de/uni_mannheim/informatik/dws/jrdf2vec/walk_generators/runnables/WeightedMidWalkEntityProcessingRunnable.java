@@ -2,8 +2,8 @@ package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.runnables;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.NtMemoryParser;
-import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.NxMemoryParser;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.HdtParser;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.MemoryParser;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.WalkGenerator;
 
 public class WeightedMidWalkEntityProcessingRunnable implements Runnable{
@@ -53,11 +53,11 @@ public class WeightedMidWalkEntityProcessingRunnable implements Runnable{
      * Actual thread execution.
      */
     public void run() {
-        if (walkGenerator.parser.getClass() == NtMemoryParser.class) {
+        if (walkGenerator.parser.getClass() == HdtParser.class) {
+            walkGenerator.writeToFile(((HdtParser) walkGenerator.parser).generateWeightedMidWalksForEntity(walkGenerator.shortenUri(entity), this.depth, this.numberOfWalks));
+        } else if (walkGenerator.parser instanceof MemoryParser) {
             // yes, the depth and # of walks parameters are this way
-            walkGenerator.writeToFile(((NtMemoryParser) walkGenerator.parser).generateWeightedMidWalksForEntity(walkGenerator.shortenUri(entity),this.depth, this.numberOfWalks));
-        } else if (walkGenerator.parser.getClass() == NxMemoryParser.class) {
-            walkGenerator.writeToFile(((NxMemoryParser) walkGenerator.parser).generateWeightedMidWalksForEntity(walkGenerator.shortenUri(entity), this.depth, this.numberOfWalks));
+            walkGenerator.writeToFile(((MemoryParser) walkGenerator.parser).generateWeightedMidWalksForEntity(walkGenerator.shortenUri(entity), this.depth, this.numberOfWalks));
         } else LOGGER.error("NOT YET IMPLEMENTED FOR THE CURRENT PARSER!");
     }
 }
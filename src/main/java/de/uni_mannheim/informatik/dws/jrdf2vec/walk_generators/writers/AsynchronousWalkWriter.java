@@ -0,0 +1,445 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A walk writer which decouples the walk generation threads from the file I/O:
+ * Walks are handed over through a bounded queue to one or more dedicated writer threads which encode, compress, and
+ * write them. Walk generation threads only block if the queue is full, i.e., if the writers cannot keep up.
+ * <p>
+ * With a single writer thread, the output is a gzipped walk file which is rolled over after
+ * {@link #DEFAULT_LINES_PER_FILE} lines ({@code walk_file.gz}, {@code walk_file1.gz}, {@code walk_file2.gz}, ...).
+ * With multiple writer threads, each thread owns a gzipped shard in the same directory ({@code walk_file_0.gz},
+ * {@code walk_file_1.gz}, ...; rolled over as {@code walk_file_0_1.gz}, ...) so that compression scales with the
+ * number of threads. The training reads all files of the walk directory, so the shards are transparent to it.
+ * <p>
+ * In {@link WalkFileFormat#BINARY}, the walks are written as varint-encoded ID sequences ({@code walk_file.bin.gz},
+ * ...) and the vocabulary is written to {@link WalkVocabulary#VOCABULARY_FILE_NAME} in the same directory once the
+ * writer is closed. Note that the {@link WalkVocabulary} keeps every distinct token as String on the heap until then,
+ * i.e., a second copy next to the dictionary of the graph.
+ */
+public class AsynchronousWalkWriter implements IWalkWriter {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsynchronousWalkWriter.class);
+
+    /**
+     * The number of lines after which a new file is started.
+     */
+    public static final int DEFAULT_LINES_PER_FILE = 3000000;
+
+    /**
+     * The maximal number of batches (one batch per entity) waiting to be written.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+
+    /**
+     * Marks the end of the queue.
+     */
+    private static final List<String> END_OF_QUEUE = Collections.emptyList();
+
+    /**
+     * The batches to be written.
+     */
+    private final BlockingQueue<List<String>> queue;
+
+    /**
+     * The threads writing the batches.
+     */
+    private final Thread[] writerThreads;
+
+    /**
+     * The path of the first walk file. Subsequent files are numbered.
+     */
+    private final String filePath;
+
+    /**
+     * The file ending of {@link #filePath} ({@code .gz}, {@code .bin.gz}, or empty). Rolled over files and shards are
+     * numbered before the ending.
+     */
+    private final String fileEnding;
+
+    /**
+     * The number of lines after which a new file is started.
+     */
+    private final int linesPerFile;
+
+    private final WalkFileFormat format;
+
+    /**
+     * The IDs of the tokens. Null in case of {@link WalkFileFormat#TEXT}.
+     */
+    private final WalkVocabulary vocabulary;
+
+    private final AtomicInteger processedEntities = new AtomicInteger();
+
+    private final AtomicLong processedWalks = new AtomicLong();
+
+    private volatile boolean isClosed = false;
+
+    /**
+     * False as soon as walks have been lost.
+     */
+    private volatile boolean isOk = true;
+
+    /**
+     * Constructor
+     *
+     * @param filePath The path of the (first) walk file to be written. The file ending should be {@code .gz}.
+     * @throws IOException If the file cannot be created.
+     */
+    public AsynchronousWalkWriter(String filePath) throws IOException {
+        this(filePath, 1);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param filePath              The path of the (first) walk file to be written. The file ending should be
+     *                              {@code .gz}.
+     * @param numberOfWriterThreads The number of writer threads. If larger than 1, one shard is written per thread.
+     * @throws IOException If a file cannot be created.
+     */
+    public AsynchronousWalkWriter(String filePath, int numberOfWriterThreads) throws IOException {
+        this(filePath, numberOfWriterThreads, DEFAULT_LINES_PER_FILE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param filePath              The path of the (first) walk file to be written. The file ending should be
+     *                              {@code .gz}.
+     * @param numberOfWriterThreads The number of writer threads. If larger than 1, one shard is written per thread.
+     * @param linesPerFile          The number of lines after which a new file is started.
+     * @param queueCapacity         The maximal number of batches waiting to be written.
+     * @throws IOException If a file cannot be created.
+     */
+    public AsynchronousWalkWriter(String filePath, int numberOfWriterThreads, int linesPerFile, int queueCapacity) throws IOException {
+        this(filePath, numberOfWriterThreads, linesPerFile, queueCapacity, WalkFileFormat.TEXT);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param filePath              The path of the (first) walk file to be written. The file ending should be
+     *                              {@code .gz}. In case of {@link WalkFileFormat#BINARY}, it is changed to
+     *                              {@code .bin.gz}.
+     * @param numberOfWriterThreads The number of writer threads. If larger than 1, one shard is written per thread.
+     * @param format                The format of the walk files.
+     * @throws IOException If a file cannot be created.
+     */
+    public AsynchronousWalkWriter(String filePath, int numberOfWriterThreads, WalkFileFormat format) throws IOException {
+        this(filePath, numberOfWriterThreads, DEFAULT_LINES_PER_FILE, DEFAULT_QUEUE_CAPACITY, format);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param filePath              The path of the (first) walk file to be written. The file ending should be
+     *                              {@code .gz}. In case of {@link WalkFileFormat#BINARY}, it is changed to
+     *                              {@code .bin.gz}.
+     * @param numberOfWriterThreads The number of writer threads. If larger than 1, one shard is written per thread.
+     * @param linesPerFile          The number of lines after which a new file is started.
+     * @param queueCapacity         The maximal number of batches waiting to be written.
+     * @param format                The format of the walk files.
+     * @throws IOException If a file cannot be created.
+     */
+    public AsynchronousWalkWriter(String filePath, int numberOfWriterThreads, int linesPerFile, int queueCapacity,
+                                  WalkFileFormat format) throws IOException {
+        if (numberOfWriterThreads < 1) {
+            LOGGER.warn("Invalid number of writer threads (" + numberOfWriterThreads + "). Using 1.");
+            numberOfWriterThreads = 1;
+        }
+        if (format == null) {
+            LOGGER.warn("No walk file format specified. Using " + WalkFileFormat.TEXT + ".");
+            format = WalkFileFormat.TEXT;
+        }
+        this.format = format;
+        if (format == WalkFileFormat.BINARY) {
+            filePath = getBinaryFilePath(filePath);
+            this.vocabulary = new WalkVocabulary();
+        } else this.vocabulary = null;
+        this.filePath = filePath;
+        if (filePath.endsWith(".bin.gz")) {
+            this.fileEnding = ".bin.gz";
+        } else if (filePath.endsWith(".gz")) {
+            this.fileEnding = ".gz";
+        } else this.fileEnding = "";
+        this.linesPerFile = linesPerFile;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        // open all files first so that no thread is left running if a file cannot be created
+        ShardWriter[] shardWriters = new ShardWriter[numberOfWriterThreads];
+        try {
+            for (int i = 0; i < numberOfWriterThreads; i++) {
+                shardWriters[i] = new ShardWriter(numberOfWriterThreads == 1 ? -1 : i);
+            }
+        } catch (IOException ioe) {
+            for (ShardWriter shardWriter : shardWriters) {
+                if (shardWriter != null) shardWriter.closeQuietly();
+            }
+            throw ioe;
+        }
+        this.writerThreads = new Thread[numberOfWriterThreads];
+        for (int i = 0; i < numberOfWriterThreads; i++) {
+            writerThreads[i] = new Thread(shardWriters[i], "walk-writer-" + i);
+            writerThreads[i].setDaemon(true);
+            writerThreads[i].start();
+        }
+    }
+
+    @Override
+    public void write(List<String> walks) {
+        if (isClosed) {
+            LOGGER.error("The walk writer is already closed. Walks are not written.");
+            isOk = false;
+            return;
+        }
+        int entities = processedEntities.incrementAndGet();
+        long walksInTotal = processedWalks.addAndGet(walks.size());
+        if (entities % 1000 == 0) {
+            LOGGER.info("TOTAL PROCESSED ENTITIES: " + entities);
+            LOGGER.info("TOTAL NUMBER OF PATHS : " + walksInTotal);
+        }
+        if (walks.isEmpty()) return;
+        try {
+            queue.put(walks);
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while handing over walks. Walks are not written.", e);
+            isOk = false;
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (isClosed) return;
+        isClosed = true;
+        try {
+            // one end marker per writer thread
+            for (int i = 0; i < writerThreads.length; i++) {
+                queue.put(END_OF_QUEUE);
+            }
+            for (Thread writerThread : writerThreads) {
+                writerThread.join();
+            }
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while waiting for the walk writer threads.", e);
+            isOk = false;
+            Thread.currentThread().interrupt();
+        }
+        if (vocabulary != null) {
+            File vocabularyFile = getVocabularyFile();
+            try {
+                vocabulary.write(vocabularyFile);
+            } catch (IOException ioe) {
+                LOGGER.error("Could not write the vocabulary file " + vocabularyFile.getAbsolutePath() + ".", ioe);
+                isOk = false;
+            }
+        }
+        if (!isOk) {
+            LOGGER.error("Not all walks could be written. The walk files starting with " + filePath + " are incomplete.");
+        }
+    }
+
+    @Override
+    public boolean isOk() {
+        return isOk;
+    }
+
+    /**
+     * Obtain the file to which the vocabulary is written in case of {@link WalkFileFormat#BINARY}.
+     *
+     * @return Vocabulary file in the directory of the walk files.
+     */
+    public File getVocabularyFile() {
+        return new File(new File(filePath).getAbsoluteFile().getParentFile(), WalkVocabulary.VOCABULARY_FILE_NAME);
+    }
+
+    /**
+     * Obtain the path of the (first) walk file that is actually written.
+     *
+     * @return File path.
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public WalkFileFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Change the ending of the given walk file path to {@code .bin.gz}.
+     *
+     * @param filePath The path of a walk file such as {@code walk_file.gz}.
+     * @return Path of the binary walk file such as {@code walk_file.bin.gz}.
+     */
+    static String getBinaryFilePath(String filePath) {
+        if (filePath.endsWith(".bin.gz")) return filePath;
+        if (filePath.endsWith(".gz")) return filePath.substring(0, filePath.length() - 3) + ".bin.gz";
+        return filePath + ".bin.gz";
+    }
+
+    @Override
+    public int getProcessedEntities() {
+        return processedEntities.get();
+    }
+
+    @Override
+    public long getProcessedWalks() {
+        return processedWalks.get();
+    }
+
+    private static OutputStream openOutputStream(String path) throws IOException {
+        return new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(path, false), 1 << 16), 1 << 16);
+    }
+
+    /**
+     * Loop of a single writer thread. Each writer thread owns its files.
+     */
+    private class ShardWriter implements Runnable {
+
+        /**
+         * The number of the shard or -1 if there is only one writer thread.
+         */
+        private final int shardNumber;
+
+        /**
+         * Stream of the current file.
+         */
+        private OutputStream outputStream;
+
+        /**
+         * Text writer on top of {@link #outputStream}. Null in case of {@link WalkFileFormat#BINARY}.
+         */
+        private Writer writer;
+
+        ShardWriter(int shardNumber) throws IOException {
+            this.shardNumber = shardNumber;
+            open(getFilePath(0));
+        }
+
+        private void open(String path) throws IOException {
+            outputStream = openOutputStream(path);
+            if (format == WalkFileFormat.TEXT) {
+                writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 1 << 16);
+            }
+        }
+
+        private void closeFile() throws IOException {
+            if (writer != null) {
+                writer.close();
+            } else outputStream.close();
+        }
+
+        /**
+         * Obtain the path of the file with the given rollover number.
+         *
+         * @param fileNumber 0 for the first file, then 1, 2, ...
+         * @return File path.
+         */
+        private String getFilePath(long fileNumber) {
+            if (shardNumber < 0 && fileNumber == 0) return filePath;
+            String suffix = shardNumber < 0 ? String.valueOf(fileNumber) :
+                    "_" + shardNumber + (fileNumber == 0 ? "" : "_" + fileNumber);
+            return filePath.substring(0, filePath.length() - fileEnding.length()) + suffix + fileEnding;
+        }
+
+        /**
+         * Write a walk as ID sequence: varint of ID + 1 per token, 0 at the end of the walk.
+         *
+         * @param walk The walk (tokens separated by a space).
+         * @throws IOException If the walk cannot be written.
+         */
+        private void writeBinary(String walk) throws IOException {
+            int start = 0;
+            int length = walk.length();
+            while (start < length) {
+                int end = walk.indexOf(' ', start);
+                if (end < 0) end = length;
+                if (end > start) {
+                    writeVarint(vocabulary.getId(walk.substring(start, end)) + 1);
+                }
+                start = end + 1;
+            }
+            outputStream.write(0);
+        }
+
+        private void writeVarint(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                outputStream.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            outputStream.write(value);
+        }
+
+        @Override
+        public void run() {
+            long writtenLines = 0;
+            int fileLines = 0;
+            boolean isWriting = true;
+            while (true) {
+                List<String> batch;
+                try {
+                    batch = queue.take();
+                } catch (InterruptedException e) {
+                    LOGGER.error("The walk writer thread was interrupted. Remaining walks are not written.", e);
+                    isOk = false;
+                    closeQuietly();
+                    return;
+                }
+                if (batch == END_OF_QUEUE) break;
+
+                // in case of an error, the queue is still drained so that the walk generation threads do not block
+                if (!isWriting) continue;
+                try {
+                    if (writer != null) {
+                        for (String walk : batch) {
+                            writer.write(walk);
+                            writer.write('\n');
+                        }
+                    } else {
+                        for (String walk : batch) {
+                            writeBinary(walk);
+                        }
+                    }
+                    writtenLines += batch.size();
+                    fileLines += batch.size();
+                    if (fileLines > linesPerFile) {
+                        fileLines = 0;
+                        closeFile();
+                        open(getFilePath(writtenLines / linesPerFile));
+                    }
+                } catch (IOException e) {
+                    LOGGER.error("Could not write walks. Remaining walks of this writer are not written.", e);
+                    isWriting = false;
+                    isOk = false;
+                }
+            }
+            closeQuietly();
+        }
+
+        void closeQuietly() {
+            try {
+                closeFile();
+            } catch (IOException ioe) {
+                LOGGER.error("There was an error when closing the writer.", ioe);
+                isOk = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers;
+
+import java.util.List;
+
+/**
+ * A walk writer persists the walks generated by the walk generation threads.
+ * Implementations must be thread-safe: {@link #write(List)} is called concurrently by all walk generation threads.
+ */
+public interface IWalkWriter {
+
+    /**
+     * Hand over the walks of one entity. Each walk is written as one line.
+     * The list must not be modified by the caller afterwards.
+     *
+     * @param walks The walks to be written.
+     */
+    void write(List<String> walks);
+
+    /**
+     * Write all pending walks and release the resources. The writer cannot be used anymore afterwards.
+     * Use {@link #isOk()} afterwards to check whether all walks have been written.
+     */
+    void close();
+
+    /**
+     * Indicates whether all walks handed over so far have been written. Once {@link #close()} returned, false means
+     * that the walk files are incomplete, e.g. because a file could not be written.
+     *
+     * @return True if no walks were lost, else false.
+     */
+    boolean isOk();
+
+    /**
+     * Obtain the number of entities whose walks have been handed over.
+     *
+     * @return Number of processed entities.
+     */
+    int getProcessedEntities();
+
+    /**
+     * Obtain the number of walks that have been handed over.
+     *
+     * @return Number of processed walks.
+     */
+    long getProcessedWalks();
+}
@@ -0,0 +1,208 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A walk writer which streams the walks through a local socket (one walk per line, UTF-8) in addition to handing them
+ * over to another walk writer (which typically writes the walk files). This allows a consumer such as the Python
+ * server to process the walks while they are still being generated.
+ * <p>
+ * The walks are handed over to a dedicated sender thread through a bounded queue; hence, the walk generation blocks
+ * if the consumer cannot keep up. When the writer is closed, the other walk writer is closed first so that all walk
+ * files are complete once the consumer observes the end of the stream.
+ * <p>
+ * The last walk is followed by a trailer line: {@link #END_OF_STREAM} and the number of walks handed over to the
+ * writer. The trailer is only sent if every walk has been streamed; hence, a consumer must treat a stream that ends
+ * without trailer, or with a different number of walks, as incomplete.
+ */
+public class SocketWalkWriter implements IWalkWriter {
+
+    /**
+     * Default logger
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SocketWalkWriter.class);
+
+    /**
+     * The maximal number of batches (one batch per entity) waiting to be sent.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+
+    /**
+     * The first character of the trailer line which follows the last walk of a complete stream.
+     */
+    public static final char END_OF_STREAM = '\u0004';
+
+    /**
+     * Timeout for establishing the connection in milliseconds.
+     */
+    private static final int CONNECT_TIMEOUT = 10000;
+
+    /**
+     * Marks the end of the queue.
+     */
+    private static final List<String> END_OF_QUEUE = Collections.emptyList();
+
+    /**
+     * The writer to which all walks are handed over as well.
+     */
+    private final IWalkWriter walkWriter;
+
+    private final Socket socket;
+
+    private final BlockingQueue<List<String>> queue;
+
+    private final Thread senderThread;
+
+    private volatile boolean isClosed = false;
+
+    /**
+     * False as soon as walks have been written to the walk files but not to the stream.
+     */
+    private volatile boolean isStreamComplete = true;
+
+    /**
+     * Constructor
+     *
+     * @param walkWriter The writer to which all walks are handed over as well.
+     * @param port       The local port to which the walks shall be streamed.
+     * @throws IOException If the connection cannot be established.
+     */
+    public SocketWalkWriter(IWalkWriter walkWriter, int port) throws IOException {
+        this(walkWriter, "127.0.0.1", port, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param walkWriter    The writer to which all walks are handed over as well.
+     * @param host          The host to which the walks shall be streamed.
+     * @param port          The port to which the walks shall be streamed.
+     * @param queueCapacity The maximal number of batches waiting to be sent.
+     * @throws IOException If the connection cannot be established.
+     */
+    public SocketWalkWriter(IWalkWriter walkWriter, String host, int port, int queueCapacity) throws IOException {
+        this.walkWriter = walkWriter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT);
+        } catch (IOException ioe) {
+            socket.close();
+            throw ioe;
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), 1 << 16);
+        this.senderThread = new Thread(() -> send(writer), "walk-stream-writer");
+        senderThread.setDaemon(true);
+        senderThread.start();
+    }
+
+    @Override
+    public void write(List<String> walks) {
+        walkWriter.write(walks);
+        if (isClosed || walks.isEmpty()) return;
+        try {
+            queue.put(walks);
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while handing over walks. Walks are not streamed; the stream is incomplete.", e);
+            isStreamComplete = false;
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (isClosed) return;
+        isClosed = true;
+        walkWriter.close();
+        try {
+            queue.put(END_OF_QUEUE);
+            senderThread.join();
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while waiting for the walk stream writer thread.", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The walk stream is not considered here; its completeness is checked by the receiving training.
+     *
+     * @return True if all walks have been written to the walk files, else false.
+     */
+    @Override
+    public boolean isOk() {
+        return walkWriter.isOk();
+    }
+
+    @Override
+    public int getProcessedEntities() {
+        return walkWriter.getProcessedEntities();
+    }
+
+    @Override
+    public long getProcessedWalks() {
+        return walkWriter.getProcessedWalks();
+    }
+
+    /**
+     * Loop of the sender thread.
+     *
+     * @param writer Writer on the socket.
+     */
+    private void send(Writer writer) {
+        boolean isOk = true;
+        long sentWalks = 0;
+        while (true) {
+            List<String> batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                LOGGER.error("The walk stream writer thread was interrupted. Remaining walks are not streamed.", e);
+                isStreamComplete = false;
+                break;
+            }
+            if (batch == END_OF_QUEUE) {
+                if (isOk && isStreamComplete) {
+                    try {
+                        writer.write(END_OF_STREAM + Long.toString(walkWriter.getProcessedWalks()) + "\n");
+                    } catch (IOException e) {
+                        LOGGER.error("Could not complete the walk stream.", e);
+                    }
+                } else LOGGER.error("The walk stream is incomplete (" + sentWalks + " walks streamed).");
+                break;
+            }
+
+            // in case of an error, the queue is still drained so that the walk generation threads do not block
+            if (!isOk) continue;
+            try {
+                for (String walk : batch) {
+                    writer.write(walk);
+                    writer.write('\n');
+                }
+                sentWalks += batch.size();
+            } catch (IOException e) {
+                LOGGER.error("Could not stream walks. Remaining walks are only handed over to the walk writer.", e);
+                isOk = false;
+            }
+        }
+        try {
+            writer.close();
+        } catch (IOException ioe) {
+            LOGGER.error("There was an error when closing the walk stream.", ioe);
+        }
+        try {
+            socket.close();
+        } catch (IOException ioe) {
+            LOGGER.error("There was an error when closing the socket.", ioe);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers;
+
+/**
+ * The format in which walks are persisted.
+ */
+public enum WalkFileFormat {
+
+    /**
+     * Gzipped text: one walk per line, tokens are separated by a space.
+     */
+    TEXT,
+
+    /**
+     * Gzipped binary ID sequences ({@code .bin.gz}): each token is written as varint of its vocabulary ID + 1, each
+     * walk is terminated by a 0 byte. The tokens are listed in {@link WalkVocabulary#VOCABULARY_FILE_NAME} in the
+     * walk directory (line number = ID).
+     */
+    BINARY;
+
+    /**
+     * Given a String representation of a walk file format, obtain the corresponding enum.
+     *
+     * @param formatString String representation (text or bin/binary).
+     * @return Walk file format. Null if the String cannot be parsed.
+     */
+    public static WalkFileFormat getFormatFromString(String formatString) {
+        if (formatString == null) return null;
+        formatString = formatString.trim().toLowerCase();
+        switch (formatString) {
+            case "text":
+            case "txt":
+                return TEXT;
+            case "bin":
+            case "binary":
+                return BINARY;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The tokens of binary walk files (see {@link WalkFileFormat#BINARY}). Each token obtains a dense ID on first use.
+ * This class is thread-safe; lookups of known tokens do not lock.
+ */
+public class WalkVocabulary {
+
+    /**
+     * The name of the vocabulary file in the walk directory.
+     */
+    public static final String VOCABULARY_FILE_NAME = "vocabulary.txt";
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Obtain the ID of the given token. If the token is unknown, a new ID is assigned.
+     *
+     * @param token The token.
+     * @return ID.
+     */
+    public int getId(String token) {
+        Integer id = ids.get(token);
+        if (id != null) return id;
+        return ids.computeIfAbsent(token, t -> nextId.getAndIncrement());
+    }
+
+    /**
+     * Returns the number of tokens.
+     *
+     * @return Number of tokens.
+     */
+    public int size() {
+        return nextId.get();
+    }
+
+    /**
+     * Obtain the tokens ordered by their ID.
+     *
+     * @return Array where position i holds the token with ID i.
+     */
+    public String[] getTokens() {
+        String[] tokens = new String[size()];
+        for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+            tokens[entry.getValue()] = entry.getKey();
+        }
+        return tokens;
+    }
+
+    /**
+     * Write the vocabulary: one token per line, the line number (starting with 0) is the ID.
+     *
+     * @param file The file to be written.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(File file) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, false), StandardCharsets.UTF_8), 1 << 16)) {
+            for (String token : getTokens()) {
+                writer.write(token);
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Read a vocabulary file.
+     *
+     * @param file The file to be read.
+     * @return Array where position i holds the token with ID i.
+     * @throws IOException If the file cannot be read.
+     */
+    public static String[] read(File file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            return reader.lines().toArray(String[]::new);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Writers which persist the generated walks as (sharded) walk files and optionally stream them to the training.
+ */
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers;
@@ -1,10 +1,15 @@
-from flask import Flask, request
+from flask import Flask, Response, request
 from gensim import corpora, models, similarities
 import csv
 import numpy as np
 import logging
 import os
+import sys
 import gzip
+import hashlib
+import socket
+import threading
+from werkzeug.serving import make_server
 
 
 logging.basicConfig(handlers=[logging.FileHandler(__file__ + '.log', 'w', 'utf-8')], format='%(asctime)s %(levelname)s:%(message)s', level=logging.INFO)
@@ -18,6 +23,16 @@ active_models = {}
 # set of active gensim vector files (just consumption)
 active_vectors = {}
 
+# guards the loading of models and vector files (requests are handled by multiple threads)
+models_lock = threading.Lock()
+
+# trainings on walk streams which have not been awaited yet (port -> WalkStreamTraining)
+walk_stream_trainings = {}
+
+# the Java client only reuses a running server whose script is identical to the one it ships
+with open(__file__, 'rb') as script_file:
+    SCRIPT_HASH = hashlib.sha256(script_file.read()).hexdigest()
+
 
 @app.route('/melt_ml.html')
 def display_server_status():
@@ -26,13 +41,130 @@ def display_server_status():
     Returns
     -------
     str
-        A message indicating that the server is running.
+        A message indicating that the server is running, followed by the SHA-256 hash of this script.
+    """
+    return "MELT ML Server running. Ready to accept requests. Script hash: " + SCRIPT_HASH
+
+
+VOCABULARY_FILE_NAME = "vocabulary.txt"
+"""Name of the vocabulary file which is written next to binary walk files (line number = token ID)."""
+
+BINARY_READ_CHUNK_SIZE = 32 * 1024 * 1024
+"""Number of bytes of a binary walk file which are decoded at once."""
+
+END_OF_STREAM = "\x04"
+"""Starts the trailer line of a walk stream; it is followed by the number of walks sent (see SocketWalkWriter)."""
+
+
+def is_binary_walk_file(file_name):
+    """Checks whether the given file contains binary walks (varint-encoded token IDs).
+
+    Parameters
+    ----------
+    file_name : str
+        The name or path of the file.
+
+    Returns
+    -------
+    bool
+        True if the file is a binary walk file, else False.
     """
-    return "MELT ML Server running. Ready to accept requests."
+    return file_name.endswith(".bin.gz") or file_name.endswith(".bin")
+
+
+def read_vocabulary(directory_path):
+    """Reads the vocabulary of binary walk files.
+
+    Parameters
+    ----------
+    directory_path : str
+        The directory which contains the vocabulary file.
+
+    Returns
+    -------
+    numpy.ndarray
+        Object array where position i holds the token with ID i.
+    """
+    with open(os.path.join(directory_path, VOCABULARY_FILE_NAME), mode='rt', encoding="utf-8") as file:
+        tokens = [line.rstrip('\n') for line in file]
+    vocabulary = np.empty(len(tokens), dtype=object)
+    vocabulary[:] = tokens
+    return vocabulary
+
+
+def decode_varints(data):
+    """Decodes a byte sequence of unsigned varints (7 bit groups, least significant group first).
+
+    Parameters
+    ----------
+    data : bytes-like object
+        The encoded values. Incomplete trailing bytes are ignored.
+
+    Returns
+    -------
+    numpy.ndarray
+        The decoded values (int64).
+    """
+    encoded = np.frombuffer(data, dtype=np.uint8)
+    ends = np.flatnonzero(encoded < 0x80)
+    if len(ends) == 0:
+        return np.empty(0, dtype=np.int64)
+    encoded = encoded[:ends[-1] + 1]
+    starts = np.empty_like(ends)
+    starts[0] = 0
+    starts[1:] = ends[:-1] + 1
+    # position of each byte within its varint
+    positions = np.arange(len(encoded)) - np.repeat(starts, ends - starts + 1)
+    values = (encoded & 0x7F).astype(np.int64) << (7 * positions)
+    return np.add.reduceat(values, starts)
+
+
+def read_binary_walks(file_path, vocabulary):
+    """Iterates over the walks of a binary walk file. Each token is encoded as varint of its ID + 1, each walk is
+    terminated by 0. The file is decoded in chunks of BINARY_READ_CHUNK_SIZE bytes so that the memory required does
+    not depend on the size of the file.
+
+    Parameters
+    ----------
+    file_path : str
+        The path to the binary walk file (optionally gzipped).
+    vocabulary : numpy.ndarray
+        The vocabulary as returned by read_vocabulary.
+
+    Returns
+    -------
+    generator
+        The walks as lists of words.
+    """
+    opener = gzip.open if file_path.endswith(".gz") else open
+    with opener(file_path, mode='rb') as file:
+        tail = b''
+        while True:
+            chunk = file.read(BINARY_READ_CHUNK_SIZE)
+            if not chunk:
+                break
+            data = tail + chunk if tail else chunk
+            # a zero byte only occurs as terminator of a walk (the last byte of a longer varint is never 0);
+            # the bytes after the last terminator belong to a walk which is continued in the next chunk
+            last_end = data.rfind(b'\x00')
+            if last_end < 0:
+                tail = data
+                continue
+            tail = data[last_end + 1:]
+            values = decode_varints(memoryview(data)[:last_end + 1])
+            # the words are mapped at once; the walks only reference the strings of the vocabulary
+            words = vocabulary[np.maximum(values - 1, 0)]
+            start = 0
+            for end in np.flatnonzero(values == 0).tolist():
+                yield words[start:end].tolist()
+                start = end + 1
+        if tail:
+            logging.warning("The binary walk file " + file_path + " ends with an incomplete walk which is ignored.")
 
 
 class MySentences(object):
     """Data structure to iterate over the lines of a file in a memory-friendly way. The files can be gzipped.
+    Binary walk files (.bin.gz) are decoded with the vocabulary file in the same directory.
     """
 
     def __init__(self, file_or_directory_path):
@@ -44,14 +176,30 @@ class MySentences(object):
             The path to the file containing the walks or the path to the file which contains multiple walk files.
         """
         self.file_or_directory_path = file_or_directory_path
+        self.vocabulary = None
+
+    def get_vocabulary(self, directory_path):
+        """Returns the vocabulary of the binary walk files. It is read only once.
+        """
+        if self.vocabulary is None:
+            logging.info("Reading vocabulary of binary walk files.")
+            self.vocabulary = read_vocabulary(directory_path)
+        return self.vocabulary
 
     def __iter__(self):
         try:
             if os.path.isdir(self.file_or_directory_path):
                 logging.info("Directory detected.")
                 for file_name in os.listdir(self.file_or_directory_path):
+                    if file_name == VOCABULARY_FILE_NAME:
+                        continue
                     logging.info("Processing file: " + file_name)
-                    if file_name[-2:] in "gz":
+                    if is_binary_walk_file(file_name):
+                        logging.info("Binary walk file detected! Decoding token IDs.")
+                        vocabulary = self.get_vocabulary(self.file_or_directory_path)
+                        for words in read_binary_walks(os.path.join(self.file_or_directory_path, file_name), vocabulary):
+                            yield words
+                    elif file_name[-2:] in "gz":
                         logging.info("Gzip file detected! Using gzip.open().")
                         for line in gzip.open(os.path.join(self.file_or_directory_path, file_name), mode='rt', encoding="utf-8"):
                             line = line.rstrip('\n')
@@ -64,7 +212,12 @@ class MySentences(object):
                             yield words
             else:
                 logging.info("Processing file: " + self.file_or_directory_path)
-                if self.file_or_directory_path[-2:] in "gz":
+                if is_binary_walk_file(self.file_or_directory_path):
+                    logging.info("Binary walk file detected! Decoding token IDs.")
+                    vocabulary = self.get_vocabulary(os.path.dirname(os.path.abspath(self.file_or_directory_path)))
+                    for words in read_binary_walks(self.file_or_directory_path, vocabulary):
+                        yield words
+                elif self.file_or_directory_path[-2:] in "gz":
                     logging.info("Gzip file detected! Using gzip.open().")
                     for line in gzip.open(self.file_or_directory_path, mode='rt', encoding="utf-8"):
                         line = line.rstrip('\n')
@@ -81,6 +234,30 @@ class MySentences(object):
             logging.exception("Stack Trace:")
 
 
+def initialize_word2vec_model():
+    """Creates an untrained word2vec model from the parameters in the request header.
+
+    Returns
+    -------
+    gensim.models.Word2Vec
+        The model.
+    """
+    vector_dimension = request.headers.get('vector_dimension')
+    number_of_threads = request.headers.get('number_of_threads')
+    window_size = request.headers.get('window_size')
+    iterations = request.headers.get('iterations')
+    negatives = request.headers.get('negatives')
+    cbow_or_sg = request.headers.get('cbow_or_sg')
+    min_count = request.headers.get('min_count')
+    sample = request.headers.get('sample')
+
+    if cbow_or_sg == 'sg':
+        model = models.Word2Vec(sample=float(sample), min_count=int(min_count), size=int(vector_dimension), workers=int(number_of_threads), window=int(window_size), sg=1, negative=int(negatives), iter=int(iterations))
+    else:
+        model = models.Word2Vec(sample=float(sample), min_count=int(min_count), size=int(vector_dimension), workers=int(number_of_threads), window=int(window_size), sg=0, cbow_mean=1, negative=int(negatives), iter=int(iterations))
+    return model
+
+
 @app.route('/train-word2vec', methods=['GET'])
 def train_word_2_vec():
     """Method to train a word2vec model given one file to be used for training. Parameters are expected in the request
@@ -95,22 +272,11 @@ def train_word_2_vec():
         model_path = request.headers.get('model_path') # where the model will be stored
         vector_path = request.headers.get('vector_path') # where the vector file will be stored
         file_path = request.headers.get('file_path')
-        vector_dimension = request.headers.get('vector_dimension')
-        number_of_threads = request.headers.get('number_of_threads')
-        window_size = request.headers.get('window_size')
-        iterations = request.headers.get('iterations')
-        negatives = request.headers.get('negatives')
-        cbow_or_sg = request.headers.get('cbow_or_sg')
-        min_count = request.headers.get('min_count')
-        sample = request.headers.get('sample')
 
         sentences = MySentences(file_path)
         logging.info("Sentences object (" + file_path + ") initialized.")
 
-        if cbow_or_sg == 'sg':
-            model = models.Word2Vec(sample=float(sample), min_count=int(min_count), size=int(vector_dimension), workers=int(number_of_threads), window=int(window_size), sg=1, negative=int(negatives), iter=int(iterations))
-        else:
-            model = models.Word2Vec(sample=float(sample), min_count=int(min_count), size=int(vector_dimension), workers=int(number_of_threads), window=int(window_size), sg=0, cbow_mean=1, negative=int(negatives), iter=int(iterations))
+        model = initialize_word2vec_model()
 
         logging.info("Model object initialized. Building Vocabulary...")
         model.build_vocab(sentences)
@@ -131,6 +297,148 @@ def train_word_2_vec():
         return "False"
 
 
+class WalkStream(object):
+    """One-pass iterable over the walks that are received through a socket connection (one walk per line, UTF-8).
+    The iteration ends with the trailer line (END_OF_STREAM followed by the number of walks sent) or when the sender
+    closes the connection. Only a stream whose trailer matches the number of received walks is complete.
+    """
+
+    def __init__(self, connection):
+        self.connection = connection
+        self.received_walks = 0
+        self.expected_walks = None
+
+    def __iter__(self):
+        with self.connection.makefile(mode='r', encoding="utf-8", newline='\n') as stream:
+            for line in stream:
+                line = line.rstrip('\n')
+                if line.startswith(END_OF_STREAM):
+                    self.expected_walks = int(line[len(END_OF_STREAM):])
+                    return
+                self.received_walks += 1
+                yield line.split(" ")
+
+    def is_complete(self):
+        """Returns True if the trailer has been received and all walks announced by it have been received.
+        """
+        return self.expected_walks is not None and self.expected_walks == self.received_walks
+
+
+class WalkStreamTraining(threading.Thread):
+    """Trains a word2vec model on walks which are still being generated: The vocabulary is built from the walks
+    received through a local socket while they are generated. Once the sender has completed the stream, all walk files
+    are complete and the training epochs are run on them. The training fails if the stream is incomplete (see
+    WalkStream) so that the caller can fall back to training on the walk files.
+    """
+
+    def __init__(self, model, file_path, model_path, vector_path):
+        super().__init__(daemon=True)
+        self.model = model
+        self.file_path = file_path
+        self.model_path = model_path
+        self.vector_path = vector_path
+        self.server_socket = socket.socket(socket.AF_INET, socket.SOCK_STREAM)
+        self.server_socket.bind(("127.0.0.1", 0))
+        self.server_socket.listen(1)
+        # the timeout allows to abort the accept loop
+        self.server_socket.settimeout(1.0)
+        self.port = self.server_socket.getsockname()[1]
+        self.is_connected = False
+        self.is_aborted = False
+        self.is_successful = False
+
+    def run(self):
+        try:
+            connection = None
+            while connection is None:
+                # a connection which was established before the abort is still accepted
+                is_last_attempt = self.is_aborted
+                try:
+                    connection, address = self.server_socket.accept()
+                except socket.timeout:
+                    if is_last_attempt:
+                        logging.error("No walks were streamed to port " + str(self.port) + ".")
+                        return
+            self.is_connected = True
+            connection.settimeout(None)
+            walk_stream = WalkStream(connection)
+            try:
+                logging.info("Walk stream connected. Building Vocabulary...")
+                self.model.build_vocab(walk_stream)
+            finally:
+                connection.close()
+            if not walk_stream.is_complete():
+                logging.error("The walk stream on port " + str(self.port) + " is incomplete: " +
+                              str(walk_stream.received_walks) + " walks received, " +
+                              ("no end of stream marker." if walk_stream.expected_walks is None
+                               else str(walk_stream.expected_walks) + " walks sent."))
+                return
+            logging.info("Vocabulary built. Training now...")
+            sentences = MySentences(self.file_path)
+            self.model.train(sentences=sentences, total_examples=self.model.corpus_count, epochs=self.model.epochs)
+            logging.info("Model trained.")
+
+            self.model.save(self.model_path)
+            self.model.wv.save(self.vector_path)
+
+            active_models[os.path.realpath(self.model_path)] = self.model
+            active_vectors[os.path.realpath(self.vector_path)] = self.model.wv
+            self.is_successful = True
+        except Exception:
+            logging.exception("An exception occurred while training on the walk stream.")
+        finally:
+            self.server_socket.close()
+
+
+@app.route('/open-walk-stream', methods=['GET'])
+def open_walk_stream():
+    """Opens a local socket to which the walks can be streamed while they are generated. The vocabulary is built on
+    the fly; the training starts once the walk stream is closed. The parameters are the same as for /train-word2vec;
+    file_path is the file or directory to which the walks are written in parallel.
+
+    Returns
+    -------
+    str
+        The port to which the walks shall be streamed or -1 in case of an error.
+    """
+    try:
+        model = initialize_word2vec_model()
+        training = WalkStreamTraining(model, request.headers.get('file_path'), request.headers.get('model_path'),
+                                      request.headers.get('vector_path'))
+        walk_stream_trainings[training.port] = training
+        training.start()
+        logging.info("Walk stream opened on port " + str(training.port) + ".")
+        return str(training.port)
+    except Exception as exception:
+        logging.exception("An exception occurred.")
+        return "-1"
+
+
+@app.route('/await-walk-stream', methods=['GET'])
+def await_walk_stream():
+    """Waits until the training on a walk stream (see /open-walk-stream) is completed. Must be called after the walk
+    stream has been closed. The port is expected in the request header.
+
+    Returns
+    -------
+        boolean
+        'True' as string if the model was trained and saved successfully, else 'False' (as string).
+    """
+    try:
+        port = int(request.headers.get('port'))
+        training = walk_stream_trainings.pop(port, None)
+        if training is None:
+            logging.error("There is no walk stream on port " + str(port) + ".")
+            return "False"
+        if not training.is_connected:
+            # the walks are complete, hence, the stream will never be connected
+            training.is_aborted = True
+        training.join()
+        return str(training.is_successful)
+    except Exception as exception:
+        logging.exception("An exception occurred.")
+        return "False"
+
 
 @app.route('/is-in-vocabulary', methods=['GET'])
 def is_in_vocabulary():
@@ -165,22 +473,23 @@ def get_vectors(model_path, vector_path):
     -------
         gensim vectors for further operations.
     """
-    if vector_path is None:
-        if model_path in active_models:
-            # logging.info("Found model in cache.")
-            model = active_models[model_path]
-            vectors = model.wv
+    with models_lock:
+        if vector_path is None:
+            if model_path in active_models:
+                # logging.info("Found model in cache.")
+                model = active_models[model_path]
+                vectors = model.wv
+            else:
+                model = models.Word2Vec.load(model_path)
+                active_models[model_path] = model
+                vectors = model.wv
+        elif vector_path in active_vectors:
+            # logging.info("Found vector file in cache.")
+            vectors = active_vectors[vector_path]
         else:
-            model = models.Word2Vec.load(model_path)
-            active_models[model_path] = model
-            vectors = model.wv
-    elif vector_path in active_vectors:
-        # logging.info("Found vector file in cache.")
-        vectors = active_vectors[vector_path]
-    else:
-        vectors = models.KeyedVectors.load(vector_path, mmap='r')
-        active_vectors[vector_path] = vectors
-    return vectors
+            vectors = models.KeyedVectors.load(vector_path, mmap='r')
+            active_vectors[vector_path] = vectors
+        return vectors
 
 
 @app.route('/get-similarity', methods=['GET'])
@@ -247,6 +556,116 @@ def get_vector_given_model():
     return result[1:]
 
 
+BINARY_MIME_TYPE = 'application/octet-stream'
+"""MIME type of binary responses (little-endian). The Java client treats any other response as error message."""
+
+
+def read_body_lines():
+    """Reads the UTF-8 body of a POST request.
+
+    Returns
+    -------
+        The lines of the body (without line breaks).
+    """
+    body = request.get_data().decode('utf-8')
+    if len(body) == 0:
+        return []
+    return body.split('\n')
+
+
+def get_indices(vectors, concepts):
+    """Looks up the rows of the concepts in the vector matrix.
+
+    Returns
+    -------
+        numpy array with one index per concept; -1 if the concept is not in the vocabulary.
+    """
+    vocab = vectors.vocab
+    return np.array([vocab[concept].index if concept in vocab else -1 for concept in concepts], dtype=np.int64)
+
+
+@app.route('/get-vectors', methods=['POST'])
+def get_vectors_given_model():
+    """Batch version of /get-vector. The body contains one concept per line.
+
+    Returns
+    -------
+        Binary (little-endian): the vector dimension (int32), one byte per concept (1 if the concept is in the
+        vocabulary, else 0), and the float32 vectors of the concepts that are in the vocabulary (in request order).
+    """
+    model_path = request.headers.get('model_path')
+    vector_path = request.headers.get("vector_path")
+    vectors = get_vectors(model_path=model_path, vector_path=vector_path)
+
+    if vectors is None:
+        message = "ERROR! Could not instantiate vectors."
+        logging.error(message)
+        return message
+
+    indices = get_indices(vectors, read_body_lines())
+    is_found = indices >= 0
+    payload = np.array([vectors.vector_size], dtype='<i4').tobytes() \
+        + is_found.astype(np.uint8).tobytes() \
+        + vectors.vectors[indices[is_found]].astype('<f4').tobytes()
+    return Response(payload, mimetype=BINARY_MIME_TYPE)
+
+
+@app.route('/get-similarities', methods=['POST'])
+def get_similarities_given_model():
+    """Batch version of /get-similarity. The body contains one concept pair per line (concepts separated by a tab).
+
+    Returns
+    -------
+        Binary (little-endian): one float32 cosine similarity per pair (in request order); NaN if at least one of the
+        concepts is not in the vocabulary.
+    """
+    model_path = request.headers.get('model_path')
+    vector_path = request.headers.get("vector_path")
+    vectors = get_vectors(model_path=model_path, vector_path=vector_path)
+
+    if vectors is None:
+        message = "ERROR! Could not instantiate vectors."
+        logging.error(message)
+        return message
+
+    pairs = [line.partition('\t') for line in read_body_lines()]
+    first = get_indices(vectors, [pair[0] for pair in pairs])
+    second = get_indices(vectors, [pair[2] for pair in pairs])
+    is_valid = (first >= 0) & (second >= 0)
+
+    similarities = np.full(len(pairs), np.nan, dtype='<f4')
+    if is_valid.any():
+        vectors_1 = vectors.vectors[first[is_valid]].astype(np.float64)
+        vectors_2 = vectors.vectors[second[is_valid]].astype(np.float64)
+        norms = np.linalg.norm(vectors_1, axis=1) * np.linalg.norm(vectors_2, axis=1)
+        similarities[is_valid] = np.einsum('ij,ij->i', vectors_1, vectors_2) / norms
+    return Response(similarities.tobytes(), mimetype=BINARY_MIME_TYPE)
+
+
+@app.route('/get-most-similar', methods=['GET'])
+def get_most_similar_given_model():
+    """Returns the topn concepts which are most similar to the concept (one concept and its similarity per line,
+    separated by a tab).
+    """
+    concept = request.headers.get('concept')
+    topn = int(request.headers.get('topn', 10))
+    model_path = request.headers.get('model_path')
+    vector_path = request.headers.get("vector_path")
+    vectors = get_vectors(model_path=model_path, vector_path=vector_path)
+
+    if vectors is None:
+        message = "ERROR! Could not instantiate vectors."
+        logging.error(message)
+        return message
+
+    if concept is None or concept not in vectors.vocab:
+        message = "ERROR! Concept '" + str(concept) + "' not in the vocabulary."
+        logging.error(message)
+        return message
+
+    return "\n".join(word + "\t" + str(similarity) for word, similarity in vectors.most_similar(positive=[concept], topn=topn))
+
+
 # TF-IDF and LSI models
 
 @app.route('/train-vector-space-model', methods=['GET'])
@@ -431,4 +850,15 @@ def hello_demo():
 
 
 if __name__ == "__main__":
-    app.run(debug=False, port=41193)
+    # threaded server: concurrent requests of the (pooled) Java client are handled in parallel
+    server = make_server('127.0.0.1', 41193, app, threaded=True)
+
+    # readiness signal: the socket is bound, hence the server accepts connections from now on
+    if len(sys.argv) > 1:
+        ready_file = sys.argv[1]
+        with open(ready_file + ".tmp", "w") as file:
+            file.write(str(server.server_port))
+        # atomic so that the Java client never reads a partially written file
+        os.replace(ready_file + ".tmp", ready_file)
+    print("MELT ML Server ready on port " + str(server.server_port), flush=True)
+    server.serve_forever()
@@ -13,6 +13,7 @@ import org.slf4j.LoggerFactory;
 import de.uni_mannheim.informatik.dws.jrdf2vec.training.Word2VecConfiguration;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.HdtParser;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.WalkGenerationMode;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.EdgeWeighting;
 import de.uni_mannheim.informatik.dws.jrdf2vec.util.Util;
 
 
@@ -546,6 +547,45 @@ class MainTest {
         walkDirectory.delete();
     }
 
+    /**
+     * Weighted walk generation with a non-default edge weighting.
+     */
+    @Test
+    public void weightedWalkGenerationWithEdgeWeighting() {
+        File pizzaOntology = new File(getClass().getResource("/pizza.owl.nt").getFile());
+        String directoryName = "./walksOnlyEdgeWeighting/";
+        File walkDirectory = new File(directoryName);
+        walkDirectory.mkdir();
+        walkDirectory.deleteOnExit();
+
+        Main.main(new String[]{"-graph", pizzaOntology.getAbsolutePath(), "-onlyWalks", "-walkDir", directoryName, "-walkGenerationMode", "random_walks_weighted", "-edgeWeighting", "inverse_predicate_frequency", "-depth", "3", "-threads", "2"});
+        assertEquals(WalkGenerationMode.RANDOM_WALKS_WEIGHTED, Main.getWalkGenerationMode());
+        assertEquals(EdgeWeighting.INVERSE_PREDICATE_FREQUENCY, Main.getEdgeWeighting());
+        File walkFile = new File(walkDirectory, "walk_file.gz");
+        assertTrue(walkFile.exists());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(walkFile))))) {
+            assertNotNull(reader.readLine(), "No walks were generated.");
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail("Could not read from walk file.");
+        }
+        walkFile.delete();
+
+        // an invalid weighting falls back to the default
+        Main.reset();
+        Main.main(new String[]{"-graph", pizzaOntology.getAbsolutePath(), "-onlyWalks", "-walkDir", directoryName, "-walkGenerationMode", "random_walks_weighted", "-edgeWeighting", "unknown", "-depth", "3", "-threads", "2"});
+        assertNull(Main.getEdgeWeighting());
+        assertTrue(walkFile.exists());
+
+        assertTrue(Main.getHelp().contains("-edgeWeighting"));
+
+        try {
+            FileUtils.deleteDirectory(walkDirectory);
+        } catch (IOException ioe) {
+            LOGGER.error("Error while trying to delete " + directoryName);
+        }
+    }
+
     @Test
     void runMainWithInsufficientArguments() {
         // just making sure that there are no exceptions.
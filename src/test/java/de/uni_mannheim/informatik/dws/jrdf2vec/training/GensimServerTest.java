@@ -0,0 +1,202 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.training;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the start of the Gensim server without python: the server process and an already running server are faked.
+ */
+class GensimServerTest {
+
+    private static final File RESOURCES_DIRECTORY = new File("./gensimServerTest");
+
+    private HttpServer fakeServer;
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        Gensim.shutDown();
+        Gensim.setKeepServerAlive(false);
+        if (fakeServer != null) fakeServer.stop(0);
+        FileUtils.deleteDirectory(RESOURCES_DIRECTORY);
+    }
+
+    @Test
+    void awaitServerReadyFile() throws Exception {
+        RESOURCES_DIRECTORY.mkdirs();
+        File readyFile = new File(RESOURCES_DIRECTORY, "server_ready.txt");
+        Thread server = new Thread(() -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(200);
+                FileUtils.writeStringToFile(readyFile, "41193", StandardCharsets.UTF_8);
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+        server.start();
+        long before = System.nanoTime();
+        assertTrue(Gensim.awaitServer(new FakeProcess(), readyFile));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - before) < 5000);
+        server.join();
+    }
+
+    @Test
+    void awaitServerProcessDeath() throws Exception {
+        RESOURCES_DIRECTORY.mkdirs();
+        FakeProcess process = new FakeProcess();
+        process.exitValue = 1;
+        long before = System.nanoTime();
+        assertFalse(Gensim.awaitServer(process, new File(RESOURCES_DIRECTORY, "server_ready.txt")));
+        // no waiting for the timeout
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - before) < 5000);
+    }
+
+    @Test
+    void reuseRunningServer() throws Exception {
+        AtomicInteger statusRequests = startFakeServer(getScriptHash());
+
+        Gensim gensim = Gensim.getInstance(RESOURCES_DIRECTORY);
+        assertNotNull(gensim);
+        assertTrue(Gensim.isServerAvailable());
+        assertFalse(Gensim.isServerProcessStarted());
+        assertEquals(1, statusRequests.get());
+
+        // the reused server is not stopped and can be reused again
+        Gensim.shutDown();
+        assertFalse(Gensim.isServerAvailable());
+        Gensim.getInstance(RESOURCES_DIRECTORY);
+        assertTrue(Gensim.isServerAvailable());
+        assertFalse(Gensim.isServerProcessStarted());
+        assertEquals(2, statusRequests.get());
+    }
+
+    @Test
+    void rejectIncompatibleServer() throws Exception {
+        AtomicInteger statusRequests = startFakeServer("0123456789abcdef");
+
+        Gensim.getInstance(RESOURCES_DIRECTORY);
+        assertEquals(1, statusRequests.get());
+        assertFalse(Gensim.isServerAvailable());
+        assertFalse(Gensim.isServerProcessStarted());
+    }
+
+    @Test
+    void keepServerAliveDropsStaleVectors() throws Exception {
+        startFakeServer(getScriptHash());
+        Gensim.setKeepServerAlive(true);
+        Gensim gensim = Gensim.getInstance(RESOURCES_DIRECTORY);
+        File walkFile = new File(RESOURCES_DIRECTORY, "walks.txt");
+        FileUtils.writeStringToFile(walkFile, "A p B", StandardCharsets.UTF_8);
+        String vectorPath = new File(RESOURCES_DIRECTORY, "model.kv").getPath();
+        String modelPath = new File(RESOURCES_DIRECTORY, "model").getPath();
+        Word2VecConfiguration configuration = new Word2VecConfiguration(Word2VecType.SG);
+
+        // retraining: the vectors of the model and the vector file are outdated
+        gensim.getVectorCache(vectorPath).put("A", new float[]{1.0f});
+        gensim.getVectorCache(modelPath).put("A", new float[]{1.0f});
+        gensim.getVectorCache("other.kv").put("A", new float[]{1.0f});
+        assertTrue(gensim.trainWord2VecModel(vectorPath, walkFile.getPath(), configuration));
+        assertNull(gensim.getVectorCache(vectorPath).get("A"));
+        assertNull(gensim.getVectorCache(modelPath).get("A"));
+        assertNotNull(gensim.getVectorCache("other.kv").get("A"));
+
+        // retraining on a walk stream
+        gensim.getVectorCache(vectorPath).put("A", new float[]{1.0f});
+        int port = gensim.openWord2VecWalkStream(vectorPath, walkFile.getPath(), configuration);
+        assertEquals(4711, port);
+        assertTrue(gensim.awaitWord2VecWalkStream(port));
+        assertNull(gensim.getVectorCache(vectorPath).get("A"));
+    }
+
+    /**
+     * Start a fake server at the port of the Gensim server.
+     *
+     * @param scriptHash The script hash which is reported by the fake server.
+     * @return The number of status requests received.
+     */
+    private AtomicInteger startFakeServer(String scriptHash) throws IOException {
+        AtomicInteger statusRequests = new AtomicInteger();
+        fakeServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 41193), 0);
+        fakeServer.createContext("/melt_ml.html", exchange -> {
+            statusRequests.incrementAndGet();
+            respond(exchange, "MELT ML Server running. Ready to accept requests. Script hash: " + scriptHash);
+        });
+        fakeServer.createContext("/train-word2vec", exchange -> respond(exchange, "True"));
+        fakeServer.createContext("/open-walk-stream", exchange -> respond(exchange, "4711"));
+        fakeServer.createContext("/await-walk-stream", exchange -> respond(exchange, "True"));
+        fakeServer.start();
+        return statusRequests;
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(bytes);
+        }
+    }
+
+    /**
+     * The hash of the shipped server script.
+     */
+    private static String getScriptHash() throws IOException {
+        RESOURCES_DIRECTORY.mkdirs();
+        File serverFile = new File(RESOURCES_DIRECTORY, "expected_python_server.py");
+        try (InputStream stream = GensimServerTest.class.getResourceAsStream("/python_server.py")) {
+            FileUtils.copyInputStreamToFile(stream, serverFile);
+        }
+        String hash = Gensim.getScriptHash(serverFile);
+        assertNotNull(hash);
+        assertEquals(64, hash.length());
+        return hash;
+    }
+
+    /**
+     * A server process which does not write the ready file; it is alive until an exit value is set.
+     */
+    private static class FakeProcess extends Process {
+
+        private volatile Integer exitValue;
+
+        @Override
+        public OutputStream getOutputStream() {
+            return new ByteArrayOutputStream();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+
+        @Override
+        public int waitFor() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int exitValue() {
+            if (exitValue == null) throw new IllegalThreadStateException();
+            return exitValue;
+        }
+
+        @Override
+        public void destroy() {
+            exitValue = 1;
+        }
+    }
+}
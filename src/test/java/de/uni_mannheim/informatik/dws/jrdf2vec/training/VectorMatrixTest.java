@@ -0,0 +1,130 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.training;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorMatrixTest {
+
+    @Test
+    void getAndSetRows() {
+        VectorMatrix matrix = new VectorMatrix(5, 3, 2);
+        assertEquals(2, matrix.getRowsPerBlock());
+        for (int row = 0; row < 5; row++) {
+            matrix.setRow(row, new float[]{row, row + 1, row + 2});
+        }
+        for (int row = 0; row < 5; row++) {
+            assertArrayEquals(new float[]{row, row + 1, row + 2}, matrix.getRow(row));
+            assertEquals(row * 3L, matrix.getPosition(row));
+        }
+        assertSame(matrix.getBlock(2), matrix.getBlock(3));
+        assertNotSame(matrix.getBlock(1), matrix.getBlock(2));
+        assertEquals(3, matrix.getBlock(4).length);
+
+        // rows of different blocks
+        assertEquals(1 * 4 + 2 * 5 + 3 * 6, matrix.dot(1, 4), 0.00001);
+        assertEquals(4 + 5 + 6, matrix.dot(4, new float[]{0, 1, 1, 1}, 1), 0.00001);
+
+        matrix.set(3, 2, 0.0f);
+        assertEquals(5.0f, matrix.normalizeRow(3), 0.00001);
+        assertArrayEquals(new float[]{0.6f, 0.8f, 0.0f}, matrix.getRow(3), 0.00001f);
+    }
+
+    @Test
+    void positionsBeyondIntRange() {
+        // the block size is reduced so that a block fits into one array
+        VectorMatrix matrix = new VectorMatrix(3, 4096);
+        assertEquals((Integer.MAX_VALUE - 8) / 4096, matrix.getRowsPerBlock());
+
+        // positions are computed without allocating the rows
+        int row = 10_000_000;
+        assertTrue((long) row * 4096 > Integer.MAX_VALUE);
+        assertEquals((long) row * 4096, matrix.getPosition(row));
+        assertEquals(row / matrix.getRowsPerBlock(), matrix.getBlockIndex(row));
+        assertTrue(matrix.getOffset(row) >= 0);
+        assertTrue((long) matrix.getOffset(row) + 4096 <= (long) matrix.getRowsPerBlock() * 4096);
+
+        matrix = new VectorMatrix(3, 200, 1 << 20);
+        row = Integer.MAX_VALUE - 1;
+        assertEquals((long) row * 200, matrix.getPosition(row));
+        assertEquals(row >> 20, matrix.getBlockIndex(row));
+        assertEquals((row & ((1 << 20) - 1)) * 200, matrix.getOffset(row));
+    }
+
+    @Test
+    void keyedVectorsWithSmallBlocks() {
+        String[] concepts = getConcepts(100);
+        KeyedVectors expected = new KeyedVectors(concepts, getRandomMatrix(100, 8, VectorMatrix.DEFAULT_ROWS_PER_BLOCK));
+        KeyedVectors actual = new KeyedVectors(concepts, getRandomMatrix(100, 8, 7));
+        for (int row = 0; row < concepts.length; row += 9) {
+            assertArrayEquals(expected.getVector(concepts[row]), actual.getVector(concepts[row]), 0.00001f);
+            assertEquals(expected.getSimilarity("C0", concepts[row]), actual.getSimilarity("C0", concepts[row]), 0.00001);
+            List<SimilarConcept> expectedResult = expected.getMostSimilar(concepts[row], 10);
+            List<SimilarConcept> actualResult = actual.getMostSimilar(concepts[row], 10);
+            assertEquals(expectedResult.size(), actualResult.size());
+            for (int i = 0; i < expectedResult.size(); i++) {
+                assertEquals(expectedResult.get(i).getConcept(), actualResult.get(i).getConcept());
+            }
+        }
+    }
+
+    @Test
+    void hnswIndexWithSmallBlocks() {
+        String[] concepts = getConcepts(1000);
+        KeyedVectors oneBlock = new KeyedVectors(concepts, getRandomMatrix(1000, 8, VectorMatrix.DEFAULT_ROWS_PER_BLOCK));
+        KeyedVectors smallBlocks = new KeyedVectors(concepts, getRandomMatrix(1000, 8, 13));
+
+        // a single thread builds the same graph regardless of the block size
+        HnswIndex expected = HnswIndex.build(oneBlock, HnswIndex.DEFAULT_M, 100, 1);
+        HnswIndex actual = HnswIndex.build(smallBlocks, HnswIndex.DEFAULT_M, 100, 1);
+        assertNotNull(expected);
+        assertNotNull(actual);
+        int hits = 0;
+        int total = 0;
+        for (int row = 0; row < concepts.length; row += 37) {
+            List<SimilarConcept> expectedResult = expected.getMostSimilar(concepts[row], 10);
+            List<SimilarConcept> actualResult = actual.getMostSimilar(concepts[row], 10);
+            assertEquals(expectedResult.size(), actualResult.size());
+            for (int i = 0; i < expectedResult.size(); i++) {
+                assertEquals(expectedResult.get(i).getConcept(), actualResult.get(i).getConcept());
+            }
+
+            Set<String> exactResult = new HashSet<>();
+            for (SimilarConcept similarConcept : smallBlocks.getMostSimilar(concepts[row], 10)) {
+                exactResult.add(similarConcept.getConcept());
+            }
+            for (SimilarConcept similarConcept : actualResult) {
+                if (exactResult.contains(similarConcept.getConcept())) hits++;
+            }
+            total += exactResult.size();
+        }
+        assertTrue((double) hits / total > 0.9);
+    }
+
+    private static String[] getConcepts(int size) {
+        String[] concepts = new String[size];
+        for (int row = 0; row < size; row++) {
+            concepts[row] = "C" + row;
+        }
+        return concepts;
+    }
+
+    /**
+     * The same seed is used for every matrix so that matrices of different block sizes hold the same vectors.
+     */
+    private static VectorMatrix getRandomMatrix(int size, int dimension, int rowsPerBlock) {
+        Random random = new Random(3);
+        VectorMatrix matrix = new VectorMatrix(size, dimension, rowsPerBlock);
+        for (int row = 0; row < size; row++) {
+            for (int i = 0; i < dimension; i++) {
+                matrix.set(row, i, (float) random.nextGaussian());
+            }
+        }
+        return matrix;
+    }
+}
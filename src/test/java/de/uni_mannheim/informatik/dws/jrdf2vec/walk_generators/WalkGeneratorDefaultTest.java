@@ -1,5 +1,8 @@
 package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators;
 
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.MemoryParser;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.WalkGenerationMode;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.EdgeWeighting;
 import org.junit.jupiter.api.Test;
 import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base.WalkGeneratorDefault;
 
@@ -85,4 +88,62 @@ class WalkGeneratorDefaultTest {
         generatedFile.delete();
     }
 
-}
\ No newline at end of file
+    @Test
+    void generateWeightedRandomWalksWithEdgeWeighting() throws IOException {
+        File pizzaOntology = new File(getClass().getResource("/pizza.owl.nt").getFile());
+
+        String generatedFilePath = "./test_walks_weighted.gz";
+        WalkGeneratorDefault generator = new WalkGeneratorDefault(pizzaOntology);
+        assertEquals(EdgeWeighting.OBJECT_IN_DEGREE, generator.getEdgeWeighting());
+
+        // null keeps the current weighting
+        generator.setEdgeWeighting(EdgeWeighting.INVERSE_PREDICATE_FREQUENCY);
+        generator.setEdgeWeighting(null);
+        assertEquals(EdgeWeighting.INVERSE_PREDICATE_FREQUENCY, generator.getEdgeWeighting());
+
+        generator.generateWalks(WalkGenerationMode.RANDOM_WALKS_WEIGHTED, 4, 5, 3, generatedFilePath);
+        File generatedFile = new File(generatedFilePath);
+        assertTrue(generatedFile.exists(), "Assert that a walk file has been generated.");
+
+        HashSet<String> subjectsOfWalks = new HashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(generatedFile))))) {
+            String readLine;
+            while ((readLine = reader.readLine()) != null) {
+                subjectsOfWalks.add(readLine.split(" ")[0]);
+            }
+        }
+        assertTrue(subjectsOfWalks.contains("http://www.co-ode.org/ontologies/pizza/pizza.owl#AmericanHot"));
+        generatedFile.delete();
+    }
+
+    @Test
+    void isShorteningUris() throws IOException {
+        File directory = new File("./shortenUriTest");
+        directory.mkdirs();
+        File file = new File(directory, "graph.nt");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("<http://example.org/A> <http://example.org/p> <http://example.org/B> .\n");
+            writer.write("<http://example.org/B> <http://example.org/p> <http://example.org/C> .\n");
+        }
+
+        WalkGeneratorDefault generator = new WalkGeneratorDefault(directory);
+        assertFalse(generator.isShorteningUris());
+        assertTrue(((MemoryParser) generator.parser).getData().getUniqueSubjects().contains("http://example.org/A"));
+
+        // an overridden shortenUri must be applied by the parser
+        WalkGeneratorDefault shorteningGenerator = new WalkGeneratorDefault(directory) {
+            @Override
+            public String shortenUri(String uri) {
+                return uri.replace("http://example.org/", "ex:");
+            }
+        };
+        assertTrue(shorteningGenerator.isShorteningUris());
+        HashSet<String> subjects = new HashSet<>(((MemoryParser) shorteningGenerator.parser).getData().getUniqueSubjects());
+        assertEquals(2, subjects.size());
+        assertTrue(subjects.contains("ex:A"));
+        assertTrue(subjects.contains("ex:B"));
+
+        file.delete();
+        directory.delete();
+    }
+}
@@ -37,6 +37,16 @@ public class DummyWalkGenerator extends WalkGenerator {
         // do nothing
     }
 
+    @Override
+    public void generateWeightedRandomWalks(int numberOfThreads, int numberOfWalksPerEntity, int depth) {
+
+    }
+
+    @Override
+    public void generateWeightedRandomWalks(int numberOfThreads, int numberOfWalksPerEntity, int depth, String filePathOfFileToBeWritten) {
+
+    }
+
     @Override
     public void generateWeightedMidWalks(int numberOfThreads, int numberOfWalksPerEntity, int depth) {
 
@@ -61,4 +71,9 @@ public class DummyWalkGenerator extends WalkGenerator {
     public String shortenUri(String uri) {
         return uri;
     }
+
+    @Override
+    public boolean isShorteningUris() {
+        return false;
+    }
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
 
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.TripleString;
 
-import java.util.Set;
+import java.io.File;
+import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -23,6 +29,35 @@ class HdtEntitySelectorTest {
         }
     }
 
+    @Test
+    void iterator() throws Exception {
+        List<TripleString> triples = new ArrayList<>();
+        triples.add(new TripleString("http://example.org/A", "http://example.org/p", "http://example.org/B"));
+        triples.add(new TripleString("http://example.org/A", "http://example.org/q", "\"literal\""));
+        triples.add(new TripleString("http://example.org/B", "http://example.org/p", "http://example.org/C"));
+        triples.add(new TripleString("http://example.org/D", "http://example.org/p", "http://example.org/A"));
+        try (HDT hdt = HDTManager.generateHDT(triples.iterator(), "http://example.org/", new HDTSpecification(), null)) {
+            hdt.saveToHDT(HDT_FILE.getPath(), null);
+        }
+
+        HdtEntitySelector selector = new HdtEntitySelector(HDT_FILE.getPath());
+        List<String> result = new ArrayList<>();
+        for (String entity : selector) {
+            result.add(entity);
+        }
+        assertEquals(3, result.size());
+        assertEquals(3, selector.getNumberOfEntitiesHint());
+        assertEquals(new HashSet<>(Arrays.asList("http://example.org/A", "http://example.org/B", "http://example.org/D")), new HashSet<>(result));
+        assertEquals(new HashSet<>(result), selector.getEntities());
+    }
+
+    private static final File HDT_FILE = new File("./hdtEntitySelectorTest.hdt");
+
+    @AfterAll
+    static void cleanUp() {
+        HDT_FILE.delete();
+    }
+
     public static void main(String[] args) throws Exception{
         HdtEntitySelector selector = new HdtEntitySelector("/Users/janportisch/Documents/Research/DBpedia/dbpedia_merged.hdt");
         System.out.println(selector.getEntities().size());
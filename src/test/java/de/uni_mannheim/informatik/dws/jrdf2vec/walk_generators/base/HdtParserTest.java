@@ -1,18 +1,25 @@
 package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
 
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.EdgeWeighting;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.rdfhdt.hdt.exceptions.NotFoundException;
 import org.rdfhdt.hdt.hdt.HDT;
 import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTSpecification;
 import org.rdfhdt.hdt.triples.IteratorTripleString;
+import org.rdfhdt.hdt.triples.TripleString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,6 +31,142 @@ class HdtParserTest {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(HdtParser.class);
 
+    /**
+     * Small HDT file generated for the tests: A -&gt; B -&gt; C -&gt; D plus a literal and a predecessor of A.
+     */
+    private static final File GENERATED_HDT_FILE = new File("./hdtParserTest.hdt");
+
+    private static final Set<String> GENERATED_TRIPLES = new HashSet<>();
+
+    @BeforeAll
+    static void generateHdtFile() throws Exception {
+        List<TripleString> triples = new ArrayList<>();
+        triples.add(new TripleString("http://example.org/A", "http://example.org/p", "http://example.org/B"));
+        triples.add(new TripleString("http://example.org/B", "http://example.org/p", "http://example.org/C"));
+        triples.add(new TripleString("http://example.org/C", "http://example.org/p", "http://example.org/D"));
+        triples.add(new TripleString("http://example.org/B", "http://example.org/label", "\"B label\"@en"));
+        triples.add(new TripleString("http://example.org/X", "http://example.org/q", "http://example.org/A"));
+        for (TripleString triple : triples) {
+            GENERATED_TRIPLES.add(triple.getSubject() + " " + triple.getPredicate() + " " + triple.getObject());
+        }
+        try (HDT hdt = HDTManager.generateHDT(triples.iterator(), "http://example.org/", new HDTSpecification(), null)) {
+            hdt.saveToHDT(GENERATED_HDT_FILE.getPath(), null);
+        }
+    }
+
+    @AfterAll
+    static void cleanUp() {
+        GENERATED_HDT_FILE.delete();
+        new File(GENERATED_HDT_FILE.getPath() + ".index.v1-1").delete();
+    }
+
+    /**
+     * Checks that every hop of the given walk exists in the generated HDT file and that no literal is used.
+     * @param walk Walk to check.
+     */
+    private static void assertValidGeneratedWalk(String walk) {
+        String[] walkArray = walk.split(" ");
+        assertEquals(1, walkArray.length % 2, "Walks must be uneven: " + walk);
+        for (int i = 2; i < walkArray.length; i += 2) {
+            assertTrue(GENERATED_TRIPLES.contains(walkArray[i - 2] + " " + walkArray[i - 1] + " " + walkArray[i]),
+                    "Triple not in data set: " + walkArray[i - 2] + " " + walkArray[i - 1] + " " + walkArray[i]);
+        }
+        assertFalse(walk.contains("label"), "Literals must not be part of the walk: " + walk);
+    }
+
+    @Test
+    void generateMidWalksForEntityGeneratedHdt() throws Exception {
+        HdtParser parser = new HdtParser(GENERATED_HDT_FILE.getPath());
+        List<String> walks = parser.generateMidWalksForEntity("http://example.org/B", 50, 3);
+        assertEquals(50, walks.size());
+        boolean isPredecessorFound = false;
+        for (String walk : walks) {
+            assertValidGeneratedWalk(walk);
+            assertTrue(walk.contains("http://example.org/B"));
+            if (walk.startsWith("http://example.org/A")) isPredecessorFound = true;
+        }
+        assertTrue(isPredecessorFound);
+
+        assertTrue(parser.generateMidWalksForEntity("http://example.org/unknown", 10, 3).isEmpty());
+
+        // depth 1: only A p B and B p C are possible (the literal of B is never visited)
+        List<String> duplicateFreeWalks = parser.generateMidWalksForEntityDuplicateFree("http://example.org/B", 100, 1);
+        assertEquals(new HashSet<>(Arrays.asList("http://example.org/A http://example.org/p http://example.org/B",
+                "http://example.org/B http://example.org/p http://example.org/C")), new HashSet<>(duplicateFreeWalks));
+        assertEquals(2, duplicateFreeWalks.size());
+        List<String> walk = parser.generateMidWalkForEntity("http://example.org/B", 2);
+        assertTrue(walk.size() >= 3);
+        assertValidGeneratedWalk(String.join(" ", walk));
+    }
+
+    @Test
+    void objectIndexIsLoadedOnDemand() throws Exception {
+        File indexFile = new File(GENERATED_HDT_FILE.getPath() + ".index.v1-1");
+        indexFile.delete();
+        HdtParser parser = new HdtParser(GENERATED_HDT_FILE.getPath());
+
+        // forward walks do not require the index
+        parser.generateRandomWalksForEntity("http://example.org/A", 10, 3);
+        parser.generateDuplicateFreeRandomWalksForEntity("http://example.org/A", 10, 3);
+        assertFalse(indexFile.exists());
+
+        // mid walks require the index which is written next to the HDT file
+        assertEquals(10, parser.generateMidWalksForEntity("http://example.org/B", 10, 3).size());
+        assertTrue(indexFile.exists());
+    }
+
+    @Test
+    void generateRandomWalksForEntityGeneratedHdt() throws Exception {
+        HdtParser parser = new HdtParser(GENERATED_HDT_FILE.getPath());
+        List<String> walks = parser.generateRandomWalksForEntity("http://example.org/A", 10, 3);
+        assertEquals(10, walks.size());
+        for (String walk : walks) {
+            assertValidGeneratedWalk(walk);
+            assertEquals("http://example.org/A http://example.org/p http://example.org/B http://example.org/p " +
+                    "http://example.org/C http://example.org/p http://example.org/D", walk);
+        }
+
+        // walks from B must never end in the literal
+        for (String walk : parser.generateRandomWalksForEntity("http://example.org/B", 20, 1)) {
+            assertValidGeneratedWalk(walk);
+        }
+
+        assertTrue(parser.generateRandomWalksForEntity("http://example.org/D", 10, 3).isEmpty());
+        assertTrue(parser.generateRandomWalksForEntity("http://example.org/unknown", 10, 3).isEmpty());
+    }
+
+    @Test
+    void generateWeightedRandomWalksForEntityGeneratedHdt() throws Exception {
+        HdtParser parser = new HdtParser(GENERATED_HDT_FILE.getPath());
+        for (EdgeWeighting weighting : EdgeWeighting.values()) {
+            parser.setEdgeWeighting(weighting);
+            // the literal of B has weight 0 and must never be drawn
+            for (String walk : parser.generateWeightedRandomWalksForEntity("http://example.org/A", 20, 3)) {
+                assertValidGeneratedWalk(walk);
+                assertEquals("http://example.org/A http://example.org/p http://example.org/B http://example.org/p " +
+                        "http://example.org/C http://example.org/p http://example.org/D", walk);
+            }
+        }
+        assertTrue(parser.generateWeightedRandomWalksForEntity("http://example.org/unknown", 10, 3).isEmpty());
+    }
+
+    @Test
+    void generateDuplicateFreeRandomWalksForEntityGeneratedHdt() throws Exception {
+        HdtParser parser = new HdtParser(GENERATED_HDT_FILE.getPath());
+        List<String> walks = parser.generateDuplicateFreeRandomWalksForEntity("http://example.org/X", 10, 5);
+        assertEquals(1, walks.size());
+        assertEquals("http://example.org/X http://example.org/q http://example.org/A http://example.org/p " +
+                "http://example.org/B http://example.org/p http://example.org/C http://example.org/p " +
+                "http://example.org/D", walks.get(0));
+
+        walks = parser.generateDuplicateFreeRandomWalksForEntity("http://example.org/B", 10, 2);
+        assertEquals(1, walks.size());
+        assertValidGeneratedWalk(walks.get(0));
+
+        assertTrue(parser.generateDuplicateFreeRandomWalksForEntity("http://example.org/D", 10, 3).isEmpty());
+        assertTrue(parser.generateDuplicateFreeRandomWalksForEntity("http://example.org/unknown", 10, 3).isEmpty());
+    }
+
     @Test
     public void randomDrawFromHashSet() {
         HashSet hashSet = new HashSet(Arrays.asList(new String[]{"A", "B", "C"}));
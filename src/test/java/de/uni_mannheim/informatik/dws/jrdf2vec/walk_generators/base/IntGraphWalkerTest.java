@@ -0,0 +1,162 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
+
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.AliasTable;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.CsrGraph;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.EdgeWeighting;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.IntTripleDataSetMemory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntGraphWalkerTest {
+
+    private static List<int[]> generateDuplicateFreeRandomWalks(CsrGraph graph, int entityId, int numberOfWalks, int depth) {
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateDuplicateFreeRandomWalks(graph, entityId, numberOfWalks, depth, walks);
+        return toList(walks);
+    }
+
+    private static List<int[]> generateWeightedRandomWalks(CsrGraph graph, AliasTable table, int entityId, int numberOfWalks, int depth) {
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateWeightedRandomWalks(graph, table, entityId, numberOfWalks, depth, walks);
+        return toList(walks);
+    }
+
+    private static List<int[]> toList(IntWalkList walks) {
+        List<int[]> result = new ArrayList<>();
+        for (int i = 0; i < walks.size(); i++) {
+            result.add(walks.toArray(i));
+        }
+        return result;
+    }
+
+    @Test
+    void generateDuplicateFreeRandomWalksHub() {
+        IntTripleDataSetMemory ds = new IntTripleDataSetMemory();
+        for (int i = 0; i < 1000; i++) {
+            ds.add("H", "P", "N" + i);
+            for (int j = 0; j < 100; j++) {
+                ds.add("N" + i, "Q", "M" + j);
+            }
+        }
+        // the walk H P N0 Q M0 cannot be extended further but must not be dropped
+        for (int j = 1; j < 100; j++) {
+            ds.add("M" + j, "R", "E");
+        }
+        CsrGraph graph = ds.freeze();
+
+        List<int[]> walks = generateDuplicateFreeRandomWalks(graph, graph.getId("H"), 500, 4);
+        assertEquals(500, walks.size());
+        Set<String> uniqueWalks = new HashSet<>();
+        for (int[] walk : walks) {
+            String decodedWalk = IntGraphWalker.decodeWalk(graph, walk);
+            uniqueWalks.add(decodedWalk);
+            assertTrue(decodedWalk.startsWith("H P N"), decodedWalk);
+            assertTrue(walk.length == 5 || walk.length == 7, decodedWalk);
+            if (walk.length == 5) {
+                assertEquals("M0", graph.getUri(walk[4]));
+            } else {
+                assertEquals("E", graph.getUri(walk[6]));
+            }
+        }
+        assertEquals(500, uniqueWalks.size());
+    }
+
+    @Test
+    void generateDuplicateFreeRandomWalksSmall() {
+        IntTripleDataSetMemory ds = new IntTripleDataSetMemory();
+        ds.add("A", "P", "B");
+        ds.add("A", "P", "C");
+        ds.add("B", "P", "D");
+        CsrGraph graph = ds.freeze();
+
+        Set<String> walks = new HashSet<>();
+        for (int[] walk : generateDuplicateFreeRandomWalks(graph, graph.getId("A"), 10, 3)) {
+            walks.add(IntGraphWalker.decodeWalk(graph, walk));
+        }
+        assertEquals(2, walks.size());
+        assertTrue(walks.contains("A P B P D"));
+        assertTrue(walks.contains("A P C"));
+
+        assertTrue(generateDuplicateFreeRandomWalks(graph, graph.getId("D"), 10, 3).isEmpty());
+        assertTrue(generateDuplicateFreeRandomWalks(graph, graph.getId("A"), 0, 3).isEmpty());
+    }
+
+    @Test
+    void generateWeightedRandomWalks() {
+        IntTripleDataSetMemory ds = new IntTripleDataSetMemory();
+        ds.add("A", "P", "B");
+        ds.add("A", "P", "C");
+        ds.add("B", "P", "D");
+        ds.add("X", "P", "C");
+        ds.add("Y", "P", "C");
+        CsrGraph graph = ds.freeze();
+        AliasTable table = AliasTable.build(graph, EdgeWeighting.OBJECT_IN_DEGREE);
+
+        List<int[]> walks = generateWeightedRandomWalks(graph, table, graph.getId("A"), 1000, 3);
+        assertEquals(1000, walks.size());
+        int numberOfWalksViaC = 0;
+        for (int[] walk : walks) {
+            String decodedWalk = IntGraphWalker.decodeWalk(graph, walk);
+            assertTrue(decodedWalk.equals("A P B P D") || decodedWalk.equals("A P C"), decodedWalk);
+            if (decodedWalk.equals("A P C")) numberOfWalksViaC++;
+        }
+        // C has in degree 3, B has in degree 1
+        assertTrue(numberOfWalksViaC > 650 && numberOfWalksViaC < 850, "Walks via C: " + numberOfWalksViaC);
+
+        assertTrue(generateWeightedRandomWalks(graph, table, graph.getId("D"), 10, 3).isEmpty());
+    }
+
+    @Test
+    void decodeWalks() {
+        IntTripleDataSetMemory ds = new IntTripleDataSetMemory();
+        ds.add("A", "P", "B");
+        ds.add("B", "P", "Ü");
+        CsrGraph graph = ds.freeze();
+
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        IntGraphWalker.generateRandomWalks(graph, graph.getId("A"), 3, 4, walks);
+        IntGraphWalker.generateRandomWalks(graph, graph.getId("Ü"), 3, 4, walks);
+        IntGraphWalker.generateMidWalks(graph, graph.getId("Ü"), 2, 1, false, walks);
+        // Ü has no successors; mid walks from Ü only persist if they went backwards
+        assertTrue(walks.size() >= 3 && walks.size() <= 5);
+        List<String> decodedWalks = IntGraphWalker.decodeWalks(graph, walks);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("A P B P Ü", decodedWalks.get(i));
+        }
+        for (int i = 3; i < decodedWalks.size(); i++) {
+            assertEquals("B P Ü", decodedWalks.get(i));
+        }
+
+        // the buffer is reused
+        assertSame(walks, IntGraphWalker.getWalkBuffer());
+        assertEquals(0, walks.size());
+    }
+
+    @Test
+    void removeDuplicates() {
+        IntWalkList walks = IntGraphWalker.getWalkBuffer();
+        int[][] input = {{1, 2, 3}, {1, 2, 4}, {1, 2, 3}, {1}, {3, 2, 1}, {1, 2, 4}, {1}, {1, 2, 3, 4, 5}};
+        for (int[] walk : input) {
+            for (int id : walk) walks.append(id);
+            walks.endWalk();
+        }
+        IntGraphWalker.removeDuplicates(walks);
+        assertEquals(5, walks.size());
+        assertArrayEquals(new int[]{1, 2, 3}, walks.toArray(0));
+        assertArrayEquals(new int[]{1, 2, 4}, walks.toArray(1));
+        assertArrayEquals(new int[]{1}, walks.toArray(2));
+        assertArrayEquals(new int[]{3, 2, 1}, walks.toArray(3));
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, walks.toArray(4));
+
+        // the list can still be extended afterwards
+        walks.append(7);
+        walks.endWalk();
+        assertArrayEquals(new int[]{7}, walks.toArray(5));
+    }
+}
@@ -1,5 +1,6 @@
 package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
 
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.Triple;
 import org.junit.jupiter.api.Test;
 import org.rdfhdt.hdt.exceptions.NotFoundException;
 import org.rdfhdt.hdt.hdt.HDT;
@@ -8,9 +9,13 @@ import org.rdfhdt.hdt.triples.IteratorTripleString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -204,4 +209,72 @@ class NtMemoryParserTest {
         }
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void readNTriplesChunkedMultiThreaded() throws IOException {
+        File file = new File("./chunkedParsingTest.nt");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("# comment line\n");
+            for (int i = 0; i < 50000; i++) {
+                writer.write("<http://example.org/S" + (i % 1000) + "> <http://example.org/p" + (i % 7) + "> <http://example.org/O" + i + "> .\n");
+                if (i % 1000 == 0) writer.write("<http://example.org/S1> <http://example.org/label> \"literal " + i + "\" .\r\n");
+            }
+        }
+
+        NtMemoryParser singleThreadedParser = new NtMemoryParser(file, new DummyWalkGenerator());
+        NtMemoryParser parser = new NtMemoryParser(new DummyWalkGenerator());
+        parser.readNTriplesChunkedMultiThreaded(file, 4);
+        assertEquals(50000, singleThreadedParser.getDataSize());
+        assertEquals(singleThreadedParser.getDataSize(), parser.getDataSize());
+        assertEquals(singleThreadedParser.getData().getUniqueSubjects(), parser.getData().getUniqueSubjects());
+        assertEquals(50, parser.getData().getTriplesInvolvingSubject("http://example.org/S1").size());
+        file.delete();
+    }
+
+    @Test
+    void readNTriplesWithLiterals() throws IOException {
+        File file = new File("./literalParsingTest.nt");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("# comment line\n");
+            writer.write("<http://example.org/A> <http://example.org/p> <http://example.org/B> .\n");
+            writer.write("<http://example.org/A> <http://example.org/label> \"A label\"@en .\n");
+            writer.write("<http://example.org/A> <http://example.org/value> \"5\"^^<http://www.w3.org/2001/XMLSchema#int> .\n");
+            writer.write("<http://example.org/B> <http://example.org/p> <http://example.org/C> .\n");
+        }
+
+        // default skip condition: literals are skipped on both paths
+        NtMemoryParser tokenizingParser = new NtMemoryParser(new DummyWalkGenerator());
+        assertTrue(tokenizingParser.isTokenizerApplicable());
+        tokenizingParser.readNTriples(file, false);
+        NtMemoryParser stringParser = new NtMemoryParser(new DummyWalkGenerator());
+        stringParser.setSkipCondition(stringParser.getSkipCondition());
+        assertFalse(stringParser.isTokenizerApplicable());
+        stringParser.readNTriples(file, false);
+        assertEquals(2, tokenizingParser.getDataSize());
+        assertEquals(2, stringParser.getDataSize());
+        assertEquals(new HashSet<>(stringParser.getData().getTriplesInvolvingSubject("http://example.org/A")),
+                new HashSet<>(tokenizingParser.getData().getTriplesInvolvingSubject("http://example.org/A")));
+
+        // literals included: both paths replace the spaces within the literal
+        tokenizingParser = new NtMemoryParser(new DummyWalkGenerator());
+        tokenizingParser.setIncludeDatatypeProperties(true);
+        assertTrue(tokenizingParser.isTokenizerApplicable());
+        tokenizingParser.readNTriples(file, false);
+        stringParser = new NtMemoryParser(new DummyWalkGenerator());
+        stringParser.setIncludeDatatypeProperties(true);
+        stringParser.setSkipCondition(stringParser.getSkipCondition());
+        assertFalse(stringParser.isTokenizerApplicable());
+        stringParser.readNTriples(file, false);
+        assertEquals(4, tokenizingParser.getDataSize());
+        assertEquals(4, stringParser.getDataSize());
+        Set<Triple> triples = new HashSet<>(stringParser.getData().getTriplesInvolvingSubject("http://example.org/A"));
+        assertEquals(triples, new HashSet<>(tokenizingParser.getData().getTriplesInvolvingSubject("http://example.org/A")));
+        assertTrue(triples.contains(new Triple("http://example.org/A", "http://example.org/label", "\"A_label\"@en")));
+
+        // literals excluded explicitly: the replaced skip condition is only evaluated on Strings
+        NtMemoryParser excludingParser = new NtMemoryParser(new DummyWalkGenerator());
+        excludingParser.setIncludeDatatypeProperties(false);
+        assertFalse(excludingParser.isTokenizerApplicable());
+        file.delete();
+    }
+}
@@ -0,0 +1,55 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NtTripleTokenizerTest {
+
+    @Test
+    void tokenize() {
+        NtTripleTokenizer tokenizer = new NtTripleTokenizer(false);
+        assertTrue(tokenize(tokenizer, "<http://example.org/A> <http://example.org/p> <http://example.org/B> ."));
+        assertTokens(tokenizer, "http://example.org/A", "http://example.org/p", "http://example.org/B");
+
+        // blank nodes, missing spaces before the dot, and trailing whitespace
+        assertTrue(tokenize(tokenizer, "_:genid1 <http://example.org/p> <http://example.org/Ä>.\r"));
+        assertTokens(tokenizer, "_:genid1", "http://example.org/p", "http://example.org/Ä");
+
+        // skipped lines
+        assertFalse(tokenize(tokenizer, "# comment"));
+        assertNull(tokenizer.getError());
+        assertFalse(tokenize(tokenizer, "   "));
+        assertNull(tokenizer.getError());
+        assertFalse(tokenize(tokenizer, "<http://example.org/A> <http://example.org/label> \"A label\"@en ."));
+        assertNull(tokenizer.getError());
+
+        // malformed lines
+        assertFalse(tokenize(tokenizer, "<http://example.org/A> <http://example.org/p> ."));
+        assertNotNull(tokenizer.getError());
+        assertFalse(tokenize(tokenizer, "<http://example.org/A> <http://example.org/p> <http://example.org/B> <http://example.org/C> ."));
+        assertNotNull(tokenizer.getError());
+    }
+
+    @Test
+    void tokenizeLiterals() {
+        NtTripleTokenizer tokenizer = new NtTripleTokenizer(true);
+        assertTrue(tokenize(tokenizer, "<http://example.org/A> <http://example.org/label> \"A label with spaces\"@en ."));
+        assertTokens(tokenizer, "http://example.org/A", "http://example.org/label", "\"A_label_with_spaces\"@en");
+        assertTrue(tokenize(tokenizer, "<http://example.org/A> <http://example.org/age> \"5\"^^<http://www.w3.org/2001/XMLSchema#int> ."));
+        assertTokens(tokenizer, "http://example.org/A", "http://example.org/age", "\"5\"^^<http://www.w3.org/2001/XMLSchema#int");
+    }
+
+    private static boolean tokenize(NtTripleTokenizer tokenizer, String line) {
+        byte[] bytes = (line + "garbage").getBytes(StandardCharsets.UTF_8);
+        return tokenizer.tokenize(bytes, bytes.length - "garbage".length());
+    }
+
+    private static void assertTokens(NtTripleTokenizer tokenizer, String subject, String predicate, String object) {
+        assertEquals(subject, new String(tokenizer.getLine(), tokenizer.getSubjectStart(), tokenizer.getSubjectLength(), StandardCharsets.UTF_8));
+        assertEquals(predicate, new String(tokenizer.getLine(), tokenizer.getPredicateStart(), tokenizer.getPredicateLength(), StandardCharsets.UTF_8));
+        assertEquals(object, new String(tokenizer.getObjectArray(), tokenizer.getObjectStart(), tokenizer.getObjectLength(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,51 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
+
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures.GraphSnapshot;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotParserTest {
+
+    private static final File SNAPSHOT_FILE = new File("./snapshotParserTest" + GraphSnapshot.FILE_EXTENSION);
+
+    @Test
+    void generateWalksOnSnapshot() {
+        NtMemoryParser ntParser = new NtMemoryParser(getClass().getResource("/dummyGraph.nt").getFile(), new DummyWalkGenerator());
+        assertTrue(ntParser.writeSnapshot(SNAPSHOT_FILE));
+
+        SnapshotParser parser = new SnapshotParser(SNAPSHOT_FILE, new DummyWalkGenerator());
+        assertNotNull(parser.getGraph());
+        assertEquals(ntParser.getDataSize(), parser.getDataSize());
+        assertNull(parser.getData());
+
+        List<String> result_1 = parser.generateDuplicateFreeRandomWalksForEntity("A", 100, 8);
+        assertEquals(3, result_1.size());
+        for(String s : result_1){
+            assertTrue(s.equals("A P4 E P5 D") || s.equals("A P4 E P6 F") || s.equals("A P1 B P2 C P3 D"));
+        }
+        assertEquals(7, parser.generateDuplicateFreeRandomWalksForEntity("W", 100, 8).size());
+
+        for(String walk : parser.generateMidWalksForEntity("B", 3, 10)){
+            assertTrue(walk.contains("B"));
+        }
+
+        assertEquals(new MemoryEntitySelector(ntParser.getData()).getEntities(), new MemoryEntitySelector(parser.getGraph()).getEntities());
+    }
+
+    @Test
+    void openNonExistingSnapshot() {
+        SnapshotParser parser = new SnapshotParser(new File("./does_not_exist" + GraphSnapshot.FILE_EXTENSION), new DummyWalkGenerator());
+        assertNull(parser.getGraph());
+        assertEquals(0L, parser.getDataSize());
+    }
+
+    @AfterAll
+    static void cleanUp() {
+        SNAPSHOT_FILE.delete();
+    }
+}
@@ -0,0 +1,59 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.base;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalkGeneratorTest {
+
+    private static final File WALK_FILE = new File("./walkGeneratorTest/walk_file.gz");
+
+    @Test
+    void processEntities() {
+        int numberOfEntities = 10000;
+
+        // lazy entity source: the entities are never materialized
+        Iterable<String> entities = () -> new Iterator<String>() {
+            int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < numberOfEntities;
+            }
+
+            @Override
+            public String next() {
+                return "http://example.org/E" + (i++);
+            }
+        };
+
+        DummyWalkGenerator generator = new DummyWalkGenerator();
+        generator.filePath = WALK_FILE.getPath();
+        Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        generator.processEntities(entities, 4, entity -> {
+            counts.computeIfAbsent(entity, e -> new AtomicInteger()).incrementAndGet();
+            generator.writeToFile(Collections.singletonList(entity));
+        });
+
+        assertEquals(numberOfEntities, counts.size());
+        for (AtomicInteger count : counts.values()) {
+            assertEquals(1, count.get());
+        }
+        assertEquals(numberOfEntities, generator.walkWriter.getProcessedEntities());
+        assertTrue(WALK_FILE.exists());
+    }
+
+    @AfterAll
+    static void cleanUp() {
+        WALK_FILE.delete();
+        WALK_FILE.getParentFile().delete();
+    }
+}
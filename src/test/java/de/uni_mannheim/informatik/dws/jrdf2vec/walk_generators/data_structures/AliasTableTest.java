@@ -0,0 +1,84 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AliasTableTest {
+
+    /**
+     * A has three successors: B (in degree 1), C (in degree 3) and D (in degree 6 but reached through a rare
+     * predicate).
+     * @return Graph.
+     */
+    private static CsrGraph getGraph() {
+        IntTripleDataSetMemory ds = new IntTripleDataSetMemory();
+        ds.add("A", "P", "B");
+        ds.add("A", "P", "C");
+        ds.add("A", "R", "D");
+        for (int i = 0; i < 2; i++) {
+            ds.add("C" + i, "P", "C");
+        }
+        for (int i = 0; i < 5; i++) {
+            ds.add("D" + i, "P", "D");
+        }
+        return ds.freeze();
+    }
+
+    @Test
+    void sampleObjectInDegree() {
+        CsrGraph graph = getGraph();
+        AliasTable table = AliasTable.build(graph, EdgeWeighting.OBJECT_IN_DEGREE);
+        double[] frequencies = sample(graph, table, "A", 100000);
+        assertEquals(0.1, frequencies[0], 0.02);
+        assertEquals(0.3, frequencies[1], 0.02);
+        assertEquals(0.6, frequencies[2], 0.02);
+
+        // nodes without successors
+        assertEquals(-1, table.sample(graph.getId("B")));
+        assertEquals(-1, table.sample(-1));
+        assertEquals(-1, table.sample(graph.getNumberOfIds()));
+    }
+
+    @Test
+    void samplePredicateFrequency() {
+        CsrGraph graph = getGraph();
+        // P occurs 9 times, R once
+        double[] frequencies = sample(graph, AliasTable.build(graph, EdgeWeighting.PREDICATE_FREQUENCY), "A", 100000);
+        assertEquals(9.0 / 19.0, frequencies[0], 0.02);
+        assertEquals(9.0 / 19.0, frequencies[1], 0.02);
+        assertEquals(1.0 / 19.0, frequencies[2], 0.02);
+
+        frequencies = sample(graph, AliasTable.build(graph, EdgeWeighting.INVERSE_PREDICATE_FREQUENCY), "A", 100000);
+        assertEquals(1.0 / 11.0, frequencies[0], 0.02);
+        assertEquals(1.0 / 11.0, frequencies[1], 0.02);
+        assertEquals(9.0 / 11.0, frequencies[2], 0.02);
+    }
+
+    @Test
+    void getWeightingFromString() {
+        assertEquals(EdgeWeighting.OBJECT_IN_DEGREE, EdgeWeighting.getWeightingFromString(" Object_In_Degree "));
+        assertEquals(EdgeWeighting.PREDICATE_FREQUENCY, EdgeWeighting.getWeightingFromString("predicate_frequency"));
+        assertNull(EdgeWeighting.getWeightingFromString("page_rank"));
+    }
+
+    /**
+     * Draw successors of the given node and count how often B, C and D are drawn.
+     * @return Relative frequencies of B, C, and D.
+     */
+    private static double[] sample(CsrGraph graph, AliasTable table, String node, int numberOfDraws) {
+        int id = graph.getId(node);
+        int[] counts = new int[3];
+        for (int i = 0; i < numberOfDraws; i++) {
+            int index = table.sample(id);
+            assertTrue(index >= 0 && index < graph.getOutDegree(id));
+            String successor = graph.getUri(IntGraph.getNode(graph.getOutEdge(id, index)));
+            counts[successor.charAt(0) - 'B']++;
+        }
+        double[] result = new double[3];
+        for (int i = 0; i < 3; i++) {
+            result[i] = counts[i] / (double) numberOfDraws;
+        }
+        return result;
+    }
+}
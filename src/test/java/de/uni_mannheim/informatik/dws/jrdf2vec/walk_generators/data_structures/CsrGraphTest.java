@@ -0,0 +1,54 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsrGraphTest {
+
+    @Test
+    void build() {
+        IntTripleDataSetMemory ds = new IntTripleDataSetMemory(2);
+        for (int i = 0; i < 1000; i++) {
+            ds.add("S", "P", "O" + i);
+        }
+        ds.add("O1", "Q", "S");
+        CsrGraph graph = ds.freeze();
+        assertEquals(1001, graph.getNumberOfEdges());
+        assertEquals(ds.getDictionary().size(), graph.getNumberOfIds());
+
+        int s = graph.getId("S");
+        assertEquals(1000, graph.getOutDegree(s));
+        assertEquals(1, graph.getInDegree(s));
+        assertEquals(0, graph.getOutDegree(-1));
+        assertEquals(0, graph.getInDegree(graph.getNumberOfIds()));
+
+        Set<String> objects = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            long edge = graph.getOutEdge(s, i);
+            assertEquals("P", graph.getUri(IntGraph.getPredicate(edge)));
+            objects.add(graph.getUri(IntGraph.getNode(edge)));
+            int o = IntGraph.getNode(edge);
+            assertEquals(1, graph.getInDegree(o));
+            assertEquals(IntGraph.toEdge(IntGraph.getPredicate(edge), s), graph.getInEdge(o, 0));
+        }
+        assertEquals(1000, objects.size());
+
+        long inEdge = graph.getInEdge(s, 0);
+        assertEquals("Q", graph.getUri(IntGraph.getPredicate(inEdge)));
+        assertEquals("O1", graph.getUri(IntGraph.getNode(inEdge)));
+    }
+
+    @Test
+    void edgePacking() {
+        long edge = IntGraph.toEdge(Integer.MAX_VALUE, 7);
+        assertEquals(Integer.MAX_VALUE, IntGraph.getPredicate(edge));
+        assertEquals(7, IntGraph.getNode(edge));
+        edge = IntGraph.toEdge(3, Integer.MAX_VALUE);
+        assertEquals(3, IntGraph.getPredicate(edge));
+        assertEquals(Integer.MAX_VALUE, IntGraph.getNode(edge));
+    }
+}
@@ -0,0 +1,67 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphSnapshotTest {
+
+    private static final File SNAPSHOT_FILE = new File("./graphSnapshotTest" + GraphSnapshot.FILE_EXTENSION);
+    private static final File INVALID_FILE = new File("./graphSnapshotTestInvalid" + GraphSnapshot.FILE_EXTENSION);
+
+    @Test
+    void writeAndOpen() throws IOException {
+        IntTripleDataSetMemory ds = new IntTripleDataSetMemory();
+        for (int i = 0; i < 500; i++) {
+            ds.add("http://example.org/S", "http://example.org/p", "http://example.org/O" + i);
+        }
+        ds.add("http://example.org/O1", "http://example.org/q", "http://example.org/Ä");
+        CsrGraph graph = ds.freeze();
+        GraphSnapshot.write(graph, SNAPSHOT_FILE);
+
+        MappedCsrGraph mapped = GraphSnapshot.open(SNAPSHOT_FILE);
+        assertEquals(graph.getNumberOfIds(), mapped.getNumberOfIds());
+        assertEquals(graph.getNumberOfEdges(), mapped.getNumberOfEdges());
+        for (int id = 0; id < graph.getNumberOfIds(); id++) {
+            String uri = graph.getUri(id);
+            assertEquals(uri, mapped.getUri(id));
+            assertEquals(id, mapped.getId(uri));
+            StringBuilder builder = new StringBuilder("x");
+            mapped.appendUri(id, builder);
+            assertEquals("x" + uri, builder.toString());
+            assertEquals(graph.getOutDegree(id), mapped.getOutDegree(id));
+            assertEquals(graph.getInDegree(id), mapped.getInDegree(id));
+            for (int i = 0; i < graph.getOutDegree(id); i++) {
+                assertEquals(graph.getOutEdge(id, i), mapped.getOutEdge(id, i));
+            }
+            for (int i = 0; i < graph.getInDegree(id); i++) {
+                assertEquals(graph.getInEdge(id, i), mapped.getInEdge(id, i));
+            }
+        }
+        assertEquals(-1, mapped.getId("http://example.org/unknown"));
+        assertNull(mapped.getUri(-1));
+        StringBuilder builder = new StringBuilder();
+        mapped.appendUri(-1, builder);
+        assertEquals("null", builder.toString());
+        assertEquals(0, mapped.getOutDegree(graph.getNumberOfIds()));
+    }
+
+    @Test
+    void openInvalidFile() throws IOException {
+        try (FileWriter writer = new FileWriter(INVALID_FILE)) {
+            writer.write("<A> <B> <C> .\n<A> <B> <D> .\n<A> <B> <E> .\n");
+        }
+        assertThrows(IOException.class, () -> GraphSnapshot.open(INVALID_FILE));
+    }
+
+    @AfterAll
+    static void cleanUp() {
+        SNAPSHOT_FILE.delete();
+        INVALID_FILE.delete();
+    }
+}
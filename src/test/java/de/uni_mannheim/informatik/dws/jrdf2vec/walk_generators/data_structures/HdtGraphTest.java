@@ -0,0 +1,92 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.TripleString;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HdtGraphTest {
+
+    private static final File HDT_FILE = new File("./hdtGraphTest.hdt");
+
+    private static final File INDEX_FILE = new File("./hdtGraphTest.hdt.index.v1-1");
+
+    @Test
+    void compareWithCsrGraph() throws Exception {
+        List<TripleString> triples = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            triples.add(new TripleString("http://example.org/A", "http://example.org/p", "http://example.org/O" + i));
+            triples.add(new TripleString("http://example.org/O" + i, "http://example.org/q", "http://example.org/O" + ((i + 1) % 20)));
+        }
+        triples.add(new TripleString("http://example.org/A", "http://example.org/label", "\"A label\"@en"));
+        triples.add(new TripleString("http://example.org/A", "http://example.org/age", "\"5\"^^<http://www.w3.org/2001/XMLSchema#int>"));
+        triples.add(new TripleString("http://example.org/B", "http://example.org/p", "http://example.org/A"));
+        triples.add(new TripleString("_:b1", "http://example.org/r", "http://example.org/A"));
+        triples.add(new TripleString("http://example.org/B", "http://example.org/r", "http://example.org/Z"));
+        try (HDT hdt = HDTManager.generateHDT(triples.iterator(), "http://example.org/", new HDTSpecification(), null)) {
+            hdt.saveToHDT(HDT_FILE.getPath(), null);
+        }
+
+        IntTripleDataSetMemory data = new IntTripleDataSetMemory();
+        for (TripleString triple : triples) {
+            data.add(triple.getSubject().toString(), triple.getPredicate().toString(), triple.getObject().toString());
+        }
+        CsrGraph csrGraph = data.freeze();
+
+        try (HDT hdt = HDTManager.loadIndexedHDT(HDT_FILE.getPath())) {
+            HdtGraph hdtGraph = new HdtGraph(hdt);
+            for (int id = 0; id < hdtGraph.getNumberOfIds(); id++) {
+                String uri = hdtGraph.getUri(id);
+                assertNotNull(uri);
+                if (id >= hdtGraph.getNumberOfNodes()) {
+                    // predicates
+                    assertEquals(0, hdtGraph.getOutDegree(id));
+                    assertEquals(0, hdtGraph.getInDegree(id));
+                    continue;
+                }
+                assertEquals(id, hdtGraph.getId(uri));
+                assertEquals(uri.startsWith("\""), hdtGraph.isLiteral(id), uri);
+                int csrId = csrGraph.getId(uri);
+                assertEquals(getOutEdges(csrGraph, csrId), getOutEdges(hdtGraph, id), uri);
+                assertEquals(getInEdges(csrGraph, csrId), getInEdges(hdtGraph, id), uri);
+            }
+            assertEquals(-1, hdtGraph.getId("http://example.org/unknown"));
+            assertNull(hdtGraph.getUri(-1));
+            assertNull(hdtGraph.getUri(hdtGraph.getNumberOfIds()));
+        }
+    }
+
+    private static Set<String> getOutEdges(IntGraph graph, int node) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < graph.getOutDegree(node); i++) {
+            long edge = graph.getOutEdge(node, i);
+            result.add(graph.getUri(IntGraph.getPredicate(edge)) + " " + graph.getUri(IntGraph.getNode(edge)));
+        }
+        return result;
+    }
+
+    private static Set<String> getInEdges(IntGraph graph, int node) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < graph.getInDegree(node); i++) {
+            long edge = graph.getInEdge(node, i);
+            result.add(graph.getUri(IntGraph.getNode(edge)) + " " + graph.getUri(IntGraph.getPredicate(edge)));
+        }
+        return result;
+    }
+
+    @AfterAll
+    static void cleanUp() {
+        HDT_FILE.delete();
+        INDEX_FILE.delete();
+    }
+}
@@ -0,0 +1,102 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntTripleDataSetMemoryTest {
+
+    @Test
+    void add() {
+        IntTripleDataSetMemory ds = new IntTripleDataSetMemory();
+        ds.add("A", "B", "C");
+        ds.add(new Triple("A", "D", "E"));
+        ds.add("C", "B", "A");
+        assertEquals("A", ds.getTriplesInvolvingObject("C").get(0).subject);
+        assertEquals("A", ds.getTriplesInvolvingPredicate("B").get(0).subject);
+        assertEquals(2, ds.getTriplesInvolvingPredicate("B").size());
+        ArrayList<Triple> triplesA = ds.getTriplesInvolvingSubject("A");
+        assertEquals(2, triplesA.size());
+        assertEquals("C", triplesA.get(0).object);
+        assertEquals("E", triplesA.get(1).object);
+        assertNull(ds.getTriplesInvolvingSubject("E"));
+        assertNull(ds.getTriplesInvolvingSubject("X"));
+        assertNull(ds.getTriplesInvolvingPredicate("X"));
+
+        assertEquals(3, ds.getSize());
+        assertEquals(2, ds.getUniqueSubjects().size());
+        assertTrue(ds.getUniqueSubjects().contains("A"));
+        assertTrue(ds.getUniqueSubjects().contains("C"));
+    }
+
+    @Test
+    void getNewCapacity() {
+        assertEquals(24, IntTripleDataSetMemory.getNewCapacity(16, 17));
+        assertEquals(100, IntTripleDataSetMemory.getNewCapacity(16, 100));
+
+        // growth by 50% would overflow
+        int large = Integer.MAX_VALUE / 3 * 2 + 1000;
+        assertEquals(IntTripleDataSetMemory.MAX_CAPACITY, IntTripleDataSetMemory.getNewCapacity(large, large + 1L));
+        assertEquals(IntTripleDataSetMemory.MAX_CAPACITY,
+                IntTripleDataSetMemory.getNewCapacity(IntTripleDataSetMemory.MAX_CAPACITY - 1, IntTripleDataSetMemory.MAX_CAPACITY));
+        assertThrows(IllegalStateException.class,
+                () -> IntTripleDataSetMemory.getNewCapacity(IntTripleDataSetMemory.MAX_CAPACITY, IntTripleDataSetMemory.MAX_CAPACITY + 1L));
+    }
+
+    @Test
+    void freeze() {
+        IntTripleDataSetMemory ds = new IntTripleDataSetMemory();
+        ds.add("A", "B", "C");
+        CsrGraph graph = ds.freeze();
+        assertSame(graph, ds.freeze());
+        assertEquals(1, graph.getOutDegree(graph.getId("A")));
+
+        // adding invalidates the index
+        ds.add("A", "B", "D");
+        CsrGraph graph2 = ds.freeze();
+        assertNotSame(graph, graph2);
+        assertEquals(2, graph2.getOutDegree(graph2.getId("A")));
+        assertEquals(1, graph.getOutDegree(graph.getId("A")));
+
+        // the triples are restored from the index when adding after a freeze
+        for (int i = 0; i < 100; i++) {
+            ds.add("E", "F", "G" + i);
+        }
+        assertEquals(102, ds.getSize());
+        CsrGraph graph3 = ds.freeze();
+        assertEquals(2, graph3.getOutDegree(graph3.getId("A")));
+        assertEquals(100, graph3.getOutDegree(graph3.getId("E")));
+        assertEquals(2, ds.getTriplesInvolvingPredicate("B").size());
+        assertEquals(100, ds.getTriplesInvolvingPredicate("F").size());
+        assertEquals("D", ds.getTriplesInvolvingObject("D").get(0).object);
+    }
+
+    @Test
+    void addAll() throws InterruptedException {
+        IntTripleDataSetMemory ds = new IntTripleDataSetMemory();
+        ds.add("A", "B", "C");
+
+        // several threads fill their own buffers and merge them
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int threadNumber = t;
+            threads[t] = new Thread(() -> {
+                TripleBuffer buffer = new TripleBuffer(2);
+                for (int i = 0; i < 1000; i++) {
+                    buffer.add("A", "P" + threadNumber, "O" + i);
+                }
+                ds.addAll(buffer);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(4001, ds.getSize());
+        assertEquals(4001, ds.getTriplesInvolvingSubject("A").size());
+        assertEquals(4, ds.getTriplesInvolvingObject("O999").size());
+        assertEquals(1000, ds.getTriplesInvolvingPredicate("P3").size());
+        assertEquals("C", ds.getTriplesInvolvingPredicate("B").get(0).object);
+    }
+}
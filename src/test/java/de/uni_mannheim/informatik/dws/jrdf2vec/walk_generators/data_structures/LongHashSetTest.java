@@ -0,0 +1,38 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void add() {
+        LongHashSet set = new LongHashSet(2);
+        for (long i = -5000; i < 5000; i++) {
+            assertTrue(set.add(i * 31));
+        }
+        assertEquals(10000, set.size());
+        for (long i = -5000; i < 5000; i++) {
+            assertFalse(set.add(i * 31));
+            assertTrue(set.contains(i * 31));
+        }
+        assertFalse(set.contains(1));
+        assertTrue(set.contains(0));
+        assertEquals(10000, set.size());
+    }
+
+    @Test
+    void clear() {
+        LongHashSet set = new LongHashSet();
+        set.add(0);
+        set.add(Long.MIN_VALUE);
+        set.add(Long.MAX_VALUE);
+        assertEquals(3, set.size());
+        set.clear();
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(Long.MIN_VALUE));
+        assertTrue(set.add(Long.MAX_VALUE));
+    }
+}
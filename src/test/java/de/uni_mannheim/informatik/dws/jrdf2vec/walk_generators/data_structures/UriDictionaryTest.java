@@ -0,0 +1,81 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.data_structures;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UriDictionaryTest {
+
+    @Test
+    void getOrAdd() {
+        UriDictionary dictionary = new UriDictionary(4);
+        int a = dictionary.getOrAdd("http://example.org/A");
+        int b = dictionary.getOrAdd("http://example.org/B");
+        assertNotEquals(a, b);
+        assertEquals(a, dictionary.getOrAdd("http://example.org/A"));
+        assertEquals(2, dictionary.size());
+        assertEquals("http://example.org/A", dictionary.getUri(a));
+        assertEquals("http://example.org/B", dictionary.getUri(b));
+        assertEquals(-1, dictionary.getId("http://example.org/C"));
+        assertEquals(-1, dictionary.getId(null));
+        assertNull(dictionary.getUri(5));
+    }
+
+    @Test
+    void nonAsciiAndBytes() {
+        UriDictionary dictionary = new UriDictionary();
+        int id = dictionary.getOrAdd("http://dbpedia.org/resource/Mannheim_Universität");
+        byte[] bytes = " http://dbpedia.org/resource/Mannheim_Universität ".getBytes(StandardCharsets.UTF_8);
+        assertEquals(id, dictionary.getId(bytes, 1, bytes.length - 2));
+        assertEquals(id, dictionary.getOrAdd(bytes, 1, bytes.length - 2));
+        assertEquals("http://dbpedia.org/resource/Mannheim_Universität", dictionary.getUri(id));
+
+        byte[] ascii = "xA_Bx".getBytes(StandardCharsets.UTF_8);
+        int asciiId = dictionary.getOrAdd(ascii, 1, 3);
+        assertEquals(asciiId, dictionary.getId("A_B"));
+    }
+
+    @Test
+    void appendUri() {
+        UriDictionary dictionary = new UriDictionary();
+        int asciiId = dictionary.getOrAdd("http://dbpedia.org/resource/Mannheim");
+        int nonAsciiId = dictionary.getOrAdd("http://dbpedia.org/resource/Mannheim_Universität");
+        StringBuilder builder = new StringBuilder("walk: ");
+        dictionary.appendUri(asciiId, builder);
+        builder.append(' ');
+        dictionary.appendUri(nonAsciiId, builder);
+        builder.append(' ');
+        dictionary.appendUri(42, builder);
+        assertEquals("walk: http://dbpedia.org/resource/Mannheim http://dbpedia.org/resource/Mannheim_Universität null",
+                builder.toString());
+    }
+
+    @Test
+    void grow() {
+        UriDictionary dictionary = new UriDictionary(2);
+        for (int i = 0; i < 100000; i++) {
+            assertEquals(i, dictionary.getOrAdd("http://example.org/" + i));
+        }
+        assertEquals(100000, dictionary.size());
+        for (int i = 0; i < 100000; i++) {
+            assertEquals(i, dictionary.getId("http://example.org/" + i));
+            assertEquals("http://example.org/" + i, dictionary.getUri(i));
+        }
+    }
+
+    @Test
+    void getOrAddFromOtherDictionary() {
+        UriDictionary source = new UriDictionary();
+        int a = source.getOrAdd("A");
+        int b = source.getOrAdd("Bé");
+        UriDictionary target = new UriDictionary();
+        int targetB = target.getOrAdd("Bé");
+        assertEquals(targetB, target.getOrAdd(source, b));
+        int targetA = target.getOrAdd(source, a);
+        assertEquals("A", target.getUri(targetA));
+        assertEquals(targetA, target.getId("A"));
+        assertEquals(2, target.size());
+    }
+}
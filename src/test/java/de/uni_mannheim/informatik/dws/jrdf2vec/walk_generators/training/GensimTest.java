@@ -1,6 +1,8 @@
 package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.training;
 
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.ConceptPair;
 import de.uni_mannheim.informatik.dws.jrdf2vec.training.Gensim;
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.SimilarConcept;
 import de.uni_mannheim.informatik.dws.jrdf2vec.training.Word2VecConfiguration;
 import de.uni_mannheim.informatik.dws.jrdf2vec.training.Word2VecType;
 import org.apache.commons.io.FileUtils;
@@ -14,6 +16,10 @@ import java.io.*;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 import static de.uni_mannheim.informatik.dws.jrdf2vec.util.Util.getNumberOfLines;
 import static org.junit.jupiter.api.Assertions.*;
@@ -173,6 +179,64 @@ class GensimTest {
         assertEquals(100, europeVector.length);
     }
 
+    @Test
+    void getVectors() {
+        String pathToVectorFile = getPathOfResource("test_model_vectors.kv");
+        Map<String, float[]> vectors = gensim.getVectors(Arrays.asList("Europe", "united", "NOT_IN_VOCABULARY"), pathToVectorFile);
+        assertNotNull(vectors);
+        assertEquals(2, vectors.size());
+        assertFalse(vectors.containsKey("NOT_IN_VOCABULARY"));
+
+        Double[] europeVector = gensim.getVector("Europe", pathToVectorFile);
+        float[] europeBatchVector = vectors.get("Europe");
+        assertEquals(europeVector.length, europeBatchVector.length);
+        for (int i = 0; i < europeVector.length; i++) {
+            assertEquals(europeVector[i], europeBatchVector[i], 0.0001);
+        }
+
+        // model file
+        String pathToModel = getPathOfResource("test_model");
+        vectors = gensim.getVectors(Arrays.asList("Europe", "united"), pathToModel);
+        assertNotNull(vectors);
+        assertEquals(100, vectors.get("united").length);
+    }
+
+    @Test
+    void getSimilarities() {
+        String pathToVectorFile = getPathOfResource("test_model_vectors.kv");
+        double[] similarities = gensim.getSimilarities(Arrays.asList(
+                new ConceptPair("Europe", "united"),
+                new ConceptPair("Europe", "NOT_IN_VOCABULARY"),
+                new ConceptPair("united", "Europe")
+        ), pathToVectorFile);
+        assertNotNull(similarities);
+        assertEquals(3, similarities.length);
+        assertEquals(gensim.getSimilarity("Europe", "united", pathToVectorFile), similarities[0], 0.0001);
+        assertEquals(-1.0, similarities[1]);
+        assertEquals(similarities[0], similarities[2], 0.0001);
+    }
+
+    @Test
+    void concurrentRequests() {
+        gensim.setVectorCaching(false);
+        String pathToVectorFile = getPathOfResource("test_model_vectors.kv");
+        double expected = gensim.getSimilarity("Europe", "united", pathToVectorFile);
+        assertTrue(IntStream.range(0, 100).parallel()
+                .allMatch(i -> Math.abs(gensim.getSimilarity("Europe", "united", pathToVectorFile) - expected) < 0.0001
+                        && gensim.getFloatVector("Europe", pathToVectorFile).length == 100));
+    }
+
+    @Test
+    void getMostSimilar() {
+        String pathToVectorFile = getPathOfResource("test_model_vectors.kv");
+        List<SimilarConcept> result = gensim.getMostSimilar("Europe", 5, pathToVectorFile);
+        assertNotNull(result);
+        assertEquals(5, result.size());
+        assertNotEquals("Europe", result.get(0).getConcept());
+        assertEquals(gensim.getSimilarity("Europe", result.get(0).getConcept(), pathToVectorFile), result.get(0).getSimilarity(), 0.0001);
+        assertNull(gensim.getMostSimilar("NOT_IN_VOCABULARY", 5, pathToVectorFile));
+    }
+
     @Test
     void writeModelAsTextFile() {
         // "normal" training task
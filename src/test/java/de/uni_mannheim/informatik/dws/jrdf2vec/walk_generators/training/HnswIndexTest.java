@@ -0,0 +1,98 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.training;
+
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.HnswIndex;
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.KeyedVectors;
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.SimilarConcept;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HnswIndexTest {
+
+    private static final File DIRECTORY = new File("./hnswIndexTest");
+
+    private static final File VECTOR_FILE = new File(DIRECTORY, "vectors.txt");
+
+    private static KeyedVectors vectors;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        DIRECTORY.mkdirs();
+        Random random = new Random(7);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(VECTOR_FILE), StandardCharsets.UTF_8)) {
+            for (int concept = 0; concept < 3000; concept++) {
+                writer.write("C" + concept);
+                for (int i = 0; i < 16; i++) {
+                    writer.write(" " + (float) random.nextGaussian());
+                }
+                writer.write(" \n");
+            }
+        }
+        vectors = KeyedVectors.load(VECTOR_FILE);
+    }
+
+    @Test
+    void getMostSimilar() {
+        HnswIndex index = HnswIndex.build(vectors, HnswIndex.DEFAULT_M, 100, 4);
+        assertNotNull(index);
+        assertTrue(getRecall(index) > 0.9);
+
+        List<SimilarConcept> result = index.getMostSimilar("C42", 10);
+        assertEquals(10, result.size());
+        for (SimilarConcept similarConcept : result) {
+            assertNotEquals("C42", similarConcept.getConcept());
+        }
+        for (int i = 1; i < result.size(); i++) {
+            assertTrue(result.get(i - 1).getSimilarity() >= result.get(i).getSimilarity());
+        }
+        assertTrue(index.getMostSimilar("NOT_IN_VOCABULARY", 10).isEmpty());
+        assertEquals("C42", index.getMostSimilar(vectors.getVector("C42"), 1).get(0).getConcept());
+    }
+
+    @Test
+    void saveAndLoad() throws IOException {
+        File indexFile = new File(DIRECTORY, HnswIndex.INDEX_FILE_NAME);
+        assertTrue(HnswIndex.buildAndSave(VECTOR_FILE, indexFile, 2));
+        HnswIndex index = HnswIndex.load(indexFile, vectors);
+        assertTrue(getRecall(index) > 0.9);
+
+        // the index does not fit other vectors
+        File otherVectorFile = new File(DIRECTORY, "other.txt");
+        FileUtils.writeStringToFile(otherVectorFile, "A 1.0 2.0\n", StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> HnswIndex.load(indexFile, KeyedVectors.load(otherVectorFile)));
+    }
+
+    /**
+     * Share of the exact top 10 which is found by the index.
+     */
+    private static double getRecall(HnswIndex index) {
+        int found = 0;
+        int total = 0;
+        for (int concept = 0; concept < 3000; concept += 30) {
+            Set<String> exact = new HashSet<>();
+            for (SimilarConcept similarConcept : vectors.getMostSimilar("C" + concept, 10)) {
+                exact.add(similarConcept.getConcept());
+            }
+            for (SimilarConcept similarConcept : index.getMostSimilar("C" + concept, 10)) {
+                if (exact.contains(similarConcept.getConcept())) found++;
+            }
+            total += exact.size();
+        }
+        return (double) found / total;
+    }
+
+    @AfterAll
+    static void cleanUp() {
+        FileUtils.deleteQuietly(DIRECTORY);
+    }
+}
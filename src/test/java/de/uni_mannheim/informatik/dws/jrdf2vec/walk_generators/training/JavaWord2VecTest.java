@@ -0,0 +1,132 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.training;
+
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.JavaWord2Vec;
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.Word2VecConfiguration;
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.Word2VecType;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers.AsynchronousWalkWriter;
+import de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers.WalkFileFormat;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaWord2VecTest {
+
+    private static final File WALK_DIRECTORY = new File("./javaWord2VecTest");
+
+    /**
+     * Two clusters of nodes which never co-occur in a walk.
+     */
+    private static void writeWalks(WalkFileFormat format) throws IOException {
+        FileUtils.deleteQuietly(WALK_DIRECTORY);
+        WALK_DIRECTORY.mkdirs();
+        AsynchronousWalkWriter writer = new AsynchronousWalkWriter(new File(WALK_DIRECTORY, "walk_file.gz").getPath(), 1, format);
+        Random random = new Random(42);
+        for (int entity = 0; entity < 500; entity++) {
+            String cluster = entity % 2 == 0 ? "A" : "B";
+            List<String> walks = new ArrayList<>();
+            for (int walk = 0; walk < 10; walk++) {
+                StringBuilder builder = new StringBuilder(cluster + random.nextInt(5));
+                for (int hop = 0; hop < 4; hop++) {
+                    builder.append(' ').append(cluster).append("p ").append(cluster).append(random.nextInt(5));
+                }
+                walks.add(builder.toString());
+            }
+            writer.write(walks);
+        }
+        writer.close();
+    }
+
+    @Test
+    void trainSg() throws Exception {
+        trainAndCheck(Word2VecType.SG, WalkFileFormat.TEXT);
+    }
+
+    @Test
+    void trainCbowOnBinaryWalks() throws Exception {
+        trainAndCheck(Word2VecType.CBOW, WalkFileFormat.BINARY);
+    }
+
+    private static void trainAndCheck(Word2VecType type, WalkFileFormat format) throws Exception {
+        writeWalks(format);
+        Word2VecConfiguration configuration = new Word2VecConfiguration(type, 20);
+        configuration.setNumberOfThreads(2);
+        configuration.setWindowSize(3);
+
+        JavaWord2Vec word2Vec = new JavaWord2Vec();
+        File modelFile = new File(WALK_DIRECTORY, word2Vec.getModelFileName());
+        assertTrue(word2Vec.trainWord2VecModel(modelFile.getPath(), WALK_DIRECTORY.getPath(), configuration));
+        assertTrue(modelFile.exists());
+
+        Map<String, float[]> vectors = JavaWord2Vec.readModel(modelFile);
+        // 5 nodes and 1 predicate per cluster
+        assertEquals(12, vectors.size());
+        assertEquals(20, vectors.get("A1").length);
+        assertTrue(cosine(vectors.get("A1"), vectors.get("A2")) > cosine(vectors.get("A1"), vectors.get("B2")));
+        assertTrue(cosine(vectors.get("B3"), vectors.get("B4")) > cosine(vectors.get("B3"), vectors.get("A4")));
+
+        File vectorFile = new File(WALK_DIRECTORY, "vectors.txt");
+        word2Vec.writeModelAsTextFile(modelFile.getPath(), vectorFile.getPath());
+        List<String> lines = FileUtils.readLines(vectorFile, StandardCharsets.UTF_8);
+        assertEquals(12, lines.size());
+        for (String line : lines) {
+            assertEquals(21, line.trim().split(" ").length);
+        }
+    }
+
+    @Test
+    void trainWithMinCount() throws Exception {
+        FileUtils.deleteQuietly(WALK_DIRECTORY);
+        WALK_DIRECTORY.mkdirs();
+        File walkFile = new File(WALK_DIRECTORY, "walks.txt");
+        FileUtils.writeLines(walkFile, Arrays.asList("A p B", "A p C", "A q B"));
+        Word2VecConfiguration configuration = new Word2VecConfiguration(Word2VecType.SG, 10);
+        configuration.setMinCount(2);
+
+        JavaWord2Vec word2Vec = new JavaWord2Vec();
+        File modelFile = new File(WALK_DIRECTORY, word2Vec.getModelFileName());
+        assertTrue(word2Vec.trainWord2VecModel(modelFile.getPath(), walkFile.getPath(), configuration));
+        Map<String, float[]> vectors = JavaWord2Vec.readModel(modelFile);
+        assertEquals(3, vectors.size());
+        assertTrue(vectors.containsKey("A"));
+        assertTrue(vectors.containsKey("p"));
+        assertTrue(vectors.containsKey("B"));
+
+        // entity file: missing concepts lead to an empty line
+        File entityFile = new File(WALK_DIRECTORY, "entities.txt");
+        FileUtils.writeLines(entityFile, Arrays.asList("B", "C"));
+        File vectorFile = new File(WALK_DIRECTORY, "vectors.txt");
+        word2Vec.writeModelAsTextFile(modelFile.getPath(), vectorFile.getPath(), entityFile.getPath());
+        List<String> lines = FileUtils.readLines(vectorFile, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("B "));
+        assertEquals("", lines.get(1));
+
+        assertFalse(word2Vec.trainWord2VecModel(modelFile.getPath(), new File(WALK_DIRECTORY, "missing").getPath(), configuration));
+    }
+
+    private static double cosine(float[] vector1, float[] vector2) {
+        double dot = 0, norm1 = 0, norm2 = 0;
+        for (int i = 0; i < vector1.length; i++) {
+            dot += vector1[i] * vector2[i];
+            norm1 += vector1[i] * vector1[i];
+            norm2 += vector2[i] * vector2[i];
+        }
+        return dot / (Math.sqrt(norm1) * Math.sqrt(norm2));
+    }
+
+    @AfterAll
+    static void cleanUp() {
+        FileUtils.deleteQuietly(WALK_DIRECTORY);
+    }
+}
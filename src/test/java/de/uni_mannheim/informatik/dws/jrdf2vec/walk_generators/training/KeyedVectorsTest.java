@@ -0,0 +1,97 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.training;
+
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.KeyedVectors;
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.SimilarConcept;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedVectorsTest {
+
+    private static final File DIRECTORY = new File("./keyedVectorsTest");
+
+    private static File writeVectorFile() throws IOException {
+        DIRECTORY.mkdirs();
+        File vectorFile = new File(DIRECTORY, "vectors.txt");
+        FileUtils.writeLines(vectorFile, StandardCharsets.UTF_8.name(), Arrays.asList(
+                "A 1.0 0.0 0.0 ",
+                "",
+                "B 2.0 2.0 0.0 ",
+                "C 0.0 0.0 -3.5 ",
+                "A 0.0 1.0 0.0 "
+        ));
+        return vectorFile;
+    }
+
+    @Test
+    void loadTextFile() throws IOException {
+        KeyedVectors vectors = KeyedVectors.load(writeVectorFile());
+        assertVectors(vectors);
+    }
+
+    @Test
+    void saveAndLoadWord2VecFile() throws IOException {
+        File binaryFile = new File(DIRECTORY, "vectors.w2v");
+        KeyedVectors.load(writeVectorFile()).save(binaryFile);
+        assertVectors(KeyedVectors.load(binaryFile));
+    }
+
+    @Test
+    void loadInvalidFiles() throws IOException {
+        DIRECTORY.mkdirs();
+        File vectorFile = new File(DIRECTORY, "invalid.txt");
+        FileUtils.writeLines(vectorFile, StandardCharsets.UTF_8.name(), Arrays.asList("A 1.0 0.0", "B 1.0"));
+        assertThrows(IOException.class, () -> KeyedVectors.load(vectorFile));
+        assertThrows(IOException.class, () -> KeyedVectors.load(new File(DIRECTORY, "model.kv")));
+    }
+
+    @Test
+    void getMostSimilar() throws IOException {
+        KeyedVectors vectors = KeyedVectors.load(writeVectorFile());
+        List<SimilarConcept> result = vectors.getMostSimilar("A", 5);
+        assertEquals(2, result.size());
+        assertEquals("B", result.get(0).getConcept());
+        assertEquals(Math.sqrt(0.5), result.get(0).getSimilarity(), 0.00001);
+        assertEquals("C", result.get(1).getConcept());
+
+        result = vectors.getMostSimilar(new float[]{0.0f, 0.0f, -2.0f}, 1);
+        assertEquals(1, result.size());
+        assertEquals("C", result.get(0).getConcept());
+        assertEquals(1.0, result.get(0).getSimilarity(), 0.00001);
+
+        assertTrue(vectors.getMostSimilar("D", 5).isEmpty());
+        assertTrue(vectors.getMostSimilar("A", 0).isEmpty());
+    }
+
+    private static void assertVectors(KeyedVectors vectors) {
+        assertEquals(3, vectors.getVocabularySize());
+        assertEquals(3, vectors.getDimension());
+        assertTrue(vectors.isInVocabulary("A"));
+        assertFalse(vectors.isInVocabulary("D"));
+        assertFalse(vectors.isInVocabulary(""));
+
+        // the first vector of a concept is used
+        assertArrayEquals(new float[]{1.0f, 0.0f, 0.0f}, vectors.getVector("A"), 0.00001f);
+        assertArrayEquals(new float[]{2.0f, 2.0f, 0.0f}, vectors.getVector("B"), 0.00001f);
+        assertArrayEquals(new float[]{0.0f, 0.0f, -3.5f}, vectors.getVector("C"), 0.00001f);
+        assertNull(vectors.getVector("D"));
+
+        assertEquals(Math.sqrt(0.5), vectors.getSimilarity("A", "B"), 0.00001);
+        assertEquals(0.0, vectors.getSimilarity("A", "C"), 0.00001);
+        assertEquals(1.0, vectors.getSimilarity("C", "C"), 0.00001);
+        assertEquals(-1.0, vectors.getSimilarity("A", "D"));
+    }
+
+    @AfterAll
+    static void cleanUp() {
+        FileUtils.deleteQuietly(DIRECTORY);
+    }
+}
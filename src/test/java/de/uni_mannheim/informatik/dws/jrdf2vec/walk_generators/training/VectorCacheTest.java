@@ -0,0 +1,64 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.training;
+
+import de.uni_mannheim.informatik.dws.jrdf2vec.training.VectorCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorCacheTest {
+
+    @Test
+    void getAndPut() {
+        VectorCache cache = new VectorCache();
+        assertNull(cache.get("A"));
+        cache.put("A", new float[]{1.0f, 2.0f});
+        assertArrayEquals(new float[]{1.0f, 2.0f}, cache.get("A"));
+        assertEquals(1, cache.getNumberOfVectors());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 0.0001);
+
+        // null values are not cached
+        cache.put("B", null);
+        assertNull(cache.get("B"));
+        assertEquals(1, cache.getNumberOfVectors());
+
+        // replacing a vector does not change the size
+        long size = cache.getSize();
+        cache.put("A", new float[]{3.0f, 4.0f});
+        assertEquals(size, cache.getSize());
+        assertArrayEquals(new float[]{3.0f, 4.0f}, cache.get("A"));
+
+        cache.clear();
+        assertEquals(0, cache.getNumberOfVectors());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void eviction() {
+        VectorCache cache = new VectorCache();
+        cache.put("A", new float[100]);
+        long entrySize = cache.getSize();
+        cache.setCapacity(3 * entrySize);
+
+        cache.put("B", new float[100]);
+        cache.put("C", new float[100]);
+        assertEquals(3, cache.getNumberOfVectors());
+
+        // A is used, hence B is the least recently used vector
+        assertNotNull(cache.get("A"));
+        cache.put("D", new float[100]);
+        assertEquals(3, cache.getNumberOfVectors());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get("B"));
+        assertNotNull(cache.get("A"));
+        assertNotNull(cache.get("C"));
+        assertNotNull(cache.get("D"));
+        assertTrue(cache.getSize() <= cache.getCapacity());
+
+        // shrinking the capacity evicts vectors
+        cache.setCapacity(entrySize);
+        assertEquals(1, cache.getNumberOfVectors());
+        assertNotNull(cache.get("D"));
+    }
+}
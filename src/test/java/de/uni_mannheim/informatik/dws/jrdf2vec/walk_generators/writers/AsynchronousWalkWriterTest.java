@@ -0,0 +1,181 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsynchronousWalkWriterTest {
+
+    private static final File WALK_DIRECTORY = new File("./asynchronousWalkWriterTest");
+
+    @Test
+    void write() throws Exception {
+        cleanUp();
+        WALK_DIRECTORY.mkdirs();
+        String filePath = new File(WALK_DIRECTORY, "walk_file.gz").getPath();
+        AsynchronousWalkWriter writer = new AsynchronousWalkWriter(filePath, 1, 1000, 4);
+        writeAndCheck(writer);
+
+        // the file is rolled over after 1000 lines
+        assertTrue(new File(WALK_DIRECTORY, "walk_file.gz").exists());
+        assertTrue(new File(WALK_DIRECTORY, "walk_file1.gz").exists());
+    }
+
+    @Test
+    void writeShards() throws Exception {
+        cleanUp();
+        WALK_DIRECTORY.mkdirs();
+        String filePath = new File(WALK_DIRECTORY, "walk_file.gz").getPath();
+        AsynchronousWalkWriter writer = new AsynchronousWalkWriter(filePath, 3, 100000, 4);
+        writeAndCheck(writer);
+
+        // one shard per writer thread
+        for (int i = 0; i < 3; i++) {
+            assertTrue(new File(WALK_DIRECTORY, "walk_file_" + i + ".gz").exists());
+        }
+        assertFalse(new File(WALK_DIRECTORY, "walk_file.gz").exists());
+    }
+
+    @Test
+    void writeBinary() throws Exception {
+        cleanUp();
+        WALK_DIRECTORY.mkdirs();
+        String filePath = new File(WALK_DIRECTORY, "walk_file.gz").getPath();
+        AsynchronousWalkWriter writer = new AsynchronousWalkWriter(filePath, 2, 3000, 4, WalkFileFormat.BINARY);
+        assertTrue(writer.getFilePath().endsWith("walk_file.bin.gz"));
+        writeAndCheck(writer);
+
+        assertTrue(new File(WALK_DIRECTORY, "walk_file_0.bin.gz").exists());
+        assertTrue(new File(WALK_DIRECTORY, "walk_file_1.bin.gz").exists());
+        File vocabularyFile = new File(WALK_DIRECTORY, WalkVocabulary.VOCABULARY_FILE_NAME);
+        assertTrue(vocabularyFile.exists());
+        assertEquals(vocabularyFile.getAbsoluteFile(), writer.getVocabularyFile().getAbsoluteFile());
+
+        // 1000 entities + p + 10 walk tokens
+        assertEquals(1011, WalkVocabulary.read(vocabularyFile).length);
+    }
+
+    @Test
+    void getBinaryFilePath() {
+        assertEquals("walk_file.bin.gz", AsynchronousWalkWriter.getBinaryFilePath("walk_file.gz"));
+        assertEquals("walk_file.bin.gz", AsynchronousWalkWriter.getBinaryFilePath("walk_file.bin.gz"));
+        assertEquals("walk_file.bin.gz", AsynchronousWalkWriter.getBinaryFilePath("walk_file"));
+    }
+
+    @Test
+    void writeFailure() throws Exception {
+        cleanUp();
+        WALK_DIRECTORY.mkdirs();
+        String filePath = new File(WALK_DIRECTORY, "walk_file.gz").getPath();
+        AsynchronousWalkWriter writer = new AsynchronousWalkWriter(filePath, 1, 1, 4);
+
+        // the first file is already open; the next one cannot be created anymore
+        cleanUp();
+        for (int entity = 0; entity < 10; entity++) {
+            List<String> walks = new ArrayList<>();
+            walks.add("E" + entity + " p W0");
+            walks.add("E" + entity + " p W1");
+            writer.write(walks);
+        }
+        writer.close();
+
+        assertFalse(writer.isOk());
+        assertEquals(10, writer.getProcessedEntities());
+    }
+
+    private static void writeAndCheck(AsynchronousWalkWriter writer) throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int threadNumber = t;
+            Thread thread = new Thread(() -> {
+                for (int entity = 0; entity < 250; entity++) {
+                    List<String> walks = new ArrayList<>();
+                    for (int walk = 0; walk < 10; walk++) {
+                        walks.add("T" + threadNumber + "_E" + entity + " p W" + walk);
+                    }
+                    writer.write(walks);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+        writer.close();
+
+        assertTrue(writer.isOk());
+        assertEquals(1000, writer.getProcessedEntities());
+        assertEquals(10000, writer.getProcessedWalks());
+
+        File[] files = WALK_DIRECTORY.listFiles();
+        assertNotNull(files);
+
+        Set<String> lines = new HashSet<>();
+        int numberOfLines = 0;
+        for (File file : files) {
+            if (file.getName().equals(WalkVocabulary.VOCABULARY_FILE_NAME)) continue;
+            if (writer.getFormat() == WalkFileFormat.BINARY) {
+                String[] vocabulary = WalkVocabulary.read(writer.getVocabularyFile());
+                for (String line : readBinaryWalks(file, vocabulary)) {
+                    lines.add(line);
+                    numberOfLines++;
+                }
+                continue;
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line);
+                    numberOfLines++;
+                }
+            }
+        }
+        assertEquals(10000, numberOfLines);
+        assertEquals(10000, lines.size());
+        assertTrue(lines.contains("T3_E249 p W9"));
+    }
+
+    private static List<String> readBinaryWalks(File file, String[] vocabulary) throws IOException {
+        List<String> walks = new ArrayList<>();
+        try (InputStream in = new BufferedInputStream(new GZIPInputStream(new FileInputStream(file)))) {
+            StringBuilder walk = new StringBuilder();
+            int value = 0;
+            int shift = 0;
+            int b;
+            while ((b = in.read()) >= 0) {
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) != 0) {
+                    shift += 7;
+                    continue;
+                }
+                if (value == 0) {
+                    walks.add(walk.toString());
+                    walk.setLength(0);
+                } else {
+                    if (walk.length() > 0) walk.append(' ');
+                    walk.append(vocabulary[value - 1]);
+                }
+                value = 0;
+                shift = 0;
+            }
+        }
+        return walks;
+    }
+
+    @AfterAll
+    static void cleanUp() {
+        File[] files = WALK_DIRECTORY.listFiles();
+        if (files != null) {
+            for (File file : files) file.delete();
+        }
+        WALK_DIRECTORY.delete();
+    }
+}
@@ -0,0 +1,164 @@
+package de.uni_mannheim.informatik.dws.jrdf2vec.walk_generators.writers;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SocketWalkWriterTest {
+
+    private static final File WALK_DIRECTORY = new File("./socketWalkWriterTest");
+
+    @Test
+    void write() throws Exception {
+        cleanUp();
+        WALK_DIRECTORY.mkdirs();
+        File walkFile = new File(WALK_DIRECTORY, "walk_file.gz");
+
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"))) {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            Future<List<String>> receivedWalks = executor.submit(() -> {
+                List<String> result = new ArrayList<>();
+                try (Socket socket = serverSocket.accept();
+                     BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        result.add(line);
+                    }
+                }
+                // the walk file must be complete once the stream is closed
+                assertEquals(100, readLines(walkFile).size());
+                return result;
+            });
+
+            SocketWalkWriter writer = new SocketWalkWriter(new AsynchronousWalkWriter(walkFile.getPath()), serverSocket.getLocalPort());
+            for (int entity = 0; entity < 10; entity++) {
+                List<String> walks = new ArrayList<>();
+                for (int walk = 0; walk < 10; walk++) {
+                    walks.add("E" + entity + " p W" + walk + " ü");
+                }
+                writer.write(walks);
+            }
+            writer.close();
+            assertEquals(10, writer.getProcessedEntities());
+            assertEquals(100, writer.getProcessedWalks());
+
+            List<String> streamedWalks = receivedWalks.get(30, TimeUnit.SECONDS);
+            executor.shutdown();
+
+            // the trailer announces the number of walks
+            assertEquals(101, streamedWalks.size());
+            assertEquals(SocketWalkWriter.END_OF_STREAM + "100", streamedWalks.remove(100));
+            assertTrue(streamedWalks.contains("E9 p W9 ü"));
+            assertEquals(new HashSet<>(streamedWalks), new HashSet<>(readLines(walkFile)));
+        }
+    }
+
+    @Test
+    void incompleteStream() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"))) {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            Future<List<String>> receivedLines = executor.submit(() -> {
+                List<String> result = new ArrayList<>();
+                try (Socket socket = serverSocket.accept();
+                     BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        result.add(line);
+                    }
+                }
+                return result;
+            });
+
+            DummyWalkWriter fileWriter = new DummyWalkWriter();
+            SocketWalkWriter writer = new SocketWalkWriter(fileWriter, serverSocket.getLocalPort());
+            List<String> walks = new ArrayList<>();
+            walks.add("A p B");
+            writer.write(walks);
+
+            // an interrupted producer hands its walks over to the file writer but not to the stream
+            Thread.currentThread().interrupt();
+            walks = new ArrayList<>();
+            walks.add("B p C");
+            writer.write(walks);
+            assertTrue(Thread.interrupted());
+            writer.close();
+
+            List<String> lines = receivedLines.get(30, TimeUnit.SECONDS);
+            executor.shutdown();
+            assertEquals(2, fileWriter.walks.size());
+            // no trailer
+            assertEquals(1, lines.size());
+            assertEquals("A p B", lines.get(0));
+        }
+    }
+
+    @Test
+    void connectionFailure() throws Exception {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+        assertThrows(IOException.class, () -> new SocketWalkWriter(new DummyWalkWriter(), port));
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static class DummyWalkWriter implements IWalkWriter {
+
+        private final List<String> walks = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void write(List<String> walks) {
+            this.walks.addAll(walks);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean isOk() {
+            return true;
+        }
+
+        @Override
+        public int getProcessedEntities() {
+            return 0;
+        }
+
+        @Override
+        public long getProcessedWalks() {
+            return walks.size();
+        }
+    }
+
+    @AfterAll
+    static void cleanUp() {
+        File[] files = WALK_DIRECTORY.listFiles();
+        if (files != null) {
+            for (File file : files) file.delete();
+        }
+        WALK_DIRECTORY.delete();
+    }
+}